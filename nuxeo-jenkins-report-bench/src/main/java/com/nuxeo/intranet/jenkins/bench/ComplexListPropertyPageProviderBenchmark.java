@@ -0,0 +1,126 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.nuxeo.ecm.core.api.SortInfo;
+import org.nuxeo.ecm.platform.query.ComplexListPropertyPageProvider;
+import org.nuxeo.ecm.platform.query.core.GenericPageProviderDescriptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the display of a page of report jobs, sorted on given columns, as done when the report listing is
+ * rendered: the page provider is refreshed before each page so that the whole list is resolved and sorted again,
+ * except when paging through results.
+ *
+ * @since 3.10.5
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ComplexListPropertyPageProviderBenchmark {
+
+    public static final long PAGE_SIZE = 20;
+
+    @Param({ "1000", "10000", "50000" })
+    public int items;
+
+    /**
+     * Comma separated list of sort columns, descending when prefixed by "-", or "none".
+     */
+    @Param({ "none", "job_id", "type,-build_number", "claimer,job_url" })
+    public String sort;
+
+    protected List<Map<String, Object>> reportItems;
+
+    protected ComplexListPropertyPageProvider provider;
+
+    protected long offset;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        reportItems = JenkinsFixtures.createReportItems(items);
+        provider = new ComplexListPropertyPageProvider();
+        provider.setDefinition(new GenericPageProviderDescriptor());
+        provider.setParameters(new Object[] { reportItems });
+        provider.setPageSize(PAGE_SIZE);
+        provider.setSortInfos(getSortInfos(sort));
+    }
+
+    protected static List<SortInfo> getSortInfos(String sort) {
+        List<SortInfo> res = new ArrayList<SortInfo>();
+        if (!"none".equals(sort)) {
+            for (String column : sort.split(",")) {
+                if (column.startsWith("-")) {
+                    res.add(new SortInfo(column.substring(1), false));
+                } else {
+                    res.add(new SortInfo(column, true));
+                }
+            }
+        }
+        return res;
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> firstPage() {
+        provider.refresh();
+        provider.setCurrentPageOffset(0);
+        return provider.getCurrentPage();
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> lastPage() {
+        provider.refresh();
+        provider.setCurrentPageOffset(items - PAGE_SIZE);
+        return provider.getCurrentPage();
+    }
+
+    /**
+     * Pages through the first hundred pages without refreshing the provider in between.
+     */
+    @Benchmark
+    public List<Map<String, Object>> nextPage() {
+        provider.setCurrentPageOffset(offset);
+        List<Map<String, Object>> res = provider.getCurrentPage();
+        offset += PAGE_SIZE;
+        if (offset >= Math.min(items, 100 * PAGE_SIZE)) {
+            offset = 0;
+        }
+        return res;
+    }
+
+}
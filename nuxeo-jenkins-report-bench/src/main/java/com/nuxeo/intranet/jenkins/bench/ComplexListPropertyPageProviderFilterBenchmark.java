@@ -0,0 +1,130 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.bench;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.nuxeo.ecm.platform.query.ComplexListPropertyPageProvider;
+import org.nuxeo.ecm.platform.query.ComplexListPropertyPageProvider.ItemFilter;
+import org.nuxeo.ecm.platform.query.core.GenericPageProviderDescriptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the display of a page of report jobs filtered by claimer, type or job id prefix, either paging through
+ * results or refreshing the page provider before each page.
+ *
+ * @since 3.10.5
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ComplexListPropertyPageProviderFilterBenchmark {
+
+    public static final long PAGE_SIZE = 20;
+
+    @Param({ "1000", "10000", "50000" })
+    public int items;
+
+    @Param({ "claimer", "claimers_and_type", "job_id_prefix" })
+    public String filter;
+
+    protected FilteredProvider provider;
+
+    protected long offset;
+
+    /**
+     * Provider filtering items with given filters, as built from the predicates of a report listing.
+     */
+    protected static class FilteredProvider extends ComplexListPropertyPageProvider {
+
+        private static final long serialVersionUID = 1L;
+
+        protected final List<ItemFilter> filters;
+
+        protected FilteredProvider(List<ItemFilter> filters) {
+            this.filters = filters;
+        }
+
+        @Override
+        protected List<ItemFilter> getFilters() {
+            return filters;
+        }
+
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        List<Map<String, Object>> reportItems = JenkinsFixtures.createReportItems(items);
+        provider = new FilteredProvider(getFilters(filter));
+        provider.setDefinition(new GenericPageProviderDescriptor());
+        provider.setParameters(new Object[] { reportItems });
+        provider.setPageSize(PAGE_SIZE);
+    }
+
+    protected static List<ItemFilter> getFilters(String filter) {
+        switch (filter) {
+        case "claimer":
+            return Arrays.asList(ItemFilter.create("claimer", "=", "developer4"));
+        case "claimers_and_type":
+            return Arrays.asList(
+                    ItemFilter.create("claimer", "IN", new String[] { "developer0", "developer4", "developer8" }),
+                    ItemFilter.create("type", "=", "FAILURE"));
+        case "job_id_prefix":
+            return Arrays.asList(ItemFilter.create("job_id", "STARTSWITH", "FT-job-0001"));
+        default:
+            throw new IllegalArgumentException("Unknown filter: " + filter);
+        }
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> nextPage() {
+        provider.setCurrentPageOffset(offset);
+        List<Map<String, Object>> res = provider.getCurrentPage();
+        offset += PAGE_SIZE;
+        if (offset >= provider.getResultsCount()) {
+            offset = 0;
+        }
+        return res;
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> refreshedPage() {
+        provider.refresh();
+        provider.setCurrentPageOffset(0);
+        return provider.getCurrentPage();
+    }
+
+}
@@ -0,0 +1,141 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.bench;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.nuxeo.intranet.jenkins.web.JenkinsFetchMode;
+import com.nuxeo.intranet.jenkins.web.JenkinsJsonConverter;
+
+import net.sf.json.JSONObject;
+
+/**
+ * Measures the conversion of json data retrieved from Jenkins and its merge into report data, using the map based
+ * API of {@link JenkinsJsonConverter}, on real data scaled to a given number of jobs and runs.
+ * <p>
+ * Jobs are converted in {@code TREE} mode, as builds and runs are embedded in the scaled data: no request is sent.
+ *
+ * @since 3.10.5
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JenkinsConverterBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class BuildState {
+
+        protected JSONObject jsonBuild;
+
+        @Setup(Level.Trial)
+        public void setup() throws IOException {
+            jsonBuild = JenkinsFixtures.loadJson("build.json");
+        }
+
+    }
+
+    @State(Scope.Benchmark)
+    public static class RunsState {
+
+        @Param({ "9", "90", "900", "9000" })
+        public int runs;
+
+        protected JSONObject jsonBuild;
+
+        @Setup(Level.Trial)
+        public void setup() throws IOException {
+            jsonBuild = JenkinsFixtures.scaleRuns(JenkinsFixtures.loadJson("multiosdb_build.json"), runs);
+        }
+
+    }
+
+    @State(Scope.Benchmark)
+    public static class JobsState {
+
+        @Param({ "1000", "10000" })
+        public int jobs;
+
+        protected JSONObject jsonJobs;
+
+        protected List<Map<String, Serializable>> oldData;
+
+        protected List<Map<String, Serializable>> newData;
+
+        @Setup(Level.Trial)
+        public void setup() throws IOException {
+            jsonJobs = JenkinsFixtures.scaleJobs(JenkinsFixtures.loadJson("tree_jobs.json"), jobs);
+            newData = newConverter().convertJobs(jsonJobs, null, null);
+            // previous report: half of the failing jobs were already failing, with a comment
+            oldData = newConverter().mergeData(null, newData.subList(0, newData.size() / 2));
+            for (int i = 0; i < oldData.size(); i++) {
+                if (i % 3 == 0) {
+                    oldData.get(i).put("comment", "Known issue, see NXP-" + (10000 + i));
+                }
+            }
+        }
+
+    }
+
+    protected static JenkinsJsonConverter newConverter() {
+        JenkinsJsonConverter cv = new JenkinsJsonConverter();
+        cv.setFetchMode(JenkinsFetchMode.TREE);
+        return cv;
+    }
+
+    @Benchmark
+    public Map<String, Serializable> convertBuild(BuildState state) throws IOException {
+        return newConverter().convertBuild(state.jsonBuild);
+    }
+
+    @Benchmark
+    public List<Map<String, Serializable>> convertMultiOSDBJobs(RunsState state) throws IOException {
+        return newConverter().convertMultiOSDBJobs("FT-nuxeo-5.6.0-selenium-dm-tomcat-multiosdb", state.jsonBuild,
+                null);
+    }
+
+    @Benchmark
+    public List<Map<String, Serializable>> convertJobs(JobsState state) throws IOException {
+        return newConverter().convertJobs(state.jsonJobs, state.oldData, null);
+    }
+
+    @Benchmark
+    public List<Map<String, Serializable>> mergeData(JobsState state) {
+        return newConverter().mergeData(state.oldData, state.newData);
+    }
+
+}
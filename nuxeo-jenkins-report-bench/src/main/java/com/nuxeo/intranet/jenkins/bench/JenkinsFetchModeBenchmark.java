@@ -0,0 +1,157 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.bench;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.nuxeo.intranet.jenkins.http.JenkinsFetchPool;
+import com.nuxeo.intranet.jenkins.web.JenkinsFetchMode;
+import com.nuxeo.intranet.jenkins.web.JenkinsJobsRetriever;
+import com.nuxeo.intranet.jenkins.web.JenkinsJsonConverter;
+
+import net.sf.json.JSONObject;
+
+/**
+ * Compares the {@code JOBS} fetch mode, issuing one request per failing job and per run, to the {@code TREE} fetch
+ * mode, issuing a single request, on the same recorded data, answered after a given latency.
+ *
+ * @since 3.10.5
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JenkinsFetchModeBenchmark {
+
+    protected static final String MULTIOSDB_BUILD_PATH = "/FT-nuxeo-5.6.0-selenium-dm-tomcat-multiosdb/"
+            + "lastCompletedBuild/api/json";
+
+    protected static final String NOT_BUILT_PATH = "/template_addon/lastCompletedBuild/api/json";
+
+    /**
+     * Answers requests with recorded data after a fixed latency.
+     */
+    protected static class RecordedRetriever extends JenkinsJobsRetriever {
+
+        private static final long serialVersionUID = 1L;
+
+        protected final FetchState state;
+
+        protected RecordedRetriever(FetchState state) {
+            this.state = state;
+        }
+
+        @Override
+        protected JSONObject retrieveJSONObject(String url) {
+            if (state.latency > 0) {
+                try {
+                    Thread.sleep(state.latency);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return null;
+                }
+            }
+            if (url.equals(state.jobsURL)) {
+                return state.jsonJobs;
+            }
+            if (url.endsWith(NOT_BUILT_PATH)) {
+                return null;
+            }
+            if (url.endsWith(MULTIOSDB_BUILD_PATH)) {
+                return state.jsonMultiOSDBBuild;
+            }
+            return state.jsonBuild;
+        }
+
+    }
+
+    @State(Scope.Benchmark)
+    public static class FetchState {
+
+        @Param({ "JOBS", "TREE" })
+        public String fetchMode;
+
+        /**
+         * Latency of each request, in milliseconds.
+         */
+        @Param({ "0", "10" })
+        public long latency;
+
+        @Param({ "1", "8" })
+        public int threads;
+
+        protected String jobsURL;
+
+        protected JSONObject jsonJobs;
+
+        protected JSONObject jsonBuild;
+
+        protected JSONObject jsonMultiOSDBBuild;
+
+        protected JenkinsFetchPool fetchPool;
+
+        @Setup(Level.Trial)
+        public void setup() throws IOException {
+            JenkinsFetchMode mode = JenkinsFetchMode.fromString(fetchMode);
+            jobsURL = JenkinsJobsRetriever.getJobsURL(JenkinsFixtures.JENKINS_URL, mode);
+            jsonJobs = JenkinsFixtures.loadJson(JenkinsFetchMode.TREE == mode ? "tree_jobs.json" : "jobs.json");
+            jsonBuild = JenkinsFixtures.loadJson("build.json");
+            jsonMultiOSDBBuild = JenkinsFixtures.loadJson("multiosdb_build.json");
+            fetchPool = threads > 1 ? new JenkinsFetchPool(threads, threads) : null;
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            if (fetchPool != null) {
+                fetchPool.shutdown();
+            }
+        }
+
+    }
+
+    @Benchmark
+    public List<Map<String, Serializable>> convertJobs(FetchState state) throws IOException {
+        RecordedRetriever retriever = new RecordedRetriever(state);
+        JenkinsJsonConverter cv = new JenkinsJsonConverter();
+        cv.setFetchMode(JenkinsFetchMode.fromString(state.fetchMode));
+        cv.setFetchPool(state.fetchPool);
+        // both modes need one request to retrieve the list of jobs
+        return cv.convertJobs(retriever.retrieveJSONObject(state.jobsURL), null, retriever);
+    }
+
+}
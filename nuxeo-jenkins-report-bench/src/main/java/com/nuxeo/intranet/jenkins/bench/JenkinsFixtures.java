@@ -0,0 +1,305 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.bench;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.nuxeo.intranet.jenkins.web.JenkinsJsonFilter;
+
+import net.sf.json.JSONArray;
+import net.sf.json.JSONObject;
+
+/**
+ * Generates synthetic Jenkins json data and report data, scaled to a given number of jobs.
+ * <p>
+ * Jobs are failing or successful depending on a generation number, so that a report computed at generation
+ * {@code n} holds some jobs fixed at generation {@code n + 1} as well as jobs still failing, and misses jobs newly
+ * failing. One job out of {@link #MULTIOSDB_RATIO} is a multiosdb job with {@link #RUNS} runs.
+ * <p>
+ * Real data retrieved from Jenkins, as held by the test resources of the web module, can also be loaded and scaled
+ * to any number of jobs or runs, see {@link #scaleJobs(JSONObject, int)} and {@link #scaleRuns(JSONObject, int)}.
+ *
+ * @since 3.10.5
+ */
+public class JenkinsFixtures {
+
+    public static final String JENKINS_URL = "https://qa.example.com/jenkins/";
+
+    public static final int MULTIOSDB_RATIO = 50;
+
+    public static final int RUNS = 4;
+
+    private JenkinsFixtures() {
+        // utility class
+    }
+
+    public static String getJobId(int index) {
+        return String.format("FT-job-%06d", index);
+    }
+
+    public static String getJobUrl(int index) {
+        return JENKINS_URL + "job/" + getJobId(index) + "/";
+    }
+
+    public static boolean isMultiOSDB(int index) {
+        return index % MULTIOSDB_RATIO == 0;
+    }
+
+    public static String getRunId(int run) {
+        return "label=db" + run;
+    }
+
+    /**
+     * Returns true if the job at given index is failing at given generation: two jobs out of five are failing, half of
+     * them still failing at next generation.
+     */
+    public static boolean isFailing(int index, int generation) {
+        return (index + generation) % 5 < 2;
+    }
+
+    /**
+     * Returns the jobs list as returned by Jenkins in {@code TREE} mode, each job embedding its last completed build.
+     */
+    public static JSONObject createJobs(int jobs, int generation) {
+        JSONArray jsonJobs = new JSONArray();
+        for (int i = 0; i < jobs; i++) {
+            boolean failing = isFailing(i, generation);
+            JSONObject jsonJob = new JSONObject();
+            jsonJob.put("name", getJobId(i));
+            jsonJob.put("url", getJobUrl(i));
+            jsonJob.put("color", failing ? (i % 2 == 0 ? "red" : "yellow") : "blue");
+            jsonJob.put("lastCompletedBuild", createBuild(i, generation));
+            jsonJobs.add(jsonJob);
+        }
+        JSONObject res = new JSONObject();
+        res.put("jobs", jsonJobs);
+        return res;
+    }
+
+    /**
+     * Returns the last completed build of the job at given index, holding its runs for multiosdb jobs.
+     */
+    public static JSONObject createBuild(int index, int generation) {
+        String url = getJobUrl(index);
+        int number = getBuildNumber(index, generation);
+        JSONObject build = createBuild(url, number, getResult(index, generation), index);
+        if (isMultiOSDB(index)) {
+            JSONArray runs = new JSONArray();
+            for (int run = 0; run < RUNS; run++) {
+                // only the first run fails
+                String result = run == 0 ? getResult(index, generation) : "SUCCESS";
+                runs.add(createBuild(url + getRunId(run) + "/", number, result, index + run));
+            }
+            build.put("runs", runs);
+        }
+        return build;
+    }
+
+    protected static JSONObject createBuild(String jobUrl, int number, String result, int seed) {
+        JSONObject build = new JSONObject();
+        build.put("number", number);
+        build.put("result", result);
+        build.put("url", jobUrl + number + "/");
+        JSONArray culprits = new JSONArray();
+        for (int i = 0; i < seed % 3; i++) {
+            JSONObject culprit = new JSONObject();
+            culprit.put("fullName", "developer" + ((seed + i) % 20));
+            culprits.add(culprit);
+        }
+        build.put("culprits", culprits);
+        JSONArray actions = new JSONArray();
+        if (seed % 4 == 0) {
+            JSONObject claim = new JSONObject();
+            claim.put("claimed", Boolean.TRUE);
+            claim.put("claimedBy", "developer" + (seed % 20));
+            claim.put("reason", "Investigating NXP-" + (10000 + seed));
+            actions.add(claim);
+        }
+        build.put("actions", actions);
+        if (seed % 7 == 0) {
+            build.put("description", "See NXBT-" + (1000 + seed));
+        }
+        return build;
+    }
+
+    protected static int getBuildNumber(int index, int generation) {
+        return 100 + index % 13 + generation;
+    }
+
+    protected static String getResult(int index, int generation) {
+        if (!isFailing(index, generation)) {
+            return "SUCCESS";
+        }
+        return index % 2 == 0 ? "FAILURE" : "UNSTABLE";
+    }
+
+    /**
+     * Returns the report data holding jobs failing at given generation, as stored on a report document.
+     */
+    public static List<Map<String, Serializable>> createReport(int jobs, int generation) {
+        List<Map<String, Serializable>> res = new ArrayList<Map<String, Serializable>>();
+        for (int i = 0; i < jobs; i++) {
+            if (!isFailing(i, generation)) {
+                continue;
+            }
+            if (isMultiOSDB(i)) {
+                res.add(createReportJob(getJobId(i) + "#" + getRunId(0), getJobUrl(i) + getRunId(0) + "/", i,
+                        generation));
+            } else {
+                res.add(createReportJob(getJobId(i), getJobUrl(i), i, generation));
+            }
+        }
+        return res;
+    }
+
+    protected static Map<String, Serializable> createReportJob(String id, String url, int index, int generation) {
+        Map<String, Serializable> job = new HashMap<String, Serializable>();
+        job.put("job_id", id);
+        job.put("job_url", url);
+        job.put("build_number", String.valueOf(getBuildNumber(index, generation)));
+        job.put("type", getResult(index, generation));
+        job.put("claimer", index % 4 == 0 ? "developer" + (index % 20) : null);
+        job.put("comment", index % 3 == 0 ? "Known issue, see NXP-" + (10000 + index) : null);
+        ArrayList<String> culprits = new ArrayList<String>();
+        for (int i = 0; i < index % 3; i++) {
+            culprits.add("developer" + ((index + i) % 20));
+        }
+        job.put("culprits", culprits);
+        return job;
+    }
+
+    /**
+     * Loads the json resource at given path from the classpath, as filtered when retrieved from Jenkins.
+     */
+    public static JSONObject loadJson(String path) throws IOException {
+        try (InputStream in = JenkinsFixtures.class.getClassLoader().getResourceAsStream(path)) {
+            if (in == null) {
+                throw new IOException("Missing fixture: " + path);
+            }
+            return JenkinsJsonFilter.parse(in);
+        }
+    }
+
+    /**
+     * Returns a jobs list holding given number of jobs, copying the jobs of given list as many times as needed.
+     * <p>
+     * Copies are renamed so that each job has its own id and url, and keep the builds of the original job.
+     */
+    public static JSONObject scaleJobs(JSONObject jsonJobs, int jobs) {
+        JSONArray templates = jsonJobs.getJSONArray("jobs");
+        JSONArray res = new JSONArray();
+        for (int i = 0; i < jobs; i++) {
+            JSONObject template = templates.getJSONObject(i % templates.size());
+            int copy = i / templates.size();
+            if (copy == 0) {
+                res.add(template);
+                continue;
+            }
+            String name = template.getString("name");
+            String newName = name + "-" + copy;
+            JSONObject job = JSONObject.fromObject(rename(template, "/job/" + name + "/", "/job/" + newName + "/"));
+            job.put("name", newName);
+            res.add(job);
+        }
+        JSONObject scaled = new JSONObject();
+        scaled.put("jobs", res);
+        return scaled;
+    }
+
+    /**
+     * Returns a copy of given multiosdb build holding given number of runs, copying the runs of given build as many
+     * times as needed.
+     * <p>
+     * Copies get an additional axis so that each run has its own id and url, and keep the result of the original run.
+     */
+    public static JSONObject scaleRuns(JSONObject jsonBuild, int runs) {
+        JSONArray templates = jsonBuild.getJSONArray("runs");
+        String parentUrl = jsonBuild.getString("url");
+        parentUrl = parentUrl.substring(0, parentUrl.lastIndexOf('/', parentUrl.length() - 2) + 1);
+        JSONArray res = new JSONArray();
+        for (int i = 0; i < runs; i++) {
+            JSONObject template = templates.getJSONObject(i % templates.size());
+            int copy = i / templates.size();
+            if (copy == 0) {
+                res.add(template);
+                continue;
+            }
+            String runUrl = template.getString("url");
+            String axis = runUrl.substring(parentUrl.length(), runUrl.indexOf('/', parentUrl.length()));
+            res.add(JSONObject.fromObject(
+                    rename(template, parentUrl + axis + "/", parentUrl + axis + ",shard=" + copy + "/")));
+        }
+        JSONObject scaled = JSONObject.fromObject(jsonBuild);
+        scaled.put("runs", res);
+        return scaled;
+    }
+
+    protected static String rename(JSONObject json, String oldPrefix, String newPrefix) {
+        return json.toString().replace(oldPrefix, newPrefix);
+    }
+
+    /**
+     * Returns report items as held by the list property of a report document, one per job, for the page provider.
+     */
+    public static List<Map<String, Object>> createReportItems(int jobs) {
+        List<Map<String, Object>> res = new ArrayList<Map<String, Object>>();
+        for (int i = 0; i < jobs; i++) {
+            res.add(new HashMap<String, Object>(createReportJob(getJobId(i), getJobUrl(i), i, 0)));
+        }
+        return res;
+    }
+
+    /**
+     * Returns job comments as typed by users, some of them multi-line or holding characters to escape, referencing
+     * JIRA issues of the given projects or not.
+     */
+    public static List<String> createComments(int comments, String[] jiraProjects) {
+        List<String> res = new ArrayList<String>();
+        for (int i = 0; i < comments; i++) {
+            StringBuilder comment = new StringBuilder();
+            comment.append("Failing since build ").append(100 + i % 13);
+            switch (i % 4) {
+            case 0:
+                comment.append(", no issue yet: expected:<").append(i % 7).append("> but was:<0>");
+                break;
+            case 1:
+                comment.append(", see ").append(jiraProjects[i % jiraProjects.length]).append('-').append(
+                        10000 + i);
+                break;
+            case 2:
+                comment.append("\nRandom failure, see ").append(jiraProjects[i % jiraProjects.length].toLowerCase());
+                comment.append('-').append(10000 + i).append(" and ");
+                comment.append(jiraProjects[(i + 1) % jiraProjects.length]).append('-').append(i);
+                break;
+            default:
+                comment.append("\nClaimed by developer").append(i % 20).append(", waiting for FOO-").append(i);
+                comment.append("\nReproduced locally with the mysql profile");
+            }
+            res.add(comment.toString());
+        }
+        return res;
+    }
+
+}
@@ -0,0 +1,116 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.bench;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.nuxeo.intranet.jenkins.web.JenkinsFetchMode;
+import com.nuxeo.intranet.jenkins.web.JenkinsJob;
+import com.nuxeo.intranet.jenkins.web.JenkinsJsonConverter;
+
+import net.sf.json.JSONObject;
+
+/**
+ * Compares the conversion and merge of jobs held as typed {@link JenkinsJob} records with the same operations on
+ * complex property items, converted to records and back.
+ * <p>
+ * Allocations are reported when running with the GC profiler: {@code java -jar benchmarks.jar JenkinsJobModel -prof
+ * gc}, see the {@code gc.alloc.rate.norm} metric, in bytes per operation.
+ *
+ * @since 3.10.5
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JenkinsJobModelBenchmark {
+
+    @Param({ "1000", "10000" })
+    public int jobs;
+
+    protected JSONObject jsonJobs;
+
+    protected List<JenkinsJob> report;
+
+    protected List<JenkinsJob> converted;
+
+    protected List<Map<String, Serializable>> reportItems;
+
+    protected List<Map<String, Serializable>> convertedItems;
+
+    @Setup(Level.Trial)
+    public void setupTrial() throws IOException {
+        jsonJobs = JenkinsFixtures.createJobs(jobs, 1);
+        report = JenkinsJob.fromMaps(JenkinsFixtures.createReport(jobs, 0));
+        converted = newConverter().convert(jsonJobs, report, null);
+    }
+
+    @Setup(Level.Invocation)
+    public void setupInvocation() {
+        // records are immutable, only items need to be copied
+        reportItems = JenkinsJob.toMaps(report);
+        convertedItems = JenkinsJob.toMaps(converted);
+    }
+
+    protected JenkinsJsonConverter newConverter() {
+        JenkinsJsonConverter cv = new JenkinsJsonConverter();
+        cv.setFetchMode(JenkinsFetchMode.TREE);
+        return cv;
+    }
+
+    @Benchmark
+    public List<JenkinsJob> convertJobs() throws IOException {
+        return newConverter().convert(jsonJobs, report, null);
+    }
+
+    @Benchmark
+    public List<Map<String, Serializable>> convertItems() throws IOException {
+        return newConverter().convertJobs(jsonJobs, reportItems, null);
+    }
+
+    @Benchmark
+    public List<JenkinsJob> mergeJobs() {
+        return newConverter().merge(report, converted);
+    }
+
+    @Benchmark
+    public List<Map<String, Serializable>> mergeItems() {
+        return newConverter().mergeData(reportItems, convertedItems);
+    }
+
+}
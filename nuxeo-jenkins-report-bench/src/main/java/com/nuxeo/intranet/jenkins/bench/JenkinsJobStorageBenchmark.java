@@ -0,0 +1,123 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.bench;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.nuxeo.intranet.jenkins.web.JenkinsJob;
+import com.nuxeo.intranet.jenkins.web.JenkinsJobStorage;
+
+/**
+ * Compares loading and saving the jobs of a report stored as complex list property items with the same operations on
+ * jobs stored as a compressed blob, see {@link JenkinsJobStorage}.
+ * <p>
+ * No repository is involved: the complex property mode copies items as done when reading or setting the property
+ * value, and the blob mode encodes or decodes the blob content. The first page of a listing only parses the items it
+ * displays in blob mode, see {@link #loadBlobPage()}.
+ *
+ * @since 3.10.5
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JenkinsJobStorageBenchmark {
+
+    protected static final int PAGE_SIZE = 20;
+
+    @Param({ "1000", "10000" })
+    public int jobs;
+
+    protected List<JenkinsJob> report;
+
+    protected List<Map<String, Serializable>> items;
+
+    protected byte[] blob;
+
+    @Setup(Level.Trial)
+    public void setupTrial() throws IOException {
+        // only failing jobs are reported: two out of five
+        items = JenkinsFixtures.createReport(jobs, 0);
+        report = JenkinsJob.fromMaps(items);
+        blob = JenkinsJobStorage.encode(report);
+    }
+
+    @Benchmark
+    public List<Map<String, Serializable>> saveItems() {
+        List<Map<String, Serializable>> res = JenkinsJob.toMaps(report);
+        for (int i = 0; i < res.size(); i++) {
+            // copied by the property
+            res.set(i, new HashMap<String, Serializable>(res.get(i)));
+        }
+        return res;
+    }
+
+    @Benchmark
+    public byte[] saveBlob() throws IOException {
+        return JenkinsJobStorage.encode(report);
+    }
+
+    @Benchmark
+    public List<JenkinsJob> loadItems() {
+        List<Map<String, Serializable>> res = new ArrayList<Map<String, Serializable>>(items.size());
+        for (Map<String, Serializable> item : items) {
+            // copied by the property
+            res.add(new HashMap<String, Serializable>(item));
+        }
+        return JenkinsJob.fromMaps(res);
+    }
+
+    @Benchmark
+    public List<JenkinsJob> loadBlob() throws IOException {
+        return JenkinsJob.fromMaps(JenkinsJobStorage.decode(new ByteArrayInputStream(blob)));
+    }
+
+    @Benchmark
+    public Object loadBlobPage() throws IOException {
+        List<Map<String, Serializable>> res = JenkinsJobStorage.decode(new ByteArrayInputStream(blob));
+        Object last = null;
+        for (int i = 0; i < PAGE_SIZE && i < res.size(); i++) {
+            last = res.get(i);
+        }
+        return last;
+    }
+
+}
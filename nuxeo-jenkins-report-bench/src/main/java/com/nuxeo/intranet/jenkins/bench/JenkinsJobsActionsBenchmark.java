@@ -0,0 +1,85 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.nuxeo.intranet.jenkins.web.JenkinsJobsActions;
+
+/**
+ * Measures the rendering of the comments of a report, as done for each job displayed in the report listing: the
+ * listing of a 1000 jobs report renders 1000 comments.
+ *
+ * @since 3.10.5
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JenkinsJobsActionsBenchmark {
+
+    public static final String JIRA_URL = "https://jira.example.com/browse/";
+
+    public static final String[] JIRA_PROJECTS = { "NXP", "NXBT", "NXDOC", "NXS" };
+
+    @Param({ "100", "1000" })
+    public int comments;
+
+    protected List<String> jobComments;
+
+    protected JenkinsJobsActions actions;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        jobComments = JenkinsFixtures.createComments(comments, JIRA_PROJECTS);
+        actions = new JenkinsJobsActions();
+    }
+
+    @Benchmark
+    public void getConvertedJobComment(Blackhole bh) {
+        for (String comment : jobComments) {
+            bh.consume(actions.getConvertedJobComment(comment, JIRA_URL, JIRA_PROJECTS));
+        }
+    }
+
+    @Benchmark
+    public void getConvertedJobCommentWithoutJira(Blackhole bh) {
+        for (String comment : jobComments) {
+            bh.consume(actions.getConvertedJobComment(comment, null, null));
+        }
+    }
+
+}
@@ -0,0 +1,96 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.bench;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.nuxeo.intranet.jenkins.web.JenkinsFetchMode;
+import com.nuxeo.intranet.jenkins.web.JenkinsJob;
+import com.nuxeo.intranet.jenkins.web.JenkinsJsonConverter;
+
+import net.sf.json.JSONObject;
+
+/**
+ * Measures the reconciliation of a report with the jobs list: builds are embedded in the jobs list so that no request
+ * is sent, and the time per job should stay constant whatever the number of jobs.
+ *
+ * @since 3.10.5
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JenkinsReconciliationBenchmark {
+
+    @Param({ "1000", "5000", "10000", "50000" })
+    public int jobs;
+
+    protected JSONObject jsonJobs;
+
+    protected List<JenkinsJob> report;
+
+    protected List<JenkinsJob> converted;
+
+    @Setup(Level.Trial)
+    public void setupTrial() throws IOException {
+        jsonJobs = JenkinsFixtures.createJobs(jobs, 1);
+        report = JenkinsJob.fromMaps(JenkinsFixtures.createReport(jobs, 0));
+        converted = newConverter().convert(jsonJobs, report, null);
+    }
+
+    protected JenkinsJsonConverter newConverter() {
+        JenkinsJsonConverter cv = new JenkinsJsonConverter();
+        cv.setFetchMode(JenkinsFetchMode.TREE);
+        return cv;
+    }
+
+    @Benchmark
+    public List<JenkinsJob> convertJobs() throws IOException {
+        return newConverter().convert(jsonJobs, report, null);
+    }
+
+    @Benchmark
+    public List<JenkinsJob> mergeJobs() {
+        return newConverter().merge(report, converted);
+    }
+
+    @Benchmark
+    public List<JenkinsJob> convertAndMerge() throws IOException {
+        JenkinsJsonConverter cv = newConverter();
+        return cv.merge(report, cv.convert(jsonJobs, report, null));
+    }
+
+}
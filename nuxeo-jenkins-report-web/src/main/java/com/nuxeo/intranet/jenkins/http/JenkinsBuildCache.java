@@ -0,0 +1,114 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.http;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.nuxeo.runtime.kv.KeyValueStore;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.nuxeo.intranet.jenkins.web.JenkinsJob;
+import com.nuxeo.intranet.jenkins.web.JenkinsJobStorage;
+
+/**
+ * Cache of converted Jenkins builds, stored in a {@link KeyValueStore} so that it survives restarts and is shared by
+ * nodes of a cluster.
+ * <p>
+ * Entries are keyed by job url and build number: a completed build does not change anymore, except for its claim,
+ * that callers should take from the jobs list.
+ *
+ * @since 3.10.5
+ */
+public class JenkinsBuildCache {
+
+    private static final Log log = LogFactory.getLog(JenkinsBuildCache.class);
+
+    protected static final String PREFIX = "jenkinsReport:build:";
+
+    protected static final JsonFactory factory = new JsonFactory();
+
+    protected final KeyValueStore store;
+
+    protected final long ttl;
+
+    /**
+     * @param store the store shared by nodes
+     * @param ttl the time to live of entries, in seconds
+     */
+    public JenkinsBuildCache(KeyValueStore store, long ttl) {
+        this.store = store;
+        this.ttl = ttl;
+    }
+
+    /**
+     * Returns the job converted from given completed build, or null if not cached.
+     */
+    @SuppressWarnings("unchecked")
+    public JenkinsJob get(String jobURL, int buildNumber) {
+        if (jobURL == null || buildNumber < 1) {
+            return null;
+        }
+        String key = getKey(jobURL, buildNumber);
+        try {
+            byte[] bytes = store.get(key);
+            if (bytes == null) {
+                return null;
+            }
+            try (JsonParser parser = factory.createParser(bytes)) {
+                parser.nextToken();
+                return JenkinsJob.fromMap((Map<String, Serializable>) JenkinsJobStorage.readValue(parser));
+            }
+        } catch (IOException | RuntimeException e) {
+            // retrieved from Jenkins instead
+            log.warn("Cannot read cached build " + key, e);
+            return null;
+        }
+    }
+
+    /**
+     * Caches given job, converted from a completed build.
+     */
+    public void put(JenkinsJob job) {
+        if (job.getUrl() == null || job.getBuildNumber() < 1) {
+            return;
+        }
+        String key = getKey(job.getUrl(), job.getBuildNumber());
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (JsonGenerator generator = factory.createGenerator(bytes)) {
+                JenkinsJobStorage.writeValue(generator, job.toMap());
+            }
+            store.put(key, bytes.toByteArray(), ttl);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Cannot cache build " + key, e);
+        }
+    }
+
+    protected String getKey(String jobURL, int buildNumber) {
+        return PREFIX + jobURL.trim() + "#" + buildNumber;
+    }
+
+}
@@ -0,0 +1,268 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.http;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.nuxeo.runtime.kv.KeyValueStore;
+
+/**
+ * Coordinates the nodes of a cluster refreshing reports, using leases stored in a shared {@link KeyValueStore}.
+ * <p>
+ * A lease is held by a single node at a time: it is renewed while held, and expires after the lease time to live when
+ * its node stops, so that another node can take over. Only the node holding the lease of a Jenkins url crawls it,
+ * other nodes wait for the resulting snapshot, shared in the store, see {@link #getSnapshot}.
+ *
+ * @since 3.10.5
+ */
+public class JenkinsClusterCoordinator {
+
+    private static final Log log = LogFactory.getLog(JenkinsClusterCoordinator.class);
+
+    protected static final String LEASE_PREFIX = "jenkinsReport:lease:";
+
+    protected static final String SNAPSHOT_PREFIX = "jenkinsReport:snapshot:";
+
+    protected final KeyValueStore store;
+
+    protected final String nodeId;
+
+    protected final long leaseTTL;
+
+    protected final long snapshotTTL;
+
+    protected final long waitTimeout;
+
+    protected final long pollInterval;
+
+    protected final Set<Lease> leases = ConcurrentHashMap.newKeySet();
+
+    protected final ScheduledExecutorService renewer;
+
+    /**
+     * @param store the store shared by nodes
+     * @param nodeId the id of this node
+     * @param leaseTTL the time to live of leases, in seconds
+     * @param snapshotTTL the time during which a snapshot is shared, in seconds, snapshots are not shared if lower than
+     *            1
+     * @param waitTimeout the maximum time to wait for another node, in milliseconds
+     * @param pollInterval the time between checks of another node progress, in milliseconds
+     */
+    public JenkinsClusterCoordinator(KeyValueStore store, String nodeId, long leaseTTL, long snapshotTTL,
+            long waitTimeout, long pollInterval) {
+        this.store = store;
+        this.nodeId = nodeId;
+        this.leaseTTL = Math.max(1, leaseTTL);
+        this.snapshotTTL = snapshotTTL;
+        this.waitTimeout = waitTimeout;
+        this.pollInterval = pollInterval;
+        renewer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "jenkins-lease-renewer-" + nodeId);
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, TimeUnit.SECONDS.toMillis(this.leaseTTL) / 3);
+        renewer.scheduleAtFixedRate(this::renewLeases, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Acquires the lease with given key, unless held by another node or by this node already.
+     *
+     * @return the lease, to release when done, or null if already held
+     */
+    public Lease acquire(String key) {
+        Lease lease = new Lease(LEASE_PREFIX + key, nodeId + ":" + UUID.randomUUID());
+        if (!store.compareAndSet(lease.key, null, lease.value, leaseTTL)) {
+            return null;
+        }
+        leases.add(lease);
+        return lease;
+    }
+
+    /**
+     * Acquires the lease with given key, waiting for its holder to release it, or for the lease to expire, at most the
+     * wait timeout.
+     *
+     * @return the lease, to release when done, or null if still held after the wait timeout
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public Lease acquireWaiting(String key) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + waitTimeout;
+        while (true) {
+            Lease lease = acquire(key);
+            if (lease != null || System.currentTimeMillis() >= deadline) {
+                return lease;
+            }
+            Thread.sleep(pollInterval);
+        }
+    }
+
+    /**
+     * Returns the id of the node holding the lease with given key, or null if not held.
+     */
+    public String getOwner(String key) {
+        String value = store.getString(LEASE_PREFIX + key);
+        return value == null ? null : value.substring(0, value.lastIndexOf(':'));
+    }
+
+    protected void renewLeases() {
+        for (Lease lease : leases) {
+            try {
+                if (!lease.renew()) {
+                    log.warn(String.format("Lease %s lost, expired before being renewed", lease.key));
+                    leases.remove(lease);
+                }
+            } catch (RuntimeException e) {
+                // retried on next run
+                log.error("Cannot renew lease " + lease.key, e);
+            }
+        }
+    }
+
+    /**
+     * Returns the snapshot of given jobs list url shared by another node if any, or loads it with given loader and
+     * shares it if no other node is loading it. Otherwise waits for the other node to share it, or to stop loading
+     * it, in which case this node takes over.
+     */
+    public JenkinsSnapshot getSnapshot(String jobsURL, JenkinsSnapshotCache.Loader loader) throws IOException {
+        long deadline = System.currentTimeMillis() + waitTimeout;
+        String key = SNAPSHOT_PREFIX + jobsURL;
+        while (true) {
+            JenkinsSnapshot shared = readSnapshot(key);
+            if (shared != null) {
+                return shared;
+            }
+            Lease lease = acquire("crawl:" + jobsURL);
+            if (lease != null) {
+                try {
+                    // might have been shared since first check
+                    shared = readSnapshot(key);
+                    if (shared != null) {
+                        return shared;
+                    }
+                    JenkinsSnapshot snapshot = loader.load();
+                    if (snapshot.getListing() != null) {
+                        writeSnapshot(key, snapshot);
+                    }
+                    return snapshot;
+                } finally {
+                    lease.release();
+                }
+            }
+            if (System.currentTimeMillis() >= deadline) {
+                log.warn(String.format("Node %s still crawling %s after %s ms, crawling it too",
+                        getOwner("crawl:" + jobsURL), jobsURL, Long.valueOf(waitTimeout)));
+                return loader.load();
+            }
+            try {
+                Thread.sleep(pollInterval);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                InterruptedIOException ie = new InterruptedIOException("Interrupted while waiting for " + jobsURL);
+                ie.initCause(e);
+                throw ie;
+            }
+        }
+    }
+
+    protected JenkinsSnapshot readSnapshot(String key) {
+        if (snapshotTTL < 1) {
+            return null;
+        }
+        byte[] bytes = store.get(key);
+        if (bytes == null) {
+            return null;
+        }
+        try {
+            JenkinsSnapshot snapshot = JenkinsSnapshot.fromBytes(bytes);
+            if (System.currentTimeMillis() - snapshot.getCreated() >= TimeUnit.SECONDS.toMillis(snapshotTTL)) {
+                return null;
+            }
+            return snapshot;
+        } catch (IOException | RuntimeException e) {
+            log.error("Cannot read shared snapshot " + key, e);
+            return null;
+        }
+    }
+
+    protected void writeSnapshot(String key, JenkinsSnapshot snapshot) {
+        if (snapshotTTL < 1) {
+            return;
+        }
+        try {
+            store.put(key, snapshot.toBytes(), snapshotTTL);
+        } catch (IOException | RuntimeException e) {
+            // other nodes will crawl too
+            log.error("Cannot share snapshot " + key, e);
+        }
+    }
+
+    /**
+     * Stops renewing leases, held leases expire.
+     */
+    public void close() {
+        renewer.shutdownNow();
+        leases.clear();
+    }
+
+    /**
+     * Lease held by this node.
+     */
+    public class Lease {
+
+        protected final String key;
+
+        protected final String value;
+
+        protected Lease(String key, String value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        /**
+         * Extends this lease, returns false if not held anymore.
+         */
+        public boolean renew() {
+            return store.compareAndSet(key, value, value, leaseTTL);
+        }
+
+        /**
+         * Releases this lease if still held.
+         */
+        public void release() {
+            leases.remove(this);
+            store.compareAndSet(key, value, null);
+        }
+
+    }
+
+}
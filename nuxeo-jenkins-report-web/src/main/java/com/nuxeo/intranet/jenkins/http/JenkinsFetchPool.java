@@ -0,0 +1,213 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.http;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import net.sf.json.JSONObject;
+
+/**
+ * Bounded pool issuing Jenkins json requests in parallel.
+ * <p>
+ * Tasks submitted to this pool are leaf requests only: they never wait on other tasks, so the pool cannot starve
+ * itself. The number of requests in flight against a given Jenkins host is additionally bounded, whatever the number
+ * of concurrent refreshes: requests exceeding this limit wait in a queue of their host, and are only handed to the
+ * pool once a request to the same host completes, so that a slow host never holds threads that other hosts could use.
+ *
+ * @since 3.10.5
+ */
+public class JenkinsFetchPool {
+
+    private static final Log log = LogFactory.getLog(JenkinsFetchPool.class);
+
+    protected final ExecutorService executor;
+
+    protected final int maxPerHost;
+
+    protected final ConcurrentMap<String, HostQueue> hostQueues = new ConcurrentHashMap<>();
+
+    /**
+     * Requests to a given host, handed to the pool while less than the maximum number of requests per host are
+     * running.
+     */
+    protected class HostQueue {
+
+        protected final Queue<Runnable> pending = new ArrayDeque<>();
+
+        protected int running;
+
+        protected synchronized void submit(Runnable task) {
+            pending.add(task);
+            dispatch();
+        }
+
+        protected synchronized void dispatch() {
+            while (running < maxPerHost && !pending.isEmpty()) {
+                Runnable task = pending.poll();
+                running++;
+                try {
+                    executor.execute(() -> {
+                        try {
+                            task.run();
+                        } finally {
+                            done();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    running--;
+                    throw e;
+                }
+            }
+        }
+
+        protected synchronized void done() {
+            running--;
+            dispatch();
+        }
+
+    }
+
+    public JenkinsFetchPool(int maxThreads, int maxPerHost) {
+        this.maxPerHost = Math.max(1, maxPerHost);
+        int threads = Math.max(1, maxThreads);
+        AtomicInteger count = new AtomicInteger();
+        ThreadFactory factory = r -> {
+            Thread thread = new Thread(r, "jenkins-report-fetch-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), factory);
+        pool.allowCoreThreadTimeOut(true);
+        executor = pool;
+    }
+
+    /**
+     * Retrieves the json data for all given urls in parallel, and returns them in the same order.
+     * <p>
+     * Null urls are not fetched and give a null result, as well as urls for which the retriever returns null.
+     */
+    public List<JSONObject> fetchAll(List<String> urls, Function<String, JSONObject> retriever) throws IOException {
+        return fetchAll(urls, retriever, 0, null);
+    }
+
+    /**
+     * Retrieves the json data for all given urls in parallel, and returns them in the same order, waiting at most for
+     * given timeout, in milliseconds.
+     * <p>
+     * Requests still pending after the timeout are cancelled: their result is null, and their url is passed to given
+     * timeout callback, if any. No timeout is applied if timeout is lower than 1.
+     */
+    public List<JSONObject> fetchAll(List<String> urls, Function<String, JSONObject> retriever, long timeout,
+            Consumer<String> onTimeout) throws IOException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        List<Future<JSONObject>> futures = new ArrayList<>(urls.size());
+        for (String url : urls) {
+            if (url == null) {
+                futures.add(null);
+            } else {
+                FutureTask<JSONObject> task = new FutureTask<>(() -> retriever.apply(url));
+                hostQueues.computeIfAbsent(getHost(url), k -> new HostQueue()).submit(task);
+                futures.add(task);
+            }
+        }
+        List<JSONObject> res = new ArrayList<>(urls.size());
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                Future<JSONObject> future = futures.get(i);
+                if (future == null) {
+                    res.add(null);
+                } else if (timeout < 1) {
+                    res.add(future.get());
+                } else {
+                    try {
+                        res.add(future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+                    } catch (TimeoutException e) {
+                        future.cancel(true);
+                        res.add(null);
+                        log.warn("Timeout while retrieving " + urls.get(i));
+                        if (onTimeout != null) {
+                            onTimeout.accept(urls.get(i));
+                        }
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancel(futures);
+            throw new IOException("Interrupted while retrieving jobs from Jenkins", e);
+        } catch (ExecutionException e) {
+            cancel(futures);
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+        return res;
+    }
+
+    protected void cancel(List<Future<JSONObject>> futures) {
+        for (Future<JSONObject> future : futures) {
+            if (future != null) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    protected String getHost(String url) {
+        try {
+            String host = URI.create(url.trim()).getHost();
+            if (host != null) {
+                return host.toLowerCase();
+            }
+        } catch (IllegalArgumentException e) {
+            // handled below
+        }
+        return "";
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+}
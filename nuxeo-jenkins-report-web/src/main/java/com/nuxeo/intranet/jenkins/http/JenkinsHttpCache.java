@@ -0,0 +1,121 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.http;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.commons.lang.StringUtils;
+
+import net.sf.json.JSONObject;
+
+/**
+ * Cache of json data retrieved from Jenkins, keyed by url, keeping the HTTP validators of each response so that
+ * following requests can be conditional.
+ * <p>
+ * The least recently used entries are evicted when the maximum number of entries is reached.
+ *
+ * @since 3.10.5
+ */
+public class JenkinsHttpCache {
+
+    /**
+     * Cached response.
+     */
+    public static class Entry {
+
+        protected final String etag;
+
+        protected final String lastModified;
+
+        protected final JSONObject json;
+
+        public Entry(String etag, String lastModified, JSONObject json) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.json = json;
+        }
+
+        /**
+         * Returns the value of the ETag header of the cached response, to be sent as If-None-Match header.
+         */
+        public String getEtag() {
+            return etag;
+        }
+
+        /**
+         * Returns the value of the Last-Modified header of the cached response, to be sent as If-Modified-Since
+         * header.
+         */
+        public String getLastModified() {
+            return lastModified;
+        }
+
+        /**
+         * Returns the parsed response, that should not be modified.
+         */
+        public JSONObject getJSONObject() {
+            return json;
+        }
+
+    }
+
+    protected final Map<String, Entry> entries;
+
+    public JenkinsHttpCache(final int maxEntries) {
+        entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+
+        };
+    }
+
+    public synchronized Entry get(String url) {
+        return entries.get(url);
+    }
+
+    /**
+     * Caches given response, unless it holds no validator.
+     */
+    public synchronized void put(String url, String etag, String lastModified, JSONObject json) {
+        if (StringUtils.isBlank(etag) && StringUtils.isBlank(lastModified)) {
+            entries.remove(url);
+        } else {
+            entries.put(url, new Entry(etag, lastModified, json));
+        }
+    }
+
+    public synchronized void remove(String url) {
+        entries.remove(url);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+}
@@ -0,0 +1,201 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.nuxeo.runtime.model.ComponentContext;
+import org.nuxeo.runtime.model.ComponentInstance;
+import org.nuxeo.runtime.model.DefaultComponent;
+
+/**
+ * Default implementation of the {@link JenkinsHttpClientService}, relying on the JDK HTTP client that pools
+ * connections and negotiates HTTP/2 when available.
+ *
+ * @since 3.10.5
+ */
+public class JenkinsHttpClientComponent extends DefaultComponent implements JenkinsHttpClientService {
+
+    public static final String CONFIGURATION_XP = "configuration";
+
+    protected final List<JenkinsHttpClientDescriptor> configurations = new ArrayList<>();
+
+    protected JenkinsHttpClientDescriptor config;
+
+    protected HttpClient client;
+
+    protected JenkinsFetchPool fetchPool;
+
+    protected JenkinsHttpCache cache;
+
+    protected JenkinsSnapshotCache snapshotCache;
+
+    protected ScheduledExecutorService expirationScheduler;
+
+    @Override
+    public void registerContribution(Object contribution, String extensionPoint, ComponentInstance contributor) {
+        if (CONFIGURATION_XP.equals(extensionPoint)) {
+            synchronized (configurations) {
+                configurations.add((JenkinsHttpClientDescriptor) contribution);
+            }
+        }
+    }
+
+    @Override
+    public void unregisterContribution(Object contribution, String extensionPoint, ComponentInstance contributor) {
+        if (CONFIGURATION_XP.equals(extensionPoint)) {
+            synchronized (configurations) {
+                configurations.remove(contribution);
+            }
+        }
+    }
+
+    /**
+     * Returns the last registered configuration, or the default one.
+     */
+    public JenkinsHttpClientDescriptor getConfiguration() {
+        synchronized (configurations) {
+            if (configurations.isEmpty()) {
+                return new JenkinsHttpClientDescriptor();
+            }
+            return configurations.get(configurations.size() - 1);
+        }
+    }
+
+    @Override
+    public void start(ComponentContext context) {
+        config = getConfiguration();
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                                               .connectTimeout(Duration.ofSeconds(config.getConnectTimeout()))
+                                               .version(config.isHttp2() ? HttpClient.Version.HTTP_2
+                                                       : HttpClient.Version.HTTP_1_1)
+                                               .followRedirects(config.isFollowRedirects() ? HttpClient.Redirect.NORMAL
+                                                       : HttpClient.Redirect.NEVER);
+        client = builder.build();
+        fetchPool = new JenkinsFetchPool(config.getMaxThreads(), config.getMaxRequestsPerHost());
+        expirationScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "jenkins-report-expiration");
+            thread.setDaemon(true);
+            return thread;
+        });
+        cache = new JenkinsHttpCache(config.getCacheMaxEntries());
+        if (config.getSnapshotTTL() > 0) {
+            snapshotCache = new JenkinsSnapshotCache(TimeUnit.SECONDS.toMillis(config.getSnapshotTTL()),
+                    config.getSnapshotMaxEntries());
+        }
+    }
+
+    @Override
+    public void stop(ComponentContext context) {
+        if (fetchPool != null) {
+            fetchPool.shutdown();
+        }
+        fetchPool = null;
+        if (expirationScheduler != null) {
+            expirationScheduler.shutdownNow();
+        }
+        expirationScheduler = null;
+        cache = null;
+        snapshotCache = null;
+        client = null;
+    }
+
+    @Override
+    public JenkinsHttpResponse get(String url, Map<String, String> headers, long timeout) throws IOException {
+        long start = System.nanoTime();
+        long readTimeout = TimeUnit.SECONDS.toMillis(config.getReadTimeout());
+        if (timeout > 0) {
+            readTimeout = Math.min(readTimeout, timeout);
+        }
+        HttpRequest.Builder builder;
+        try {
+            builder = HttpRequest.newBuilder(URI.create(url.trim()));
+        } catch (IllegalArgumentException e) {
+            throw new IOException(String.format("Invalid url '%s'", url), e);
+        }
+        builder.GET().timeout(Duration.ofMillis(Math.max(1, readTimeout)));
+        if (config.isCompression()) {
+            builder.header("Accept-Encoding", "gzip");
+        }
+        if (headers != null) {
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                builder.header(header.getKey(), header.getValue());
+            }
+        }
+        try {
+            HttpResponse<InputStream> response = client.send(builder.build(), HttpResponse.BodyHandlers.ofInputStream());
+            JenkinsHttpResponse jenkinsResponse = new JenkinsHttpResponse(response);
+            if (timeout > 0) {
+                // the request timeout only applies until headers are received, the body may still be slow to come
+                long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                jenkinsResponse.expireAfter(expirationScheduler, Math.max(0, timeout - elapsed));
+            }
+            return jenkinsResponse;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            InterruptedIOException ie = new InterruptedIOException("Interrupted while retrieving " + url);
+            ie.initCause(e);
+            throw ie;
+        }
+    }
+
+    @Override
+    public JenkinsFetchPool getFetchPool() {
+        return fetchPool;
+    }
+
+    @Override
+    public JenkinsHttpCache getCache() {
+        return cache;
+    }
+
+    @Override
+    public JenkinsSnapshotCache getSnapshotCache() {
+        return snapshotCache;
+    }
+
+    @Override
+    public long getSnapshotTTL() {
+        return TimeUnit.SECONDS.toMillis(Math.max(0, config.getSnapshotTTL()));
+    }
+
+    @Override
+    public long getRunsTimeout() {
+        return TimeUnit.SECONDS.toMillis(config.getRunsTimeout());
+    }
+
+    @Override
+    public long getRefreshTimeout() {
+        return TimeUnit.SECONDS.toMillis(config.getRefreshTimeout());
+    }
+
+}
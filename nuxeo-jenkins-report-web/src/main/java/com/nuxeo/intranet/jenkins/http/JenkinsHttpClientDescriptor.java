@@ -0,0 +1,137 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.http;
+
+import org.nuxeo.common.xmap.annotation.XNode;
+import org.nuxeo.common.xmap.annotation.XObject;
+
+/**
+ * Configuration of the HTTP client used to query Jenkins. Durations are expressed in seconds.
+ * <p>
+ * The last registered configuration is used, default values apply to elements it does not hold.
+ *
+ * @since 3.10.5
+ */
+@XObject("configuration")
+public class JenkinsHttpClientDescriptor {
+
+    @XNode("connectTimeout")
+    protected int connectTimeout = 10;
+
+    @XNode("readTimeout")
+    protected int readTimeout = 60;
+
+    @XNode("runsTimeout")
+    protected int runsTimeout = 120;
+
+    @XNode("refreshTimeout")
+    protected int refreshTimeout = 600;
+
+    @XNode("followRedirects")
+    protected boolean followRedirects = true;
+
+    @XNode("compression")
+    protected boolean compression = true;
+
+    @XNode("http2")
+    protected boolean http2 = true;
+
+    @XNode("maxThreads")
+    protected int maxThreads = 16;
+
+    @XNode("maxRequestsPerHost")
+    protected int maxRequestsPerHost = 8;
+
+    @XNode("cacheMaxEntries")
+    protected int cacheMaxEntries = 5000;
+
+    @XNode("snapshotTTL")
+    protected int snapshotTTL = 60;
+
+    @XNode("snapshotMaxEntries")
+    protected int snapshotMaxEntries = 10;
+
+    public int getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    /**
+     * Returns the maximum time to wait for the response headers of a single request.
+     */
+    public int getReadTimeout() {
+        return readTimeout;
+    }
+
+    /**
+     * Returns the maximum time to wait for all runs of a multiosdb job.
+     */
+    public int getRunsTimeout() {
+        return runsTimeout;
+    }
+
+    /**
+     * Returns the maximum duration of a whole refresh.
+     */
+    public int getRefreshTimeout() {
+        return refreshTimeout;
+    }
+
+    public boolean isFollowRedirects() {
+        return followRedirects;
+    }
+
+    /**
+     * Returns true if gzip compressed responses should be accepted.
+     */
+    public boolean isCompression() {
+        return compression;
+    }
+
+    /**
+     * Returns true if HTTP/2 should be negotiated when the server supports it.
+     */
+    public boolean isHttp2() {
+        return http2;
+    }
+
+    public int getMaxThreads() {
+        return maxThreads;
+    }
+
+    public int getMaxRequestsPerHost() {
+        return maxRequestsPerHost;
+    }
+
+    public int getCacheMaxEntries() {
+        return cacheMaxEntries;
+    }
+
+    /**
+     * Returns the time during which a Jenkins snapshot is shared by refreshes of reports, snapshots are not cached if
+     * lower than 1.
+     */
+    public int getSnapshotTTL() {
+        return snapshotTTL;
+    }
+
+    public int getSnapshotMaxEntries() {
+        return snapshotMaxEntries;
+    }
+
+}
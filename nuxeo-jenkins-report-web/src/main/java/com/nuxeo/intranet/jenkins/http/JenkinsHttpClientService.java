@@ -0,0 +1,78 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.http;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Service issuing HTTP requests to Jenkins through a shared client, keeping connections alive between requests.
+ * <p>
+ * Also holds the fetch pool and the response cache shared by all refreshes, configured through the
+ * {@value JenkinsHttpClientComponent#CONFIGURATION_XP} extension point.
+ *
+ * @since 3.10.5
+ */
+public interface JenkinsHttpClientService {
+
+    /**
+     * Sends a GET request to given url, following redirects, with given additional headers.
+     * <p>
+     * The request fails if no response is received within the configured read timeout, or within given timeout in
+     * milliseconds if lower. No additional timeout is applied if timeout is lower than 1, otherwise reads of the body
+     * also fail once given timeout is elapsed.
+     * <p>
+     * The returned response must be closed.
+     */
+    JenkinsHttpResponse get(String url, Map<String, String> headers, long timeout) throws IOException;
+
+    /**
+     * Returns the pool used to retrieve jobs and runs in parallel.
+     */
+    JenkinsFetchPool getFetchPool();
+
+    /**
+     * Returns the cache of responses used to send conditional requests.
+     */
+    JenkinsHttpCache getCache();
+
+    /**
+     * Returns the cache of Jenkins snapshots shared by refreshes of reports, or null if disabled.
+     */
+    JenkinsSnapshotCache getSnapshotCache();
+
+    /**
+     * Returns the time during which Jenkins snapshots are shared by refreshes of reports, in milliseconds, 0 if
+     * disabled.
+     *
+     * @since 3.10.5
+     */
+    long getSnapshotTTL();
+
+    /**
+     * Returns the timeout for the retrieval of all runs of a multiosdb job, in milliseconds.
+     */
+    long getRunsTimeout();
+
+    /**
+     * Returns the maximum duration of a whole refresh, in milliseconds: requests are not sent anymore once elapsed.
+     */
+    long getRefreshTimeout();
+
+}
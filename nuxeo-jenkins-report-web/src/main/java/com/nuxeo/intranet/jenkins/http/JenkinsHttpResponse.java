@@ -0,0 +1,161 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.http;
+
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Response to a request sent by the {@link JenkinsHttpClientService}, giving access to the uncompressed body.
+ *
+ * @since 3.10.5
+ */
+public class JenkinsHttpResponse implements Closeable {
+
+    private static final Log log = LogFactory.getLog(JenkinsHttpResponse.class);
+
+    protected final HttpResponse<InputStream> response;
+
+    protected InputStream stream;
+
+    protected ScheduledFuture<?> expiration;
+
+    protected volatile boolean expired;
+
+    /**
+     * Stream failing reads once the response expired, as closing the body makes pending reads return early.
+     */
+    protected class ExpiringInputStream extends FilterInputStream {
+
+        protected ExpiringInputStream(InputStream in) {
+            super(in);
+        }
+
+        protected void checkExpired() throws HttpTimeoutException {
+            if (expired) {
+                throw new HttpTimeoutException(String.format("Response body of %s not read in time", getUrl()));
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            try {
+                int read = super.read();
+                checkExpired();
+                return read;
+            } catch (IOException e) {
+                checkExpired();
+                throw e;
+            }
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            try {
+                int read = super.read(b, off, len);
+                checkExpired();
+                return read;
+            } catch (IOException e) {
+                checkExpired();
+                throw e;
+            }
+        }
+
+    }
+
+    public JenkinsHttpResponse(HttpResponse<InputStream> response) {
+        this.response = response;
+    }
+
+    public int getStatus() {
+        return response.statusCode();
+    }
+
+    /**
+     * Returns the first value of given header, or null if not present.
+     */
+    public String getHeader(String name) {
+        return response.headers().firstValue(name).orElse(null);
+    }
+
+    /**
+     * Returns the url of the response, after redirects.
+     */
+    public String getUrl() {
+        return response.uri().toString();
+    }
+
+    /**
+     * Returns the response body, uncompressed if needed.
+     */
+    public InputStream getStream() throws IOException {
+        if (stream == null) {
+            stream = response.body();
+            if ("gzip".equalsIgnoreCase(getHeader("Content-Encoding"))) {
+                stream = new GZIPInputStream(stream);
+            }
+            stream = new ExpiringInputStream(stream);
+        }
+        return stream;
+    }
+
+    /**
+     * Closes the response body after given delay in milliseconds: reads of the body then fail with a
+     * {@link HttpTimeoutException}, including reads waiting for data at that time.
+     */
+    public void expireAfter(ScheduledExecutorService scheduler, long delay) {
+        expiration = scheduler.schedule(this::expire, delay, TimeUnit.MILLISECONDS);
+    }
+
+    protected void expire() {
+        expired = true;
+        try {
+            response.body().close();
+        } catch (IOException e) {
+            log.debug(e, e);
+        }
+    }
+
+    /**
+     * Closes the response body, releasing the connection for following requests.
+     */
+    @Override
+    public void close() throws IOException {
+        if (expiration != null) {
+            expiration.cancel(false);
+        }
+        if (stream != null) {
+            stream.close();
+        } else {
+            response.body().close();
+        }
+    }
+
+}
@@ -0,0 +1,167 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.http;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.nuxeo.intranet.jenkins.web.JenkinsJob;
+import com.nuxeo.intranet.jenkins.web.JenkinsJobStorage;
+
+import net.sf.json.JSONObject;
+
+/**
+ * State of a Jenkins instance shared by refreshes of reports pointing at it: the jobs list, and the jobs converted
+ * so far, by job url.
+ * <p>
+ * Converted jobs are immutable, so that merging them into a report does not alter the snapshot.
+ *
+ * @since 3.10.5
+ */
+public class JenkinsSnapshot {
+
+    protected static final JsonFactory factory = new JsonFactory();
+
+    protected final JSONObject listing;
+
+    protected final long created;
+
+    protected final ConcurrentMap<String, List<JenkinsJob>> jobs = new ConcurrentHashMap<>();
+
+    protected volatile List<String> errors = Collections.emptyList();
+
+    public JenkinsSnapshot(JSONObject listing) {
+        this(listing, System.currentTimeMillis());
+    }
+
+    /**
+     * @since 3.10.5
+     */
+    public JenkinsSnapshot(JSONObject listing, long created) {
+        this.listing = listing;
+        this.created = created;
+    }
+
+    /**
+     * Returns the jobs list, or null if it could not be retrieved. The returned object should not be modified.
+     */
+    public JSONObject getListing() {
+        return listing;
+    }
+
+    /**
+     * Returns the creation time of this snapshot, in milliseconds.
+     */
+    public long getCreated() {
+        return created;
+    }
+
+    /**
+     * Returns the unmodifiable list of jobs converted for given job url, or null if not converted yet.
+     */
+    public List<JenkinsJob> getJobs(String url) {
+        return jobs.get(url);
+    }
+
+    /**
+     * Stores the jobs converted for given job url.
+     */
+    public void putJobs(String url, List<JenkinsJob> converted) {
+        jobs.put(url, Collections.unmodifiableList(new ArrayList<JenkinsJob>(converted)));
+    }
+
+    /**
+     * Returns the errors met while retrieving this snapshot.
+     */
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<String> errors) {
+        this.errors = Collections.unmodifiableList(new ArrayList<String>(errors));
+    }
+
+    /**
+     * Returns the gzipped json holding this snapshot, to share it with other nodes.
+     *
+     * @see #fromBytes(byte[])
+     */
+    public byte[] toBytes() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(bytes, 8192);
+                JsonGenerator generator = factory.createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeNumberField("created", created);
+            if (listing != null) {
+                generator.writeStringField("listing", listing.toString());
+            }
+            generator.writeFieldName("errors");
+            JenkinsJobStorage.writeValue(generator, errors);
+            generator.writeObjectFieldStart("jobs");
+            for (Map.Entry<String, List<JenkinsJob>> entry : jobs.entrySet()) {
+                generator.writeFieldName(entry.getKey());
+                JenkinsJobStorage.writeValue(generator, JenkinsJob.toMaps(entry.getValue()));
+            }
+            generator.writeEndObject();
+            generator.writeEndObject();
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Returns the snapshot held by given gzipped json.
+     *
+     * @see #toBytes()
+     */
+    @SuppressWarnings("unchecked")
+    public static JenkinsSnapshot fromBytes(byte[] bytes) throws IOException {
+        Map<String, Serializable> values;
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes));
+                JsonParser parser = factory.createParser(in)) {
+            parser.nextToken();
+            values = (Map<String, Serializable>) JenkinsJobStorage.readValue(parser);
+        }
+        String listing = (String) values.get("listing");
+        JenkinsSnapshot res = new JenkinsSnapshot(listing == null ? null : JSONObject.fromObject(listing),
+                ((Number) values.get("created")).longValue());
+        res.setErrors((List<String>) values.get("errors"));
+        Map<String, List<Map<String, Serializable>>> jobs = (Map<String, List<Map<String, Serializable>>>) values.get(
+                "jobs");
+        for (Map.Entry<String, List<Map<String, Serializable>>> entry : jobs.entrySet()) {
+            res.putJobs(entry.getKey(), JenkinsJob.fromMaps(entry.getValue()));
+        }
+        return res;
+    }
+
+}
@@ -0,0 +1,153 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.http;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Cache of {@link JenkinsSnapshot}, keyed by jobs list url, so that reports pointing at the same Jenkins instance
+ * share a single crawl.
+ * <p>
+ * Snapshots are kept for a limited time. Concurrent requests for a missing snapshot are coalesced: only one of them
+ * loads it, others wait for its result. Snapshots without jobs list are shared with waiting requests but not cached.
+ *
+ * @since 3.10.5
+ */
+public class JenkinsSnapshotCache {
+
+    /**
+     * Loads a snapshot.
+     */
+    @FunctionalInterface
+    public interface Loader {
+
+        JenkinsSnapshot load() throws IOException;
+
+    }
+
+    protected final long ttl;
+
+    protected final Map<String, JenkinsSnapshot> entries;
+
+    protected final ConcurrentMap<String, CompletableFuture<JenkinsSnapshot>> loading = new ConcurrentHashMap<>();
+
+    /**
+     * @param ttl the time to live of snapshots, in milliseconds
+     * @param maxEntries the maximum number of cached snapshots, least recently used ones are evicted first
+     */
+    public JenkinsSnapshotCache(long ttl, final int maxEntries) {
+        this.ttl = ttl;
+        entries = new LinkedHashMap<String, JenkinsSnapshot>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, JenkinsSnapshot> eldest) {
+                return size() > maxEntries;
+            }
+
+        };
+    }
+
+    /**
+     * Returns the snapshot cached for given key if not expired, or loads it using given loader, unless another thread
+     * is already loading it.
+     */
+    public JenkinsSnapshot get(String key, Loader loader) throws IOException {
+        JenkinsSnapshot snapshot = getFresh(key);
+        if (snapshot != null) {
+            return snapshot;
+        }
+        CompletableFuture<JenkinsSnapshot> future = new CompletableFuture<>();
+        CompletableFuture<JenkinsSnapshot> pending = loading.putIfAbsent(key, future);
+        if (pending != null) {
+            return await(key, pending);
+        }
+        try {
+            // might have been loaded since first check
+            snapshot = getFresh(key);
+            if (snapshot == null) {
+                snapshot = loader.load();
+                if (snapshot.getListing() != null) {
+                    put(key, snapshot);
+                }
+            }
+            future.complete(snapshot);
+            return snapshot;
+        } catch (Throwable t) {
+            future.completeExceptionally(t);
+            throw t;
+        } finally {
+            loading.remove(key, future);
+        }
+    }
+
+    protected JenkinsSnapshot await(String key, CompletableFuture<JenkinsSnapshot> pending) throws IOException {
+        try {
+            return pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            InterruptedIOException ie = new InterruptedIOException("Interrupted while waiting for " + key);
+            ie.initCause(e);
+            throw ie;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * Returns the snapshot cached for given key, or null if missing or expired.
+     */
+    public synchronized JenkinsSnapshot getFresh(String key) {
+        JenkinsSnapshot snapshot = entries.get(key);
+        if (snapshot != null && System.currentTimeMillis() - snapshot.getCreated() >= ttl) {
+            entries.remove(key);
+            return null;
+        }
+        return snapshot;
+    }
+
+    public synchronized void put(String key, JenkinsSnapshot snapshot) {
+        entries.put(key, snapshot);
+    }
+
+    public synchronized void remove(String key) {
+        entries.remove(key);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.rest;
+
+import java.io.IOException;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.nuxeo.ecm.core.api.CoreSession;
+import org.nuxeo.ecm.webengine.model.WebObject;
+import org.nuxeo.ecm.webengine.model.impl.ModuleRoot;
+import org.nuxeo.runtime.api.Framework;
+
+import com.nuxeo.intranet.jenkins.service.JenkinsReportService;
+
+import net.sf.json.JSONException;
+import net.sf.json.JSONObject;
+
+/**
+ * Endpoint receiving Jenkins build notifications, available at {@code /site/jenkinsReport/builds}.
+ * <p>
+ * Accepts payloads sent by the Jenkins notification plugin for completed builds, as well as the json api data of a
+ * completed build, and merges them into the reports holding their job. Builds are always retrieved again from
+ * Jenkins, and only from a known Jenkins instance.
+ *
+ * @since 3.10.5
+ */
+@Path("/jenkinsReport")
+@WebObject(type = "jenkinsReport")
+@Produces(MediaType.TEXT_PLAIN)
+public class JenkinsReportRoot extends ModuleRoot {
+
+    private static final Log log = LogFactory.getLog(JenkinsReportRoot.class);
+
+    @POST
+    @Path("builds")
+    @Consumes(MediaType.APPLICATION_JSON)
+    public Response notifyBuild(String body) {
+        return notifyBuild(getContext().getCoreSession(), body);
+    }
+
+    /**
+     * Merges the build notified with given payload into reports accessible with given session: rejects builds that do
+     * not belong to a known Jenkins instance, see {@link JenkinsReportService#updateFromBuild}.
+     */
+    protected Response notifyBuild(CoreSession session, String body) {
+        JSONObject notification;
+        try {
+            notification = JSONObject.fromObject(body);
+        } catch (JSONException e) {
+            return Response.status(Response.Status.BAD_REQUEST).entity("Invalid json payload").build();
+        }
+        try {
+            int count = Framework.getService(JenkinsReportService.class).updateFromBuild(session, notification);
+            return Response.ok(String.format("%s report(s) updated", count)).build();
+        } catch (IllegalArgumentException e) {
+            log.warn(e.getMessage());
+            return Response.status(Response.Status.FORBIDDEN).entity(e.getMessage()).build();
+        } catch (IOException e) {
+            log.error(e, e);
+            return Response.status(Response.Status.BAD_GATEWAY)
+                           .entity(String.format("Error while retrieving build from Jenkins: %s", e.getMessage()))
+                           .build();
+        }
+    }
+
+}
@@ -0,0 +1,64 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.nuxeo.common.xmap.annotation.XNode;
+import org.nuxeo.common.xmap.annotation.XNodeList;
+import org.nuxeo.common.xmap.annotation.XObject;
+
+/**
+ * Configuration of the rendering of job comments when merging jobs into reports, see
+ * {@link JenkinsReportService#getCommentRenderer()}.
+ *
+ * @since 3.10.5
+ */
+@XObject("commentRendering")
+public class JenkinsCommentRenderingDescriptor {
+
+    @XNode("@enabled")
+    protected boolean enabled = true;
+
+    @XNode("jiraURL")
+    protected String jiraURL;
+
+    @XNodeList(value = "jiraProjects/project", type = ArrayList.class, componentType = String.class)
+    protected List<String> jiraProjects = new ArrayList<String>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the url prefix of links to JIRA issues, issue keys are appended to it.
+     */
+    public String getJiraURL() {
+        return jiraURL;
+    }
+
+    /**
+     * Returns the keys of JIRA projects whose issues are turned into links.
+     */
+    public List<String> getJiraProjects() {
+        return jiraProjects;
+    }
+
+}
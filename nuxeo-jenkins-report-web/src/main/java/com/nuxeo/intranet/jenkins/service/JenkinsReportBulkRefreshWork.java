@@ -0,0 +1,353 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.nuxeo.ecm.core.api.CoreInstance;
+import org.nuxeo.ecm.core.api.CoreSession;
+import org.nuxeo.ecm.core.api.DocumentModel;
+import org.nuxeo.ecm.core.api.DocumentRef;
+import org.nuxeo.ecm.core.api.IdRef;
+import org.nuxeo.ecm.core.api.NuxeoException;
+import org.nuxeo.ecm.core.event.EventService;
+import org.nuxeo.ecm.core.event.impl.DocumentEventContext;
+import org.nuxeo.ecm.core.work.AbstractWork;
+import org.nuxeo.runtime.api.Framework;
+import org.nuxeo.runtime.transaction.TransactionHelper;
+
+import com.nuxeo.intranet.jenkins.http.JenkinsClusterCoordinator;
+import com.nuxeo.intranet.jenkins.web.JenkinsFetchMode;
+import com.nuxeo.intranet.jenkins.web.JenkinsJob;
+import com.nuxeo.intranet.jenkins.web.JenkinsJobStorage;
+import com.nuxeo.intranet.jenkins.web.JenkinsJobTable;
+import com.nuxeo.intranet.jenkins.web.JenkinsJobsRetriever;
+import com.nuxeo.intranet.jenkins.web.JenkinsJsonConverter;
+import com.nuxeo.intranet.jenkins.web.JenkinsReportFields;
+
+/**
+ * Refreshes the jobs of several reports, retrieving jobs of each distinct Jenkins url once.
+ * <p>
+ * As with {@link JenkinsReportRefreshWork}, Jenkins is queried outside of any transaction: reports are read in a first
+ * transaction, each Jenkins url is crawled with the jobs of all its reports, and reports are then updated by batches,
+ * a transaction per batch, merging the crawled jobs they track with the jobs they hold at that time.
+ * <p>
+ * A report that cannot be read or saved does not prevent others from being refreshed: the error is logged and stored
+ * in its feedback. When a batch fails, its reports are saved again one per transaction.
+ * <p>
+ * Reports being refreshed by another work, on this node or on another node of a cluster, are refreshed after the
+ * others, once released, see {@link JenkinsReportService#getRefreshCoordinator()}.
+ *
+ * @since 3.10.5
+ */
+public class JenkinsReportBulkRefreshWork extends AbstractWork {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Log log = LogFactory.getLog(JenkinsReportBulkRefreshWork.class);
+
+    public static final String ID_PREFIX = "jenkinsReportBulkRefresh";
+
+    /**
+     * Jenkins urls, by report id.
+     */
+    protected final LinkedHashMap<String, String> jenkinsURLs;
+
+    protected final String fetchMode;
+
+    protected final int batchSize;
+
+    /**
+     * @param name name of the refresh, identifying the work so that the same reports are not refreshed twice
+     *            concurrently
+     * @param jenkinsURLs the Jenkins urls of reports to refresh, by report id
+     * @param batchSize the number of reports saved per transaction
+     */
+    public JenkinsReportBulkRefreshWork(String repositoryName, String name, Map<String, String> jenkinsURLs,
+            JenkinsFetchMode fetchMode, int batchSize) {
+        super(ID_PREFIX + ":" + repositoryName + ":" + name);
+        this.jenkinsURLs = new LinkedHashMap<>(jenkinsURLs);
+        this.fetchMode = fetchMode == null ? null : fetchMode.name();
+        this.batchSize = Math.max(1, batchSize);
+        setDocuments(repositoryName, new ArrayList<>(jenkinsURLs.keySet()));
+    }
+
+    @Override
+    public String getCategory() {
+        return JenkinsReportRefreshWork.CATEGORY;
+    }
+
+    @Override
+    public String getTitle() {
+        return String.format("Jenkins reports refresh: %s reports", Integer.valueOf(jenkinsURLs.size()));
+    }
+
+    @Override
+    public boolean isTransactional() {
+        return false;
+    }
+
+    @Override
+    public void work() {
+        JenkinsClusterCoordinator coordinator = JenkinsReportRefreshWork.getRefreshCoordinator();
+        if (coordinator == null) {
+            refresh(new LinkedHashSet<>(jenkinsURLs.keySet()));
+            return;
+        }
+        // leases of this work are not held while waiting
+        Set<String> busy = new LinkedHashSet<>();
+        refresh(coordinator, jenkinsURLs.keySet(), busy);
+        if (busy.isEmpty()) {
+            return;
+        }
+        setStatus("Waiting for other refreshes");
+        List<JenkinsClusterCoordinator.Lease> leases = new ArrayList<>();
+        try {
+            Set<String> ids = new LinkedHashSet<>();
+            for (String id : busy) {
+                String key = JenkinsReportRefreshWork.getLeaseKey(repositoryName, id);
+                JenkinsClusterCoordinator.Lease lease;
+                try {
+                    lease = coordinator.acquireWaiting(key);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new NuxeoException("Interrupted while waiting for another refresh of report " + id, e);
+                }
+                if (lease == null) {
+                    log.warn(String.format("Report %s still being refreshed by node %s, skipping refresh", id,
+                            coordinator.getOwner(key)));
+                } else {
+                    leases.add(lease);
+                    ids.add(id);
+                }
+            }
+            refresh(ids);
+        } finally {
+            for (JenkinsClusterCoordinator.Lease lease : leases) {
+                lease.release();
+            }
+        }
+    }
+
+    /**
+     * Refreshes given reports whose lease is acquired, adding the others to given busy reports.
+     */
+    protected void refresh(JenkinsClusterCoordinator coordinator, Set<String> reports, Set<String> busy) {
+        List<JenkinsClusterCoordinator.Lease> leases = new ArrayList<>();
+        try {
+            Set<String> ids = new LinkedHashSet<>();
+            for (String id : reports) {
+                JenkinsClusterCoordinator.Lease lease = coordinator.acquire(
+                        JenkinsReportRefreshWork.getLeaseKey(repositoryName, id));
+                if (lease == null) {
+                    log.info(String.format("Report %s already being refreshed by another work", id));
+                    busy.add(id);
+                } else {
+                    leases.add(lease);
+                    ids.add(id);
+                }
+            }
+            refresh(ids);
+        } finally {
+            for (JenkinsClusterCoordinator.Lease lease : leases) {
+                lease.release();
+            }
+        }
+    }
+
+    protected void refresh(Set<String> reports) {
+        setStatus("Reading reports");
+        Map<String, Exception> errors = new LinkedHashMap<>();
+        Map<String, List<JenkinsJob>> oldData = TransactionHelper.runInTransaction(() -> {
+            return CoreInstance.doPrivileged(repositoryName, (CoreSession s) -> {
+                Map<String, List<JenkinsJob>> res = new HashMap<>();
+                for (String id : reports) {
+                    DocumentRef ref = new IdRef(id);
+                    try {
+                        if (s.exists(ref)) {
+                            res.put(id, JenkinsJobStorage.getJobs(s.getDocument(ref)));
+                        }
+                    } catch (RuntimeException e) {
+                        log.error(String.format("Cannot read report %s", id), e);
+                        errors.put(id, e);
+                    }
+                }
+                return res;
+            });
+        });
+        for (Map.Entry<String, Exception> error : errors.entrySet()) {
+            saveError(error.getKey(), error.getValue());
+        }
+
+        // crawl each url once, with the jobs of all its reports
+        Map<String, List<String>> reportsByURL = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : jenkinsURLs.entrySet()) {
+            if (oldData.containsKey(entry.getKey())) {
+                reportsByURL.computeIfAbsent(entry.getValue(), k -> new ArrayList<>()).add(entry.getKey());
+            }
+        }
+        Map<String, Crawl> crawls = new HashMap<>();
+        for (Map.Entry<String, List<String>> entry : reportsByURL.entrySet()) {
+            setStatus("Retrieving jobs from Jenkins: " + entry.getKey());
+            JenkinsJobTable tracked = new JenkinsJobTable();
+            for (String id : entry.getValue()) {
+                for (JenkinsJob job : oldData.get(id)) {
+                    if (!tracked.contains(job.getId())) {
+                        tracked.put(job);
+                    }
+                }
+            }
+            Crawl crawl = crawl(entry.getKey(), tracked.toList());
+            crawl.reports = entry.getValue().size();
+            crawls.put(entry.getKey(), crawl);
+        }
+
+        List<String> ids = new ArrayList<>();
+        for (List<String> reportIds : reportsByURL.values()) {
+            ids.addAll(reportIds);
+        }
+        for (int i = 0; i < ids.size(); i += batchSize) {
+            List<String> batch = ids.subList(i, Math.min(i + batchSize, ids.size()));
+            setStatus(String.format("Saving reports %s to %s of %s", Integer.valueOf(i + 1),
+                    Integer.valueOf(i + batch.size()), Integer.valueOf(ids.size())));
+            try {
+                TransactionHelper.runInTransaction(() -> {
+                    CoreInstance.doPrivileged(repositoryName, (CoreSession s) -> {
+                        for (String id : batch) {
+                            save(s, id, crawls.get(jenkinsURLs.get(id)));
+                        }
+                    });
+                });
+            } catch (RuntimeException e) {
+                // the whole batch is rolled back
+                log.warn(String.format("Cannot save reports %s, saving them one by one", batch), e);
+                for (String id : batch) {
+                    saveReport(id, crawls.get(jenkinsURLs.get(id)));
+                }
+            }
+        }
+        setStatus("Done");
+    }
+
+    /**
+     * Saves given report in its own transaction, storing the error in its feedback on failure.
+     */
+    protected void saveReport(String id, Crawl crawl) {
+        try {
+            TransactionHelper.runInTransaction(() -> {
+                CoreInstance.doPrivileged(repositoryName, (CoreSession s) -> {
+                    save(s, id, crawl);
+                });
+            });
+        } catch (RuntimeException e) {
+            log.error(String.format("Cannot refresh report %s", id), e);
+            saveError(id, e);
+        }
+    }
+
+    /**
+     * Stores given error in the feedback of given report, in its own transaction.
+     */
+    protected void saveError(String id, Exception error) {
+        String message = String.format("Error while refreshing report: %s", error.getMessage());
+        try {
+            TransactionHelper.runInTransaction(() -> {
+                CoreInstance.doPrivileged(repositoryName, (CoreSession s) -> {
+                    DocumentRef ref = new IdRef(id);
+                    if (s.exists(ref)) {
+                        DocumentModel doc = s.getDocument(ref);
+                        doc.setPropertyValue(JenkinsReportFields.LAST_UPDATE_FEEDBACK_PROPERTY,
+                                new JenkinsJobsRetriever().computeLastUpdateFeedbackMessage(null,
+                                        Collections.singletonList(message)));
+                        s.saveDocument(doc);
+                    }
+                });
+            });
+        } catch (RuntimeException e) {
+            log.error(String.format("Cannot store refresh error on report %s", id), e);
+        }
+    }
+
+    /**
+     * Jobs retrieved from a Jenkins url for the given number of reports, with the converter and retriever used.
+     */
+    protected static class Crawl {
+
+        protected int reports;
+
+        protected JenkinsJobsRetriever retriever;
+
+        protected JenkinsJsonConverter converter;
+
+        protected List<JenkinsJob> jobs;
+
+        protected List<String> messages;
+
+    }
+
+    protected Crawl crawl(String jenkinsURL, List<JenkinsJob> trackedJobs) {
+        Crawl crawl = new Crawl();
+        crawl.retriever = new JenkinsJobsRetriever();
+        crawl.converter = crawl.retriever.newConverter(JenkinsFetchMode.fromString(fetchMode));
+        String error = null;
+        try {
+            crawl.jobs = crawl.retriever.retrieveJobs(jenkinsURL, crawl.converter, trackedJobs);
+        } catch (IOException e) {
+            log.error(e, e);
+            error = String.format("Error while retrieving jobs from Jenkins: %s", e.getMessage());
+        }
+        crawl.messages = new ArrayList<String>(crawl.retriever.drainFetchErrors());
+        if (error != null) {
+            crawl.messages.add(error);
+        }
+        return crawl;
+    }
+
+    protected void save(CoreSession session, String id, Crawl crawl) {
+        DocumentRef ref = new IdRef(id);
+        if (!session.exists(ref)) {
+            return;
+        }
+        DocumentModel doc = session.getDocument(ref);
+        JenkinsJsonConverter cv = crawl.converter;
+        if (crawl.jobs != null) {
+            List<JenkinsJob> oldJobs = JenkinsJobStorage.getJobs(doc);
+            List<JenkinsJob> mergedJobs = cv.merge(oldJobs, cv.getReportJobs(crawl.jobs, oldJobs));
+            JenkinsJobStorage.setJobs(doc, mergedJobs, cv.getChanges());
+        }
+        // retrieval errors and counts are shared by reports of the same url
+        doc.setPropertyValue(JenkinsReportFields.LAST_UPDATE_FEEDBACK_PROPERTY,
+                crawl.retriever.computeSharedLastUpdateFeedbackMessage(crawl.jobs == null ? null : cv,
+                        crawl.messages, crawl.reports, !JenkinsJobStorage.isBlobStorage(doc)));
+        doc = session.saveDocument(doc);
+        DocumentEventContext ctx = new DocumentEventContext(session, session.getPrincipal(), doc);
+        Framework.getService(EventService.class).fireEvent(ctx.newEvent(JenkinsReportService.REFRESHED_EVENT));
+    }
+
+}
@@ -0,0 +1,93 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.service;
+
+import org.nuxeo.common.xmap.annotation.XNode;
+import org.nuxeo.common.xmap.annotation.XObject;
+import org.nuxeo.runtime.api.Framework;
+
+import com.nuxeo.intranet.jenkins.http.JenkinsClusterCoordinator;
+
+/**
+ * Configuration of the coordination of report refreshes between nodes of a cluster, see
+ * {@link JenkinsReportService#getClusterCoordinator()}, and of the cache of completed builds they share, see
+ * {@link JenkinsReportService#getBuildCache()}. Durations are expressed in seconds.
+ *
+ * @since 3.10.5
+ */
+@XObject("cluster")
+public class JenkinsReportClusterDescriptor {
+
+    @XNode("@enabled")
+    protected Boolean enabled;
+
+    @XNode("keyValueStore")
+    protected String keyValueStore = "jenkinsReport";
+
+    @XNode("leaseTTL")
+    protected int leaseTTL = 60;
+
+    @XNode("waitTimeout")
+    protected int waitTimeout = 300;
+
+    @XNode("buildCacheTTL")
+    protected int buildCacheTTL = 604800;
+
+    /**
+     * Returns true if nodes of a cluster should coordinate their refreshes, defaults to true when repository
+     * clustering is enabled.
+     */
+    public boolean isEnabled() {
+        if (enabled == null) {
+            return Framework.isBooleanPropertyTrue("repository.clustering.enabled");
+        }
+        return enabled.booleanValue();
+    }
+
+    /**
+     * Returns the name of the key/value store shared by nodes of a cluster, also holding completed builds.
+     */
+    public String getKeyValueStore() {
+        return keyValueStore;
+    }
+
+    /**
+     * Returns the time after which a refresh lease expires when its node stops renewing it.
+     */
+    public int getLeaseTTL() {
+        return leaseTTL;
+    }
+
+    /**
+     * Returns the maximum time to wait for another refresh of a report, or for the crawl of a Jenkins url by another
+     * node, see {@link JenkinsClusterCoordinator}.
+     */
+    public int getWaitTimeout() {
+        return waitTimeout;
+    }
+
+    /**
+     * Returns the time during which completed builds are kept in the key/value store, whether nodes coordinate their
+     * refreshes or not: builds are not cached if lower than 1.
+     */
+    public int getBuildCacheTTL() {
+        return buildCacheTTL;
+    }
+
+}
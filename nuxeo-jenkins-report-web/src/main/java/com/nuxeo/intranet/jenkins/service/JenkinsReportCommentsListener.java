@@ -0,0 +1,74 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.service;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+
+import org.nuxeo.ecm.core.api.DocumentModel;
+import org.nuxeo.ecm.core.api.event.DocumentEventTypes;
+import org.nuxeo.ecm.core.event.Event;
+import org.nuxeo.ecm.core.event.EventContext;
+import org.nuxeo.ecm.core.event.EventListener;
+import org.nuxeo.ecm.core.event.impl.DocumentEventContext;
+import org.nuxeo.runtime.api.Framework;
+
+import com.nuxeo.intranet.jenkins.web.JenkinsCommentRenderer;
+import com.nuxeo.intranet.jenkins.web.JenkinsJob;
+import com.nuxeo.intranet.jenkins.web.JenkinsJobChanges;
+import com.nuxeo.intranet.jenkins.web.JenkinsJsonConverter;
+import com.nuxeo.intranet.jenkins.web.JenkinsReportFields;
+
+/**
+ * Renders comments of jobs edited on a report before it is saved, so that renderings stored when merging jobs are
+ * kept up to date with comments changed by users. Renderings are dropped when comment rendering is disabled.
+ *
+ * @since 3.10.5
+ * @see JenkinsReportService#getCommentRenderer()
+ */
+public class JenkinsReportCommentsListener implements EventListener {
+
+    @Override
+    public void handleEvent(Event event) {
+        if (!DocumentEventTypes.ABOUT_TO_CREATE.equals(event.getName())
+                && !DocumentEventTypes.BEFORE_DOC_UPDATE.equals(event.getName())) {
+            return;
+        }
+        EventContext ctx = event.getContext();
+        if (!(ctx instanceof DocumentEventContext)) {
+            return;
+        }
+        DocumentModel doc = ((DocumentEventContext) ctx).getSourceDocument();
+        if (doc == null || !doc.hasSchema(JenkinsReportFields.SCHEMA)
+                || !doc.getProperty(JenkinsReportFields.JOBS_PROPERTY).isDirty()) {
+            return;
+        }
+        JenkinsCommentRenderer renderer = Framework.getService(JenkinsReportService.class).getCommentRenderer();
+        @SuppressWarnings("unchecked")
+        List<JenkinsJob> jobs = JenkinsJob.fromMaps(
+                (List<Map<String, Serializable>>) doc.getPropertyValue(JenkinsReportFields.JOBS_PROPERTY));
+        List<JenkinsJob> rendered = JenkinsJsonConverter.renderComments(jobs, renderer);
+        if (rendered != null && !rendered.equals(jobs)) {
+            // only write rows whose rendering changed
+            new JenkinsJobChanges(jobs, rendered).applyTo(doc);
+        }
+    }
+
+}
@@ -0,0 +1,423 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.service;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.nuxeo.ecm.core.api.CoreInstance;
+import org.nuxeo.ecm.core.api.CoreSession;
+import org.nuxeo.ecm.core.api.DocumentModel;
+import org.nuxeo.ecm.core.api.repository.RepositoryManager;
+import org.nuxeo.ecm.core.query.sql.NXQL;
+import org.nuxeo.ecm.core.work.api.WorkManager;
+import org.nuxeo.runtime.api.Framework;
+import org.nuxeo.runtime.kv.KeyValueService;
+import org.nuxeo.runtime.kv.KeyValueStore;
+import org.nuxeo.runtime.kv.MemKeyValueStore;
+import org.nuxeo.runtime.model.ComponentContext;
+import org.nuxeo.runtime.model.ComponentInstance;
+import org.nuxeo.runtime.model.DefaultComponent;
+
+import com.nuxeo.intranet.jenkins.http.JenkinsBuildCache;
+import com.nuxeo.intranet.jenkins.http.JenkinsClusterCoordinator;
+import com.nuxeo.intranet.jenkins.http.JenkinsHttpClientService;
+import com.nuxeo.intranet.jenkins.web.JenkinsBuildResult;
+import com.nuxeo.intranet.jenkins.web.JenkinsCommentRenderer;
+import com.nuxeo.intranet.jenkins.web.JenkinsFetchMode;
+import com.nuxeo.intranet.jenkins.web.JenkinsJob;
+import com.nuxeo.intranet.jenkins.web.JenkinsJobStorage;
+import com.nuxeo.intranet.jenkins.web.JenkinsJobTable;
+import com.nuxeo.intranet.jenkins.web.JenkinsJobsRetriever;
+import com.nuxeo.intranet.jenkins.web.JenkinsJsonConverter;
+import com.nuxeo.intranet.jenkins.web.JenkinsReportFields;
+
+import net.sf.json.JSONObject;
+
+/**
+ * Default implementation of the {@link JenkinsReportService}, scheduling a {@link JenkinsReportRefreshWork} per
+ * report.
+ *
+ * @since 3.10.5
+ */
+public class JenkinsReportComponent extends DefaultComponent implements JenkinsReportService {
+
+    private static final Log log = LogFactory.getLog(JenkinsReportComponent.class);
+
+    public static final String REFRESH_XP = "refresh";
+
+    public static final String COMMENT_RENDERING_XP = "commentRendering";
+
+    public static final String CLUSTER_XP = "cluster";
+
+    protected static final String LOCAL_NODE_ID = "local";
+
+    protected final Map<String, JenkinsReportRefreshDescriptor> refreshes = new LinkedHashMap<>();
+
+    /**
+     * Registered comment rendering configurations, the last one wins.
+     */
+    protected final List<JenkinsCommentRenderingDescriptor> commentRenderings = new ArrayList<>();
+
+    /**
+     * Registered cluster configurations, the last one wins.
+     */
+    protected final List<JenkinsReportClusterDescriptor> clusterConfigurations = new ArrayList<>();
+
+    protected JenkinsClusterCoordinator clusterCoordinator;
+
+    protected JenkinsBuildCache buildCache;
+
+    /**
+     * Coordinator of refreshes, the cluster one if enabled, otherwise one only known by this node.
+     */
+    protected JenkinsClusterCoordinator refreshCoordinator;
+
+    @Override
+    public void registerContribution(Object contribution, String extensionPoint, ComponentInstance contributor) {
+        if (REFRESH_XP.equals(extensionPoint)) {
+            JenkinsReportRefreshDescriptor desc = (JenkinsReportRefreshDescriptor) contribution;
+            synchronized (refreshes) {
+                refreshes.put(desc.getName(), desc);
+            }
+        } else if (COMMENT_RENDERING_XP.equals(extensionPoint)) {
+            synchronized (commentRenderings) {
+                commentRenderings.add((JenkinsCommentRenderingDescriptor) contribution);
+            }
+        } else if (CLUSTER_XP.equals(extensionPoint)) {
+            synchronized (clusterConfigurations) {
+                clusterConfigurations.add((JenkinsReportClusterDescriptor) contribution);
+            }
+        }
+    }
+
+    @Override
+    public void unregisterContribution(Object contribution, String extensionPoint, ComponentInstance contributor) {
+        if (REFRESH_XP.equals(extensionPoint)) {
+            JenkinsReportRefreshDescriptor desc = (JenkinsReportRefreshDescriptor) contribution;
+            synchronized (refreshes) {
+                if (refreshes.get(desc.getName()) == desc) {
+                    refreshes.remove(desc.getName());
+                }
+            }
+        } else if (COMMENT_RENDERING_XP.equals(extensionPoint)) {
+            synchronized (commentRenderings) {
+                commentRenderings.remove(contribution);
+            }
+        } else if (CLUSTER_XP.equals(extensionPoint)) {
+            synchronized (clusterConfigurations) {
+                clusterConfigurations.remove(contribution);
+            }
+        }
+    }
+
+    /**
+     * Returns the last registered cluster configuration, or the default one.
+     */
+    public JenkinsReportClusterDescriptor getClusterConfiguration() {
+        synchronized (clusterConfigurations) {
+            if (clusterConfigurations.isEmpty()) {
+                return new JenkinsReportClusterDescriptor();
+            }
+            return clusterConfigurations.get(clusterConfigurations.size() - 1);
+        }
+    }
+
+    @Override
+    public void start(ComponentContext context) {
+        JenkinsReportClusterDescriptor config = getClusterConfiguration();
+        long waitTimeout = TimeUnit.SECONDS.toMillis(config.getWaitTimeout());
+        KeyValueService keyValueService = Framework.getService(KeyValueService.class);
+        if (config.getBuildCacheTTL() > 0 && keyValueService != null) {
+            buildCache = new JenkinsBuildCache(keyValueService.getKeyValueStore(config.getKeyValueStore()),
+                    config.getBuildCacheTTL());
+        }
+        if (config.isEnabled() && keyValueService == null) {
+            log.error("Cluster coordination enabled but no key/value service available: "
+                    + "refreshes of reports are not coordinated between nodes");
+        } else if (config.isEnabled()) {
+            KeyValueStore store = keyValueService.getKeyValueStore(config.getKeyValueStore());
+            String nodeId = Framework.getProperty("repository.clustering.id");
+            if (StringUtils.isBlank(nodeId)) {
+                nodeId = UUID.randomUUID().toString();
+            }
+            // snapshots are shared between nodes as long as by refreshes of a node
+            JenkinsHttpClientService httpClientService = Framework.getService(JenkinsHttpClientService.class);
+            long snapshotTTL = httpClientService == null ? 0
+                    : TimeUnit.MILLISECONDS.toSeconds(httpClientService.getSnapshotTTL());
+            clusterCoordinator = new JenkinsClusterCoordinator(store, nodeId, config.getLeaseTTL(), snapshotTTL,
+                    waitTimeout, 1000);
+        }
+        if (clusterCoordinator != null) {
+            refreshCoordinator = clusterCoordinator;
+        } else {
+            refreshCoordinator = new JenkinsClusterCoordinator(new MemKeyValueStore(), LOCAL_NODE_ID,
+                    config.getLeaseTTL(), 0, waitTimeout, 1000);
+        }
+    }
+
+    @Override
+    public void stop(ComponentContext context) {
+        if (refreshCoordinator != null) {
+            refreshCoordinator.close();
+        }
+        refreshCoordinator = null;
+        clusterCoordinator = null;
+        buildCache = null;
+    }
+
+    @Override
+    public String scheduleRefresh(String repositoryName, String docId, String jenkinsURL,
+            JenkinsFetchMode fetchMode) {
+        JenkinsReportRefreshWork work = new JenkinsReportRefreshWork(repositoryName, docId, jenkinsURL, fetchMode);
+        // a running refresh would conflict on save with the new one
+        Framework.getService(WorkManager.class)
+                 .schedule(work, WorkManager.Scheduling.IF_NOT_RUNNING_OR_SCHEDULED, true);
+        return work.getId();
+    }
+
+    @Override
+    public String scheduleBulkRefresh(String repositoryName, String name, Map<String, String> jenkinsURLs,
+            JenkinsFetchMode fetchMode, int batchSize) {
+        JenkinsReportBulkRefreshWork work = new JenkinsReportBulkRefreshWork(repositoryName, name, jenkinsURLs,
+                fetchMode, batchSize);
+        Framework.getService(WorkManager.class)
+                 .schedule(work, WorkManager.Scheduling.IF_NOT_RUNNING_OR_SCHEDULED, true);
+        return work.getId();
+    }
+
+    @Override
+    public boolean isRefreshInProgress(String repositoryName, String docId) {
+        String workId = JenkinsReportRefreshWork.getWorkId(repositoryName, docId);
+        if (Framework.getService(WorkManager.class).getWorkState(workId) != null) {
+            return true;
+        }
+        // refreshed by a bulk refresh, or by another node
+        JenkinsClusterCoordinator coordinator = getRefreshCoordinator();
+        return coordinator != null
+                && coordinator.getOwner(JenkinsReportRefreshWork.getLeaseKey(repositoryName, docId)) != null;
+    }
+
+    @Override
+    public JenkinsClusterCoordinator getClusterCoordinator() {
+        return clusterCoordinator;
+    }
+
+    @Override
+    public JenkinsBuildCache getBuildCache() {
+        return buildCache;
+    }
+
+    @Override
+    public JenkinsClusterCoordinator getRefreshCoordinator() {
+        return refreshCoordinator;
+    }
+
+    @Override
+    public int scheduleRefreshes() {
+        List<JenkinsReportRefreshDescriptor> descs;
+        synchronized (refreshes) {
+            descs = new ArrayList<>(refreshes.values());
+        }
+        int count = 0;
+        for (JenkinsReportRefreshDescriptor desc : descs) {
+            if (!desc.isEnabled()) {
+                continue;
+            }
+            if (StringUtils.isBlank(desc.getQuery()) || StringUtils.isBlank(desc.getJenkinsURL())) {
+                log.error(String.format("Invalid refresh configuration '%s': query and jenkinsURL are required",
+                        desc.getName()));
+                continue;
+            }
+            count += scheduleRefreshes(desc);
+        }
+        return count;
+    }
+
+    @Override
+    public int updateFromBuild(CoreSession session, JSONObject notification) throws IOException {
+        JenkinsJobsRetriever retriever = new JenkinsJobsRetriever();
+        JenkinsJsonConverter cv = retriever.newConverter(JenkinsFetchMode.JOBS);
+        String buildUrl = cv.getNotifiedBuildUrl(notification);
+        if (buildUrl == null) {
+            return 0;
+        }
+        String family = JenkinsJobTable.getFamily(cv.getBuildJobId(buildUrl));
+        String query = String.format(
+                "SELECT * FROM Document WHERE (%s/*/job_id = %s OR %s/*/job_id LIKE %s OR %s/* = %s)"
+                        + " AND ecm:isVersion = 0 AND ecm:isProxy = 0 AND ecm:isTrashed = 0",
+                JenkinsReportFields.JOBS_PROPERTY, NXQL.escapeString(family), JenkinsReportFields.JOBS_PROPERTY,
+                NXQL.escapeString(escapeLike(family) + JenkinsJobTable.RUN_SEPARATOR + "%"),
+                // reports storing jobs as a blob
+                JenkinsJobStorage.FAMILIES_PROPERTY, NXQL.escapeString(family));
+        Map<DocumentModel, List<JenkinsJob>> reports = new LinkedHashMap<>();
+        List<JenkinsJob> trackedJobs = new ArrayList<>();
+        for (DocumentModel report : session.query(query)) {
+            List<JenkinsJob> oldJobs = JenkinsJobStorage.getJobs(report);
+            JenkinsJobTable table = new JenkinsJobTable(oldJobs);
+            if (table.containsFamily(family)) {
+                reports.put(report, oldJobs);
+                trackedJobs.addAll(table.getFamilyJobs(family));
+            }
+        }
+        if (reports.isEmpty()) {
+            return 0;
+        }
+        checkBuildURL(buildUrl, trackedJobs);
+        List<JenkinsJob> jobs = cv.convertNotifiedBuild(buildUrl, trackedJobs, retriever);
+        for (String error : retriever.drainFetchErrors()) {
+            log.warn(error);
+        }
+        int count = 0;
+        for (Map.Entry<DocumentModel, List<JenkinsJob>> entry : reports.entrySet()) {
+            DocumentModel report = entry.getKey();
+            List<JenkinsJob> oldJobs = entry.getValue();
+            JenkinsJobTable tracked = new JenkinsJobTable(oldJobs);
+            List<JenkinsJob> newJobs = new ArrayList<>();
+            for (JenkinsJob job : jobs) {
+                // passing jobs are only merged to mark tracked ones as fixed
+                if (tracked.contains(job.getId()) || job.getResult() != JenkinsBuildResult.SUCCESS) {
+                    newJobs.add(job);
+                }
+            }
+            if (newJobs.isEmpty()) {
+                continue;
+            }
+            JenkinsJsonConverter merger = new JenkinsJsonConverter();
+            merger.setCommentRenderer(cv.getCommentRenderer());
+            List<JenkinsJob> mergedJobs = merger.merge(oldJobs, newJobs);
+            JenkinsJobStorage.setJobs(report, mergedJobs, merger.getChanges());
+            session.saveDocument(report);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Escapes wildcards of given value for a LIKE clause.
+     */
+    protected static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /**
+     * Checks that given build url belongs to a known Jenkins instance: the one of a refresh configuration, or the one
+     * of given jobs held by reports, so that notifications cannot make the server request any url.
+     *
+     * @throws IllegalArgumentException if the url does not belong to a known Jenkins instance
+     */
+    protected void checkBuildURL(String buildUrl, List<JenkinsJob> trackedJobs) {
+        URI uri;
+        try {
+            uri = new URI(buildUrl);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException(String.format("Invalid build url %s", buildUrl), e);
+        }
+        String path = StringUtils.defaultString(uri.getRawPath()).toLowerCase();
+        if (!("http".equals(uri.getScheme()) || "https".equals(uri.getScheme())) || uri.getRawUserInfo() != null
+                || uri.getRawQuery() != null || uri.getRawFragment() != null || !uri.normalize().equals(uri)
+                || path.contains("%2e") || path.contains("%2f")) {
+            throw new IllegalArgumentException(String.format("Invalid build url %s", buildUrl));
+        }
+        Set<String> roots = new LinkedHashSet<>();
+        synchronized (refreshes) {
+            for (JenkinsReportRefreshDescriptor desc : refreshes.values()) {
+                roots.add(getJenkinsRoot(desc.getJenkinsURL()));
+            }
+        }
+        for (JenkinsJob job : trackedJobs) {
+            roots.add(getJenkinsRoot(job.getUrl()));
+        }
+        for (String root : roots) {
+            if (root != null && buildUrl.startsWith(root + "job/")) {
+                return;
+            }
+        }
+        throw new IllegalArgumentException(String.format("Build url %s does not belong to a known Jenkins instance",
+                buildUrl));
+    }
+
+    /**
+     * Returns the root url of the Jenkins instance of given job, view or api url, ending with a slash, or null if
+     * blank.
+     */
+    protected static String getJenkinsRoot(String url) {
+        if (StringUtils.isBlank(url)) {
+            return null;
+        }
+        int index = url.length();
+        for (String segment : new String[] { "/job/", "/view/", "/api/" }) {
+            int segmentIndex = url.indexOf(segment);
+            if (segmentIndex >= 0 && segmentIndex < index) {
+                index = segmentIndex;
+            }
+        }
+        String res = url.substring(0, index);
+        return res.endsWith("/") ? res : res + "/";
+    }
+
+    @Override
+    public JenkinsCommentRenderer getCommentRenderer() {
+        JenkinsCommentRenderingDescriptor desc;
+        synchronized (commentRenderings) {
+            if (commentRenderings.isEmpty()) {
+                return null;
+            }
+            desc = commentRenderings.get(commentRenderings.size() - 1);
+        }
+        if (!desc.isEnabled()) {
+            return null;
+        }
+        List<String> projects = desc.getJiraProjects();
+        return JenkinsCommentRenderer.getInstance(desc.getJiraURL(), projects.toArray(new String[projects.size()]));
+    }
+
+    protected int scheduleRefreshes(JenkinsReportRefreshDescriptor desc) {
+        String repositoryName = desc.getRepository();
+        if (StringUtils.isBlank(repositoryName)) {
+            repositoryName = Framework.getService(RepositoryManager.class).getDefaultRepositoryName();
+        }
+        final String repo = repositoryName;
+        JenkinsFetchMode fetchMode = JenkinsFetchMode.fromString(desc.getFetchMode());
+        Map<String, String> jenkinsURLs = CoreInstance.doPrivileged(repo, (CoreSession session) -> {
+            Map<String, String> res = new LinkedHashMap<>();
+            for (DocumentModel doc : session.query(desc.getQuery())) {
+                res.put(doc.getId(), desc.getJenkinsURL());
+            }
+            return res;
+        });
+        if (!jenkinsURLs.isEmpty()) {
+            scheduleBulkRefresh(repo, desc.getName(), jenkinsURLs, fetchMode, desc.getBatchSize());
+        }
+        return jenkinsURLs.size();
+    }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.service;
+
+import org.nuxeo.common.xmap.annotation.XNode;
+import org.nuxeo.common.xmap.annotation.XObject;
+
+/**
+ * Configuration of the background refresh of reports matching a query with jobs of a given Jenkins instance.
+ *
+ * @since 3.10.5
+ */
+@XObject("refresh")
+public class JenkinsReportRefreshDescriptor {
+
+    @XNode("@name")
+    protected String name;
+
+    @XNode("@enabled")
+    protected boolean enabled = true;
+
+    @XNode("repository")
+    protected String repository;
+
+    @XNode("query")
+    protected String query;
+
+    @XNode("jenkinsURL")
+    protected String jenkinsURL;
+
+    @XNode("fetchMode")
+    protected String fetchMode;
+
+    @XNode("batchSize")
+    protected int batchSize = JenkinsReportService.DEFAULT_BATCH_SIZE;
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the repository holding reports, or null for the default repository.
+     */
+    public String getRepository() {
+        return repository;
+    }
+
+    /**
+     * Returns the NXQL query selecting reports to refresh.
+     */
+    public String getQuery() {
+        return query;
+    }
+
+    public String getJenkinsURL() {
+        return jenkinsURL;
+    }
+
+    public String getFetchMode() {
+        return fetchMode;
+    }
+
+    /**
+     * Returns the number of reports saved per transaction.
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+}
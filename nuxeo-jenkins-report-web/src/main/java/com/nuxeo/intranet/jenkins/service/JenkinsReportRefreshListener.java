@@ -0,0 +1,39 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.service;
+
+import org.nuxeo.ecm.core.event.Event;
+import org.nuxeo.ecm.core.event.EventListener;
+import org.nuxeo.runtime.api.Framework;
+
+/**
+ * Schedules the refresh of configured reports when receiving the {@link JenkinsReportService#REFRESH_EVENT}.
+ *
+ * @since 3.10.5
+ */
+public class JenkinsReportRefreshListener implements EventListener {
+
+    @Override
+    public void handleEvent(Event event) {
+        if (JenkinsReportService.REFRESH_EVENT.equals(event.getName())) {
+            Framework.getService(JenkinsReportService.class).scheduleRefreshes();
+        }
+    }
+
+}
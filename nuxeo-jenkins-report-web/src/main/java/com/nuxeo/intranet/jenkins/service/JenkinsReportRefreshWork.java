@@ -0,0 +1,204 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.nuxeo.ecm.core.api.CoreInstance;
+import org.nuxeo.ecm.core.api.CoreSession;
+import org.nuxeo.ecm.core.api.DocumentModel;
+import org.nuxeo.ecm.core.api.IdRef;
+import org.nuxeo.ecm.core.api.NuxeoException;
+import org.nuxeo.ecm.core.event.EventService;
+import org.nuxeo.ecm.core.event.impl.DocumentEventContext;
+import org.nuxeo.ecm.core.work.AbstractWork;
+import org.nuxeo.runtime.api.Framework;
+import org.nuxeo.runtime.transaction.TransactionHelper;
+
+import com.nuxeo.intranet.jenkins.http.JenkinsClusterCoordinator;
+import com.nuxeo.intranet.jenkins.web.JenkinsFetchMode;
+import com.nuxeo.intranet.jenkins.web.JenkinsJob;
+import com.nuxeo.intranet.jenkins.web.JenkinsJobStorage;
+import com.nuxeo.intranet.jenkins.web.JenkinsJobsRetriever;
+import com.nuxeo.intranet.jenkins.web.JenkinsJsonConverter;
+import com.nuxeo.intranet.jenkins.web.JenkinsReportFields;
+
+/**
+ * Refreshes the jobs of a report with data retrieved from Jenkins.
+ * <p>
+ * Jenkins is queried outside of any transaction: the report is read in a first transaction, and updated in a second
+ * one, merging retrieved jobs with the jobs it holds at that time.
+ * <p>
+ * A report is refreshed by a single work at a time, on this node or on any node of a cluster, see
+ * {@link JenkinsReportService#getRefreshCoordinator()}.
+ *
+ * @since 3.10.5
+ */
+public class JenkinsReportRefreshWork extends AbstractWork {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Log log = LogFactory.getLog(JenkinsReportRefreshWork.class);
+
+    public static final String CATEGORY = "jenkinsReportRefresh";
+
+    protected final String jenkinsURL;
+
+    protected final String fetchMode;
+
+    public JenkinsReportRefreshWork(String repositoryName, String docId, String jenkinsURL,
+            JenkinsFetchMode fetchMode) {
+        super(getWorkId(repositoryName, docId));
+        setDocument(repositoryName, docId);
+        this.jenkinsURL = jenkinsURL;
+        this.fetchMode = fetchMode == null ? null : fetchMode.name();
+    }
+
+    /**
+     * Returns the id of the work refreshing given report, so that a report is not refreshed twice concurrently.
+     */
+    public static String getWorkId(String repositoryName, String docId) {
+        return CATEGORY + ":" + repositoryName + ":" + docId;
+    }
+
+    @Override
+    public String getCategory() {
+        return CATEGORY;
+    }
+
+    @Override
+    public String getTitle() {
+        return "Jenkins report refresh: " + docId;
+    }
+
+    @Override
+    public boolean isTransactional() {
+        return false;
+    }
+
+    @Override
+    public void work() {
+        JenkinsClusterCoordinator coordinator = getRefreshCoordinator();
+        if (coordinator == null) {
+            refresh();
+            return;
+        }
+        String key = getLeaseKey(repositoryName, docId);
+        JenkinsClusterCoordinator.Lease lease = coordinator.acquire(key);
+        if (lease == null) {
+            // refreshed again once the other refresh is done, to merge jobs changed since it started
+            setStatus("Waiting for another refresh");
+            try {
+                lease = coordinator.acquireWaiting(key);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new NuxeoException("Interrupted while waiting for another refresh of report " + docId, e);
+            }
+            if (lease == null) {
+                log.warn(String.format("Report %s still being refreshed by node %s, skipping refresh", docId,
+                        coordinator.getOwner(key)));
+                setStatus("Skipped, still being refreshed by another work");
+                return;
+            }
+        }
+        try {
+            refresh();
+        } finally {
+            lease.release();
+        }
+    }
+
+    /**
+     * Returns the key of the lease held by the cluster node refreshing given report.
+     *
+     * @since 3.10.5
+     */
+    public static String getLeaseKey(String repositoryName, String docId) {
+        return "report:" + repositoryName + ":" + docId;
+    }
+
+    /**
+     * Returns the coordinator of report refreshes, or null if the report service is not available.
+     *
+     * @see JenkinsReportService#getRefreshCoordinator()
+     */
+    protected static JenkinsClusterCoordinator getRefreshCoordinator() {
+        JenkinsReportService service = Framework.getService(JenkinsReportService.class);
+        return service == null ? null : service.getRefreshCoordinator();
+    }
+
+    protected void refresh() {
+        setStatus("Reading report");
+        List<JenkinsJob> oldData = TransactionHelper.runInTransaction(() -> {
+            return CoreInstance.doPrivileged(repositoryName, (CoreSession s) -> {
+                return getJobs(s.getDocument(new IdRef(docId)));
+            });
+        });
+
+        setStatus("Retrieving jobs from Jenkins");
+        JenkinsJobsRetriever retriever = new JenkinsJobsRetriever();
+        JenkinsJsonConverter cv = retriever.newConverter(JenkinsFetchMode.fromString(fetchMode));
+        List<JenkinsJob> jenkinsData;
+        String error = null;
+        try {
+            jenkinsData = retriever.retrieveJobs(jenkinsURL, cv, oldData);
+        } catch (IOException e) {
+            log.error(e, e);
+            jenkinsData = null;
+            error = String.format("Error while retrieving jobs from Jenkins: %s", e.getMessage());
+        }
+        List<String> messages = new ArrayList<String>(retriever.drainFetchErrors());
+        if (error != null) {
+            messages.add(error);
+        }
+
+        setStatus("Saving report");
+        final List<JenkinsJob> retrieved = jenkinsData;
+        TransactionHelper.runInTransaction(() -> {
+            CoreInstance.doPrivileged(repositoryName, (CoreSession s) -> {
+                DocumentModel doc = s.getDocument(new IdRef(docId));
+                if (retrieved != null) {
+                    // only write changed rows, unless stored as a blob
+                    List<JenkinsJob> mergedData = cv.merge(getJobs(doc), retrieved);
+                    int touched = JenkinsJobStorage.setJobs(doc, mergedData, cv.getChanges());
+                    if (log.isDebugEnabled()) {
+                        log.debug(String.format("Report %s: %s rows touched (%s)", docId, Integer.valueOf(touched),
+                                cv.getChanges()));
+                    }
+                }
+                doc.setPropertyValue(JenkinsReportFields.LAST_UPDATE_FEEDBACK_PROPERTY,
+                        retriever.computeLastUpdateFeedbackMessage(retrieved == null ? null : cv, messages,
+                                !JenkinsJobStorage.isBlobStorage(doc)));
+                doc = s.saveDocument(doc);
+                DocumentEventContext ctx = new DocumentEventContext(s, s.getPrincipal(), doc);
+                Framework.getService(EventService.class).fireEvent(ctx.newEvent(JenkinsReportService.REFRESHED_EVENT));
+            });
+        });
+        setStatus("Done");
+    }
+
+    protected List<JenkinsJob> getJobs(DocumentModel doc) {
+        return JenkinsJobStorage.getJobs(doc);
+    }
+
+}
@@ -0,0 +1,133 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.service;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.nuxeo.ecm.core.api.CoreSession;
+
+import com.nuxeo.intranet.jenkins.http.JenkinsBuildCache;
+import com.nuxeo.intranet.jenkins.http.JenkinsClusterCoordinator;
+import com.nuxeo.intranet.jenkins.web.JenkinsCommentRenderer;
+import com.nuxeo.intranet.jenkins.web.JenkinsFetchMode;
+
+import net.sf.json.JSONObject;
+
+/**
+ * Service refreshing Jenkins reports in the background.
+ *
+ * @since 3.10.5
+ */
+public interface JenkinsReportService {
+
+    /**
+     * Event triggering the refresh of reports matching contributed refresh configurations, typically sent by a
+     * scheduler.
+     */
+    String REFRESH_EVENT = "jenkinsReportRefresh";
+
+    /**
+     * Event sent on a report once its jobs have been refreshed.
+     */
+    String REFRESHED_EVENT = "jenkinsReportRefreshed";
+
+    /**
+     * Schedules the refresh of given report with jobs retrieved from given Jenkins url, after current transaction
+     * commit. Does nothing if a refresh of this report is already scheduled or running.
+     *
+     * @return the id of the refresh work
+     */
+    String scheduleRefresh(String repositoryName, String docId, String jenkinsURL, JenkinsFetchMode fetchMode);
+
+    /**
+     * Default number of reports saved per transaction by bulk refreshes.
+     */
+    int DEFAULT_BATCH_SIZE = 20;
+
+    /**
+     * Schedules the refresh of given reports with jobs retrieved from their Jenkins url, after current transaction
+     * commit: each distinct url is crawled once for all its reports, and reports are saved by batches of given size, a
+     * transaction per batch. Does nothing if a bulk refresh with the same name is already scheduled or running.
+     *
+     * @param name the name of this bulk refresh
+     * @param jenkinsURLs the Jenkins urls of reports to refresh, by report id
+     * @return the id of the refresh work
+     * @see JenkinsReportBulkRefreshWork
+     */
+    String scheduleBulkRefresh(String repositoryName, String name, Map<String, String> jenkinsURLs,
+            JenkinsFetchMode fetchMode, int batchSize);
+
+    /**
+     * Returns true if a refresh of given report is scheduled or running, by a single or a bulk refresh, on this node
+     * or on another node of a cluster.
+     */
+    boolean isRefreshInProgress(String repositoryName, String docId);
+
+    /**
+     * Returns the coordinator of refreshes between nodes of a cluster, or null if disabled.
+     */
+    JenkinsClusterCoordinator getClusterCoordinator();
+
+    /**
+     * Returns the cache of completed builds shared by nodes of a cluster, or null if disabled.
+     */
+    JenkinsBuildCache getBuildCache();
+
+    /**
+     * Returns the coordinator of report refreshes, holding a lease per report being refreshed, see
+     * {@link JenkinsReportRefreshWork#getLeaseKey}: leases are shared by the nodes of a cluster when cluster
+     * coordination is enabled, and only held by this node otherwise, so that single and bulk refreshes never save the
+     * same report concurrently.
+     */
+    JenkinsClusterCoordinator getRefreshCoordinator();
+
+    /**
+     * Schedules the refresh of all reports matching enabled refresh configurations, with a bulk refresh per
+     * configuration.
+     *
+     * @return the number of reports to refresh
+     */
+    int scheduleRefreshes();
+
+    /**
+     * Merges the completed build described by given Jenkins notification into the reports already holding its job, or
+     * another run of its multiosdb job, accessible with given session.
+     * <p>
+     * Only the url of the build is read from the notification: the build is retrieved from Jenkins, provided its url
+     * belongs to the Jenkins instance of a refresh configuration or of the jobs held by these reports. Jobs of builds
+     * that are not held by a report yet are added on next full refresh, as the jobs of its Jenkins view are not known
+     * here.
+     *
+     * @return the number of updated reports
+     * @throws IllegalArgumentException if the build url does not belong to a known Jenkins instance
+     * @throws IOException if the build cannot be retrieved
+     * @see com.nuxeo.intranet.jenkins.web.JenkinsJsonConverter#convertNotifiedBuild
+     */
+    int updateFromBuild(CoreSession session, JSONObject notification) throws IOException;
+
+    /**
+     * Returns the renderer of job comments stored on reports when merging jobs, or null if comments should not be
+     * rendered at merge time.
+     *
+     * @see com.nuxeo.intranet.jenkins.web.JenkinsJsonConverter#setCommentRenderer
+     */
+    JenkinsCommentRenderer getCommentRenderer();
+
+}
@@ -0,0 +1,54 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.service;
+
+import org.nuxeo.ecm.core.api.DocumentModel;
+import org.nuxeo.ecm.core.api.event.DocumentEventTypes;
+import org.nuxeo.ecm.core.event.Event;
+import org.nuxeo.ecm.core.event.EventContext;
+import org.nuxeo.ecm.core.event.EventListener;
+import org.nuxeo.ecm.core.event.impl.DocumentEventContext;
+
+import com.nuxeo.intranet.jenkins.web.JenkinsJobStorage;
+
+/**
+ * Moves jobs held by the complex list property of reports stored as a blob to the blob before they are saved, for
+ * instance when setting the {@link JenkinsJobStorage#BLOB_STORAGE_FACET} facet on an existing report.
+ *
+ * @since 3.10.5
+ */
+public class JenkinsReportStorageListener implements EventListener {
+
+    @Override
+    public void handleEvent(Event event) {
+        if (!DocumentEventTypes.ABOUT_TO_CREATE.equals(event.getName())
+                && !DocumentEventTypes.BEFORE_DOC_UPDATE.equals(event.getName())) {
+            return;
+        }
+        EventContext ctx = event.getContext();
+        if (!(ctx instanceof DocumentEventContext)) {
+            return;
+        }
+        DocumentModel doc = ((DocumentEventContext) ctx).getSourceDocument();
+        if (doc != null && JenkinsJobStorage.isBlobStorage(doc)) {
+            JenkinsJobStorage.moveItemsToBlob(doc);
+        }
+    }
+
+}
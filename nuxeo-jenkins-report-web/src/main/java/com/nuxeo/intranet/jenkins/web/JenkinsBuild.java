@@ -0,0 +1,138 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.web;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Immutable info about a Jenkins build: number, result, claim and culprits.
+ *
+ * @since 3.10.5
+ */
+public final class JenkinsBuild implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Number of a build that could not be retrieved.
+     */
+    public static final int NO_NUMBER = -1;
+
+    /**
+     * Build that could not be retrieved.
+     */
+    public static final JenkinsBuild NONE = new JenkinsBuild(NO_NUMBER, null, null, null, null);
+
+    private final int number;
+
+    private final JenkinsBuildResult result;
+
+    private final String claimer;
+
+    private final String comment;
+
+    private final List<String> culprits;
+
+    public JenkinsBuild(int number, JenkinsBuildResult result, String claimer, String comment,
+            List<String> culprits) {
+        this.number = number;
+        this.result = result;
+        this.claimer = claimer;
+        this.comment = comment;
+        this.culprits = culprits == null || culprits.isEmpty() ? Collections.<String> emptyList()
+                : Collections.unmodifiableList(new ArrayList<String>(culprits));
+    }
+
+    /**
+     * Returns the build number, or {@link #NO_NUMBER}.
+     */
+    public int getNumber() {
+        return number;
+    }
+
+    /**
+     * Returns the build result, or null if not known.
+     */
+    public JenkinsBuildResult getResult() {
+        return result;
+    }
+
+    public String getClaimer() {
+        return claimer;
+    }
+
+    /**
+     * Returns the claim reason and build description.
+     */
+    public String getComment() {
+        return comment;
+    }
+
+    /**
+     * Returns the unmodifiable list of culprits.
+     */
+    public List<String> getCulprits() {
+        return culprits;
+    }
+
+    /**
+     * Returns a copy of this build, with given claim info, or this build if claim info did not change.
+     */
+    public JenkinsBuild withClaim(String claimer, String comment) {
+        if (Objects.equals(this.claimer, claimer) && Objects.equals(this.comment, comment)) {
+            return this;
+        }
+        return new JenkinsBuild(number, result, claimer, comment, culprits);
+    }
+
+    /**
+     * Returns a copy of this build, with given result.
+     */
+    public JenkinsBuild withResult(JenkinsBuildResult result) {
+        return new JenkinsBuild(number, result, claimer, comment, culprits);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof JenkinsBuild)) {
+            return false;
+        }
+        JenkinsBuild other = (JenkinsBuild) obj;
+        return number == other.number && result == other.result && Objects.equals(claimer, other.claimer)
+                && Objects.equals(comment, other.comment) && culprits.equals(other.culprits);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(Integer.valueOf(number), result, claimer, comment, culprits);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("JenkinsBuild(%s, %s)", Integer.valueOf(number), result);
+    }
+
+}
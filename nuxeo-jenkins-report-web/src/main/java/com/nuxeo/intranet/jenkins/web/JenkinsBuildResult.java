@@ -0,0 +1,64 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.web;
+
+import org.apache.commons.lang.StringUtils;
+
+/**
+ * Result of a Jenkins build.
+ *
+ * @since 3.10.5
+ */
+public enum JenkinsBuildResult {
+
+    SUCCESS, UNSTABLE, FAILURE, NOT_BUILT, ABORTED,
+
+    /**
+     * Result that could not be retrieved, stored as an empty string. Stored values that are not Jenkins results are
+     * read as this result too, they are kept as is by {@link JenkinsJob}.
+     */
+    UNKNOWN;
+
+    /**
+     * Returns the value stored on reports.
+     */
+    public String getValue() {
+        return this == UNKNOWN ? "" : name();
+    }
+
+    /**
+     * Returns the result with given Jenkins or stored value, {@link #UNKNOWN} if blank or not a Jenkins result, or
+     * null if null.
+     */
+    public static JenkinsBuildResult fromString(String value) {
+        if (value == null) {
+            return null;
+        }
+        if (!StringUtils.isBlank(value)) {
+            String name = value.trim();
+            for (JenkinsBuildResult result : values()) {
+                if (result.name().equals(name)) {
+                    return result;
+                }
+            }
+        }
+        return UNKNOWN;
+    }
+
+}
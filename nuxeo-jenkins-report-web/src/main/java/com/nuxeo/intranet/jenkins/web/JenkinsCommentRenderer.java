@@ -0,0 +1,212 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.web;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang.StringUtils;
+
+/**
+ * Renders job comments to HTML, escaping them and turning mentions of JIRA issues into links, in a single pass.
+ * <p>
+ * Instances are immutable and shared: use {@link #getInstance(String, String[])} to retrieve the renderer of given
+ * JIRA url and projects, compiled once.
+ *
+ * @since 3.10.5
+ */
+public class JenkinsCommentRenderer {
+
+    /**
+     * Maximum number of cached renderers, the cache is cleared when reached.
+     */
+    public static final int MAX_RENDERERS = 100;
+
+    /**
+     * Renderer escaping comments without adding any link.
+     */
+    public static final JenkinsCommentRenderer NO_LINKS = new JenkinsCommentRenderer(null, null);
+
+    protected static final Map<List<Object>, JenkinsCommentRenderer> renderers = new ConcurrentHashMap<>();
+
+    protected final String jiraURL;
+
+    protected final String[] jiraProjects;
+
+    protected final Pattern pattern;
+
+    protected JenkinsCommentRenderer(String jiraURL, String[] jiraProjects) {
+        this.jiraURL = jiraURL;
+        this.jiraProjects = jiraProjects;
+        this.pattern = compile(jiraProjects);
+    }
+
+    /**
+     * Returns the renderer linking issues of given JIRA projects to given JIRA url, or {@link #NO_LINKS} if the url
+     * or projects are not set.
+     */
+    public static JenkinsCommentRenderer getInstance(String jiraURL, String[] jiraProjects) {
+        if (StringUtils.isBlank(jiraURL) || jiraProjects == null || jiraProjects.length == 0) {
+            return NO_LINKS;
+        }
+        JenkinsCommentRenderer res = renderers.get(getKey(jiraURL, jiraProjects));
+        if (res == null) {
+            if (renderers.size() >= MAX_RENDERERS) {
+                renderers.clear();
+            }
+            // copy projects as the key should not change
+            String[] projects = jiraProjects.clone();
+            res = new JenkinsCommentRenderer(jiraURL, projects);
+            if (res.pattern == null) {
+                // blank projects only
+                res = NO_LINKS;
+            }
+            renderers.put(getKey(jiraURL, projects), res);
+        }
+        return res;
+    }
+
+    protected static List<Object> getKey(String jiraURL, String[] jiraProjects) {
+        return Arrays.<Object> asList(jiraURL, Arrays.asList(jiraProjects));
+    }
+
+    /**
+     * Returns the pattern matching issues of given projects, or null if there is no project.
+     */
+    protected static Pattern compile(String[] jiraProjects) {
+        if (jiraProjects == null) {
+            return null;
+        }
+        List<String> projects = new ArrayList<String>();
+        for (String project : jiraProjects) {
+            if (!StringUtils.isBlank(project)) {
+                projects.add(Pattern.quote(project.trim()));
+            }
+        }
+        if (projects.isEmpty()) {
+            return null;
+        }
+        return Pattern.compile("\\b(" + StringUtils.join(projects, "|") + ")-\\d+\\b", Pattern.CASE_INSENSITIVE);
+    }
+
+    /**
+     * Returns the HTML rendering of given text: special characters are escaped, line breaks are kept and JIRA issues
+     * are turned into links.
+     */
+    public String render(String text) {
+        return render(text, null);
+    }
+
+    /**
+     * Returns the HTML rendering of given text, see {@link #render(String)}, adding linked JIRA issues to given
+     * collection, if not null.
+     */
+    public String render(String text, Collection<String> jiraIssues) {
+        if (text == null) {
+            return null;
+        }
+        StringBuilder res = new StringBuilder(text.length() + 16);
+        int lastIndex = 0;
+        if (pattern != null) {
+            Matcher m = pattern.matcher(text);
+            while (m.find()) {
+                appendText(res, text, lastIndex, m.start());
+                String jiraIssue = m.group().toUpperCase(Locale.ENGLISH);
+                appendLink(res, jiraIssue);
+                if (jiraIssues != null) {
+                    jiraIssues.add(jiraIssue);
+                }
+                lastIndex = m.end();
+            }
+        }
+        appendText(res, text, lastIndex, text.length());
+        return res.toString();
+    }
+
+    protected void appendLink(StringBuilder res, String jiraIssue) {
+        res.append("<a href=\"");
+        appendText(res, jiraURL, 0, jiraURL.length());
+        res.append(jiraIssue).append("\" target=\"_blank\">").append(jiraIssue).append("</a>");
+    }
+
+    /**
+     * Appends given text range, escaped, replacing line breaks by HTML breaks.
+     */
+    protected static void appendText(StringBuilder res, String text, int start, int end) {
+        int unescaped = start;
+        for (int i = start; i < end; i++) {
+            String escaped;
+            switch (text.charAt(i)) {
+            case '&':
+                escaped = "&amp;";
+                break;
+            case '<':
+                escaped = "&lt;";
+                break;
+            case '>':
+                escaped = "&gt;";
+                break;
+            case '"':
+                escaped = "&quot;";
+                break;
+            case '\'':
+                escaped = "&#39;";
+                break;
+            case '\n':
+                escaped = "<br />\n";
+                break;
+            default:
+                continue;
+            }
+            res.append(text, unescaped, i).append(escaped);
+            unescaped = i + 1;
+        }
+        res.append(text, unescaped, end);
+    }
+
+    /**
+     * Renderers are equal if they link issues of the same JIRA projects to the same url, so that renderings they
+     * produce are the same.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof JenkinsCommentRenderer)) {
+            return false;
+        }
+        JenkinsCommentRenderer other = (JenkinsCommentRenderer) obj;
+        return Objects.equals(jiraURL, other.jiraURL) && Arrays.equals(jiraProjects, other.jiraProjects);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(jiraURL, Arrays.hashCode(jiraProjects));
+    }
+
+}
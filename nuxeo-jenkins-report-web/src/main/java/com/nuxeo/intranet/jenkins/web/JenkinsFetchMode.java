@@ -0,0 +1,127 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.web;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+
+import org.apache.commons.lang.StringUtils;
+
+/**
+ * Strategies for retrieving jobs information from the Jenkins json API.
+ *
+ * @since 3.10.5
+ */
+public enum JenkinsFetchMode {
+
+    /**
+     * Retrieves the list of jobs with a summary of their last completed build, then the last completed build of each
+     * failing job that changed since previous retrieval, and the runs of multiosdb builds.
+     */
+    JOBS,
+
+    /**
+     * Retrieves the list of jobs together with their last completed build and runs in a single request, using a
+     * Jenkins tree filter selecting fields needed by {@link JenkinsJsonConverter#convertBuild}.
+     */
+    TREE;
+
+    /**
+     * Build fields needed by the converter.
+     */
+    public static final String BUILD_TREE = "number,result,description,url,culprits[fullName],"
+            + "actions[claimed,claimedBy,reason]";
+
+    /**
+     * Build fields needed by the converter, including the runs of multiosdb builds.
+     */
+    public static final String BUILD_WITH_RUNS_TREE = BUILD_TREE + ",runs[" + BUILD_TREE + "]";
+
+    /**
+     * Build fields needed by the converter for a notified build, that might still be running.
+     *
+     * @since 3.10.5
+     */
+    public static final String NOTIFIED_BUILD_TREE = "building," + BUILD_WITH_RUNS_TREE;
+
+    public static final String JOBS_TREE = "jobs[name,url,color,lastCompletedBuild[" + BUILD_WITH_RUNS_TREE + "]]";
+
+    /**
+     * Build fields needed to check if a build changed since previous retrieval, and to refresh its claim info.
+     */
+    public static final String BUILD_SUMMARY_TREE = "number,description,actions[claimed,claimedBy,reason]";
+
+    public static final String JOBS_SUMMARY_TREE = "jobs[name,url,color,lastCompletedBuild[" + BUILD_SUMMARY_TREE
+            + "]]";
+
+    /**
+     * Returns the query string to append to the jobs list api url.
+     */
+    public String getJobsQuery() {
+        if (this == TREE) {
+            return getTreeQuery(JOBS_TREE);
+        }
+        return getTreeQuery(JOBS_SUMMARY_TREE);
+    }
+
+    /**
+     * Returns the query string to append to a build api url.
+     */
+    public String getBuildQuery() {
+        if (this == TREE) {
+            return getTreeQuery(BUILD_WITH_RUNS_TREE);
+        }
+        return "";
+    }
+
+    /**
+     * Returns the query string to append to the api url of a notified build.
+     *
+     * @since 3.10.5
+     */
+    public String getNotifiedBuildQuery() {
+        if (this == TREE) {
+            return getTreeQuery(NOTIFIED_BUILD_TREE);
+        }
+        return "";
+    }
+
+    protected static String getTreeQuery(String tree) {
+        try {
+            return "?tree=" + URLEncoder.encode(tree, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns the mode with given name, ignoring case, or {@link #JOBS} if name is blank or unknown.
+     */
+    public static JenkinsFetchMode fromString(String name) {
+        if (!StringUtils.isBlank(name)) {
+            for (JenkinsFetchMode mode : values()) {
+                if (mode.name().equalsIgnoreCase(name.trim())) {
+                    return mode;
+                }
+            }
+        }
+        return JOBS;
+    }
+
+}
@@ -0,0 +1,498 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.web;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.apache.commons.lang.StringUtils;
+
+/**
+ * Immutable info about a failing Jenkins job, as held by a report: its last retrieved build, and the build that
+ * replaced it since then, if any.
+ * <p>
+ * Jobs are stored on reports as items of the {@link JenkinsReportFields#JOBS_PROPERTY} complex list property, see
+ * {@link #fromMap} and {@link #toMap}.
+ *
+ * @since 3.10.5
+ */
+public final class JenkinsJob implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final String JOB_ID = "job_id";
+
+    public static final String JOB_URL = "job_url";
+
+    public static final String BUILD_NUMBER = "build_number";
+
+    public static final String TYPE = "type";
+
+    public static final String CLAIMER = "claimer";
+
+    public static final String COMMENT = "comment";
+
+    public static final String CULPRITS = "culprits";
+
+    public static final String UPDATED_BUILD_NUMBER = "updated_build_number";
+
+    public static final String UPDATED_TYPE = "updated_type";
+
+    public static final String UPDATED_COMMENT = "updated_comment";
+
+    public static final String NEWLY_FAILING = "newly_failing";
+
+    public static final String COMMENT_HTML = "comment_html";
+
+    public static final String UPDATED_COMMENT_HTML = "updated_comment_html";
+
+    public static final String JIRA_ISSUES = "jira_issues";
+
+    protected static final Set<String> FIELDS = Collections.unmodifiableSet(new HashSet<String>(Arrays.asList(JOB_ID,
+            JOB_URL, BUILD_NUMBER, TYPE, CLAIMER, COMMENT, CULPRITS, UPDATED_BUILD_NUMBER, UPDATED_TYPE,
+            UPDATED_COMMENT, NEWLY_FAILING, COMMENT_HTML, UPDATED_COMMENT_HTML, JIRA_ISSUES)));
+
+    private final String id;
+
+    private final String url;
+
+    private final JenkinsBuild build;
+
+    private final int updatedBuildNumber;
+
+    private final JenkinsBuildResult updatedResult;
+
+    private final String updatedComment;
+
+    private final boolean newlyFailing;
+
+    /**
+     * Stored values of the {@link #TYPE} and {@link #UPDATED_TYPE} fields that are not Jenkins results, kept as is
+     * while the matching result is not updated, or null.
+     */
+    private final String storedType;
+
+    private final String storedUpdatedType;
+
+    /**
+     * Rendered comments and JIRA issues they mention, or null if not rendered, see {@link #withRenderedComments}.
+     */
+    private final Rendering rendering;
+
+    /**
+     * Other fields of the stored item, kept as is, or null.
+     */
+    private final Map<String, Serializable> extra;
+
+    public JenkinsJob(String id, String url, JenkinsBuild build) {
+        this(id, url, build, JenkinsBuild.NO_NUMBER, null, null, false, null, null, null, null);
+    }
+
+    private JenkinsJob(String id, String url, JenkinsBuild build, int updatedBuildNumber,
+            JenkinsBuildResult updatedResult, String updatedComment, boolean newlyFailing, String storedType,
+            String storedUpdatedType, Rendering rendering, Map<String, Serializable> extra) {
+        this.id = id;
+        this.url = url;
+        this.build = build == null ? JenkinsBuild.NONE : build;
+        this.updatedBuildNumber = updatedBuildNumber;
+        this.updatedResult = updatedResult;
+        this.updatedComment = updatedComment;
+        this.newlyFailing = newlyFailing;
+        this.storedType = storedType;
+        this.storedUpdatedType = storedUpdatedType;
+        this.rendering = rendering;
+        this.extra = extra;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * Returns the family of this job, see {@link JenkinsJobTable#getFamily}.
+     */
+    public String getFamily() {
+        return JenkinsJobTable.getFamily(id);
+    }
+
+    public JenkinsBuild getBuild() {
+        return build;
+    }
+
+    public int getBuildNumber() {
+        return build.getNumber();
+    }
+
+    public JenkinsBuildResult getResult() {
+        return build.getResult();
+    }
+
+    public String getClaimer() {
+        return build.getClaimer();
+    }
+
+    public String getComment() {
+        return build.getComment();
+    }
+
+    public List<String> getCulprits() {
+        return build.getCulprits();
+    }
+
+    /**
+     * Returns the number of the build that replaced the reported one, or {@link JenkinsBuild#NO_NUMBER}.
+     */
+    public int getUpdatedBuildNumber() {
+        return updatedBuildNumber;
+    }
+
+    public JenkinsBuildResult getUpdatedResult() {
+        return updatedResult;
+    }
+
+    public String getUpdatedComment() {
+        return updatedComment;
+    }
+
+    public boolean isNewlyFailing() {
+        return newlyFailing;
+    }
+
+    /**
+     * Returns the HTML rendering of the comment of the reported build, or null if not rendered.
+     */
+    public String getCommentHtml() {
+        return rendering == null ? null : rendering.commentHtml;
+    }
+
+    /**
+     * Returns the HTML rendering of the comment of the build that replaced the reported one, or null if not rendered.
+     */
+    public String getUpdatedCommentHtml() {
+        return rendering == null ? null : rendering.updatedCommentHtml;
+    }
+
+    /**
+     * Returns the JIRA issues mentioned in comments, in order of appearance, or null if comments were not rendered.
+     */
+    public List<String> getJiraIssues() {
+        return rendering == null ? null : rendering.jiraIssues;
+    }
+
+    /**
+     * Returns a copy of this job, with given claim info for the reported build, or this job if claim info did not
+     * change.
+     */
+    public JenkinsJob withClaim(String claimer, String comment) {
+        JenkinsBuild claimed = build.withClaim(claimer, comment);
+        if (claimed == build) {
+            return this;
+        }
+        return new JenkinsJob(id, url, claimed, updatedBuildNumber, updatedResult, updatedComment, newlyFailing,
+                storedType, storedUpdatedType, null, extra);
+    }
+
+    /**
+     * Returns a copy of this job, updated with given build that replaced the reported one: only the claimer of the
+     * reported build is replaced.
+     */
+    public JenkinsJob withUpdate(JenkinsBuild update) {
+        if (update.getNumber() == updatedBuildNumber && update.getResult() == updatedResult
+                && Objects.equals(update.getComment(), updatedComment)
+                && Objects.equals(update.getClaimer(), build.getClaimer())) {
+            return this;
+        }
+        return new JenkinsJob(id, url, build.withClaim(update.getClaimer(), build.getComment()), update.getNumber(),
+                update.getResult(), update.getComment(), newlyFailing, storedType,
+                update.getResult() == updatedResult ? storedUpdatedType : null, null, extra);
+    }
+
+    public JenkinsJob withNewlyFailing(boolean newlyFailing) {
+        return new JenkinsJob(id, url, build, updatedBuildNumber, updatedResult, updatedComment, newlyFailing,
+                storedType, storedUpdatedType, rendering, extra);
+    }
+
+    /**
+     * Returns a copy of this job holding the HTML rendering of its comments by given renderer, and the JIRA issues
+     * they mention, or this job if they did not change.
+     * <p>
+     * Renderings are dropped by copies changing comments, they need to be computed again.
+     */
+    public JenkinsJob withRenderedComments(JenkinsCommentRenderer renderer) {
+        Set<String> jiraIssues = new LinkedHashSet<String>();
+        String commentHtml = renderer.render(build.getComment(), jiraIssues);
+        String updatedCommentHtml = renderer.render(updatedComment, jiraIssues);
+        Rendering rendered = new Rendering(commentHtml, updatedCommentHtml, new ArrayList<String>(jiraIssues));
+        if (rendered.equals(rendering)) {
+            return this;
+        }
+        return new JenkinsJob(id, url, build, updatedBuildNumber, updatedResult, updatedComment, newlyFailing,
+                storedType, storedUpdatedType, rendered, extra);
+    }
+
+    /**
+     * Returns a copy of this job without the rendering of its comments, or this job if they were not rendered.
+     *
+     * @see #withRenderedComments(JenkinsCommentRenderer)
+     */
+    public JenkinsJob withoutRenderedComments() {
+        if (rendering == null) {
+            return this;
+        }
+        return new JenkinsJob(id, url, build, updatedBuildNumber, updatedResult, updatedComment, newlyFailing,
+                storedType, storedUpdatedType, null, extra);
+    }
+
+    /**
+     * Returns the job stored as given complex property item.
+     */
+    public static JenkinsJob fromMap(Map<String, ? extends Serializable> item) {
+        String type = asString(item.get(TYPE));
+        String updatedType = asString(item.get(UPDATED_TYPE));
+        JenkinsBuild build = new JenkinsBuild(parseNumber(item.get(BUILD_NUMBER)), JenkinsBuildResult.fromString(type),
+                asString(item.get(CLAIMER)), asString(item.get(COMMENT)), asList(item.get(CULPRITS)));
+        Rendering rendering = null;
+        if (item.get(COMMENT_HTML) != null || item.get(UPDATED_COMMENT_HTML) != null
+                || item.get(JIRA_ISSUES) != null) {
+            List<String> jiraIssues = asList(item.get(JIRA_ISSUES));
+            rendering = new Rendering(asString(item.get(COMMENT_HTML)), asString(item.get(UPDATED_COMMENT_HTML)),
+                    jiraIssues == null ? Collections.<String> emptyList() : jiraIssues);
+        }
+        Map<String, Serializable> extra = null;
+        for (Map.Entry<String, ? extends Serializable> entry : item.entrySet()) {
+            if (!FIELDS.contains(entry.getKey())) {
+                if (extra == null) {
+                    extra = new HashMap<String, Serializable>();
+                }
+                extra.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return new JenkinsJob(asString(item.get(JOB_ID)), asString(item.get(JOB_URL)), build,
+                parseNumber(item.get(UPDATED_BUILD_NUMBER)), JenkinsBuildResult.fromString(updatedType),
+                asString(item.get(UPDATED_COMMENT)), "true".equals(asString(item.get(NEWLY_FAILING))),
+                getStoredType(type), getStoredType(updatedType), rendering,
+                extra == null ? null : Collections.unmodifiableMap(extra));
+    }
+
+    /**
+     * Returns given stored type if it is not blank and not a Jenkins result, so that it is kept as is, or null.
+     */
+    protected static String getStoredType(String type) {
+        if (StringUtils.isBlank(type) || JenkinsBuildResult.fromString(type) != JenkinsBuildResult.UNKNOWN) {
+            return null;
+        }
+        return type;
+    }
+
+    /**
+     * Returns the complex property item storing this job.
+     */
+    public Map<String, Serializable> toMap() {
+        Map<String, Serializable> item = new HashMap<String, Serializable>();
+        if (extra != null) {
+            item.putAll(extra);
+        }
+        item.put(JOB_ID, id);
+        item.put(JOB_URL, url);
+        item.put(BUILD_NUMBER, formatNumber(build.getNumber()));
+        if (storedType != null) {
+            item.put(TYPE, storedType);
+        } else {
+            item.put(TYPE, build.getResult() == null ? null : build.getResult().getValue());
+        }
+        item.put(CLAIMER, build.getClaimer());
+        item.put(COMMENT, build.getComment());
+        item.put(CULPRITS, new ArrayList<String>(build.getCulprits()));
+        if (updatedBuildNumber != JenkinsBuild.NO_NUMBER) {
+            item.put(UPDATED_BUILD_NUMBER, formatNumber(updatedBuildNumber));
+        }
+        if (storedUpdatedType != null) {
+            item.put(UPDATED_TYPE, storedUpdatedType);
+        } else if (updatedResult != null) {
+            item.put(UPDATED_TYPE, updatedResult.getValue());
+        }
+        if (updatedComment != null) {
+            item.put(UPDATED_COMMENT, updatedComment);
+        }
+        if (newlyFailing) {
+            item.put(NEWLY_FAILING, "true");
+        }
+        if (rendering != null) {
+            item.put(COMMENT_HTML, rendering.commentHtml);
+            item.put(UPDATED_COMMENT_HTML, rendering.updatedCommentHtml);
+            item.put(JIRA_ISSUES, new ArrayList<String>(rendering.jiraIssues));
+        }
+        return item;
+    }
+
+    /**
+     * Returns the jobs stored as given complex property items, or null if null.
+     */
+    public static List<JenkinsJob> fromMaps(List<? extends Map<String, ? extends Serializable>> items) {
+        if (items == null) {
+            return null;
+        }
+        List<JenkinsJob> res = new ArrayList<JenkinsJob>(items.size());
+        for (Map<String, ? extends Serializable> item : items) {
+            res.add(fromMap(item));
+        }
+        return res;
+    }
+
+    /**
+     * Returns the complex property items storing given jobs, or null if null.
+     */
+    public static List<Map<String, Serializable>> toMaps(List<JenkinsJob> jobs) {
+        if (jobs == null) {
+            return null;
+        }
+        List<Map<String, Serializable>> res = new ArrayList<Map<String, Serializable>>(jobs.size());
+        for (JenkinsJob job : jobs) {
+            res.add(job.toMap());
+        }
+        return res;
+    }
+
+    protected static String asString(Serializable value) {
+        return value == null ? null : value.toString();
+    }
+
+    protected static int parseNumber(Serializable value) {
+        if (value instanceof Number) {
+            return ((Number) value).intValue();
+        }
+        String number = asString(value);
+        if (!StringUtils.isBlank(number) && StringUtils.isNumeric(number.trim())) {
+            try {
+                return Integer.parseInt(number.trim());
+            } catch (NumberFormatException e) {
+                // too big
+            }
+        }
+        return JenkinsBuild.NO_NUMBER;
+    }
+
+    protected static String formatNumber(int number) {
+        return number == JenkinsBuild.NO_NUMBER ? null : String.valueOf(number);
+    }
+
+    @SuppressWarnings("unchecked")
+    protected static List<String> asList(Serializable value) {
+        if (value instanceof List) {
+            List<String> res = new ArrayList<String>();
+            for (Object item : (List<Object>) value) {
+                if (item != null) {
+                    res.add(item.toString());
+                }
+            }
+            return res;
+        }
+        if (value instanceof Object[]) {
+            List<String> res = new ArrayList<String>();
+            for (Object item : (Object[]) value) {
+                if (item != null) {
+                    res.add(item.toString());
+                }
+            }
+            return res;
+        }
+        return null;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof JenkinsJob)) {
+            return false;
+        }
+        JenkinsJob other = (JenkinsJob) obj;
+        return Objects.equals(id, other.id) && Objects.equals(url, other.url) && build.equals(other.build)
+                && updatedBuildNumber == other.updatedBuildNumber && updatedResult == other.updatedResult
+                && Objects.equals(updatedComment, other.updatedComment) && newlyFailing == other.newlyFailing
+                && Objects.equals(storedType, other.storedType)
+                && Objects.equals(storedUpdatedType, other.storedUpdatedType)
+                && Objects.equals(rendering, other.rendering) && Objects.equals(extra, other.extra);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, url, build);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("JenkinsJob(%s, %s)", id, build);
+    }
+
+    /**
+     * Rendered comments of a job.
+     */
+    protected static final class Rendering implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        protected final String commentHtml;
+
+        protected final String updatedCommentHtml;
+
+        protected final List<String> jiraIssues;
+
+        protected Rendering(String commentHtml, String updatedCommentHtml, List<String> jiraIssues) {
+            this.commentHtml = commentHtml;
+            this.updatedCommentHtml = updatedCommentHtml;
+            this.jiraIssues = Collections.unmodifiableList(jiraIssues);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Rendering)) {
+                return false;
+            }
+            Rendering other = (Rendering) obj;
+            return Objects.equals(commentHtml, other.commentHtml)
+                    && Objects.equals(updatedCommentHtml, other.updatedCommentHtml)
+                    && jiraIssues.equals(other.jiraIssues);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(commentHtml, updatedCommentHtml);
+        }
+
+    }
+
+}
@@ -0,0 +1,303 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.web;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.nuxeo.ecm.core.api.DocumentModel;
+import org.nuxeo.ecm.core.api.model.Property;
+
+/**
+ * Rows of the {@link JenkinsReportFields#JOBS_PROPERTY} list to add, remove or modify, keyed by job id, to turn
+ * stored jobs into merged ones, so that only these rows are written when saving a report.
+ * <p>
+ * Changes cannot be applied row by row when stored jobs have no id or the same id, or when merged jobs do not keep
+ * their order: the whole list is rewritten then, see {@link #isRewrite()}.
+ *
+ * @since 3.10.5
+ */
+public class JenkinsJobChanges {
+
+    protected final List<JenkinsJob> jobs;
+
+    protected final boolean rewrite;
+
+    protected final List<Map<String, Serializable>> added = new ArrayList<>();
+
+    protected final Set<String> removed = new HashSet<>();
+
+    /**
+     * Changed fields by job id, with null values for removed fields.
+     */
+    protected final Map<String, Map<String, Serializable>> modified = new HashMap<>();
+
+    /**
+     * Computes the changes turning given old jobs into given new ones.
+     */
+    public JenkinsJobChanges(List<JenkinsJob> oldJobs, List<JenkinsJob> newJobs) {
+        jobs = newJobs == null ? Collections.<JenkinsJob> emptyList() : newJobs;
+        rewrite = !diff(oldJobs == null ? Collections.<JenkinsJob> emptyList() : oldJobs);
+        if (rewrite) {
+            added.clear();
+            removed.clear();
+            modified.clear();
+        }
+    }
+
+    /**
+     * Fills changes, returns false if they cannot be applied row by row.
+     */
+    protected boolean diff(List<JenkinsJob> oldJobs) {
+        Map<String, Integer> oldPositions = new HashMap<>();
+        for (int i = 0; i < oldJobs.size(); i++) {
+            String id = oldJobs.get(i).getId();
+            if (id == null || oldPositions.put(id, Integer.valueOf(i)) != null) {
+                return false;
+            }
+        }
+        Set<String> kept = new HashSet<>();
+        int lastPosition = -1;
+        for (JenkinsJob job : jobs) {
+            String id = job.getId();
+            Integer position = id == null ? null : oldPositions.get(id);
+            if (position == null) {
+                added.add(job.toMap());
+                continue;
+            }
+            if (!added.isEmpty() || position.intValue() < lastPosition || !kept.add(id)) {
+                // old jobs follow new ones, or are moved or duplicated
+                return false;
+            }
+            lastPosition = position.intValue();
+            JenkinsJob oldJob = oldJobs.get(position.intValue());
+            if (!oldJob.equals(job)) {
+                Map<String, Serializable> fields = diff(oldJob.toMap(), job.toMap());
+                if (!fields.isEmpty()) {
+                    modified.put(id, fields);
+                }
+            }
+        }
+        for (String id : oldPositions.keySet()) {
+            if (!kept.contains(id)) {
+                removed.add(id);
+            }
+        }
+        return true;
+    }
+
+    protected static Map<String, Serializable> diff(Map<String, Serializable> oldRow,
+            Map<String, Serializable> newRow) {
+        Map<String, Serializable> res = new LinkedHashMap<>();
+        for (Map.Entry<String, Serializable> entry : newRow.entrySet()) {
+            if (!Objects.equals(entry.getValue(), oldRow.get(entry.getKey()))) {
+                res.put(entry.getKey(), entry.getValue());
+            }
+        }
+        for (Map.Entry<String, Serializable> entry : oldRow.entrySet()) {
+            if (entry.getValue() != null && !newRow.containsKey(entry.getKey())) {
+                res.put(entry.getKey(), null);
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Returns true if the whole list has to be rewritten.
+     */
+    public boolean isRewrite() {
+        return rewrite;
+    }
+
+    public int getAddedCount() {
+        return added.size();
+    }
+
+    public int getRemovedCount() {
+        return removed.size();
+    }
+
+    public int getModifiedCount() {
+        return modified.size();
+    }
+
+    /**
+     * Returns the number of rows written when applying these changes.
+     */
+    public int getTouchedCount() {
+        if (rewrite) {
+            return jobs.size();
+        }
+        return added.size() + removed.size() + modified.size();
+    }
+
+    /**
+     * Applies these changes to given rows, which should hold the old jobs these changes were computed from.
+     *
+     * @return the number of touched rows
+     */
+    public int applyTo(List<Map<String, Serializable>> rows) {
+        return applyTo(new Rows() {
+
+            @Override
+            public void rewrite(List<Map<String, Serializable>> values) {
+                rows.clear();
+                rows.addAll(values);
+            }
+
+            @Override
+            public int size() {
+                return rows.size();
+            }
+
+            @Override
+            public String getId(int index) {
+                return JenkinsJob.asString(rows.get(index).get(JenkinsJob.JOB_ID));
+            }
+
+            @Override
+            public void remove(int index) {
+                rows.remove(index);
+            }
+
+            @Override
+            public void set(int index, String key, Serializable value) {
+                // rows may not be modifiable
+                Map<String, Serializable> row = new HashMap<>(rows.get(index));
+                row.put(key, value);
+                rows.set(index, row);
+            }
+
+            @Override
+            public void add(Map<String, Serializable> row) {
+                rows.add(row);
+            }
+
+        });
+    }
+
+    /**
+     * Applies these changes to the jobs of given report, which should hold the old jobs these changes were computed
+     * from: only changed rows are marked dirty.
+     *
+     * @return the number of touched rows
+     */
+    public int applyTo(DocumentModel report) {
+        Property list = report.getProperty(JenkinsReportFields.JOBS_PROPERTY);
+        return applyTo(new Rows() {
+
+            @Override
+            public void rewrite(List<Map<String, Serializable>> values) {
+                list.setValue(values);
+            }
+
+            @Override
+            public int size() {
+                return list.size();
+            }
+
+            @Override
+            public String getId(int index) {
+                return JenkinsJob.asString(list.get(index).getValue(JenkinsJob.JOB_ID));
+            }
+
+            @Override
+            public void remove(int index) {
+                list.get(index).remove();
+            }
+
+            @Override
+            public void set(int index, String key, Serializable value) {
+                list.get(index).setValue(key, value);
+            }
+
+            @Override
+            public void add(Map<String, Serializable> row) {
+                list.addValue(row);
+            }
+
+        });
+    }
+
+    protected int applyTo(Rows rows) {
+        if (rewrite) {
+            rows.rewrite(JenkinsJob.toMaps(jobs));
+            return getTouchedCount();
+        }
+        int touched = 0;
+        // go backwards so that removals do not shift rows still to visit
+        for (int i = rows.size() - 1; i >= 0; i--) {
+            String id = rows.getId(i);
+            if (removed.contains(id)) {
+                rows.remove(i);
+                touched++;
+                continue;
+            }
+            Map<String, Serializable> fields = modified.get(id);
+            if (fields != null) {
+                for (Map.Entry<String, Serializable> field : fields.entrySet()) {
+                    rows.set(i, field.getKey(), field.getValue());
+                }
+                touched++;
+            }
+        }
+        for (Map<String, Serializable> row : added) {
+            rows.add(row);
+            touched++;
+        }
+        return touched;
+    }
+
+    /**
+     * Stored rows, as a list of maps or a list property.
+     */
+    protected interface Rows {
+
+        void rewrite(List<Map<String, Serializable>> values);
+
+        int size();
+
+        String getId(int index);
+
+        void remove(int index);
+
+        void set(int index, String key, Serializable value);
+
+        void add(Map<String, Serializable> row);
+
+    }
+
+    @Override
+    public String toString() {
+        if (rewrite) {
+            return String.format("JenkinsJobChanges(rewrite %s)", Integer.valueOf(jobs.size()));
+        }
+        return String.format("JenkinsJobChanges(%s added, %s removed, %s modified)", Integer.valueOf(added.size()),
+                Integer.valueOf(removed.size()), Integer.valueOf(modified.size()));
+    }
+
+}
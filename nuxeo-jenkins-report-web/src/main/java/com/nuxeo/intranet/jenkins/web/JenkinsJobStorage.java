@@ -0,0 +1,401 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.web;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.nuxeo.ecm.core.api.Blob;
+import org.nuxeo.ecm.core.api.Blobs;
+import org.nuxeo.ecm.core.api.DocumentModel;
+import org.nuxeo.ecm.core.api.NuxeoException;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Reads and writes the jobs of a report, stored as items of the {@link JenkinsReportFields#JOBS_PROPERTY} complex list
+ * property, or as a compressed blob on reports with the {@link #BLOB_STORAGE_FACET} facet.
+ * <p>
+ * Blob storage avoids a repository row per job on reports holding thousands of them: the blob holds one json object
+ * per line, parsed when first accessed, see {@link #getItems(DocumentModel)}, and a summary property holds job counts.
+ *
+ * @since 3.10.5
+ */
+public class JenkinsJobStorage {
+
+    public static final String BLOB_STORAGE_FACET = "JenkinsReportBlobStorage";
+
+    public static final String JOBS_BLOB_PROPERTY = "jenkinsreportstorage:jobs";
+
+    /**
+     * Complex property holding the {@link #COUNT}, {@link #FAILURE}, {@link #UNSTABLE} and {@link #CLAIMED} counts.
+     */
+    public static final String SUMMARY_PROPERTY = "jenkinsreportstorage:summary";
+
+    /**
+     * Families of stored jobs, to query reports tracking a job, see {@link JenkinsJobTable#getFamily(String)}.
+     */
+    public static final String FAMILIES_PROPERTY = "jenkinsreportstorage:job_families";
+
+    public static final String COUNT = "count";
+
+    public static final String FAILURE = "failure";
+
+    public static final String UNSTABLE = "unstable";
+
+    public static final String CLAIMED = "claimed";
+
+    public static final String MIME_TYPE = "application/gzip";
+
+    public static final String FILENAME = "jobs.json.gz";
+
+    protected static final JsonFactory factory = new JsonFactory();
+
+    private JenkinsJobStorage() {
+        // utility class
+    }
+
+    public static boolean isBlobStorage(DocumentModel report) {
+        return report.hasFacet(BLOB_STORAGE_FACET);
+    }
+
+    /**
+     * Returns the jobs stored on given report.
+     */
+    @SuppressWarnings("unchecked")
+    public static List<JenkinsJob> getJobs(DocumentModel report) {
+        if (isBlobStorage(report)) {
+            return JenkinsJob.fromMaps(readBlob(report));
+        }
+        List<JenkinsJob> jobs = JenkinsJob.fromMaps(
+                (List<Map<String, Serializable>>) report.getPropertyValue(JenkinsReportFields.JOBS_PROPERTY));
+        return jobs == null ? new ArrayList<JenkinsJob>() : jobs;
+    }
+
+    /**
+     * Returns the items of the jobs stored on given report, parsed when first accessed when stored as a blob.
+     */
+    @SuppressWarnings("unchecked")
+    public static List<Map<String, Serializable>> getItems(DocumentModel report) {
+        if (isBlobStorage(report)) {
+            return readBlob(report);
+        }
+        List<Map<String, Serializable>> items = (List<Map<String, Serializable>>) report.getPropertyValue(
+                JenkinsReportFields.JOBS_PROPERTY);
+        return items == null ? Collections.<Map<String, Serializable>> emptyList() : items;
+    }
+
+    /**
+     * Stores given jobs on given report, applying given changes from the stored jobs to the complex list property
+     * unless stored as a blob. Changes may be null to rewrite all jobs.
+     *
+     * @return the number of written jobs
+     */
+    public static int setJobs(DocumentModel report, List<JenkinsJob> jobs, JenkinsJobChanges changes) {
+        if (isBlobStorage(report)) {
+            writeBlob(report, jobs);
+            return jobs.size();
+        }
+        if (changes != null) {
+            return changes.applyTo(report);
+        }
+        report.setPropertyValue(JenkinsReportFields.JOBS_PROPERTY, (Serializable) JenkinsJob.toMaps(jobs));
+        return jobs.size();
+    }
+
+    /**
+     * Switches the storage of given report jobs, moving them to the blob or back to the complex list property.
+     */
+    public static void setBlobStorage(DocumentModel report, boolean blobStorage) {
+        if (blobStorage == isBlobStorage(report)) {
+            return;
+        }
+        List<JenkinsJob> jobs = getJobs(report);
+        if (blobStorage) {
+            report.addFacet(BLOB_STORAGE_FACET);
+            writeBlob(report, jobs);
+            report.setPropertyValue(JenkinsReportFields.JOBS_PROPERTY, new ArrayList<Map<String, Serializable>>());
+        } else {
+            report.removeFacet(BLOB_STORAGE_FACET);
+            report.setPropertyValue(JenkinsReportFields.JOBS_PROPERTY, (Serializable) JenkinsJob.toMaps(jobs));
+        }
+    }
+
+    /**
+     * Moves jobs added to the complex list property of a report stored as a blob to the blob, replacing stored jobs
+     * with the same id, as when setting the {@link #BLOB_STORAGE_FACET} facet on a report holding jobs.
+     *
+     * @return true if jobs were moved
+     */
+    @SuppressWarnings("unchecked")
+    public static boolean moveItemsToBlob(DocumentModel report) {
+        if (!isBlobStorage(report)) {
+            return false;
+        }
+        List<Map<String, Serializable>> items = (List<Map<String, Serializable>>) report.getPropertyValue(
+                JenkinsReportFields.JOBS_PROPERTY);
+        if (items == null || items.isEmpty()) {
+            return false;
+        }
+        JenkinsJobTable jobs = new JenkinsJobTable(getJobs(report));
+        for (JenkinsJob job : JenkinsJob.fromMaps(items)) {
+            jobs.put(job);
+        }
+        writeBlob(report, jobs.toList());
+        report.setPropertyValue(JenkinsReportFields.JOBS_PROPERTY, new ArrayList<Map<String, Serializable>>());
+        return true;
+    }
+
+    protected static List<Map<String, Serializable>> readBlob(DocumentModel report) {
+        Blob blob = (Blob) report.getPropertyValue(JOBS_BLOB_PROPERTY);
+        if (blob == null) {
+            return Collections.emptyList();
+        }
+        try (InputStream in = blob.getStream()) {
+            return decode(in);
+        } catch (IOException e) {
+            throw new NuxeoException("Cannot read jobs of report " + report.getId(), e);
+        }
+    }
+
+    protected static void writeBlob(DocumentModel report, List<JenkinsJob> jobs) {
+        byte[] bytes;
+        try {
+            bytes = encode(jobs);
+        } catch (IOException e) {
+            throw new NuxeoException("Cannot write jobs of report " + report.getId(), e);
+        }
+        report.setPropertyValue(JOBS_BLOB_PROPERTY, (Serializable) Blobs.createBlob(bytes, MIME_TYPE, null, FILENAME));
+        report.setPropertyValue(SUMMARY_PROPERTY, (Serializable) getSummary(jobs));
+        report.setPropertyValue(FAMILIES_PROPERTY, (Serializable) getFamilies(jobs));
+    }
+
+    /**
+     * Returns the counts of given jobs, as stored in the {@link #SUMMARY_PROPERTY}.
+     */
+    public static Map<String, Serializable> getSummary(List<JenkinsJob> jobs) {
+        long failure = 0;
+        long unstable = 0;
+        long claimed = 0;
+        for (JenkinsJob job : jobs) {
+            // result of the last known build
+            JenkinsBuildResult result = job.getUpdatedResult() == null ? job.getResult() : job.getUpdatedResult();
+            if (JenkinsBuildResult.FAILURE == result) {
+                failure++;
+            } else if (JenkinsBuildResult.UNSTABLE == result) {
+                unstable++;
+            }
+            if (job.getClaimer() != null) {
+                claimed++;
+            }
+        }
+        Map<String, Serializable> summary = new HashMap<String, Serializable>();
+        summary.put(COUNT, Long.valueOf(jobs.size()));
+        summary.put(FAILURE, Long.valueOf(failure));
+        summary.put(UNSTABLE, Long.valueOf(unstable));
+        summary.put(CLAIMED, Long.valueOf(claimed));
+        return summary;
+    }
+
+    protected static ArrayList<String> getFamilies(List<JenkinsJob> jobs) {
+        Set<String> families = new LinkedHashSet<String>();
+        for (JenkinsJob job : jobs) {
+            String family = job.getFamily();
+            if (family != null) {
+                families.add(family);
+            }
+        }
+        return new ArrayList<String>(families);
+    }
+
+    /**
+     * Returns the gzipped json lines holding the items of given jobs.
+     */
+    public static byte[] encode(List<JenkinsJob> jobs) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(bytes, 8192);
+                JsonGenerator generator = factory.createGenerator(out)) {
+            for (JenkinsJob job : jobs) {
+                writeValue(generator, job.toMap());
+                generator.writeRaw('\n');
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Writes given item value, holding strings, numbers, booleans, lists and maps. Other values are written as
+     * strings.
+     */
+    @SuppressWarnings("unchecked")
+    public static void writeValue(JsonGenerator generator, Object value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else if (value instanceof Map) {
+            generator.writeStartObject();
+            for (Map.Entry<String, Object> entry : ((Map<String, Object>) value).entrySet()) {
+                generator.writeFieldName(entry.getKey());
+                writeValue(generator, entry.getValue());
+            }
+            generator.writeEndObject();
+        } else if (value instanceof Object[]) {
+            writeValue(generator, Arrays.asList((Object[]) value));
+        } else if (value instanceof Collection) {
+            generator.writeStartArray();
+            for (Object item : (Collection<Object>) value) {
+                writeValue(generator, item);
+            }
+            generator.writeEndArray();
+        } else if (value instanceof Long || value instanceof Integer) {
+            generator.writeNumber(((Number) value).longValue());
+        } else if (value instanceof Number) {
+            generator.writeNumber(((Number) value).doubleValue());
+        } else if (value instanceof Boolean) {
+            generator.writeBoolean(((Boolean) value).booleanValue());
+        } else {
+            generator.writeString(value.toString());
+        }
+    }
+
+    /**
+     * Returns the items held by given gzipped json lines, each item being parsed when first accessed. The stream is
+     * not closed.
+     */
+    public static List<Map<String, Serializable>> decode(InputStream in) throws IOException {
+        return new Items(new GZIPInputStream(in).readAllBytes());
+    }
+
+    /**
+     * Items held by json lines, parsed when first accessed.
+     * <p>
+     * Only the json lines are serialized, items are parsed again when accessed after deserialization.
+     */
+    protected static class Items extends AbstractList<Map<String, Serializable>> implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        protected final byte[] bytes;
+
+        protected final transient int[] offsets;
+
+        protected final transient AtomicReferenceArray<Map<String, Serializable>> parsed;
+
+        public Items(byte[] bytes) {
+            this.bytes = bytes;
+            int count = 0;
+            int[] ends = new int[16];
+            for (int i = 0; i < bytes.length; i++) {
+                if (bytes[i] == '\n') {
+                    if (count == ends.length) {
+                        ends = Arrays.copyOf(ends, count * 2);
+                    }
+                    ends[count++] = i;
+                }
+            }
+            offsets = new int[count + 1];
+            for (int i = 0; i < count; i++) {
+                offsets[i + 1] = ends[i] + 1;
+            }
+            parsed = new AtomicReferenceArray<>(count);
+        }
+
+        @Override
+        public int size() {
+            return parsed.length();
+        }
+
+        @Override
+        public Map<String, Serializable> get(int index) {
+            Map<String, Serializable> item = parsed.get(index);
+            if (item == null) {
+                item = Collections.unmodifiableMap(parse(index));
+                // concurrent parsing of the same item gives an equal one
+                parsed.set(index, item);
+            }
+            return item;
+        }
+
+        protected Object readResolve() {
+            return new Items(bytes);
+        }
+
+        @SuppressWarnings("unchecked")
+        protected Map<String, Serializable> parse(int index) {
+            int offset = offsets[index];
+            try (JsonParser parser = factory.createParser(bytes, offset, offsets[index + 1] - offset)) {
+                parser.nextToken();
+                return (Map<String, Serializable>) readValue(parser);
+            } catch (IOException e) {
+                throw new NuxeoException("Cannot parse stored job " + index, e);
+            }
+        }
+
+    }
+
+    /**
+     * Reads the item value starting at the current token of given parser, as written by {@link #writeValue}.
+     */
+    public static Serializable readValue(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            HashMap<String, Serializable> res = new HashMap<>();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                parser.nextToken();
+                res.put(name, readValue(parser));
+            }
+            return res;
+        } else if (token == JsonToken.START_ARRAY) {
+            ArrayList<Serializable> res = new ArrayList<>();
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                res.add(readValue(parser));
+            }
+            return res;
+        } else if (token == JsonToken.VALUE_STRING) {
+            return parser.getText();
+        } else if (token == JsonToken.VALUE_NUMBER_INT) {
+            return Long.valueOf(parser.getLongValue());
+        } else if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return Double.valueOf(parser.getDoubleValue());
+        } else if (token == JsonToken.VALUE_TRUE || token == JsonToken.VALUE_FALSE) {
+            return Boolean.valueOf(token == JsonToken.VALUE_TRUE);
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,151 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.web;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Jobs indexed by id, keeping insertion order, with a secondary index of multiosdb runs by parent job id.
+ * <p>
+ * Runs of multiosdb jobs have ids of the form {@code parent#axis}, see
+ * {@link JenkinsJsonConverter#convertMultiOSDBJobs}: they belong to the family of their parent job, other jobs are
+ * their own family.
+ *
+ * @since 3.10.5
+ */
+public class JenkinsJobTable {
+
+    public static final char RUN_SEPARATOR = '#';
+
+    protected final Map<String, JenkinsJob> jobs;
+
+    /**
+     * Runs of multiosdb jobs, by parent job id.
+     */
+    protected final Map<String, List<JenkinsJob>> runs = new HashMap<String, List<JenkinsJob>>();
+
+    public JenkinsJobTable() {
+        jobs = new LinkedHashMap<String, JenkinsJob>();
+    }
+
+    /**
+     * Indexes given jobs, a job replacing previous ones with the same id.
+     */
+    public JenkinsJobTable(List<JenkinsJob> data) {
+        jobs = new LinkedHashMap<String, JenkinsJob>(data == null ? 16 : data.size() * 4 / 3 + 1);
+        if (data != null) {
+            for (JenkinsJob job : data) {
+                put(job);
+            }
+        }
+    }
+
+    /**
+     * Returns the family of given job id: the parent job id for runs of multiosdb jobs, the job id otherwise.
+     */
+    public static String getFamily(String jobId) {
+        if (jobId == null) {
+            return null;
+        }
+        int index = jobId.indexOf(RUN_SEPARATOR);
+        return index < 0 ? jobId : jobId.substring(0, index);
+    }
+
+    /**
+     * Adds given job, replacing the job with the same id if any, at the same position.
+     */
+    public void put(JenkinsJob job) {
+        String id = job.getId();
+        JenkinsJob previous = jobs.put(id, job);
+        if (previous == job || id == null || id.indexOf(RUN_SEPARATOR) < 0) {
+            return;
+        }
+        String family = getFamily(id);
+        List<JenkinsJob> members = runs.get(family);
+        if (members == null) {
+            members = new ArrayList<JenkinsJob>();
+            runs.put(family, members);
+        }
+        if (previous != null) {
+            for (int i = 0; i < members.size(); i++) {
+                if (members.get(i) == previous) {
+                    members.set(i, job);
+                    return;
+                }
+            }
+        }
+        members.add(job);
+    }
+
+    public JenkinsJob get(String jobId) {
+        return jobs.get(jobId);
+    }
+
+    public boolean contains(String jobId) {
+        return jobs.containsKey(jobId);
+    }
+
+    /**
+     * Returns true if a job of given family is held.
+     */
+    public boolean containsFamily(String family) {
+        return jobs.containsKey(family) || runs.containsKey(family);
+    }
+
+    /**
+     * Returns jobs of given family, the parent job first if held, or an empty list.
+     */
+    public List<JenkinsJob> getFamilyJobs(String family) {
+        List<JenkinsJob> res = new ArrayList<JenkinsJob>();
+        JenkinsJob parent = jobs.get(family);
+        if (parent != null) {
+            res.add(parent);
+        }
+        List<JenkinsJob> members = runs.get(family);
+        if (members != null) {
+            res.addAll(members);
+        }
+        return res;
+    }
+
+    public int size() {
+        return jobs.size();
+    }
+
+    /**
+     * Returns held jobs, in insertion order.
+     */
+    public Collection<JenkinsJob> getJobs() {
+        return Collections.unmodifiableCollection(jobs.values());
+    }
+
+    /**
+     * Returns a new list holding held jobs, in insertion order.
+     */
+    public List<JenkinsJob> toList() {
+        return new ArrayList<JenkinsJob>(jobs.values());
+    }
+
+}
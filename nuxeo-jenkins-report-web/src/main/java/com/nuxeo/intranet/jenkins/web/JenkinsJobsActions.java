@@ -20,12 +20,11 @@ package com.nuxeo.intranet.jenkins.web;
 
 import static org.jboss.seam.ScopeType.EVENT;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
-import org.apache.commons.lang.StringUtils;
 import org.jboss.seam.annotations.Name;
 import org.jboss.seam.annotations.Scope;
+import org.nuxeo.runtime.api.Framework;
+
+import com.nuxeo.intranet.jenkins.service.JenkinsReportService;
 
 /**
  * Miscellaneous rendering helpers
@@ -39,41 +38,38 @@ public class JenkinsJobsActions {
     /**
      * Converts a job comment to HTML and parses JIRA issues to turn them into links.
      *
-     * @param jiraUrl TODO
+     * @see JenkinsCommentRenderer
      */
     public String getConvertedJobComment(String toConvert, String jiraURL, String[] jiraProjects) {
         if (toConvert == null) {
             return null;
         }
+        return JenkinsCommentRenderer.getInstance(jiraURL, jiraProjects).render(toConvert);
+    }
 
-        if (StringUtils.isBlank(jiraURL) || jiraProjects == null || jiraProjects.length == 0) {
-            toConvert = toConvert.replace("\n", "<br />\n");
-            return toConvert;
-        }
-
-        String res = "";
-        String regexp = "\\b(" + StringUtils.join(jiraProjects, "|") + ")-\\d+\\b";
-        Pattern pattern = Pattern.compile(regexp, Pattern.CASE_INSENSITIVE);
-        Matcher m = pattern.matcher(toConvert);
-        int lastIndex = 0;
-        boolean done = false;
-        while (m.find()) {
-            String jiraIssue = m.group(0);
-            res += toConvert.substring(lastIndex, m.start()) + getJiraUrlTag(jiraURL, jiraIssue);
-            lastIndex = m.end();
-            done = true;
-        }
-        if (done) {
-            res += toConvert.substring(lastIndex);
-        } else {
-            res = toConvert;
+    /**
+     * Returns the HTML rendering of a job comment stored on the report, or converts the comment if not rendered when
+     * merging jobs, or rendered with other JIRA settings than given ones.
+     *
+     * @since 3.10.5
+     * @see JenkinsJob#getCommentHtml()
+     */
+    public String getRenderedJobComment(String rendered, String toConvert, String jiraURL, String[] jiraProjects) {
+        JenkinsCommentRenderer renderer = JenkinsCommentRenderer.getInstance(jiraURL, jiraProjects);
+        if (rendered != null && renderer.equals(getCommentRenderer())) {
+            return rendered;
         }
-        res = res.replace("\n", "<br />\n");
-        return res;
+        return getConvertedJobComment(toConvert, jiraURL, jiraProjects);
     }
 
-    protected String getJiraUrlTag(String jiraURL, String jiraIssue) {
-        return "<a href=\"" + jiraURL + jiraIssue.toUpperCase() + "\" target=\"_blank\">" + jiraIssue.toUpperCase()
-                + "</a>";
+    /**
+     * Returns the renderer of comments stored on reports, or null if comments are not rendered when merging jobs.
+     *
+     * @since 3.10.5
+     */
+    protected JenkinsCommentRenderer getCommentRenderer() {
+        JenkinsReportService service = Framework.getService(JenkinsReportService.class);
+        return service == null ? null : service.getCommentRenderer();
     }
+
 }
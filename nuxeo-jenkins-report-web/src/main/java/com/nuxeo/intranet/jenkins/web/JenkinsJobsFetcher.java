@@ -20,16 +20,8 @@ package com.nuxeo.intranet.jenkins.web;
 
 import static org.jboss.seam.ScopeType.EVENT;
 
-import java.io.BufferedReader;
-import java.io.ByteArrayOutputStream;
-import java.io.FileNotFoundException;
-import java.io.IOException;
-import java.io.InputStreamReader;
 import java.io.Serializable;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.text.DateFormat;
-import java.util.Date;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -38,7 +30,6 @@ import javax.faces.component.EditableValueHolder;
 import javax.faces.component.UIComponent;
 import javax.faces.event.ActionEvent;
 
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.jboss.seam.annotations.In;
@@ -53,9 +44,9 @@ import org.nuxeo.ecm.platform.ui.web.component.list.UIEditableList;
 import org.nuxeo.ecm.platform.ui.web.model.EditableModel;
 import org.nuxeo.ecm.platform.ui.web.util.ComponentUtils;
 import org.nuxeo.ecm.webapp.contentbrowser.DocumentActions;
+import org.nuxeo.runtime.api.Framework;
 
-import net.sf.json.JSONException;
-import net.sf.json.JSONObject;
+import com.nuxeo.intranet.jenkins.service.JenkinsReportService;
 
 /**
  * Fetches unstable jobs information from Jenkins json API and fill a list JSF component with returned values.
@@ -64,7 +55,7 @@ import net.sf.json.JSONObject;
  */
 @Name("jenkinsJobsFetcher")
 @Scope(EVENT)
-public class JenkinsJobsFetcher implements Serializable {
+public class JenkinsJobsFetcher extends JenkinsJobsRetriever {
 
     private static final long serialVersionUID = 1L;
 
@@ -85,6 +76,14 @@ public class JenkinsJobsFetcher implements Serializable {
     @RequestParameter
     protected Boolean removeSuccessful;
 
+    /**
+     * Name of the {@link JenkinsFetchMode} to use for this report, defaults to {@link JenkinsFetchMode#JOBS}.
+     *
+     * @since 3.10.5
+     */
+    @RequestParameter
+    protected String fetchMode;
+
     @In(create = true, required = false)
     protected FacesMessages facesMessages;
 
@@ -112,19 +111,14 @@ public class JenkinsJobsFetcher implements Serializable {
                     EditableValueHolder.class);
 
             if (list != null) {
-                String jsonURL = jenkinsURL.trim();
-                if (!jsonURL.endsWith("/")) {
-                    jsonURL += "/";
-                }
-                jsonURL += "api/json";
-
-                JSONObject json = retrieveJSONObject(jsonURL);
                 EditableModel em = list.getEditableModel();
-                List<Map<String, Serializable>> oldData = (List<Map<String, Serializable>>) em.getWrappedData();
-                JenkinsJsonConverter cv = new JenkinsJsonConverter();
-                List<Map<String, Serializable>> jenkinsData = cv.convertJobs(json, oldData, this);
-                List<Map<String, Serializable>> mergedData = cv.mergeData(oldData, jenkinsData);
-                em.setWrappedData(mergedData);
+                List<JenkinsJob> oldData = JenkinsJob.fromMaps(
+                        (List<Map<String, Serializable>>) em.getWrappedData());
+                JenkinsJsonConverter cv = newConverter();
+                List<JenkinsJob> jenkinsData = retrieveJobs(jenkinsURL, cv, oldData);
+                flushFetchErrors();
+                List<JenkinsJob> mergedData = cv.merge(oldData, jenkinsData);
+                em.setWrappedData(JenkinsJob.toMaps(mergedData));
 
                 logMessage(StatusMessage.Severity.INFO, "Jobs retrieved from Jenkins, enjoy!");
                 String updateMessage = computeLastUpdateFeedbackMessage(cv);
@@ -140,7 +134,12 @@ public class JenkinsJobsFetcher implements Serializable {
         }
     }
 
-    @SuppressWarnings({ "unchecked", "rawtypes" })
+    /**
+     * Saves the current report and schedules the refresh of its jobs in the background: the report is updated once
+     * jobs have been retrieved from Jenkins.
+     *
+     * @see #isRefreshInProgress()
+     */
     public void updateFromJenkins(ActionEvent event) {
         // retrieve new values from URL first
         if (jenkinsURL == null) {
@@ -149,25 +148,12 @@ public class JenkinsJobsFetcher implements Serializable {
         }
 
         try {
-            String jsonURL = jenkinsURL.trim();
-            if (!jsonURL.endsWith("/")) {
-                jsonURL += "/";
-            }
-            jsonURL += "api/json";
-
-            JSONObject json = retrieveJSONObject(jsonURL);
             DocumentModel currentDoc = navigationContext.getCurrentDocument();
-            List<Map<String, Serializable>> oldData = (List) currentDoc.getPropertyValue(
-                    JenkinsReportFields.JOBS_PROPERTY);
-            JenkinsJsonConverter cv = new JenkinsJsonConverter();
-            List<Map<String, Serializable>> jenkinsData = cv.convertJobs(json, oldData, this);
-            List<Map<String, Serializable>> mergedData = cv.mergeData(oldData, jenkinsData);
-            currentDoc.setPropertyValue(JenkinsReportFields.JOBS_PROPERTY, (Serializable) mergedData);
-            logMessage(StatusMessage.Severity.INFO, "Jobs retrieved from Jenkins, enjoy!");
-            String updateMessage = computeLastUpdateFeedbackMessage(cv);
-            currentDoc.setPropertyValue(JenkinsReportFields.LAST_UPDATE_FEEDBACK_PROPERTY, updateMessage);
             documentActions.updateDocument(currentDoc, Boolean.TRUE);
-
+            Framework.getService(JenkinsReportService.class).scheduleRefresh(currentDoc.getRepositoryName(),
+                    currentDoc.getId(), jenkinsURL, JenkinsFetchMode.fromString(fetchMode));
+            logMessage(StatusMessage.Severity.INFO,
+                    "Jobs are being retrieved from Jenkins, the report will be updated when done");
         } catch (Exception e) {
             log.error(e, e);
             logMessage(StatusMessage.Severity.ERROR,
@@ -176,89 +162,57 @@ public class JenkinsJobsFetcher implements Serializable {
     }
 
     /**
-     * methods used by the {@link JenkinsJsonConverter} class
+     * Returns true if a refresh of the current report is scheduled or running, useful to poll for its completion.
+     *
+     * @since 3.10.5
      */
+    public boolean isRefreshInProgress() {
+        DocumentModel currentDoc = navigationContext.getCurrentDocument();
+        if (currentDoc == null || currentDoc.getId() == null) {
+            return false;
+        }
+        return Framework.getService(JenkinsReportService.class).isRefreshInProgress(currentDoc.getRepositoryName(),
+                currentDoc.getId());
+    }
 
     /**
-     * Retrieve the json data for given url
+     * Returns a new converter, retrieving jobs and runs info in parallel using the shared fetch pool, and the fetch
+     * mode of this report.
      *
-     * @since 5.6
-     * @return
+     * @since 3.10.5
      */
-    protected JSONObject retrieveJSONObject(String url) {
-        if (url == null) {
-            return null;
-        }
-        BufferedReader in = null;
-        try {
-            HttpURLConnection conn = (HttpURLConnection) new URL(url).openConnection();
-            conn.setInstanceFollowRedirects(true);
-            int status = conn.getResponseCode();
-            boolean redirect = false;
-            if (status != HttpURLConnection.HTTP_OK && (status == HttpURLConnection.HTTP_MOVED_TEMP
-                    || status == HttpURLConnection.HTTP_MOVED_PERM || status == HttpURLConnection.HTTP_SEE_OTHER)) {
-                redirect = true;
-            }
-            if (redirect) {
-                String newUrl = conn.getHeaderField("Location");
-                conn = (HttpURLConnection) new URL(newUrl).openConnection();
-            }
-            in = new BufferedReader(new InputStreamReader(conn.getInputStream()));
-            ByteArrayOutputStream output = new ByteArrayOutputStream();
-            IOUtils.copy(in, output);
-            JSONObject jsonObject = JSONObject.fromObject(output.toString());
-            return jsonObject;
-        } catch (FileNotFoundException e) {
-            // no last status for this job
-            return null;
-        } catch (IOException | JSONException e) {
-            log.error(e, e);
-            logMessage(StatusMessage.Severity.ERROR,
-                    String.format("Error while retrieving jobs from Jenkins for url %s: %s", url, e.getMessage()));
-            return null;
-        } finally {
-            if (in != null) {
-                try {
-                    in.close();
-                } catch (IOException e) {
-                    log.error(e, e);
-                    logMessage(StatusMessage.Severity.ERROR,
-                            String.format("Error while closing stream for url %s: %s", url, e.getMessage()));
-                }
-            }
-        }
-
+    protected JenkinsJsonConverter newConverter() {
+        return newConverter(JenkinsFetchMode.fromString(fetchMode));
     }
 
     protected void logMessage(StatusMessage.Severity severity, String message) {
         facesMessages.addToControl(feedbackComponentId, severity, message);
     }
 
-    @SuppressWarnings("boxing")
+    /**
+     * Notifies errors recorded while retrieving json data to JSF.
+     *
+     * @since 3.10.5
+     */
+    protected void flushFetchErrors() {
+        for (String error : drainFetchErrors()) {
+            logMessage(StatusMessage.Severity.ERROR, error);
+        }
+    }
+
     protected String computeLastUpdateFeedbackMessage(JenkinsJsonConverter converter) {
-        StringBuilder res = new StringBuilder();
-        res.append("Last Update done at ");
-        DateFormat aDateFormat = DateFormat.getDateTimeInstance();
-        res.append(aDateFormat.format((new Date())));
-        res.append('\n');
+        List<String> summaries = new ArrayList<String>();
         // copy error messages that could have been notified to JSF
         List<FacesMessage> messages = facesMessages.getCurrentMessagesForControl(feedbackComponentId);
         if (messages != null) {
             for (FacesMessage msg : messages) {
                 if (msg.getSeverity().getOrdinal() > 0) {
-                    res.append(msg.getSummary());
-                    res.append('\n');
+                    summaries.add(msg.getSummary());
                 } else {
-                    res.append("to remove: " + msg.getSummary());
-                    res.append('\n');
+                    summaries.add("to remove: " + msg.getSummary());
                 }
             }
         }
-        // add final message
-        if (converter != null) {
-            res.append(String.format("Jobs retrieved from Jenkins: %s new failures, %s fixed, %s unchanged.",
-                    converter.getNewFailingCount(), converter.getFixedCount(), converter.getUnchangedCount()));
-        }
-        return res.toString();
+        return computeLastUpdateFeedbackMessage(converter, summaries);
     }
 }
@@ -0,0 +1,52 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.web;
+
+import java.util.List;
+import java.util.Map;
+
+import org.nuxeo.ecm.core.api.DocumentModel;
+import org.nuxeo.ecm.platform.query.ComplexListPropertyPageProvider;
+
+/**
+ * Page provider paging through the jobs of a report, given as first parameter, whatever their storage, see
+ * {@link JenkinsJobStorage}: jobs stored as a blob are only parsed when filtered, sorted or displayed.
+ * <p>
+ * The first parameter can also be the list of jobs, as with {@link ComplexListPropertyPageProvider}.
+ *
+ * @since 3.10.5
+ */
+public class JenkinsJobsPageProvider extends ComplexListPropertyPageProvider {
+
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    protected List<Map<String, Object>> getItems() {
+        if (items == null) {
+            Object[] parameters = getParameters();
+            if (parameters != null && parameters.length > 0 && parameters[0] instanceof DocumentModel) {
+                items = (List) JenkinsJobStorage.getItems((DocumentModel) parameters[0]);
+                resetCaches();
+            }
+        }
+        return super.getItems();
+    }
+
+}
@@ -0,0 +1,415 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.web;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.net.HttpURLConnection;
+import java.text.DateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.nuxeo.runtime.api.Framework;
+
+import com.nuxeo.intranet.jenkins.http.JenkinsBuildCache;
+import com.nuxeo.intranet.jenkins.http.JenkinsClusterCoordinator;
+import com.nuxeo.intranet.jenkins.http.JenkinsHttpCache;
+import com.nuxeo.intranet.jenkins.http.JenkinsHttpClientService;
+import com.nuxeo.intranet.jenkins.http.JenkinsHttpResponse;
+import com.nuxeo.intranet.jenkins.http.JenkinsSnapshot;
+import com.nuxeo.intranet.jenkins.http.JenkinsSnapshotCache;
+import com.nuxeo.intranet.jenkins.service.JenkinsReportService;
+
+import net.sf.json.JSONException;
+import net.sf.json.JSONObject;
+
+/**
+ * Retrieves jobs information from Jenkins json API on behalf of the {@link JenkinsJsonConverter}, independently from
+ * any JSF context.
+ * <p>
+ * A new instance should be used for each refresh.
+ *
+ * @since 3.10.5
+ */
+public class JenkinsJobsRetriever implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Log log = LogFactory.getLog(JenkinsJobsRetriever.class);
+
+    /**
+     * Errors notified while retrieving json data, possibly from fetch pool threads where JSF messages cannot be
+     * added.
+     */
+    protected final List<String> fetchErrors = Collections.synchronizedList(new ArrayList<String>());
+
+    /**
+     * Number of responses that were not modified since cached.
+     */
+    protected final AtomicInteger cacheHits = new AtomicInteger();
+
+    /**
+     * Number of responses that were fully retrieved.
+     */
+    protected final AtomicInteger cacheMisses = new AtomicInteger();
+
+    /**
+     * Time after which requests are not sent anymore, as given by {@link System#nanoTime()}, or null if no refresh is
+     * in progress.
+     */
+    protected Long refreshDeadline;
+
+    /**
+     * Snapshot used by last refresh, if any.
+     */
+    protected JenkinsSnapshot snapshot;
+
+    /**
+     * Retrieves the jobs listed at given Jenkins url and converts the failing ones using given converter.
+     * <p>
+     * When snapshots are enabled, the jobs list and the failing jobs are shared with refreshes of other reports
+     * pointing at the same url: only jobs specific to given old data are retrieved.
+     */
+    public List<JenkinsJob> retrieveJobs(String jenkinsURL, JenkinsJsonConverter converter, List<JenkinsJob> oldData)
+            throws IOException {
+        startRefresh();
+        String jobsURL = getJobsURL(jenkinsURL, converter.getFetchMode());
+        JenkinsSnapshotCache snapshots = getSnapshotCache();
+        if (snapshots == null) {
+            return converter.convert(retrieveJSONObject(jobsURL), oldData, this);
+        }
+        JenkinsClusterCoordinator coordinator = getClusterCoordinator();
+        if (coordinator == null) {
+            snapshot = snapshots.get(jobsURL, () -> loadSnapshot(jobsURL, converter.getFetchMode(), oldData));
+        } else {
+            // crawled by a single node of the cluster
+            snapshot = snapshots.get(jobsURL, () -> coordinator.getSnapshot(jobsURL,
+                    () -> loadSnapshot(jobsURL, converter.getFetchMode(), oldData)));
+        }
+        for (String error : snapshot.getErrors()) {
+            logFetchError(error);
+        }
+        converter.setSnapshot(snapshot);
+        return converter.convert(snapshot.getListing(), oldData, this);
+    }
+
+    /**
+     * Retrieves the jobs list at given url, and converts failing jobs into a new snapshot, as well as given old jobs
+     * of the refresh loading it: builds that did not change since held by these jobs are not retrieved again.
+     */
+    protected JenkinsSnapshot loadSnapshot(String jobsURL, JenkinsFetchMode fetchMode, List<JenkinsJob> oldData)
+            throws IOException {
+        JSONObject listing = retrieveJSONObject(jobsURL);
+        JenkinsSnapshot res = new JenkinsSnapshot(listing);
+        if (listing != null) {
+            JenkinsJsonConverter cv = newConverter(fetchMode);
+            cv.setSnapshot(res);
+            cv.convert(listing, oldData, this);
+        }
+        res.setErrors(drainFetchErrors());
+        return res;
+    }
+
+    /**
+     * Returns a new converter, retrieving jobs and runs info in parallel using the shared fetch pool, skipping builds
+     * held by the build cache and rendering comments of merged jobs if configured on the report service.
+     */
+    public JenkinsJsonConverter newConverter(JenkinsFetchMode fetchMode) {
+        JenkinsJsonConverter cv = new JenkinsJsonConverter();
+        JenkinsHttpClientService service = getHttpClientService();
+        cv.setFetchPool(service.getFetchPool());
+        cv.setRunsTimeout(service.getRunsTimeout());
+        cv.setBuildCache(getBuildCache());
+        cv.setFetchMode(fetchMode);
+        cv.setCommentRenderer(getCommentRenderer());
+        return cv;
+    }
+
+    /**
+     * Returns the renderer of comments of merged jobs, or null if comments should not be rendered at merge time.
+     *
+     * @since 3.10.5
+     */
+    protected JenkinsCommentRenderer getCommentRenderer() {
+        JenkinsReportService service = Framework.getService(JenkinsReportService.class);
+        return service == null ? null : service.getCommentRenderer();
+    }
+
+    /**
+     * Returns the cache of completed builds shared by nodes of a cluster, or null if disabled.
+     *
+     * @since 3.10.5
+     */
+    protected JenkinsBuildCache getBuildCache() {
+        JenkinsReportService service = Framework.getService(JenkinsReportService.class);
+        return service == null ? null : service.getBuildCache();
+    }
+
+    /**
+     * Returns the coordinator of refreshes between nodes of a cluster, or null if disabled.
+     *
+     * @since 3.10.5
+     */
+    protected JenkinsClusterCoordinator getClusterCoordinator() {
+        JenkinsReportService service = Framework.getService(JenkinsReportService.class);
+        return service == null ? null : service.getClusterCoordinator();
+    }
+
+    /**
+     * Returns the json api url listing jobs, depending on the fetch mode.
+     */
+    public static String getJobsURL(String jenkinsURL, JenkinsFetchMode fetchMode) {
+        String jsonURL = jenkinsURL.trim();
+        if (!jsonURL.endsWith("/")) {
+            jsonURL += "/";
+        }
+        jsonURL += "api/json";
+        jsonURL += fetchMode.getJobsQuery();
+        return jsonURL;
+    }
+
+    /**
+     * Retrieve the json data for given url
+     *
+     * @since 5.6
+     * @return
+     */
+    protected JSONObject retrieveJSONObject(String url) {
+        if (url == null) {
+            return null;
+        }
+        long timeout = 0;
+        if (refreshDeadline != null) {
+            timeout = TimeUnit.NANOSECONDS.toMillis(refreshDeadline.longValue() - System.nanoTime());
+            if (timeout < 1) {
+                logFetchError(String.format("Refresh timeout reached, url %s not retrieved", url));
+                return null;
+            }
+        }
+        JenkinsHttpClientService service = getHttpClientService();
+        JenkinsHttpCache cache = getHttpCache();
+        JenkinsHttpCache.Entry cached = cache == null ? null : cache.get(url);
+        try (JenkinsHttpResponse response = service.get(url, getConditionalHeaders(cached), timeout)) {
+            int status = response.getStatus();
+            if (status == HttpURLConnection.HTTP_NOT_MODIFIED && cached != null) {
+                // not changed since last retrieval
+                cacheHits.incrementAndGet();
+                return cached.getJSONObject();
+            }
+            if (status == HttpURLConnection.HTTP_NOT_FOUND || status == HttpURLConnection.HTTP_GONE) {
+                // no last status for this job
+                return null;
+            }
+            if (status != HttpURLConnection.HTTP_OK) {
+                throw new IOException(String.format("Unexpected HTTP status %s", status));
+            }
+            // stream the response, keeping only needed fields
+            JSONObject jsonObject = JenkinsJsonFilter.parse(response.getStream());
+            cacheMisses.incrementAndGet();
+            if (cache != null) {
+                cache.put(url, response.getHeader("ETag"), response.getHeader("Last-Modified"), jsonObject);
+            }
+            return jsonObject;
+        } catch (IOException | JSONException e) {
+            log.error(e, e);
+            logFetchError(String.format("Error while retrieving jobs from Jenkins for url %s: %s", url,
+                    e.getMessage()));
+            return null;
+        }
+    }
+
+    /**
+     * Returns the headers making a request conditional to the validators of given cached response, if any.
+     */
+    protected Map<String, String> getConditionalHeaders(JenkinsHttpCache.Entry cached) {
+        Map<String, String> headers = new HashMap<String, String>();
+        if (cached != null) {
+            if (cached.getEtag() != null) {
+                headers.put("If-None-Match", cached.getEtag());
+            }
+            if (cached.getLastModified() != null) {
+                headers.put("If-Modified-Since", cached.getLastModified());
+            }
+        }
+        return headers;
+    }
+
+    /**
+     * Starts the refresh deadline: requests are not sent anymore once the configured refresh timeout is elapsed.
+     */
+    protected void startRefresh() {
+        long timeout = getHttpClientService().getRefreshTimeout();
+        refreshDeadline = timeout > 0 ? Long.valueOf(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout))
+                : null;
+    }
+
+    protected JenkinsHttpClientService getHttpClientService() {
+        return Framework.getService(JenkinsHttpClientService.class);
+    }
+
+    /**
+     * Returns the cache of responses used to send conditional requests, or null if responses should not be cached.
+     */
+    protected JenkinsHttpCache getHttpCache() {
+        return getHttpClientService().getCache();
+    }
+
+    /**
+     * Returns the cache of snapshots shared by refreshes of reports, or null if snapshots should not be shared.
+     */
+    protected JenkinsSnapshotCache getSnapshotCache() {
+        return getHttpClientService().getSnapshotCache();
+    }
+
+    /**
+     * Records an error met while retrieving json data, to be notified later on.
+     * <p>
+     * Can be called from any thread.
+     */
+    protected void logFetchError(String message) {
+        fetchErrors.add(message);
+    }
+
+    /**
+     * Returns the errors recorded since last call.
+     */
+    public List<String> drainFetchErrors() {
+        synchronized (fetchErrors) {
+            List<String> errors = new ArrayList<String>(fetchErrors);
+            fetchErrors.clear();
+            return errors;
+        }
+    }
+
+    /**
+     * Returns the feedback message stored on the report after a refresh, listing given messages and the counts of
+     * given converter.
+     */
+    public String computeLastUpdateFeedbackMessage(JenkinsJsonConverter converter, List<String> messages) {
+        return computeLastUpdateFeedbackMessage(converter, messages, true);
+    }
+
+    /**
+     * Returns the feedback message stored on the report after a refresh, see
+     * {@link #computeLastUpdateFeedbackMessage(JenkinsJsonConverter, List)}, listing report rows written by the merge
+     * only if jobs are stored as rows: jobs stored as a blob are rewritten as a whole.
+     *
+     * @since 3.10.5
+     */
+    public String computeLastUpdateFeedbackMessage(JenkinsJsonConverter converter, List<String> messages,
+            boolean rows) {
+        StringBuilder res = new StringBuilder();
+        appendUpdateDate(res);
+        appendMessages(res, messages);
+        // add final message
+        if (converter != null) {
+            appendMergeCounts(res, converter, rows);
+            appendRetrievalCounts(res, converter);
+        }
+        return res.toString();
+    }
+
+    /**
+     * Returns the feedback message stored on a report refreshed along with other reports tracking the same Jenkins
+     * url: merge counts are the ones of the report, while given messages and retrieval counts are shared by the given
+     * number of reports, as the url is crawled once for all of them.
+     *
+     * @since 3.10.5
+     */
+    @SuppressWarnings("boxing")
+    public String computeSharedLastUpdateFeedbackMessage(JenkinsJsonConverter converter, List<String> messages,
+            int reports, boolean rows) {
+        if (reports < 2) {
+            return computeLastUpdateFeedbackMessage(converter, messages, rows);
+        }
+        StringBuilder res = new StringBuilder();
+        appendUpdateDate(res);
+        if (converter != null) {
+            appendMergeCounts(res, converter, rows);
+        }
+        res.append(String.format("Jenkins url crawled once for %s reports:", reports));
+        res.append('\n');
+        appendMessages(res, messages);
+        if (converter != null) {
+            appendRetrievalCounts(res, converter);
+        }
+        return res.toString();
+    }
+
+    protected void appendUpdateDate(StringBuilder res) {
+        res.append("Last Update done at ");
+        res.append(DateFormat.getDateTimeInstance().format(new Date()));
+        res.append('\n');
+    }
+
+    protected void appendMessages(StringBuilder res, List<String> messages) {
+        if (messages != null) {
+            for (String msg : messages) {
+                res.append(msg);
+                res.append('\n');
+            }
+        }
+    }
+
+    /**
+     * Appends the counts of jobs merged into the report by given converter.
+     */
+    @SuppressWarnings("boxing")
+    protected void appendMergeCounts(StringBuilder res, JenkinsJsonConverter converter, boolean rows) {
+        res.append(String.format("Jobs retrieved from Jenkins: %s new failures, %s fixed, %s unchanged.",
+                converter.getNewFailingCount(), converter.getFixedCount(), converter.getUnchangedCount()));
+        res.append('\n');
+        JenkinsJobChanges changes = converter.getChanges();
+        if (rows && changes != null) {
+            if (changes.isRewrite()) {
+                res.append(String.format("Report rows rewritten: %s.", changes.getTouchedCount()));
+            } else {
+                res.append(String.format("Report rows touched: %s added, %s removed, %s modified.",
+                        changes.getAddedCount(), changes.getRemovedCount(), changes.getModifiedCount()));
+            }
+            res.append('\n');
+        }
+    }
+
+    /**
+     * Appends the counts of requests saved while retrieving jobs with given converter.
+     */
+    @SuppressWarnings("boxing")
+    protected void appendRetrievalCounts(StringBuilder res, JenkinsJsonConverter converter) {
+        res.append(String.format("Unchanged builds not retrieved again: %s.", converter.getSkippedCount()));
+        res.append('\n');
+        res.append(String.format("Builds taken from the shared build cache: %s.", converter.getCachedCount()));
+        res.append('\n');
+        res.append(String.format("HTTP cache: %s hits, %s misses.", cacheHits.get(), cacheMisses.get()));
+        if (snapshot != null) {
+            res.append('\n');
+            res.append(String.format("Jobs list retrieved at %s.",
+                    DateFormat.getDateTimeInstance().format(new Date(snapshot.getCreated()))));
+        }
+    }
+
+}
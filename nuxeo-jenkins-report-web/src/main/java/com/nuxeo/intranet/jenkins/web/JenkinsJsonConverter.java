@@ -20,19 +20,28 @@ package com.nuxeo.intranet.jenkins.web;
 
 import java.io.IOException;
 import java.io.Serializable;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.LinkedHashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import net.sf.json.JSONArray;
+import net.sf.json.JSONNull;
 import net.sf.json.JSONObject;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import com.nuxeo.intranet.jenkins.http.JenkinsBuildCache;
+import com.nuxeo.intranet.jenkins.http.JenkinsFetchPool;
+import com.nuxeo.intranet.jenkins.http.JenkinsSnapshot;
+
 /**
  * Convertes json data retrieved from Jenkins into data that can be fed to document properties.
  *
@@ -50,22 +59,170 @@ public class JenkinsJsonConverter {
 
     protected int unchangedCount = 0;
 
-    List<Map<String, Serializable>> mergedData = null;
+    protected List<JenkinsJob> mergedJobs = null;
+
+    /**
+     * Rows changed by last merge, to persist them without rewriting the whole list.
+     *
+     * @since 3.10.5
+     */
+    protected JenkinsJobChanges changes = null;
+
+    protected JenkinsFetchPool fetchPool;
+
+    protected long runsTimeout = 0;
+
+    protected JenkinsFetchMode fetchMode = JenkinsFetchMode.JOBS;
+
+    /**
+     * Last completed builds embedded in the jobs list when using the {@link JenkinsFetchMode#TREE} mode, by job url.
+     */
+    protected Map<String, JSONObject> embeddedBuilds = new HashMap<String, JSONObject>();
+
+    /**
+     * Summary of last completed builds (number and claim) embedded in the jobs list when using the
+     * {@link JenkinsFetchMode#JOBS} mode, by job url.
+     */
+    protected Map<String, JSONObject> buildSummaries = new HashMap<String, JSONObject>();
+
+    /**
+     * Previously retrieved jobs, by job id.
+     */
+    protected JenkinsJobTable oldJobs = new JenkinsJobTable();
+
+    /**
+     * Names of the failing jobs of the jobs list given to last call to {@link #convert}.
+     *
+     * @since 3.10.5
+     */
+    protected Set<String> listedJobs = new HashSet<String>();
+
+    protected int skippedCount = 0;
+
+    /**
+     * @since 3.10.5
+     */
+    protected int cachedCount = 0;
+
+    /**
+     * Snapshot holding jobs already converted by other refreshes, and where converted jobs are stored.
+     */
+    protected JenkinsSnapshot snapshot;
+
+    /**
+     * Cache of completed builds shared by nodes, or null if builds are always retrieved from Jenkins.
+     *
+     * @since 3.10.5
+     */
+    protected JenkinsBuildCache buildCache;
+
+    /**
+     * Renderer of the comments of merged jobs, or null if comments should not be rendered.
+     */
+    protected JenkinsCommentRenderer commentRenderer;
+
+    /**
+     * Sets the pool used to retrieve jobs info in parallel: jobs are retrieved one by one if not set.
+     *
+     * @since 3.10.5
+     */
+    public void setFetchPool(JenkinsFetchPool fetchPool) {
+        this.fetchPool = fetchPool;
+    }
+
+    /**
+     * Sets the maximum time, in milliseconds, to wait for all runs of a multiosdb job when retrieved in parallel. Runs
+     * not retrieved in time are kept with an unknown status.
+     *
+     * @since 3.10.5
+     */
+    public void setRunsTimeout(long runsTimeout) {
+        this.runsTimeout = runsTimeout;
+    }
+
+    /**
+     * Sets the mode used to retrieve jobs info, the json data given to {@link #convertJobs} is expected to match it.
+     *
+     * @since 3.10.5
+     */
+    public void setFetchMode(JenkinsFetchMode fetchMode) {
+        this.fetchMode = fetchMode == null ? JenkinsFetchMode.JOBS : fetchMode;
+    }
+
+    public JenkinsFetchMode getFetchMode() {
+        return fetchMode;
+    }
+
+    /**
+     * Sets the snapshot shared with other refreshes of the same Jenkins instance: jobs it holds are not retrieved
+     * again, and retrieved jobs are added to it.
+     *
+     * @since 3.10.5
+     */
+    public void setSnapshot(JenkinsSnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Sets the cache of completed builds shared by nodes: builds it holds are not retrieved again, and retrieved
+     * completed builds are added to it.
+     *
+     * @since 3.10.5
+     */
+    public void setBuildCache(JenkinsBuildCache buildCache) {
+        this.buildCache = buildCache;
+    }
+
+    /**
+     * Sets the renderer used to store the HTML rendering of comments of merged jobs, and the JIRA issues they
+     * mention: comments are not rendered if null.
+     *
+     * @since 3.10.5
+     * @see JenkinsJob#withRenderedComments
+     */
+    public void setCommentRenderer(JenkinsCommentRenderer commentRenderer) {
+        this.commentRenderer = commentRenderer;
+    }
+
+    public JenkinsCommentRenderer getCommentRenderer() {
+        return commentRenderer;
+    }
 
     public List<Map<String, Serializable>> convertJobs(JSONObject jsonObject, List<Map<String, Serializable>> oldData,
-            JenkinsJobsFetcher fetcher) throws IOException {
-        List<Map<String, Serializable>> res = new ArrayList<Map<String, Serializable>>();
-        List<String> retrievedJobs = new ArrayList<String>();
+            JenkinsJobsRetriever fetcher) throws IOException {
+        return JenkinsJob.toMaps(convert(jsonObject, JenkinsJob.fromMaps(oldData), fetcher));
+    }
+
+    /**
+     * Converts failing jobs of given jobs list, as well as given old jobs that are not failing anymore or not listed.
+     *
+     * @since 3.10.5
+     */
+    public List<JenkinsJob> convert(JSONObject jsonObject, List<JenkinsJob> oldData, JenkinsJobsRetriever fetcher)
+            throws IOException {
+        List<String[]> jobsToRetrieve = new ArrayList<String[]>();
+        Set<String> retrievedJobs = new HashSet<String>();
+        listedJobs = retrievedJobs;
+        embeddedBuilds.clear();
+        buildSummaries.clear();
+        oldJobs = new JenkinsJobTable(oldData);
+        skippedCount = 0;
+        cachedCount = 0;
         if (jsonObject != null) {
             JSONArray jsonJobs = jsonObject.optJSONArray("jobs");
             if (jsonJobs != null) {
                 for (Object jsonJob : jsonJobs) {
+                    if (JenkinsFetchMode.TREE == fetchMode) {
+                        collectEmbeddedBuilds((JSONObject) jsonJob);
+                    } else {
+                        collectBuildSummary((JSONObject) jsonJob);
+                    }
                     String color = ((JSONObject) jsonJob).optString("color");
                     if (color != null && !color.startsWith("blue") && !color.startsWith("grey")
                             && !color.startsWith("disabled")) {
                         String url = ((JSONObject) jsonJob).getString("url");
                         String jobId = ((JSONObject) jsonJob).getString("name");
-                        res.addAll(retrieveJobs(jobId, url, fetcher));
+                        jobsToRetrieve.add(new String[] { jobId, url });
                         retrievedJobs.add(jobId);
                     }
                 }
@@ -74,78 +231,342 @@ public class JenkinsJsonConverter {
         if (oldData != null) {
             // retrieve status for old builds that are not part of the new
             // results: might be because their status is ok now
-            for (Map<String, Serializable> item : oldData) {
-                String jobId = (String) item.get("job_id");
-                String url = (String) item.get("job_url");
-                if (!retrievedJobs.contains(item.get("job_id"))) {
-                    res.addAll(retrieveJobs(jobId, url, fetcher));
+            for (JenkinsJob item : oldData) {
+                String jobId = item.getId();
+                String url = item.getUrl();
+                if (!retrievedJobs.contains(jobId)) {
+                    jobsToRetrieve.add(new String[] { jobId, url });
                 }
             }
         }
+        return retrieveJobs(jobsToRetrieve, fetcher);
+    }
+
+    /**
+     * Returns the jobs of given report among given jobs, converted by last call to {@link #convert} with the jobs of
+     * several reports: jobs failing in the jobs list, and jobs held by given report jobs. These are the jobs that
+     * converting the jobs list with given report jobs only would have returned.
+     *
+     * @since 3.10.5
+     */
+    public List<JenkinsJob> getReportJobs(List<JenkinsJob> jobs, List<JenkinsJob> reportJobs) {
+        JenkinsJobTable tracked = new JenkinsJobTable(reportJobs);
+        List<JenkinsJob> res = new ArrayList<JenkinsJob>();
+        for (JenkinsJob job : jobs) {
+            if (listedJobs.contains(job.getFamily()) || tracked.contains(job.getId())) {
+                res.add(job);
+            }
+        }
         return res;
     }
 
-    protected List<Map<String, Serializable>> retrieveJobs(String jobId, String url, JenkinsJobsFetcher fetcher)
-            throws IOException {
-        List<Map<String, Serializable>> res = new ArrayList<Map<String, Serializable>>();
-        Map<String, Serializable> job = new HashMap<String, Serializable>();
-        job.put("job_id", jobId);
-        job.put("job_url", url);
-        List<Map<String, Serializable>> subJobs = null;
-        if (fetcher != null && url != null) {
-            // retrieve additional info for each failing job,
-            // fetching the whole state in one query using the
-            // "depth" attribute is more costly
-            JSONObject jsonBuild = fetcher.retrieveJSONObject(url.trim() + "lastCompletedBuild/api/json");
-            if (jsonBuild != null) {
-                job.putAll(convertBuild(jsonBuild));
-                subJobs = convertMultiOSDBJobs(jobId, jsonBuild, fetcher);
+    /**
+     * Indexes the last completed build embedded in given job, as well as its runs, by job url.
+     *
+     * @since 3.10.5
+     */
+    protected void collectEmbeddedBuilds(JSONObject jsonJob) {
+        String url = jsonJob.optString("url");
+        if (isEmpty(url)) {
+            return;
+        }
+        JSONObject jsonBuild = jsonJob.optJSONObject("lastCompletedBuild");
+        if (jsonBuild != null && jsonBuild.isNullObject()) {
+            jsonBuild = null;
+        }
+        // keep jobs without any completed build too, to avoid retrieving them again
+        embeddedBuilds.put(url, jsonBuild);
+        JSONArray runs = jsonBuild == null ? null : jsonBuild.optJSONArray("runs");
+        if (runs != null) {
+            for (Object jsonRun : runs) {
+                if (jsonRun instanceof JSONObject && ((JSONObject) jsonRun).has("url")) {
+                    embeddedBuilds.put(removeBuildNumber(((JSONObject) jsonRun).getString("url")),
+                            (JSONObject) jsonRun);
+                }
+            }
+        }
+    }
+
+    /**
+     * Indexes the summary of the last completed build embedded in given job, if any, by job url.
+     *
+     * @since 3.10.5
+     */
+    protected void collectBuildSummary(JSONObject jsonJob) {
+        String url = jsonJob.optString("url");
+        JSONObject jsonBuild = jsonJob.optJSONObject("lastCompletedBuild");
+        if (!isEmpty(url) && jsonBuild != null && !jsonBuild.isNullObject() && jsonBuild.has("number")) {
+            buildSummaries.put(url, jsonBuild);
+        }
+    }
+
+    /**
+     * Returns the job info for given job if its last completed build is the one already retrieved, as stated by the
+     * build summary in the jobs list. Returns null if the build has to be retrieved.
+     * <p>
+     * Claim info is taken from the build summary, other info from the previously retrieved job. Multiosdb jobs are
+     * always retrieved as the summary only holds info about the parent build.
+     *
+     * @since 3.10.5
+     */
+    protected JenkinsJob getUnchangedJob(String jobId, String url) throws IOException {
+        if (url == null) {
+            return null;
+        }
+        JSONObject summary = buildSummaries.get(url);
+        JenkinsJob oldJob = oldJobs.get(jobId);
+        if (summary == null || oldJob == null) {
+            return null;
+        }
+        JenkinsBuild build = readBuild(summary);
+        int buildNumber = build.getNumber();
+        JenkinsBuildResult result;
+        if (buildNumber == oldJob.getBuildNumber()) {
+            result = oldJob.getResult();
+        } else if (buildNumber == oldJob.getUpdatedBuildNumber()) {
+            result = oldJob.getUpdatedResult();
+        } else {
+            return null;
+        }
+        if (!isKnown(result)) {
+            return null;
+        }
+        return new JenkinsJob(jobId, url, new JenkinsBuild(buildNumber, result, build.getClaimer(),
+                build.getComment(), oldJob.getCulprits()));
+    }
+
+    /**
+     * Returns the job info for given job if its last completed build, as stated by the build summary in the jobs
+     * list, is held by the build cache. Returns null if the build has to be retrieved.
+     * <p>
+     * Claim info is taken from the build summary, as it can change after the build completion, other info from the
+     * cached build.
+     *
+     * @since 3.10.5
+     */
+    protected JenkinsJob getCachedJob(String jobId, String url) throws IOException {
+        if (buildCache == null || url == null) {
+            return null;
+        }
+        JSONObject summary = buildSummaries.get(url);
+        if (summary == null) {
+            return null;
+        }
+        JenkinsBuild build = readBuild(summary);
+        JenkinsJob cachedJob = buildCache.get(url, build.getNumber());
+        if (cachedJob == null || !isKnown(cachedJob.getResult())) {
+            return null;
+        }
+        return new JenkinsJob(jobId, url, new JenkinsBuild(build.getNumber(), cachedJob.getResult(),
+                build.getClaimer(), build.getComment(), cachedJob.getCulprits()));
+    }
+
+    /**
+     * Adds the job converted from given retrieved build to the build cache, if any. Multiosdb builds are not cached,
+     * as claims of their runs are not listed in build summaries.
+     *
+     * @since 3.10.5
+     */
+    protected void cacheBuild(String jobId, JSONObject jsonBuild, List<JenkinsJob> converted) {
+        if (buildCache == null || jsonBuild == null || jsonBuild.containsKey("runs") || converted.size() != 1) {
+            return;
+        }
+        JenkinsJob job = converted.get(0);
+        if (StringUtils.equals(jobId, job.getId()) && isKnown(job.getResult())) {
+            buildCache.put(job);
+        }
+    }
+
+    /**
+     * Retrieves info for given jobs, each job being described by its id and url.
+     * <p>
+     * Last builds are fetched in parallel when a fetch pool is set, results are kept in the same order than given
+     * jobs. Builds embedded in the jobs list are not fetched again, as well as builds that did not change since
+     * previous retrieval, jobs already converted in the snapshot, and builds held by the build cache. Unchanged jobs
+     * are shared in the snapshot too.
+     *
+     * @since 3.10.5
+     */
+    protected List<JenkinsJob> retrieveJobs(List<String[]> jobs, JenkinsJobsRetriever fetcher) throws IOException {
+        List<String> buildUrls = new ArrayList<String>();
+        List<JenkinsJob> unchangedJobs = new ArrayList<JenkinsJob>();
+        List<JenkinsJob> cachedJobs = new ArrayList<JenkinsJob>();
+        List<List<JenkinsJob>> sharedJobs = new ArrayList<List<JenkinsJob>>();
+        for (String[] job : jobs) {
+            // jobs that did not change since held by the report are not taken from the snapshot, to count them
+            JenkinsJob unchangedJob = fetcher == null ? null : getUnchangedJob(job[0], job[1]);
+            unchangedJobs.add(unchangedJob);
+            List<JenkinsJob> sharedJob = snapshot == null || job[1] == null || unchangedJob != null ? null
+                    : snapshot.getJobs(job[1]);
+            sharedJobs.add(sharedJob);
+            JenkinsJob cachedJob = fetcher == null || sharedJob != null || unchangedJob != null ? null
+                    : getCachedJob(job[0], job[1]);
+            cachedJobs.add(cachedJob);
+            if (sharedJob != null || unchangedJob != null || cachedJob != null
+                    || (job[1] != null && embeddedBuilds.containsKey(job[1]))) {
+                buildUrls.add(null);
             } else {
-                // at least fill the status as "unknown"
-                job.put("type", "");
+                buildUrls.add(getLastBuildUrl(job[1], fetcher));
+            }
+        }
+        List<JSONObject> jsonBuilds = fetchAll(buildUrls, fetcher);
+        for (int i = 0; i < jobs.size(); i++) {
+            String url = jobs.get(i)[1];
+            if (url != null && embeddedBuilds.containsKey(url)) {
+                jsonBuilds.set(i, embeddedBuilds.get(url));
             }
         }
+        List<JenkinsJob> res = new ArrayList<JenkinsJob>();
+        for (int i = 0; i < jobs.size(); i++) {
+            String[] job = jobs.get(i);
+            JenkinsJob unchangedJob = unchangedJobs.get(i);
+            if (sharedJobs.get(i) != null) {
+                res.addAll(sharedJobs.get(i));
+            } else if (unchangedJob != null) {
+                res.add(unchangedJob);
+                skippedCount++;
+                if (snapshot != null && snapshot.getJobs(job[1]) == null) {
+                    snapshot.putJobs(job[1], Collections.singletonList(unchangedJob));
+                }
+            } else {
+                List<JenkinsJob> converted;
+                if (cachedJobs.get(i) != null) {
+                    converted = Collections.singletonList(cachedJobs.get(i));
+                    cachedCount++;
+                } else {
+                    converted = convertJob(job[0], job[1], jsonBuilds.get(i), fetcher);
+                    if (buildUrls.get(i) != null) {
+                        cacheBuild(job[0], jsonBuilds.get(i), converted);
+                    }
+                }
+                if (snapshot != null && job[1] != null && isComplete(converted)) {
+                    snapshot.putJobs(job[1], converted);
+                }
+                res.addAll(converted);
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Returns true if the status of all given jobs is known, so that they can be shared with other refreshes.
+     *
+     * @since 3.10.5
+     */
+    protected boolean isComplete(List<JenkinsJob> jobs) {
+        for (JenkinsJob job : jobs) {
+            if (!isKnown(job.getResult())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    protected boolean isKnown(JenkinsBuildResult result) {
+        return result != null && result != JenkinsBuildResult.UNKNOWN;
+    }
+
+    protected String getLastBuildUrl(String url, JenkinsJobsRetriever fetcher) {
+        if (fetcher == null || url == null) {
+            return null;
+        }
+        // retrieve additional info for each failing job,
+        // fetching the whole state in one query using the
+        // "depth" attribute is more costly, see JenkinsFetchMode#TREE
+        return url.trim() + "lastCompletedBuild/api/json" + fetchMode.getBuildQuery();
+    }
+
+    protected List<JenkinsJob> convertJob(String jobId, String url, JSONObject jsonBuild,
+            JenkinsJobsRetriever fetcher) throws IOException {
+        List<JenkinsJob> res = new ArrayList<JenkinsJob>();
+        JenkinsBuild build = JenkinsBuild.NONE;
+        List<JenkinsJob> subJobs = null;
+        if (jsonBuild != null) {
+            build = readBuild(jsonBuild);
+            subJobs = convertRuns(jobId, jsonBuild, fetcher);
+        } else if ((fetcher != null || embeddedBuilds.containsKey(url)) && url != null) {
+            // at least fill the status as "unknown"
+            build = build.withResult(JenkinsBuildResult.UNKNOWN);
+        }
         if (subJobs != null && !subJobs.isEmpty()) {
             // do not add the main job for multi jobs
             res.addAll(subJobs);
         } else {
-            res.add(job);
+            res.add(new JenkinsJob(jobId, url, build));
+        }
+        return res;
+    }
+
+    /**
+     * Retrieves the json data for given urls, using the fetch pool if any, and returns them in the same order.
+     *
+     * @since 3.10.5
+     */
+    protected List<JSONObject> fetchAll(List<String> urls, JenkinsJobsRetriever fetcher) throws IOException {
+        return fetchAll(urls, fetcher, 0);
+    }
+
+    /**
+     * Retrieves the json data for given urls, using the fetch pool if any, and returns them in the same order.
+     * <p>
+     * When retrieved in parallel, results that are not available after given timeout (in milliseconds, no timeout if
+     * lower than 1) are null, and an error is notified to the fetcher.
+     *
+     * @since 3.10.5
+     */
+    protected List<JSONObject> fetchAll(List<String> urls, final JenkinsJobsRetriever fetcher, long timeout)
+            throws IOException {
+        if (fetcher != null && fetchPool != null && urls.size() > 1) {
+            return fetchPool.fetchAll(urls, fetcher::retrieveJSONObject, timeout, url -> fetcher.logFetchError(
+                    String.format("Timeout while retrieving jobs from Jenkins for url %s", url)));
+        }
+        List<JSONObject> res = new ArrayList<JSONObject>();
+        for (String url : urls) {
+            res.add(url == null || fetcher == null ? null : fetcher.retrieveJSONObject(url));
         }
         return res;
     }
 
     public List<Map<String, Serializable>> convertMultiOSDBJobs(String parentBuildId, JSONObject jsonParentBuild,
-            JenkinsJobsFetcher fetcher) throws IOException {
-        List<Map<String, Serializable>> res = new ArrayList<Map<String, Serializable>>();
+            JenkinsJobsRetriever fetcher) throws IOException {
+        return JenkinsJob.toMaps(convertRuns(parentBuildId, jsonParentBuild, fetcher));
+    }
+
+    /**
+     * Converts the failing runs of given multiosdb build, in the order listed by Jenkins, or returns an empty list if
+     * given build is not a multiosdb one.
+     *
+     * @since 3.10.5
+     */
+    public List<JenkinsJob> convertRuns(String parentBuildId, JSONObject jsonParentBuild, JenkinsJobsRetriever fetcher)
+            throws IOException {
+        List<JenkinsJob> res = new ArrayList<JenkinsJob>();
         if (jsonParentBuild.containsKey("runs")) {
             // multiosdb job => retrieve info from subjobs
             JSONArray runs = jsonParentBuild.optJSONArray("runs");
             String parentBuildUrl = jsonParentBuild.getString("url");
             String parentUrl = removeBuildNumber(parentBuildUrl);
             if (runs != null) {
+                List<String[]> runJobs = new ArrayList<String[]>();
+                List<String> runBuildUrls = new ArrayList<String>();
+                List<JSONObject> embeddedRuns = new ArrayList<JSONObject>();
                 for (Object jsonRun : runs) {
                     if (jsonRun != null && ((JSONObject) jsonRun).has("url")) {
                         String runUrl = ((JSONObject) jsonRun).getString("url");
                         if (runUrl != null) {
-                            Map<String, Serializable> runJob = new HashMap<String, Serializable>();
                             if (runUrl.startsWith(parentUrl)) {
                                 // parse it and make it the id
                                 String runJobId = runUrl.substring(parentUrl.length());
                                 runJobId = runJobId.substring(0, runJobId.indexOf("/"));
-                                runJob.put("job_id", parentBuildId + "#" + runJobId);
                                 // remove build number from job URL
                                 String subUrl = removeBuildNumber(runUrl);
-                                runJob.put("job_url", subUrl);
-                                if (fetcher != null) {
-                                    JSONObject jsonRunBuild = fetcher.retrieveJSONObject(runUrl + "api/json");
-                                    if (jsonRunBuild != null) {
-                                        runJob.putAll(convertBuild(jsonRunBuild));
-                                    }
-                                }
-                                String failureType = (String) runJob.get("type");
-                                if (!"SUCCESS".equals(failureType)) {
-                                    // ignore sub jobs that are ok
-                                    res.add(runJob);
+                                runJobs.add(new String[] { parentBuildId + JenkinsJobTable.RUN_SEPARATOR + runJobId,
+                                        subUrl });
+                                if (JenkinsFetchMode.TREE == fetchMode) {
+                                    // run info already retrieved with parent build
+                                    embeddedRuns.add((JSONObject) jsonRun);
+                                } else {
+                                    runBuildUrls.add(fetcher == null ? null : runUrl + "api/json");
                                 }
                             } else {
                                 // ignore for now...
@@ -154,11 +575,166 @@ public class JenkinsJsonConverter {
                         }
                     }
                 }
+                List<JSONObject> jsonRunBuilds;
+                if (JenkinsFetchMode.TREE == fetchMode) {
+                    jsonRunBuilds = embeddedRuns;
+                } else {
+                    // retrieve all runs at once, waiting at most for the runs timeout
+                    jsonRunBuilds = fetchAll(runBuildUrls, fetcher, runsTimeout);
+                }
+                for (int i = 0; i < runJobs.size(); i++) {
+                    String[] runJob = runJobs.get(i);
+                    JSONObject jsonRunBuild = jsonRunBuilds.get(i);
+                    JenkinsBuild runBuild = jsonRunBuild == null ? JenkinsBuild.NONE : readBuild(jsonRunBuild);
+                    if (runBuild.getResult() != JenkinsBuildResult.SUCCESS) {
+                        // ignore sub jobs that are ok
+                        res.add(new JenkinsJob(runJob[0], runJob[1], runBuild));
+                    }
+                }
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Converts a single completed build notified by Jenkins into jobs, as {@link #convertJobs} would for the job of
+     * this build, see {@link #convertNotification}.
+     *
+     * @since 3.10.5
+     */
+    public List<Map<String, Serializable>> convertBuildNotification(JSONObject payload, JenkinsJobsRetriever fetcher)
+            throws IOException {
+        return JenkinsJob.toMaps(convertNotification(payload, fetcher));
+    }
+
+    /**
+     * Converts a single completed build notified by Jenkins into jobs, see {@link #getNotifiedBuildUrl} and
+     * {@link #convertNotifiedBuild}.
+     *
+     * @since 3.10.5
+     */
+    public List<JenkinsJob> convertNotification(JSONObject payload, JenkinsJobsRetriever fetcher) throws IOException {
+        String buildUrl = getNotifiedBuildUrl(payload);
+        if (buildUrl == null) {
+            return new ArrayList<JenkinsJob>();
+        }
+        return convertNotifiedBuild(buildUrl, null, fetcher);
+    }
+
+    /**
+     * Returns the url of the completed build described by given notification, ending with a slash, or null if it does
+     * not describe a completed build.
+     * <p>
+     * Accepts the json api data of the build, or a notification plugin payload, holding a "build" object. Only the
+     * url is read: the build itself is always retrieved from Jenkins, see {@link #convertNotifiedBuild}.
+     *
+     * @since 3.10.5
+     */
+    public String getNotifiedBuildUrl(JSONObject payload) {
+        String buildUrl;
+        JSONObject notification = payload.optJSONObject("build");
+        if (notification != null && !notification.isNullObject()) {
+            if (!"COMPLETED".equals(notification.optString("phase"))) {
+                return null;
+            }
+            buildUrl = notification.optString("full_url");
+        } else if (payload.optBoolean("building")) {
+            return null;
+        } else {
+            buildUrl = payload.optString("url");
+        }
+        if (isEmpty(buildUrl)) {
+            return null;
+        }
+        return buildUrl.endsWith("/") ? buildUrl : buildUrl + "/";
+    }
+
+    /**
+     * Retrieves the completed build at given url and converts it into jobs, as {@link #convertJobs} would for the job
+     * of this build.
+     * <p>
+     * Multiosdb builds are converted into their failing runs, as well as given tracked runs of the same job, retrieved
+     * again as on a full refresh so that passing runs are marked as fixed: the parent job is never returned. Returns
+     * an empty list if the build is not completed.
+     *
+     * @param trackedJobs jobs held by reports, or null
+     * @throws IOException if the build cannot be retrieved
+     * @since 3.10.5
+     */
+    public List<JenkinsJob> convertNotifiedBuild(String buildUrl, List<JenkinsJob> trackedJobs,
+            JenkinsJobsRetriever fetcher) throws IOException {
+        JSONObject jsonBuild = fetcher == null ? null
+                : fetcher.retrieveJSONObject(buildUrl + "api/json" + fetchMode.getNotifiedBuildQuery());
+        if (jsonBuild == null) {
+            throw new IOException(String.format("Build %s could not be retrieved", buildUrl));
+        }
+        if (isBuilding(jsonBuild)) {
+            return new ArrayList<JenkinsJob>();
+        }
+        String url = removeBuildNumber(buildUrl);
+        String jobId = getJobId(url);
+        if (!jsonBuild.containsKey("runs")) {
+            return convertJob(jobId, url, jsonBuild, fetcher);
+        }
+        List<JenkinsJob> res = convertRuns(jobId, jsonBuild, fetcher);
+        // passing runs are not converted
+        JenkinsJobTable runs = new JenkinsJobTable(res);
+        List<String[]> trackedRuns = new ArrayList<String[]>();
+        if (trackedJobs != null) {
+            for (JenkinsJob job : trackedJobs) {
+                if (jobId.equals(job.getFamily()) && !jobId.equals(job.getId()) && !runs.contains(job.getId())) {
+                    trackedRuns.add(new String[] { job.getId(), job.getUrl() });
+                    runs.put(job);
+                }
             }
         }
+        res.addAll(retrieveJobs(trackedRuns, fetcher));
         return res;
     }
 
+    /**
+     * Returns true if given build is still running: its result is not set yet.
+     *
+     * @since 3.10.5
+     */
+    protected boolean isBuilding(JSONObject jsonBuild) {
+        Object result = jsonBuild.opt("result");
+        return jsonBuild.optBoolean("building") || result == null || JSONNull.getInstance().equals(result);
+    }
+
+    /**
+     * Returns the id of the job of given build url, see {@link #getJobId}.
+     *
+     * @since 3.10.5
+     */
+    public String getBuildJobId(String buildUrl) {
+        return getJobId(removeBuildNumber(buildUrl));
+    }
+
+    /**
+     * Returns the job id for given job url: the job name, or the parent job name followed by the run name for runs of
+     * multiosdb jobs.
+     *
+     * @since 3.10.5
+     */
+    public String getJobId(String url) {
+        String path = url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+        String[] segments = path.split("/");
+        int n = segments.length;
+        if (n >= 3 && !"job".equals(segments[n - 2]) && "job".equals(segments[n - 3])) {
+            return decode(segments[n - 2]) + "#" + segments[n - 1];
+        }
+        return decode(segments[n - 1]);
+    }
+
+    protected String decode(String segment) {
+        try {
+            return URLDecoder.decode(segment.replace("+", "%2B"), "UTF-8");
+        } catch (UnsupportedEncodingException | IllegalArgumentException e) {
+            return segment;
+        }
+    }
+
     protected String removeBuildNumber(String url) {
         String res = url;
         if (res.endsWith("/")) {
@@ -169,9 +745,25 @@ public class JenkinsJsonConverter {
     }
 
     public Map<String, Serializable> convertBuild(JSONObject jsonBuild) throws IOException {
-        Map<String, Serializable> build = new HashMap<String, Serializable>();
+        JenkinsBuild build = readBuild(jsonBuild);
+        Map<String, Serializable> res = new HashMap<String, Serializable>();
+        res.put(JenkinsJob.BUILD_NUMBER, JenkinsJob.formatNumber(build.getNumber()));
+        res.put(JenkinsJob.TYPE, build.getResult() == null ? null : build.getResult().getValue());
+        res.put(JenkinsJob.CLAIMER, build.getClaimer());
+        res.put(JenkinsJob.COMMENT, build.getComment());
+        res.put(JenkinsJob.CULPRITS, new ArrayList<String>(build.getCulprits()));
+        return res;
+    }
+
+    /**
+     * Reads the number, result, claim info and culprits of given build.
+     *
+     * @since 3.10.5
+     */
+    public JenkinsBuild readBuild(JSONObject jsonBuild) throws IOException {
         // get build number
-        build.put("build_number", String.valueOf(jsonBuild.optInt("number")));
+        int number = jsonBuild.optInt("number");
+        String claimer = null;
         String comment = null;
         // get claim info
         JSONArray actions = jsonBuild.optJSONArray("actions");
@@ -180,7 +772,7 @@ public class JenkinsJsonConverter {
                 if (jsonAction != null && ((JSONObject) jsonAction).has("claimed")) {
                     JSONObject claim = (JSONObject) jsonAction;
                     if (claim.optBoolean("claimed")) {
-                        build.put("claimer", claim.optString("claimedBy"));
+                        claimer = claim.optString("claimedBy");
                         String reason = claim.optString("reason");
                         if (!isEmpty(reason)) {
                             comment = "Claim reason: " + reason;
@@ -199,9 +791,8 @@ public class JenkinsJsonConverter {
             }
             comment += "Description: " + description;
         }
-        build.put("comment", comment);
         // get culprits
-        ArrayList<String> culprits = new ArrayList<String>();
+        List<String> culprits = new ArrayList<String>();
         JSONArray jsonCulprits = jsonBuild.optJSONArray("culprits");
         if (jsonCulprits != null) {
             for (Object jsonCulprit : jsonCulprits) {
@@ -213,69 +804,88 @@ public class JenkinsJsonConverter {
                 }
             }
         }
-        build.put("culprits", culprits);
         // get result
-        build.put("type", jsonBuild.optString("result"));
-        return build;
+        JenkinsBuildResult result = JenkinsBuildResult.fromString(jsonBuild.optString("result"));
+        return new JenkinsBuild(number, result, claimer, comment, culprits);
     }
 
     public List<Map<String, Serializable>> mergeData(List<Map<String, Serializable>> oldData,
             List<Map<String, Serializable>> newData) {
+        return JenkinsJob.toMaps(merge(JenkinsJob.fromMaps(oldData), JenkinsJob.fromMaps(newData)));
+    }
+
+    /**
+     * Merges given new jobs into given old ones: old jobs are updated with the claim info of their build, or with the
+     * build that replaced it, and new jobs are added at the end.
+     * <p>
+     * Comments of merged jobs are rendered if a comment renderer is set, otherwise renderings stored on old jobs are
+     * dropped.
+     *
+     * @since 3.10.5
+     */
+    public List<JenkinsJob> merge(List<JenkinsJob> oldData, List<JenkinsJob> newData) {
         // reset counters and merged data
         newFailingCount = 0;
         fixedCount = 0;
         unchangedCount = 0;
-        mergedData = null;
+        mergedJobs = null;
+        changes = null;
 
-        // gather up all old info, and use a map for easier reference
-        HashMap<String, Map<String, Serializable>> res = new LinkedHashMap<String, Map<String, Serializable>>();
-        if (oldData != null) {
-            for (Map<String, Serializable> item : oldData) {
-                res.put((String) item.get("job_id"), item);
-            }
-        }
+        // gather up all old info, and index it for easier reference
+        JenkinsJobTable res = new JenkinsJobTable(oldData);
 
         // add up new values and merge if already in the existing list
         if (newData != null) {
-            for (Map<String, Serializable> item : newData) {
-                String id = (String) item.get("job_id");
-                String build_number = (String) item.get("build_number");
-                if (res.containsKey(id)) {
-                    Map<String, Serializable> oldItem = res.get(id);
-                    String oldBuildNumber = String.valueOf(oldItem.get("build_number"));
-                    if (build_number != null && build_number.equals(oldBuildNumber)) {
+            for (JenkinsJob item : newData) {
+                JenkinsJob oldItem = res.get(item.getId());
+                if (oldItem != null) {
+                    int buildNumber = item.getBuildNumber();
+                    if (buildNumber != JenkinsBuild.NO_NUMBER && buildNumber == oldItem.getBuildNumber()) {
                         // already the same job => update claimer and comment
-                        // override claimer and comments
-                        oldItem.put("claimer", item.get("claimer"));
-                        oldItem.put("comment", item.get("comment"));
+                        res.put(oldItem.withClaim(item.getClaimer(), item.getComment()));
                         unchangedCount++;
                     } else {
-                        oldItem.put("updated_build_number", build_number);
-                        String oldType = (String) oldItem.get("updated_type");
-                        String newType = (String) item.get("type");
-                        oldItem.put("updated_type", newType);
-                        oldItem.put("updated_comment", item.get("comment"));
+                        JenkinsBuildResult oldType = oldItem.getUpdatedResult();
+                        JenkinsBuildResult newType = item.getResult();
                         // only override claimer
-                        oldItem.put("claimer", item.get("claimer"));
-                        if ("SUCCESS".equals(newType) && !"SUCCESS".equals(oldType)) {
+                        res.put(oldItem.withUpdate(item.getBuild()));
+                        if (JenkinsBuildResult.SUCCESS == newType && JenkinsBuildResult.SUCCESS != oldType) {
                             fixedCount++;
                         }
                     }
-                    res.put(id, oldItem);
                 } else {
                     if (oldData != null && !oldData.isEmpty()) {
-                        item.put("newly_failing", "true");
+                        item = item.withNewlyFailing(true);
                     }
                     newFailingCount++;
-                    res.put(id, item);
+                    res.put(item);
                 }
             }
         }
 
         unchangedCount = res.size() - (fixedCount + newFailingCount);
 
-        mergedData = new ArrayList<Map<String, Serializable>>(res.values());
-        return mergedData;
+        mergedJobs = renderComments(res.toList(), commentRenderer);
+        changes = new JenkinsJobChanges(oldData, mergedJobs);
+        return mergedJobs;
+    }
+
+    /**
+     * Returns given jobs with comments rendered by given renderer, or without rendering if the renderer is null.
+     * <p>
+     * Renderings of another renderer are replaced.
+     *
+     * @since 3.10.5
+     */
+    public static List<JenkinsJob> renderComments(List<JenkinsJob> jobs, JenkinsCommentRenderer renderer) {
+        if (jobs == null) {
+            return null;
+        }
+        List<JenkinsJob> res = new ArrayList<JenkinsJob>(jobs.size());
+        for (JenkinsJob job : jobs) {
+            res.add(renderer == null ? job.withoutRenderedComments() : job.withRenderedComments(renderer));
+        }
+        return res;
     }
 
     public int getNewFailingCount() {
@@ -290,8 +900,47 @@ public class JenkinsJsonConverter {
         return unchangedCount;
     }
 
+    /**
+     * Returns the number of jobs whose last build was not retrieved again by last call to {@link #convertJobs}, as it
+     * did not change.
+     *
+     * @since 3.10.5
+     */
+    public int getSkippedCount() {
+        return skippedCount;
+    }
+
+    /**
+     * Returns the number of jobs whose last build was taken from the build cache by last call to
+     * {@link #convertJobs}, instead of being retrieved from Jenkins.
+     *
+     * @since 3.10.5
+     */
+    public int getCachedCount() {
+        return cachedCount;
+    }
+
     public List<Map<String, Serializable>> getMergedData() {
-        return mergedData;
+        return JenkinsJob.toMaps(mergedJobs);
+    }
+
+    /**
+     * Returns the jobs merged by last call to {@link #merge} or {@link #mergeData}.
+     *
+     * @since 3.10.5
+     */
+    public List<JenkinsJob> getMergedJobs() {
+        return mergedJobs;
+    }
+
+    /**
+     * Returns the rows changed by last call to {@link #merge} or {@link #mergeData}, to apply to the stored jobs
+     * instead of rewriting them all.
+     *
+     * @since 3.10.5
+     */
+    public JenkinsJobChanges getChanges() {
+        return changes;
     }
 
     protected boolean isEmpty(String value) {
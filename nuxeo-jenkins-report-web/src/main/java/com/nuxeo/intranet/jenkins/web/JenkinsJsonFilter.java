@@ -0,0 +1,110 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.web;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import net.sf.json.JSONObject;
+
+/**
+ * Streams json data returned by the Jenkins api, keeping only fields read by the {@link JenkinsJsonConverter}.
+ * <p>
+ * Big Jenkins responses (changesets, artifacts, test reports...) are never fully loaded in memory: only the filtered
+ * data is kept, and parsed into a {@link JSONObject}.
+ *
+ * @since 3.10.5
+ */
+public class JenkinsJsonFilter {
+
+    /**
+     * Fields kept at any depth, other fields are skipped together with their value.
+     */
+    public static final Set<String> FIELDS = Collections.unmodifiableSet(new HashSet<String>(Arrays.asList(
+            // jobs list
+            "jobs", "name", "url", "color", "lastCompletedBuild",
+            // builds
+            "number", "result", "building", "description", "culprits", "fullName", "runs",
+            // claims
+            "actions", "claimed", "claimedBy", "reason")));
+
+    protected static final JsonFactory factory = new JsonFactory();
+
+    private JenkinsJsonFilter() {
+        // utility class
+    }
+
+    /**
+     * Parses given stream, keeping only needed fields. The stream is not closed.
+     */
+    public static JSONObject parse(InputStream in) throws IOException {
+        return JSONObject.fromObject(filter(in));
+    }
+
+    /**
+     * Returns the json text read from given stream, keeping only needed fields. The stream is not closed.
+     */
+    public static String filter(InputStream in) throws IOException {
+        StringWriter writer = new StringWriter();
+        try (JsonParser parser = factory.createParser(in); JsonGenerator generator = factory.createGenerator(writer)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            if (parser.nextToken() != null) {
+                copyValue(parser, generator);
+            }
+        }
+        return writer.toString();
+    }
+
+    protected static void copyValue(JsonParser parser, JsonGenerator generator) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            generator.writeStartObject();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                parser.nextToken();
+                if (FIELDS.contains(name)) {
+                    generator.writeFieldName(name);
+                    copyValue(parser, generator);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            generator.writeEndObject();
+        } else if (token == JsonToken.START_ARRAY) {
+            generator.writeStartArray();
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                copyValue(parser, generator);
+            }
+            generator.writeEndArray();
+        } else {
+            generator.copyCurrentEvent(parser);
+        }
+    }
+
+}
@@ -23,6 +23,11 @@ package com.nuxeo.intranet.jenkins.web;
  */
 public class JenkinsReportFields {
 
+    /**
+     * @since 3.10.5
+     */
+    public static final String SCHEMA = "jenkinsreport";
+
     public static final String JOBS_PROPERTY = "jenkinsreport:unstable_jobs";
 
     public static final String LAST_UPDATE_FEEDBACK_PROPERTY = "jenkinsreport:last_update_feedback";
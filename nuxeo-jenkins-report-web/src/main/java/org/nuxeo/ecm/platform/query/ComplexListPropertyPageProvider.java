@@ -18,13 +18,23 @@
  */
 package org.nuxeo.ecm.platform.query;
 
+import java.io.Serializable;
+import java.text.CollationKey;
 import java.text.Collator;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.nuxeo.ecm.core.api.DocumentModel;
 import org.nuxeo.ecm.core.api.NuxeoException;
@@ -37,6 +47,11 @@ import org.nuxeo.ecm.platform.query.api.WhereClauseDefinition;
 import org.nuxeo.ecm.platform.query.nxql.NXQLQueryBuilder;
 
 /**
+ * Page provider paging through the items of a complex list property, given as first parameter.
+ * <p>
+ * Items are filtered by predicates of the where clause, see {@link ItemFilter}, using an index of item positions by
+ * value built on first use and kept until {@link #refresh()}.
+ *
  * @since 3.4.2
  */
 public class ComplexListPropertyPageProvider extends AbstractPageProvider<Map<String, Object>> {
@@ -53,91 +68,78 @@ public class ComplexListPropertyPageProvider extends AbstractPageProvider<Map<St
      */
     protected List<Map<String, Object>> currentItems;
 
+    /**
+     * Index of item positions by value, for each filtered key, built when filtering items.
+     *
+     * @since 3.10.5
+     */
+    protected transient ItemIndex index;
+
+    /**
+     * Filters applied to compute {@link #filteredPositions}, or null if not computed.
+     *
+     * @since 3.10.5
+     */
+    protected transient List<ItemFilter> filteredBy;
+
+    /**
+     * Ascending positions of items matching {@link #filteredBy}, or null if no filter applies.
+     *
+     * @since 3.10.5
+     */
+    protected transient int[] filteredPositions;
+
+    /**
+     * Sort keys of items, computed once per item and sort column.
+     *
+     * @since 3.10.5
+     */
+    protected transient SortKeys sortKeys;
+
+    /**
+     * Sort infos and filtered positions used to compute {@link #sortedPositions}, or null if not computed.
+     *
+     * @since 3.10.5
+     */
+    protected transient List<SortInfo> sortedBy;
+
+    protected transient int[] sortedFrom;
+
+    /**
+     * Positions of the first items in sort order, or all of them.
+     *
+     * @since 3.10.5
+     */
+    protected transient int[] sortedPositions;
+
     @Override
-    @SuppressWarnings("unchecked")
     public List<Map<String, Object>> getCurrentPage() {
         if (currentItems == null) {
             currentItems = new ArrayList<>();
 
             try {
-                // resolve parameters to get items if not cached
-                if (items == null) {
-                    Object[] parameters = getParameters();
-                    if (parameters == null) {
-                        throw new NuxeoException("First parameter needed to resolve " + "the list of items");
-                    }
-                    items = (List<Map<String, Object>>) parameters[0];
-                }
-
-                List<Map<String, Object>> allItems = new ArrayList<>();
-
-                boolean noFilter = true;
-                PageProviderDefinition def = getDefinition();
-                WhereClauseDefinition wc = def.getWhereClause();
-                if (wc != null) {
-                    // filter using simple predicates for now
-                    DocumentModel doc = getSearchDocumentModel();
-                    if (doc == null) {
-                        throw new NuxeoException(String.format("Cannot build query of provider '%s': "
-                                + "no search document model is set", getName()));
-                    }
-                    PredicateDefinition[] predicates = wc.getPredicates();
-                    if (predicates != null) {
-                        Map<String, Object> filters = new HashMap<>();
-                        for (PredicateDefinition pred : predicates) {
-                            // handle only exact matches for now
-                            String operator = null;
-                            String operatorField = pred.getOperatorField();
-                            String operatorSchema = pred.getOperatorSchema();
-                            String parameter = pred.getParameter();
-                            PredicateFieldDefinition[] values = pred.getValues();
-                            Object value = NXQLQueryBuilder.getRawValue(doc, values[0]);
-                            if (value == null) {
-                                // value not provided: ignore predicate
-                                continue;
-                            }
-                            filters.put(parameter, value);
-                        }
-                        // apply filters on items
-                        if (!filters.isEmpty()) {
-                            noFilter = false;
-                            for (Map<String, Object> item : items) {
-                                for (Map.Entry<String, Object> filter : filters.entrySet()) {
-                                    if (matches(item, filter.getKey(), filter.getValue())) {
-                                        allItems.add(item);
-                                    } else {
-                                        // perform AND between predicates
-                                        break;
-                                    }
-                                }
-                            }
-                        }
-                    }
-                }
-
-                if (noFilter && items != null) {
-                    allItems.addAll(items);
-                }
-
-                // handle sort
-                if (sortInfos != null) {
-                    Collections.sort(allItems, new MapComparator(sortInfos));
-                }
+                List<Map<String, Object>> allItems = getItems();
+                int[] positions = getFilteredPositions(allItems);
 
                 // handle max page size and offset
                 long minMaxPageSize = getMinMaxPageSize();
                 long offset = getCurrentPageOffset();
 
-                long resultsCount = allItems.size();
+                long resultsCount = positions == null ? allItems.size() : positions.length;
                 setResultsCount(resultsCount);
                 int index = 0;
                 if (offset < resultsCount) {
                     index = Long.valueOf(offset).intValue();
                 }
-                int pos = 0;
-                for (int i = index; i < allItems.size() && pos < minMaxPageSize; i++) {
-                    pos += 1;
-                    currentItems.add(allItems.get(i));
+                int end = (int) Math.min(resultsCount, index + Math.max(minMaxPageSize, 0));
+
+                // handle sort
+                if (sortInfos != null && !sortInfos.isEmpty() && index < end) {
+                    positions = getSortedPositions(allItems, positions, end);
+                }
+
+                for (int i = index; i < end; i++) {
+                    currentItems.add(allItems.get(positions == null ? i : positions[i]));
                 }
             } catch (NuxeoException e) {
                 error = e;
@@ -148,11 +150,167 @@ public class ComplexListPropertyPageProvider extends AbstractPageProvider<Map<St
         return currentItems;
     }
 
-    protected boolean matches(Map<String, Object> item, String key, Object value) {
-        if (item.containsKey(key) && value.equals(item.get(key))) {
-            return true;
+    /**
+     * Returns all items, resolved from the first parameter if not cached.
+     *
+     * @since 3.10.5
+     */
+    @SuppressWarnings("unchecked")
+    protected List<Map<String, Object>> getItems() {
+        if (items == null) {
+            Object[] parameters = getParameters();
+            if (parameters == null) {
+                throw new NuxeoException("First parameter needed to resolve " + "the list of items");
+            }
+            items = (List<Map<String, Object>>) parameters[0];
+            if (items == null) {
+                items = Collections.emptyList();
+            }
+            resetCaches();
+        }
+        return items;
+    }
+
+    /**
+     * Clears caches computed from items.
+     *
+     * @since 3.10.5
+     */
+    protected void resetCaches() {
+        index = null;
+        filteredBy = null;
+        filteredPositions = null;
+        sortKeys = null;
+        sortedBy = null;
+        sortedFrom = null;
+        sortedPositions = null;
+    }
+
+    /**
+     * Returns the positions of given filtered items in sort order, holding at least the first {@code count} of them.
+     * <p>
+     * Only the first items are selected and sorted when possible, and the order is cached until sort infos or filters
+     * change, so that next pages are usually served from cache: ties are kept in list order.
+     *
+     * @param positions the ascending positions of filtered items, or null for all items
+     * @since 3.10.5
+     */
+    protected int[] getSortedPositions(List<Map<String, Object>> allItems, int[] positions, int count) {
+        boolean sameOrder = sortInfos.equals(sortedBy) && positions == sortedFrom;
+        if (sameOrder && sortedPositions.length >= count) {
+            return sortedPositions;
+        }
+        if (sortKeys == null) {
+            sortKeys = new SortKeys(allItems);
+        }
+        List<SortInfo> infos = new ArrayList<>(sortInfos);
+        int size = positions == null ? allItems.size() : positions.length;
+        // anticipate next pages when paging through the same order
+        int limit = sameOrder ? Math.max(count, 2 * sortedPositions.length) : count;
+        if (limit >= size / 2) {
+            sortedPositions = sortKeys.sort(infos, positions, size);
+        } else {
+            sortedPositions = sortKeys.select(infos, positions, size, limit);
+        }
+        sortedBy = infos;
+        sortedFrom = positions;
+        return sortedPositions;
+    }
+
+    /**
+     * Returns the ascending positions of given items matching all filters, or null if no filter applies. Positions
+     * are cached until filters change or the provider is refreshed.
+     *
+     * @since 3.10.5
+     */
+    protected int[] getFilteredPositions(List<Map<String, Object>> allItems) {
+        List<ItemFilter> filters = getFilters();
+        if (filters.isEmpty()) {
+            return null;
+        }
+        if (!filters.equals(filteredBy)) {
+            if (index == null) {
+                index = new ItemIndex(allItems);
+            }
+            // perform AND between filters: check items matching the most selective one against others
+            int[] candidates = null;
+            ItemFilter candidatesFilter = null;
+            for (ItemFilter filter : filters) {
+                int[] positions = index.getPositions(filter);
+                if (candidates == null || positions.length < candidates.length) {
+                    candidates = positions;
+                    candidatesFilter = filter;
+                }
+            }
+            int[] res = new int[candidates.length];
+            int size = 0;
+            for (int position : candidates) {
+                if (matches(allItems.get(position), filters, candidatesFilter)) {
+                    res[size++] = position;
+                }
+            }
+            filteredPositions = Arrays.copyOf(res, size);
+            filteredBy = new ArrayList<>(filters);
+        }
+        return filteredPositions;
+    }
+
+    protected boolean matches(Map<String, Object> item, List<ItemFilter> filters, ItemFilter matched) {
+        for (ItemFilter filter : filters) {
+            if (filter != matched && !filter.matches(item)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the filters defined by predicates of the where clause with a value on the search document model.
+     *
+     * @since 3.10.5
+     */
+    protected List<ItemFilter> getFilters() {
+        List<ItemFilter> filters = new ArrayList<>();
+        PageProviderDefinition def = getDefinition();
+        WhereClauseDefinition wc = def == null ? null : def.getWhereClause();
+        if (wc == null) {
+            return filters;
+        }
+        // filter using simple predicates for now
+        DocumentModel doc = getSearchDocumentModel();
+        if (doc == null) {
+            throw new NuxeoException(String.format("Cannot build query of provider '%s': "
+                    + "no search document model is set", getName()));
+        }
+        PredicateDefinition[] predicates = wc.getPredicates();
+        if (predicates != null) {
+            for (PredicateDefinition pred : predicates) {
+                PredicateFieldDefinition[] values = pred.getValues();
+                Object value = NXQLQueryBuilder.getRawValue(doc, values[0]);
+                if (value == null) {
+                    // value not provided: ignore predicate
+                    continue;
+                }
+                ItemFilter filter = ItemFilter.create(pred.getParameter(), getOperator(doc, pred), value);
+                if (filter != null) {
+                    filters.add(filter);
+                }
+            }
+        }
+        return filters;
+    }
+
+    protected String getOperator(DocumentModel doc, PredicateDefinition pred) {
+        String operator = pred.getOperator();
+        String operatorField = pred.getOperatorField();
+        String operatorSchema = pred.getOperatorSchema();
+        if (operatorField != null && operatorSchema != null) {
+            Object value = doc.getPropertyValue(operatorSchema + ":" + operatorField);
+            if (value != null) {
+                operator = value.toString();
+            }
         }
-        return false;
+        return operator;
     }
 
     @Override
@@ -165,19 +323,444 @@ public class ComplexListPropertyPageProvider extends AbstractPageProvider<Map<St
     public void refresh() {
         items = null;
         currentItems = null;
+        resetCaches();
         super.refresh();
     }
 
-    static final Collator collator = Collator.getInstance();
+    /**
+     * Filter on the value of an item key.
+     * <p>
+     * Supported operators are "=", "IN" and "STARTSWITH", as well as "LIKE" with a prefix pattern such as "abc%". Other
+     * operators are handled as "=".
+     *
+     * @since 3.10.5
+     */
+    public static class ItemFilter implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        public static final String EQUALS = "=";
+
+        public static final String IN = "IN";
+
+        public static final String STARTSWITH = "STARTSWITH";
+
+        protected final String key;
+
+        protected final String operator;
+
+        protected final List<Object> values;
+
+        public ItemFilter(String key, String operator, List<?> values) {
+            this.key = key;
+            this.operator = operator;
+            this.values = Collections.unmodifiableList(new ArrayList<Object>(values));
+        }
+
+        /**
+         * Returns the filter matching given predicate operator and value, or null if the value is empty.
+         */
+        public static ItemFilter create(String key, String operator, Object value) {
+            List<Object> values = new ArrayList<>();
+            if (value instanceof Object[]) {
+                values.addAll(Arrays.asList((Object[]) value));
+            } else if (value instanceof Collection) {
+                values.addAll((Collection<?>) value);
+            } else {
+                values.add(value);
+            }
+            values.removeAll(Collections.singleton(null));
+            if (values.isEmpty()) {
+                return null;
+            }
+            String op = operator == null ? "" : operator.trim().toUpperCase(Locale.ENGLISH);
+            if (IN.equals(op)) {
+                return new ItemFilter(key, IN, values);
+            }
+            if (STARTSWITH.equals(op)) {
+                return new ItemFilter(key, STARTSWITH, Collections.singletonList(values.get(0).toString()));
+            }
+            if ("LIKE".equals(op) && values.get(0).toString().endsWith("%")) {
+                String pattern = values.get(0).toString();
+                String prefix = pattern.substring(0, pattern.length() - 1);
+                if (prefix.indexOf('%') < 0 && prefix.indexOf('_') < 0) {
+                    return new ItemFilter(key, STARTSWITH, Collections.singletonList(prefix));
+                }
+            }
+            return new ItemFilter(key, EQUALS, values.subList(0, 1));
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public String getOperator() {
+            return operator;
+        }
+
+        public List<Object> getValues() {
+            return values;
+        }
+
+        public boolean matches(Map<String, Object> item) {
+            Object itemValue = item.get(key);
+            if (itemValue == null) {
+                return false;
+            }
+            if (STARTSWITH.equals(operator)) {
+                return itemValue.toString().startsWith((String) values.get(0));
+            }
+            return values.contains(itemValue);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ItemFilter)) {
+                return false;
+            }
+            ItemFilter other = (ItemFilter) obj;
+            return Objects.equals(key, other.key) && operator.equals(other.operator) && values.equals(other.values);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(key, operator, values);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s %s %s", key, operator, values);
+        }
+
+    }
+
+    /**
+     * Secondary index of items: ascending positions of items by value, for each key, built on first use.
+     *
+     * @since 3.10.5
+     */
+    protected static class ItemIndex {
+
+        protected static final int[] NO_POSITIONS = new int[0];
+
+        protected final List<Map<String, Object>> items;
+
+        protected final Map<String, Map<Object, int[]>> values = new HashMap<>();
+
+        protected final Map<String, NavigableMap<String, int[]>> strings = new HashMap<>();
+
+        public ItemIndex(List<Map<String, Object>> items) {
+            this.items = items;
+        }
+
+        /**
+         * Returns the ascending positions of items matching given filter.
+         */
+        public int[] getPositions(ItemFilter filter) {
+            List<int[]> matching = new ArrayList<>();
+            if (ItemFilter.STARTSWITH.equals(filter.getOperator())) {
+                String prefix = (String) filter.getValues().get(0);
+                for (Map.Entry<String, int[]> entry : getStrings(filter.getKey()).tailMap(prefix, true).entrySet()) {
+                    if (!entry.getKey().startsWith(prefix)) {
+                        break;
+                    }
+                    matching.add(entry.getValue());
+                }
+            } else {
+                Map<Object, int[]> keyValues = getValues(filter.getKey());
+                for (Object value : new LinkedHashSet<>(filter.getValues())) {
+                    int[] positions = keyValues.get(value);
+                    if (positions != null) {
+                        matching.add(positions);
+                    }
+                }
+            }
+            return union(matching);
+        }
+
+        protected Map<Object, int[]> getValues(String key) {
+            Map<Object, int[]> res = values.get(key);
+            if (res == null) {
+                Map<Object, Positions> positions = new HashMap<>();
+                for (int i = 0; i < items.size(); i++) {
+                    Object value = items.get(i).get(key);
+                    if (value != null) {
+                        positions.computeIfAbsent(value, k -> new Positions()).add(i);
+                    }
+                }
+                res = new HashMap<>(positions.size() * 2);
+                for (Map.Entry<Object, Positions> entry : positions.entrySet()) {
+                    res.put(entry.getKey(), entry.getValue().toArray());
+                }
+                values.put(key, res);
+            }
+            return res;
+        }
+
+        protected NavigableMap<String, int[]> getStrings(String key) {
+            NavigableMap<String, int[]> res = strings.get(key);
+            if (res == null) {
+                Map<String, List<int[]>> positions = new HashMap<>();
+                for (Map.Entry<Object, int[]> entry : getValues(key).entrySet()) {
+                    positions.computeIfAbsent(entry.getKey().toString(), k -> new ArrayList<>()).add(entry.getValue());
+                }
+                res = new TreeMap<>();
+                for (Map.Entry<String, List<int[]>> entry : positions.entrySet()) {
+                    res.put(entry.getKey(), union(entry.getValue()));
+                }
+                strings.put(key, res);
+            }
+            return res;
+        }
+
+        /**
+         * Returns the ascending positions held by given disjoint arrays.
+         */
+        protected static int[] union(List<int[]> positions) {
+            if (positions.isEmpty()) {
+                return NO_POSITIONS;
+            }
+            if (positions.size() == 1) {
+                return positions.get(0);
+            }
+            int size = 0;
+            for (int[] p : positions) {
+                size += p.length;
+            }
+            int[] res = new int[size];
+            int pos = 0;
+            for (int[] p : positions) {
+                System.arraycopy(p, 0, res, pos, p.length);
+                pos += p.length;
+            }
+            Arrays.sort(res);
+            return res;
+        }
+
+        /**
+         * Growable array of positions.
+         */
+        protected static class Positions {
+
+            protected int[] positions = new int[4];
+
+            protected int size;
+
+            public void add(int position) {
+                if (size == positions.length) {
+                    positions = Arrays.copyOf(positions, size * 2);
+                }
+                positions[size++] = position;
+            }
+
+            public int[] toArray() {
+                return Arrays.copyOf(positions, size);
+            }
+
+        }
+
+    }
+
+    /**
+     * Sort keys of items by column, see {@link ComplexListPropertyPageProvider#getSortKey}. Keys of a column are
+     * computed once for all items, on first use, with a collator of their own: instances can be used concurrently.
+     *
+     * @since 3.10.5
+     */
+    protected static class SortKeys {
+
+        protected final List<Map<String, Object>> items;
 
-    static {
+        protected final Map<String, Object[]> keys = new ConcurrentHashMap<>();
+
+        public SortKeys(List<Map<String, Object>> items) {
+            this.items = items;
+        }
+
+        protected Object[] getKeys(String column) {
+            return keys.computeIfAbsent(column, this::computeKeys);
+        }
+
+        protected Object[] computeKeys(String column) {
+            Collator collator = newCollator();
+            Object[] res = new Object[items.size()];
+            for (int i = 0; i < res.length; i++) {
+                res[i] = getSortKey(items.get(i).get(column), collator);
+            }
+            return res;
+        }
+
+        /**
+         * Compares items at given positions on given sort infos, then on their positions.
+         */
+        public int compare(List<SortInfo> sortInfos, int position1, int position2) {
+            for (SortInfo sortInfo : sortInfos) {
+                Object[] columnKeys = getKeys(sortInfo.getSortColumn());
+                int cmp = compareSortKeys(columnKeys[position1], columnKeys[position2]);
+                if (cmp != 0) {
+                    return sortInfo.getSortAscending() ? cmp : -cmp;
+                }
+            }
+            return Integer.compare(position1, position2);
+        }
+
+        protected static int getPosition(int[] positions, int i) {
+            return positions == null ? i : positions[i];
+        }
+
+        /**
+         * Returns all given positions in sort order.
+         */
+        public int[] sort(List<SortInfo> sortInfos, int[] positions, int size) {
+            Integer[] sorted = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                sorted[i] = Integer.valueOf(getPosition(positions, i));
+            }
+            Arrays.sort(sorted, (p1, p2) -> compare(sortInfos, p1.intValue(), p2.intValue()));
+            int[] res = new int[size];
+            for (int i = 0; i < size; i++) {
+                res[i] = sorted[i].intValue();
+            }
+            return res;
+        }
+
+        /**
+         * Returns the first {@code count} of given positions in sort order, selected using a bounded max-heap.
+         */
+        public int[] select(List<SortInfo> sortInfos, int[] positions, int size, int count) {
+            int[] heap = new int[count];
+            int heapSize = 0;
+            for (int i = 0; i < size; i++) {
+                int position = getPosition(positions, i);
+                if (heapSize < count) {
+                    // sift up
+                    int child = heapSize++;
+                    while (child > 0) {
+                        int parent = (child - 1) / 2;
+                        if (compare(sortInfos, heap[parent], position) >= 0) {
+                            break;
+                        }
+                        heap[child] = heap[parent];
+                        child = parent;
+                    }
+                    heap[child] = position;
+                } else if (compare(sortInfos, position, heap[0]) < 0) {
+                    siftDown(sortInfos, heap, heapSize, position);
+                }
+            }
+            // extract positions from the greatest to the lowest
+            for (int last = heapSize - 1; last > 0; last--) {
+                int greatest = heap[0];
+                siftDown(sortInfos, heap, last, heap[last]);
+                heap[last] = greatest;
+            }
+            return heap;
+        }
+
+        /**
+         * Replaces the root of given max-heap by given position.
+         */
+        protected void siftDown(List<SortInfo> sortInfos, int[] heap, int heapSize, int position) {
+            int parent = 0;
+            while (true) {
+                int child = 2 * parent + 1;
+                if (child >= heapSize) {
+                    break;
+                }
+                if (child + 1 < heapSize && compare(sortInfos, heap[child + 1], heap[child]) > 0) {
+                    child++;
+                }
+                if (compare(sortInfos, heap[child], position) <= 0) {
+                    break;
+                }
+                heap[parent] = heap[child];
+                parent = child;
+            }
+            heap[parent] = position;
+        }
+
+    }
+
+    /**
+     * Returns a new collator, independent of case and accents: collators are not shared as they lock on each
+     * comparison.
+     *
+     * @since 3.10.5
+     */
+    protected static Collator newCollator() {
+        Collator collator = Collator.getInstance();
         collator.setStrength(Collator.PRIMARY); // case+accent independent
+        return collator;
+    }
+
+    /**
+     * Returns the key used to sort given value, or null if null: numbers, including strings holding an integer such
+     * as build numbers, are sorted numerically before other values, sorted using given collator.
+     *
+     * @since 3.10.5
+     * @see #compareSortKeys
+     */
+    protected static Object getSortKey(Object value, Collator collator) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Long || value instanceof Integer) {
+            return Long.valueOf(((Number) value).longValue());
+        }
+        String string = value.toString();
+        Long number = parseInteger(string);
+        if (number != null) {
+            return number;
+        }
+        return collator.getCollationKey(string);
+    }
+
+    /**
+     * Returns the value of given string if it holds an integer, or null.
+     */
+    protected static Long parseInteger(String string) {
+        int length = string.length();
+        int start = length > 1 && string.charAt(0) == '-' ? 1 : 0;
+        // keep clear of overflows
+        if (length == start || length - start > 18) {
+            return null;
+        }
+        for (int i = start; i < length; i++) {
+            char c = string.charAt(i);
+            if (c < '0' || c > '9') {
+                return null;
+            }
+        }
+        return Long.valueOf(string);
+    }
+
+    /**
+     * Compares sort keys returned by {@link #getSortKey}, null keys first.
+     *
+     * @since 3.10.5
+     */
+    protected static int compareSortKeys(Object key1, Object key2) {
+        if (key1 == null || key2 == null) {
+            return key1 == null ? (key2 == null ? 0 : -1) : 1;
+        }
+        if (key1 instanceof Long) {
+            return key2 instanceof Long ? ((Long) key1).compareTo((Long) key2) : -1;
+        }
+        if (key2 instanceof Long) {
+            return 1;
+        }
+        return ((CollationKey) key1).compareTo((CollationKey) key2);
     }
 
     public class MapComparator implements Comparator<Map<String, Object>> {
 
         protected List<SortInfo> sortInfos;
 
+        protected final Collator collator = newCollator();
+
         public MapComparator(List<SortInfo> sortInfos) {
             super();
             this.sortInfos = sortInfos;
@@ -201,23 +784,8 @@ public class ComplexListPropertyPageProvider extends AbstractPageProvider<Map<St
         }
 
         protected int compare(Map<String, Object> arg0, Map<String, Object> arg1, String sortColumn, boolean asc) {
-            Object v1 = arg0.get(sortColumn);
-            Object v2 = arg1.get(sortColumn);
-            if (v1 == null && v2 == null) {
-                return 0;
-            } else if (v1 == null) {
-                return asc ? -1 : 1;
-            } else if (v2 == null) {
-                return asc ? 1 : -1;
-            }
-            final int cmp;
-            if (v1 instanceof Long && v2 instanceof Long) {
-                cmp = ((Long) v1).compareTo((Long) v2);
-            } else if (v1 instanceof Integer && v2 instanceof Integer) {
-                cmp = ((Integer) v1).compareTo((Integer) v2);
-            } else {
-                cmp = collator.compare(v1.toString(), v2.toString());
-            }
+            int cmp = compareSortKeys(getSortKey(arg0.get(sortColumn), collator),
+                    getSortKey(arg1.get(sortColumn), collator));
             return asc ? cmp : -cmp;
         }
 
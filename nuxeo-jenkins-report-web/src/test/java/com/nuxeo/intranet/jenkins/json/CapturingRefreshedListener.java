@@ -0,0 +1,61 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.json;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.nuxeo.ecm.core.event.Event;
+import org.nuxeo.ecm.core.event.EventListener;
+import org.nuxeo.ecm.core.event.impl.DocumentEventContext;
+
+import com.nuxeo.intranet.jenkins.service.JenkinsReportService;
+
+/**
+ * Records the ids of reports for which the {@link JenkinsReportService#REFRESHED_EVENT} event is sent.
+ *
+ * @since 3.10.5
+ */
+public class CapturingRefreshedListener implements EventListener {
+
+    protected static final List<String> REFRESHED = new ArrayList<>();
+
+    @Override
+    public void handleEvent(Event event) {
+        if (JenkinsReportService.REFRESHED_EVENT.equals(event.getName())
+                && event.getContext() instanceof DocumentEventContext) {
+            synchronized (REFRESHED) {
+                REFRESHED.add(((DocumentEventContext) event.getContext()).getSourceDocument().getId());
+            }
+        }
+    }
+
+    public static List<String> getRefreshed() {
+        synchronized (REFRESHED) {
+            return new ArrayList<>(REFRESHED);
+        }
+    }
+
+    public static void clear() {
+        synchronized (REFRESHED) {
+            REFRESHED.clear();
+        }
+    }
+
+}
@@ -0,0 +1,122 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.json;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.io.IOUtils;
+import org.nuxeo.common.utils.FileUtils;
+
+import com.nuxeo.intranet.jenkins.web.JenkinsJobsFetcher;
+
+import net.sf.json.JSONObject;
+
+/**
+ * Fetcher serving recorded json resources instead of querying Jenkins, and keeping track of requested urls.
+ *
+ * @since 3.10.5
+ */
+public class FakeJenkinsJobsFetcher extends JenkinsJobsFetcher {
+
+    private static final long serialVersionUID = 1L;
+
+    protected final Map<String, String> resources = new LinkedHashMap<>();
+
+    protected final List<String> requestedUrls = Collections.synchronizedList(new ArrayList<String>());
+
+    protected String defaultResource;
+
+    protected long delay;
+
+    /**
+     * Serves given resource for urls ending with given suffix.
+     */
+    public FakeJenkinsJobsFetcher serve(String urlSuffix, String resource) {
+        resources.put(urlSuffix, resource);
+        return this;
+    }
+
+    /**
+     * Serves given resource for urls not matching any other suffix.
+     */
+    public FakeJenkinsJobsFetcher serveByDefault(String resource) {
+        defaultResource = resource;
+        return this;
+    }
+
+    /**
+     * Waits up to given delay, in milliseconds, before answering: the delay of each url is a fixed fraction of it, so
+     * that parallel requests complete out of order, always the same way.
+     */
+    public FakeJenkinsJobsFetcher withDelay(long delay) {
+        this.delay = delay;
+        return this;
+    }
+
+    public List<String> getRequestedUrls() {
+        return requestedUrls;
+    }
+
+    public List<String> getFetchErrors() {
+        return fetchErrors;
+    }
+
+    @Override
+    protected JSONObject retrieveJSONObject(String url) {
+        if (url == null) {
+            return null;
+        }
+        requestedUrls.add(url);
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay / (1 + (url.hashCode() & 3)));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
+        String resource = defaultResource;
+        for (Map.Entry<String, String> entry : resources.entrySet()) {
+            if (url.endsWith(entry.getKey())) {
+                resource = entry.getValue();
+                break;
+            }
+        }
+        if (resource == null) {
+            return null;
+        }
+        return load(resource);
+    }
+
+    public static JSONObject load(String resource) {
+        try (InputStream stream = new FileInputStream(FileUtils.getResourcePathFromContext(resource))) {
+            return JSONObject.fromObject(IOUtils.toString(stream));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -0,0 +1,641 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.json;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import com.nuxeo.intranet.jenkins.web.JenkinsJsonFilter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import net.sf.json.JSONArray;
+import net.sf.json.JSONNull;
+import net.sf.json.JSONObject;
+
+/**
+ * Local HTTP server mimicking the Jenkins json api, seeded from the jobs, builds and multiosdb builds recorded in test
+ * resources and scaled to a given number of jobs.
+ * <p>
+ * Serves the jobs list at {@code /api/json}, honoring the tree queries of {@code JenkinsFetchMode}, the last completed
+ * build of each job at {@code /job/<name>/lastCompletedBuild/api/json} or {@code /job/<name>/<number>/api/json}, and
+ * multiosdb runs at {@code /job/<name>/<axis>/<number>/api/json} or
+ * {@code /job/<name>/<axis>/lastCompletedBuild/api/json}.
+ * <p>
+ * Requests for builds and runs can be delayed, redirected, or fail with a 404 or 500 status, at given rates. The jobs
+ * list is always served, after the same delay.
+ *
+ * @since 3.10.5
+ */
+public class FakeJenkinsServer implements AutoCloseable {
+
+    public static final String REDIRECT_PREFIX = "/redirected";
+
+    protected static final String LISTING = "/api/json";
+
+    protected static final String LAST_BUILD = "lastCompletedBuild/api/json";
+
+    protected static final String API = "api/json";
+
+    protected int jobs = 389;
+
+    protected long minLatency;
+
+    protected long maxLatency;
+
+    protected double errorRate;
+
+    protected double notFoundRate;
+
+    protected double redirectRate;
+
+    protected boolean etags;
+
+    protected Random random = new Random(0);
+
+    protected HttpServer server;
+
+    protected ExecutorService executor;
+
+    protected String baseURL;
+
+    protected final Map<String, Job> jobsByName = new LinkedHashMap<>();
+
+    protected JSONObject buildTemplate;
+
+    protected JSONObject multiOSDBTemplate;
+
+    protected JSONObject jobsTemplate;
+
+    /**
+     * Axes of the runs of multiosdb builds.
+     */
+    protected final List<String> axes = new ArrayList<>();
+
+    /**
+     * Responses by resource key, computed on start.
+     *
+     * @see #getResourceKey(String, String)
+     */
+    protected final Map<String, byte[]> responses = new ConcurrentHashMap<>();
+
+    protected final Map<String, AtomicInteger> counts = new ConcurrentHashMap<>();
+
+    /**
+     * Jobs with a build in progress, see {@link #startBuild(String)}.
+     */
+    protected final Set<String> buildingJobs = new HashSet<>();
+
+    protected static class Job {
+
+        protected final String name;
+
+        protected final String color;
+
+        protected final boolean multiOSDB;
+
+        protected final int number;
+
+        protected Job(String name, String color, boolean multiOSDB, int number) {
+            this.name = name;
+            this.color = color;
+            this.multiOSDB = multiOSDB;
+            this.number = number;
+        }
+
+        protected String getResult() {
+            if (color.startsWith("red")) {
+                return "FAILURE";
+            }
+            if (color.startsWith("yellow")) {
+                return "UNSTABLE";
+            }
+            if (color.startsWith("aborted")) {
+                return "ABORTED";
+            }
+            return "SUCCESS";
+        }
+
+        protected boolean isBuilt() {
+            return !color.startsWith("notbuilt") && !color.startsWith("grey") && !color.startsWith("disabled");
+        }
+
+    }
+
+    /**
+     * Serves given number of jobs, copying the jobs recorded in test resources as many times as needed.
+     */
+    public FakeJenkinsServer withJobs(int jobs) {
+        this.jobs = jobs;
+        return this;
+    }
+
+    /**
+     * Waits between given delays, in milliseconds, before answering each request.
+     */
+    public FakeJenkinsServer withLatency(long minLatency, long maxLatency) {
+        this.minLatency = minLatency;
+        this.maxLatency = maxLatency;
+        return this;
+    }
+
+    /**
+     * Answers given ratio of build requests with a 500 status.
+     */
+    public FakeJenkinsServer withErrorRate(double errorRate) {
+        this.errorRate = errorRate;
+        return this;
+    }
+
+    /**
+     * Answers given ratio of build requests with a 404 status.
+     */
+    public FakeJenkinsServer withNotFoundRate(double notFoundRate) {
+        this.notFoundRate = notFoundRate;
+        return this;
+    }
+
+    /**
+     * Redirects given ratio of build requests to the same resource under {@link #REDIRECT_PREFIX}.
+     */
+    public FakeJenkinsServer withRedirectRate(double redirectRate) {
+        this.redirectRate = redirectRate;
+        return this;
+    }
+
+    /**
+     * Sends an ETag with each response, answering conditional requests with a 304 status. Jenkins does not, so this
+     * is disabled by default.
+     */
+    public FakeJenkinsServer withETags(boolean etags) {
+        this.etags = etags;
+        return this;
+    }
+
+    /**
+     * Seeds the random generator deciding the latency and the failures of each request.
+     */
+    public FakeJenkinsServer withSeed(long seed) {
+        random = new Random(seed);
+        return this;
+    }
+
+    /**
+     * Completes a new build of given job, with the result matching given color: runs of multiosdb builds fail like
+     * their parent build, one out of three.
+     */
+    public FakeJenkinsServer build(String name, String color) {
+        Job job = jobsByName.get(name);
+        jobsByName.put(name, new Job(name, color, job.multiOSDB, job.number + 1));
+        buildingJobs.remove(name);
+        if (server != null) {
+            render();
+        }
+        return this;
+    }
+
+    /**
+     * Starts a new build of given job, served by number as still running, without any result, until completed by
+     * {@link #build(String, String)}.
+     */
+    public FakeJenkinsServer startBuild(String name) {
+        buildingJobs.add(name);
+        if (server != null) {
+            render();
+        }
+        return this;
+    }
+
+    public FakeJenkinsServer start() throws IOException {
+        buildTemplate = FakeJenkinsJobsFetcher.load("build.json");
+        multiOSDBTemplate = FakeJenkinsJobsFetcher.load("multiosdb_build.json");
+        jobsTemplate = FakeJenkinsJobsFetcher.load("jobs.json");
+        String parentUrl = multiOSDBTemplate.getString("url");
+        parentUrl = parentUrl.substring(0, parentUrl.lastIndexOf('/', parentUrl.length() - 2) + 1);
+        for (Object run : multiOSDBTemplate.getJSONArray("runs")) {
+            String runUrl = ((JSONObject) run).getString("url");
+            axes.add(runUrl.substring(parentUrl.length(), runUrl.indexOf('/', parentUrl.length())));
+        }
+        JSONArray templates = jobsTemplate.getJSONArray("jobs");
+        for (int i = 0; i < jobs; i++) {
+            JSONObject template = templates.getJSONObject(i % templates.size());
+            int copy = i / templates.size();
+            String name = template.getString("name");
+            if (copy > 0) {
+                name += "-copy" + copy;
+            }
+            String color = template.optString("color");
+            jobsByName.put(name, new Job(name, color, name.contains("multiosdb"), 100 + i % 50));
+        }
+        executor = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        baseURL = "http://localhost:" + server.getAddress().getPort() + "/";
+        // render all responses upfront, so that only the time spent by clients is measured
+        render();
+        server.start();
+        return this;
+    }
+
+    @Override
+    public void close() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+            server = null;
+        }
+    }
+
+    /**
+     * Returns the url of the Jenkins instance, ending with a slash.
+     */
+    public String getURL() {
+        return baseURL;
+    }
+
+    /**
+     * Returns the url of the last completed build of given job, ending with a slash.
+     */
+    public String getBuildURL(String name) {
+        Job job = jobsByName.get(name);
+        return getJobUrl(job) + job.number + "/";
+    }
+
+    /**
+     * Returns the url of the build of given job in progress, ending with a slash, see {@link #startBuild(String)}.
+     */
+    public String getRunningBuildURL(String name) {
+        Job job = jobsByName.get(name);
+        return getJobUrl(job) + (job.number + 1) + "/";
+    }
+
+    /**
+     * Returns the names of the jobs of the jobs list, multiosdb ones or not.
+     */
+    public List<String> getJobNames(boolean multiOSDB) {
+        List<String> res = new ArrayList<>();
+        for (Job job : jobsByName.values()) {
+            if (job.multiOSDB == multiOSDB) {
+                res.add(job.name);
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Returns the number of jobs a refresh should report: jobs listed with a color other than blue, grey or disabled,
+     * as for failing, aborted or never built jobs, or the failing runs of such multiosdb jobs.
+     */
+    public int getFailingCount() {
+        int res = 0;
+        for (Job job : jobsByName.values()) {
+            if (job.color.matches("(blue|grey|disabled).*")) {
+                continue;
+            }
+            if (job.multiOSDB && job.isBuilt()) {
+                for (int i = 0; i < axes.size(); i++) {
+                    if (!"SUCCESS".equals(getRunResult(job, i))) {
+                        res++;
+                    }
+                }
+            } else {
+                res++;
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Returns the number of requests received, by kind: "listing", "build", "run", "unknown", and by outcome:
+     * "redirect", "notFound", "error", "notModified". Redirected requests are counted twice.
+     */
+    public Map<String, Integer> getCounts() {
+        Map<String, Integer> res = new LinkedHashMap<>();
+        for (String key : Arrays.asList("listing", "build", "run", "unknown", "redirect", "notFound", "error",
+                "notModified")) {
+            AtomicInteger count = counts.get(key);
+            res.put(key, Integer.valueOf(count == null ? 0 : count.get()));
+        }
+        return res;
+    }
+
+    public int getCount(String key) {
+        return getCounts().get(key).intValue();
+    }
+
+    /**
+     * Returns the total number of requests received.
+     */
+    public int getRequestCount() {
+        return getCount("listing") + getCount("build") + getCount("run") + getCount("unknown");
+    }
+
+    public void resetCounts() {
+        counts.clear();
+    }
+
+    protected void count(String key) {
+        counts.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+    }
+
+    protected void handle(HttpExchange exchange) throws IOException {
+        try {
+            String requestPath = exchange.getRequestURI().getPath();
+            String query = exchange.getRequestURI().getQuery();
+            boolean redirected = requestPath.startsWith(REDIRECT_PREFIX + "/");
+            String path = redirected ? requestPath.substring(REDIRECT_PREFIX.length()) : requestPath;
+            String kind = getKind(path);
+            count(kind);
+            sleep();
+            if ("unknown".equals(kind)) {
+                send(exchange, 404, null);
+                return;
+            }
+            if (!"listing".equals(kind) && !redirected) {
+                double fault = random.nextDouble();
+                if (fault < errorRate) {
+                    count("error");
+                    send(exchange, 500, null);
+                    return;
+                }
+                fault -= errorRate;
+                if (fault < notFoundRate) {
+                    count("notFound");
+                    send(exchange, 404, null);
+                    return;
+                }
+                fault -= notFoundRate;
+                if (fault < redirectRate) {
+                    count("redirect");
+                    String location = REDIRECT_PREFIX + exchange.getRequestURI().getRawPath();
+                    if (exchange.getRequestURI().getRawQuery() != null) {
+                        location += "?" + exchange.getRequestURI().getRawQuery();
+                    }
+                    exchange.getResponseHeaders().set("Location", location);
+                    send(exchange, 302, null);
+                    return;
+                }
+            }
+            byte[] response = responses.get(getResourceKey(path, query));
+            if (response == null) {
+                count("notFound");
+                send(exchange, 404, null);
+                return;
+            }
+            if (etags) {
+                String etag = "\"" + Integer.toHexString(Arrays.hashCode(response)) + "\"";
+                if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                    count("notModified");
+                    send(exchange, 304, null);
+                    return;
+                }
+                exchange.getResponseHeaders().set("ETag", etag);
+            }
+            send(exchange, 200, response);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    protected String getKind(String path) {
+        if (LISTING.equals(path)) {
+            return "listing";
+        }
+        String[] segments = path.split("/");
+        // "", "job", name, ...
+        if (segments.length < 4 || !"job".equals(segments[1]) || !jobsByName.containsKey(segments[2])) {
+            return "unknown";
+        }
+        if (segments.length == 6 && (path.endsWith("/" + LAST_BUILD) || isBuildPath(segments))) {
+            return "build";
+        }
+        if (path.endsWith("/" + API) && segments.length == 7) {
+            return "run";
+        }
+        return "unknown";
+    }
+
+    protected void sleep() {
+        long delay = minLatency;
+        if (maxLatency > minLatency) {
+            delay += (long) (random.nextDouble() * (maxLatency - minLatency));
+        }
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    protected void send(HttpExchange exchange, int status, byte[] response) throws IOException {
+        if (response == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        String encoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (encoding != null && encoding.contains("gzip")) {
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            // compress upfront to send a fixed length response, as chunked ones are slowed down by small writes
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (OutputStream out = new GZIPOutputStream(compressed)) {
+                out.write(response);
+            }
+            response = compressed.toByteArray();
+        }
+        exchange.sendResponseHeaders(status, response.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(response);
+        }
+    }
+
+    /**
+     * Returns the key of the response to send for given path and query: the tree query of the jobs list is not
+     * parsed, builds and runs are embedded as if all needed fields were selected.
+     */
+    protected String getResourceKey(String path, String query) {
+        if (LISTING.equals(path)) {
+            if (query != null && query.contains("lastCompletedBuild")) {
+                return LISTING + (query.contains("runs") ? "?runs" : "?builds");
+            }
+            return LISTING;
+        }
+        String[] segments = path.split("/");
+        Job job = jobsByName.get(segments[2]);
+        if (segments.length == 7 && "lastCompletedBuild".equals(segments[4])) {
+            // last build of a run
+            return getRunPath(job, segments[3]);
+        }
+        if (isBuildPath(segments) && String.valueOf(job.number).equals(segments[3])) {
+            return "/job/" + job.name + "/" + LAST_BUILD;
+        }
+        return path;
+    }
+
+    /**
+     * Returns true for the path segments of a build retrieved by number: "", "job", name, number, "api", "json".
+     */
+    protected boolean isBuildPath(String[] segments) {
+        return segments.length == 6 && segments[3].matches("\\d+") && "api".equals(segments[4])
+                && "json".equals(segments[5]);
+    }
+
+    protected void render() {
+        responses.put(LISTING, toBytes(renderJobs(false, false)));
+        responses.put(LISTING + "?builds", toBytes(renderJobs(true, false)));
+        responses.put(LISTING + "?runs", toBytes(renderJobs(true, true)));
+        for (Job job : jobsByName.values()) {
+            JSONObject build = renderBuild(job);
+            if (build == null) {
+                continue;
+            }
+            responses.put("/job/" + job.name + "/" + LAST_BUILD, toBytes(build));
+            if (buildingJobs.contains(job.name)) {
+                JSONObject running = renderBuild(new Job(job.name, job.color, job.multiOSDB, job.number + 1));
+                running.put("building", Boolean.TRUE);
+                running.put("result", JSONNull.getInstance());
+                responses.put("/job/" + job.name + "/" + (job.number + 1) + "/" + API, toBytes(running));
+            }
+            if (job.multiOSDB) {
+                for (int i = 0; i < axes.size(); i++) {
+                    responses.put(getRunPath(job, axes.get(i)), toBytes(renderRun(job, i)));
+                }
+            }
+        }
+    }
+
+    protected String getRunPath(Job job, String axis) {
+        return "/job/" + job.name + "/" + axis + "/" + job.number + "/" + API;
+    }
+
+    protected byte[] toBytes(JSONObject json) {
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    protected String getJobUrl(Job job) {
+        return baseURL + "job/" + job.name + "/";
+    }
+
+    protected JSONObject renderJobs(boolean embedBuilds, boolean embedRuns) {
+        JSONArray jsonJobs = new JSONArray();
+        for (Job job : jobsByName.values()) {
+            JSONObject jsonJob = new JSONObject();
+            jsonJob.put("name", job.name);
+            jsonJob.put("url", getJobUrl(job));
+            jsonJob.put("color", job.color);
+            if (embedBuilds) {
+                JSONObject build = renderBuild(job);
+                if (build != null) {
+                    if (embedRuns) {
+                        JSONArray runs = build.optJSONArray("runs");
+                        if (runs != null) {
+                            JSONArray embeddedRuns = new JSONArray();
+                            for (int i = 0; i < runs.size(); i++) {
+                                embeddedRuns.add(filter(renderRun(job, i)));
+                            }
+                            build.put("runs", embeddedRuns);
+                        }
+                    } else {
+                        build.remove("runs");
+                        build.remove("culprits");
+                        build.remove("result");
+                        build.remove("url");
+                    }
+                    jsonJob.put("lastCompletedBuild", filter(build));
+                }
+            }
+            jsonJobs.add(jsonJob);
+        }
+        JSONObject res = JSONObject.fromObject(jobsTemplate);
+        res.put("url", baseURL);
+        res.put("jobs", jsonJobs);
+        return res;
+    }
+
+    protected JSONObject filter(JSONObject json) {
+        try {
+            return JenkinsJsonFilter.parse(new ByteArrayInputStream(toBytes(json)));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    protected JSONObject renderBuild(Job job) {
+        if (!job.isBuilt()) {
+            return null;
+        }
+        String jobUrl = getJobUrl(job);
+        JSONObject build = JSONObject.fromObject(job.multiOSDB ? multiOSDBTemplate : buildTemplate);
+        build.put("number", Integer.valueOf(job.number));
+        build.put("id", String.valueOf(job.number));
+        build.put("fullDisplayName", job.name + " #" + job.number);
+        build.put("result", job.getResult());
+        build.put("url", jobUrl + job.number + "/");
+        if (job.multiOSDB) {
+            JSONArray runs = new JSONArray();
+            for (String axis : axes) {
+                JSONObject run = new JSONObject();
+                run.put("number", Integer.valueOf(job.number));
+                run.put("url", jobUrl + axis + "/" + job.number + "/");
+                runs.add(run);
+            }
+            build.put("runs", runs);
+        }
+        return build;
+    }
+
+    protected JSONObject renderRun(Job job, int index) {
+        String axis = axes.get(index);
+        JSONObject run = JSONObject.fromObject(buildTemplate);
+        run.put("number", Integer.valueOf(job.number));
+        run.put("id", String.valueOf(job.number));
+        run.put("fullDisplayName", job.name + " / " + axis + " #" + job.number);
+        run.put("result", getRunResult(job, index));
+        run.put("url", getJobUrl(job) + axis + "/" + job.number + "/");
+        return run;
+    }
+
+    /**
+     * Returns the result of the run at given index: one run out of three fails like its parent build.
+     */
+    protected String getRunResult(Job job, int index) {
+        return index % 3 == 0 ? job.getResult() : "SUCCESS";
+    }
+
+}
@@ -0,0 +1,216 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.json;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+import org.nuxeo.ecm.core.api.SortInfo;
+import org.nuxeo.ecm.platform.query.ComplexListPropertyPageProvider;
+import org.nuxeo.ecm.platform.query.ComplexListPropertyPageProvider.ItemFilter;
+
+/**
+ * @since 3.10.5
+ */
+public class TestComplexListPropertyPageProvider {
+
+    /**
+     * Provider filtering items with given filters instead of the predicates of its definition.
+     */
+    protected static class FilteredProvider extends ComplexListPropertyPageProvider {
+
+        private static final long serialVersionUID = 1L;
+
+        protected List<ItemFilter> filters = new ArrayList<>();
+
+        @Override
+        protected List<ItemFilter> getFilters() {
+            return filters;
+        }
+
+    }
+
+    protected List<Map<String, Object>> createItems(int count) {
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> item = new HashMap<>();
+            item.put("job_id", "job-" + i);
+            item.put("type", i % 2 == 0 ? "FAILURE" : "UNSTABLE");
+            if (i % 3 == 0) {
+                item.put("claimer", "jdoe");
+            } else if (i % 3 == 1) {
+                item.put("claimer", "bdoe");
+            }
+            items.add(item);
+        }
+        return items;
+    }
+
+    protected FilteredProvider createProvider(List<Map<String, Object>> items, ItemFilter... filters) {
+        FilteredProvider provider = new FilteredProvider();
+        provider.setParameters(new Object[] { items });
+        provider.setPageSize(2);
+        provider.filters.addAll(Arrays.asList(filters));
+        return provider;
+    }
+
+    protected List<Object> getJobIds(List<Map<String, Object>> items) {
+        List<Object> res = new ArrayList<>();
+        for (Map<String, Object> item : items) {
+            res.add(item.get("job_id"));
+        }
+        return res;
+    }
+
+    @Test
+    public void testFilters() {
+        List<Map<String, Object>> items = createItems(12);
+
+        FilteredProvider provider = createProvider(items, ItemFilter.create("claimer", null, "jdoe"));
+        assertEquals(Arrays.asList("job-0", "job-3"), getJobIds(provider.getCurrentPage()));
+        assertEquals(4, provider.getResultsCount());
+        provider.setCurrentPageOffset(2);
+        assertEquals(Arrays.asList("job-6", "job-9"), getJobIds(provider.getCurrentPage()));
+
+        // items matching all filters are only returned once
+        provider = createProvider(items, ItemFilter.create("claimer", "=", "jdoe"),
+                ItemFilter.create("type", "=", "FAILURE"));
+        assertEquals(Arrays.asList("job-0", "job-6"), getJobIds(provider.getCurrentPage()));
+        assertEquals(2, provider.getResultsCount());
+
+        provider = createProvider(items, ItemFilter.create("claimer", "IN", new String[] { "bdoe", "jdoe" }),
+                ItemFilter.create("type", "IN", Arrays.asList("UNSTABLE", "unknown")));
+        provider.setCurrentPageOffset(2);
+        assertEquals(Arrays.asList("job-7", "job-9"), getJobIds(provider.getCurrentPage()));
+        assertEquals(4, provider.getResultsCount());
+
+        provider = createProvider(items, ItemFilter.create("job_id", "STARTSWITH", "job-1"));
+        provider.setPageSize(0);
+        assertEquals(Arrays.asList("job-1", "job-10", "job-11"), getJobIds(provider.getCurrentPage()));
+
+        provider = createProvider(items, ItemFilter.create("job_id", "LIKE", "job-1%"),
+                ItemFilter.create("claimer", null, "bdoe"));
+        assertEquals(Arrays.asList("job-1", "job-10"), getJobIds(provider.getCurrentPage()));
+
+        provider = createProvider(items, ItemFilter.create("claimer", null, "nobody"));
+        assertEquals(0, provider.getCurrentPage().size());
+        assertEquals(0, provider.getResultsCount());
+    }
+
+    @Test
+    public void testFilterCreation() {
+        assertNull(ItemFilter.create("claimer", "IN", new String[0]));
+        assertEquals(ItemFilter.EQUALS, ItemFilter.create("claimer", "!=", "jdoe").getOperator());
+        assertEquals(ItemFilter.EQUALS, ItemFilter.create("claimer", "LIKE", "%doe").getOperator());
+        assertEquals(ItemFilter.EQUALS, ItemFilter.create("claimer", "like", "").getOperator());
+        ItemFilter prefix = ItemFilter.create("claimer", "like", "jd%");
+        assertEquals(ItemFilter.STARTSWITH, prefix.getOperator());
+        assertEquals(Collections.singletonList("jd"), prefix.getValues());
+    }
+
+    @Test
+    public void testSortedFilters() {
+        FilteredProvider provider = createProvider(createItems(12), ItemFilter.create("type", null, "UNSTABLE"));
+        provider.setSortInfos(Collections.singletonList(new SortInfo("job_id", false)));
+        assertEquals(Arrays.asList("job-9", "job-7"), getJobIds(provider.getCurrentPage()));
+        assertEquals(6, provider.getResultsCount());
+    }
+
+    @Test
+    public void testSortedPages() {
+        List<Map<String, Object>> items = createItems(500);
+        Random random = new Random(42);
+        for (Map<String, Object> item : items) {
+            item.put("build_number", Long.valueOf(random.nextInt(50)));
+            if (random.nextInt(5) == 0) {
+                item.put("claimer", "Jdoe");
+            }
+        }
+        List<List<SortInfo>> sorts = Arrays.asList(Collections.singletonList(new SortInfo("claimer", true)),
+                Arrays.asList(new SortInfo("type", false), new SortInfo("build_number", true)),
+                Arrays.asList(new SortInfo("claimer", false), new SortInfo("build_number", false)));
+        for (List<SortInfo> sort : sorts) {
+            FilteredProvider provider = createProvider(items);
+            provider.setPageSize(20);
+            provider.setSortInfos(sort);
+            List<Map<String, Object>> expected = new ArrayList<>(items);
+            Collections.sort(expected, provider.new MapComparator(sort));
+            // page forward, then jump around
+            List<Integer> offsets = new ArrayList<>();
+            for (int offset = 0; offset < 500; offset += 20) {
+                offsets.add(Integer.valueOf(offset));
+            }
+            offsets.addAll(Arrays.asList(Integer.valueOf(480), Integer.valueOf(0), Integer.valueOf(240),
+                    Integer.valueOf(13), Integer.valueOf(490)));
+            for (Integer offset : offsets) {
+                provider.setCurrentPageOffset(offset.intValue());
+                int end = Math.min(500, offset.intValue() + 20);
+                assertEquals(getJobIds(expected.subList(offset.intValue(), end)), getJobIds(provider.getCurrentPage()));
+            }
+        }
+    }
+
+    @Test
+    public void testNumericSort() {
+        List<Map<String, Object>> items = createItems(8);
+        Object[] buildNumbers = { "702", "9", null, Integer.valueOf(42), "10", "-1", "Alpha",
+                "99999999999999999999" };
+        for (int i = 0; i < buildNumbers.length; i++) {
+            items.get(i).put("build_number", buildNumbers[i]);
+        }
+        FilteredProvider provider = createProvider(items);
+        provider.setPageSize(0);
+        provider.setSortInfos(Collections.singletonList(new SortInfo("build_number", true)));
+        assertEquals(Arrays.asList("job-2", "job-5", "job-1", "job-4", "job-3", "job-0", "job-7", "job-6"),
+                getJobIds(provider.getCurrentPage()));
+        provider.setSortInfos(Arrays.asList(new SortInfo("type", true), new SortInfo("build_number", false)));
+        assertEquals(Arrays.asList("job-6", "job-0", "job-4", "job-2", "job-7", "job-3", "job-1", "job-5"),
+                getJobIds(provider.getCurrentPage()));
+    }
+
+    @Test
+    public void testRefresh() {
+        List<Map<String, Object>> items = createItems(6);
+        FilteredProvider provider = createProvider(items, ItemFilter.create("claimer", null, "jdoe"));
+        assertEquals(Arrays.asList("job-0", "job-3"), getJobIds(provider.getCurrentPage()));
+
+        // index is kept until refresh
+        items.get(1).put("claimer", "jdoe");
+        provider.setCurrentPageOffset(0);
+        assertEquals(Arrays.asList("job-0", "job-3"), getJobIds(provider.getCurrentPage()));
+        provider.refresh();
+        assertEquals(Arrays.asList("job-0", "job-1"), getJobIds(provider.getCurrentPage()));
+        assertEquals(3, provider.getResultsCount());
+
+        // changing filters does not require a refresh
+        provider.filters.set(0, ItemFilter.create("claimer", null, "bdoe"));
+        provider.setCurrentPageOffset(0);
+        assertEquals(Arrays.asList("job-4"), getJobIds(provider.getCurrentPage()));
+    }
+
+}
@@ -22,6 +22,7 @@ import junit.framework.Assert;
 
 import org.junit.Test;
 
+import com.nuxeo.intranet.jenkins.web.JenkinsCommentRenderer;
 import com.nuxeo.intranet.jenkins.web.JenkinsJobsActions;
 
 public class TestJenkinsActions {
@@ -61,4 +62,60 @@ public class TestJenkinsActions {
         Assert.assertEquals(actions.getConvertedJobComment(toConvert, jiraUrl, null), "NXP-123");
     }
 
+    @Test
+    public void testEscapedComment() throws Exception {
+        String jiraUrl = "https://jira.nuxeo.com/browse/";
+        JenkinsJobsActions actions = new JenkinsJobsActions();
+        String[] jiraProjects = new String[] { "NXP", "NXBT" };
+
+        String toConvert = "expected:<2> but was:<3> & see \"NXP-12\"\nnxbt-1's fix";
+        Assert.assertEquals("expected:&lt;2&gt; but was:&lt;3&gt; &amp; see &quot;"
+                + "<a href=\"https://jira.nuxeo.com/browse/NXP-12\" target=\"_blank\">NXP-12</a>&quot;<br />\n"
+                + "<a href=\"https://jira.nuxeo.com/browse/NXBT-1\" target=\"_blank\">NXBT-1</a>&#39;s fix",
+                actions.getConvertedJobComment(toConvert, jiraUrl, jiraProjects));
+        Assert.assertEquals("a &lt;b&gt;<br />\nNXP-1",
+                actions.getConvertedJobComment("a <b>\nNXP-1", null, jiraProjects));
+    }
+
+    @Test
+    public void testCommentRendererCache() throws Exception {
+        String jiraUrl = "https://jira.nuxeo.com/browse/";
+        String[] jiraProjects = new String[] { "NXP", "NXBT" };
+        JenkinsCommentRenderer renderer = JenkinsCommentRenderer.getInstance(jiraUrl, jiraProjects);
+        Assert.assertSame(renderer, JenkinsCommentRenderer.getInstance(jiraUrl, new String[] { "NXP", "NXBT" }));
+        Assert.assertNotSame(renderer, JenkinsCommentRenderer.getInstance(jiraUrl, new String[] { "NXP" }));
+        // changing the projects array does not change the cached renderer
+        jiraProjects[1] = "NXS";
+        Assert.assertNotSame(renderer, JenkinsCommentRenderer.getInstance(jiraUrl, jiraProjects));
+        Assert.assertEquals("NXS-1", renderer.render("NXS-1"));
+        Assert.assertSame(JenkinsCommentRenderer.NO_LINKS, JenkinsCommentRenderer.getInstance(jiraUrl, null));
+        Assert.assertSame(JenkinsCommentRenderer.NO_LINKS,
+                JenkinsCommentRenderer.getInstance(jiraUrl, new String[] { " " }));
+    }
+
+    @Test
+    public void testRenderedJobComment() throws Exception {
+        String jiraUrl = "https://jira.nuxeo.com/browse/";
+        String[] jiraProjects = new String[] { "NXP" };
+        final JenkinsCommentRenderer[] configured = new JenkinsCommentRenderer[1];
+        JenkinsJobsActions actions = new JenkinsJobsActions() {
+            @Override
+            protected JenkinsCommentRenderer getCommentRenderer() {
+                return configured[0];
+            }
+        };
+        String stored = "<a href=\"https://jira.nuxeo.com/browse/NXP-1\" target=\"_blank\">NXP-1</a>";
+        // stored rendering is used when rendered with the same JIRA settings
+        configured[0] = JenkinsCommentRenderer.getInstance(jiraUrl, new String[] { "NXP" });
+        Assert.assertSame(stored, actions.getRenderedJobComment(stored, "NXP-1", jiraUrl, jiraProjects));
+        // other JIRA settings on the view
+        Assert.assertEquals("NXP-1", actions.getRenderedJobComment(stored, "NXP-1", null, null));
+        Assert.assertEquals("<a href=\"https://jira.example.com/NXP-1\" target=\"_blank\">NXP-1</a>",
+                actions.getRenderedJobComment(stored, "NXP-1", "https://jira.example.com/", jiraProjects));
+        // rendering disabled since the report was merged
+        configured[0] = null;
+        Assert.assertEquals("NXP-1", actions.getRenderedJobComment(stored, "NXP-1", jiraUrl, new String[] { "NXS" }));
+        Assert.assertEquals(stored, actions.getRenderedJobComment(null, "NXP-1", jiraUrl, jiraProjects));
+    }
+
 }
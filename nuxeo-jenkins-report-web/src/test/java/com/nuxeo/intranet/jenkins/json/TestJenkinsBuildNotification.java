@@ -0,0 +1,272 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.json;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertTrue;
+import static junit.framework.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.inject.Inject;
+import javax.ws.rs.core.Response;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.nuxeo.ecm.core.api.CoreSession;
+import org.nuxeo.ecm.core.api.DocumentModel;
+import org.nuxeo.ecm.core.test.CoreFeature;
+import org.nuxeo.runtime.test.runner.Deploy;
+import org.nuxeo.runtime.test.runner.Features;
+import org.nuxeo.runtime.test.runner.FeaturesRunner;
+
+import com.nuxeo.intranet.jenkins.rest.JenkinsReportRoot;
+import com.nuxeo.intranet.jenkins.service.JenkinsReportComponent;
+import com.nuxeo.intranet.jenkins.service.JenkinsReportRefreshDescriptor;
+import com.nuxeo.intranet.jenkins.service.JenkinsReportService;
+import com.nuxeo.intranet.jenkins.web.JenkinsBuild;
+import com.nuxeo.intranet.jenkins.web.JenkinsBuildResult;
+import com.nuxeo.intranet.jenkins.web.JenkinsJob;
+import com.nuxeo.intranet.jenkins.web.JenkinsJobStorage;
+import com.nuxeo.intranet.jenkins.web.JenkinsReportFields;
+
+import net.sf.json.JSONObject;
+
+/**
+ * Merges builds notified by a {@link FakeJenkinsServer} into reports stored in a repository.
+ *
+ * @since 3.10.5
+ */
+@RunWith(FeaturesRunner.class)
+@Features(CoreFeature.class)
+@Deploy("org.nuxeo.runtime.kv")
+@Deploy("com.nuxeo.jenkins.report.web:OSGI-INF/jenkins-http-client-framework.xml")
+@Deploy("com.nuxeo.jenkins.report.web:OSGI-INF/jenkins-report-service-framework.xml")
+@Deploy("com.nuxeo.jenkins.report.web:OSGI-INF/jenkins-report-storage-contrib.xml")
+@Deploy("com.nuxeo.jenkins.report.web.tests:OSGI-INF/test-jenkins-report-types-contrib.xml")
+public class TestJenkinsBuildNotification {
+
+    protected static final String JOB = "addons_FT_nuxeo-correspondence-master";
+
+    protected static final String MULTIOSDB_JOB = "FT-nuxeo-5.6.0-selenium-dm-tomcat-multiosdb";
+
+    protected static final String AXIS = "Slave=MULTIDB_LINUX,dbprofile=mssql";
+
+    /**
+     * Exposes the endpoint method taking the session to use.
+     */
+    protected static class NotificationRoot extends JenkinsReportRoot {
+
+        protected Response post(CoreSession session, String body) {
+            return notifyBuild(session, body);
+        }
+
+    }
+
+    @Inject
+    protected CoreSession session;
+
+    @Inject
+    protected JenkinsReportService service;
+
+    protected FakeJenkinsServer server;
+
+    @Before
+    public void startServer() throws Exception {
+        server = new FakeJenkinsServer().start();
+    }
+
+    @After
+    public void stopServer() {
+        server.close();
+    }
+
+    protected DocumentModel createReport(String name, JenkinsJob... jobs) {
+        DocumentModel report = session.createDocumentModel("/", name, "JenkinsReport");
+        report.setPropertyValue(JenkinsReportFields.JOBS_PROPERTY,
+                new ArrayList<>(JenkinsJob.toMaps(Arrays.asList(jobs))));
+        return session.createDocument(report);
+    }
+
+    protected List<JenkinsJob> getJobs(DocumentModel report) {
+        return JenkinsJobStorage.getJobs(session.getDocument(report.getRef()));
+    }
+
+    protected String getJobUrl(String name) {
+        return server.getURL() + "job/" + name + "/";
+    }
+
+    protected JenkinsJob job(String id, String url, int number, JenkinsBuildResult result) {
+        return new JenkinsJob(id, url, new JenkinsBuild(number, result, null, null, null));
+    }
+
+    /**
+     * Returns the payload sent by the Jenkins notification plugin for given build, with a status that should not be
+     * trusted.
+     */
+    protected JSONObject notification(String buildUrl) {
+        JSONObject build = new JSONObject();
+        build.put("full_url", buildUrl);
+        build.put("phase", "COMPLETED");
+        build.put("status", "FAILURE");
+        JSONObject res = new JSONObject();
+        res.put("build", build);
+        return res;
+    }
+
+    @Test
+    public void testBuildMerged() throws Exception {
+        String buildUrl = server.getBuildURL(JOB);
+        int number = Integer.parseInt(buildUrl.substring(getJobUrl(JOB).length(), buildUrl.length() - 1));
+        DocumentModel report = createReport("report", job(JOB, getJobUrl(JOB), number, JenkinsBuildResult.UNSTABLE));
+        DocumentModel other = createReport("other", job("other", getJobUrl("other"), 1, JenkinsBuildResult.FAILURE));
+
+        server.build(JOB, "blue");
+        assertEquals(1, service.updateFromBuild(session, notification(server.getBuildURL(JOB))));
+        // the build is retrieved from Jenkins
+        assertEquals(1, server.getCount("build"));
+        List<JenkinsJob> jobs = getJobs(report);
+        assertEquals(1, jobs.size());
+        assertEquals(number, jobs.get(0).getBuildNumber());
+        assertEquals(number + 1, jobs.get(0).getUpdatedBuildNumber());
+        assertEquals(JenkinsBuildResult.SUCCESS, jobs.get(0).getUpdatedResult());
+        assertEquals(1, getJobs(other).size());
+
+        // builds of jobs held by no report are not retrieved
+        server.resetCounts();
+        assertEquals(0, service.updateFromBuild(session, notification(server.getBuildURL("addons-master"))));
+        assertEquals(0, server.getRequestCount());
+    }
+
+    @Test
+    public void testRunningBuildIgnored() throws Exception {
+        String buildUrl = server.getBuildURL(JOB);
+        int number = Integer.parseInt(buildUrl.substring(getJobUrl(JOB).length(), buildUrl.length() - 1));
+        DocumentModel report = createReport("report", job(JOB, getJobUrl(JOB), number, JenkinsBuildResult.UNSTABLE));
+
+        // notified as completed, still running on Jenkins
+        server.startBuild(JOB);
+        assertEquals(0, service.updateFromBuild(session, notification(server.getRunningBuildURL(JOB))));
+        assertEquals(1, server.getCount("build"));
+        List<JenkinsJob> jobs = getJobs(report);
+        assertEquals(1, jobs.size());
+        assertEquals(number, jobs.get(0).getBuildNumber());
+        assertEquals(JenkinsBuild.NO_NUMBER, jobs.get(0).getUpdatedBuildNumber());
+        assertNull(jobs.get(0).getUpdatedResult());
+    }
+
+    @Test
+    public void testMultiOSDBBuildMerged() throws Exception {
+        String runUrl = getJobUrl(MULTIOSDB_JOB) + AXIS + "/";
+        String buildUrl = server.getBuildURL(MULTIOSDB_JOB);
+        int number = Integer.parseInt(buildUrl.substring(getJobUrl(MULTIOSDB_JOB).length(), buildUrl.length() - 1));
+        DocumentModel report = createReport("report",
+                job(MULTIOSDB_JOB + "#" + AXIS, runUrl, number, JenkinsBuildResult.UNSTABLE));
+
+        // other failing runs are added, the parent job is not
+        assertEquals(1, service.updateFromBuild(session, notification(buildUrl)));
+        List<JenkinsJob> jobs = getJobs(report);
+        assertEquals(3, jobs.size());
+        for (JenkinsJob job : jobs) {
+            assertEquals(MULTIOSDB_JOB, job.getFamily());
+            assertFalse(MULTIOSDB_JOB.equals(job.getId()));
+            assertEquals(JenkinsBuildResult.UNSTABLE, job.getResult());
+        }
+
+        // all runs pass: tracked runs are retrieved again and marked as fixed, without adding the parent job
+        server.build(MULTIOSDB_JOB, "blue");
+        server.resetCounts();
+        assertEquals(1, service.updateFromBuild(session, notification(server.getBuildURL(MULTIOSDB_JOB))));
+        assertEquals(1, server.getCount("build"));
+        assertEquals(9 + 3, server.getCount("run"));
+        jobs = getJobs(report);
+        assertEquals(3, jobs.size());
+        for (JenkinsJob job : jobs) {
+            assertFalse(MULTIOSDB_JOB.equals(job.getId()));
+            assertEquals(number + 1, job.getUpdatedBuildNumber());
+            assertEquals(JenkinsBuildResult.SUCCESS, job.getUpdatedResult());
+        }
+    }
+
+    @Test
+    public void testUnknownJenkinsRejected() throws Exception {
+        String buildUrl = server.getBuildURL(JOB);
+        DocumentModel report = createReport("report", job(JOB, getJobUrl(JOB), 1, JenkinsBuildResult.UNSTABLE));
+        // same server, another Jenkins url
+        String otherUrl = buildUrl.replace("//localhost:", "//127.0.0.1:");
+        for (String url : Arrays.asList(otherUrl, server.getURL() + "job/" + JOB + "/../../api/json/",
+                server.getURL() + "job/" + JOB + "/%2e%2e/%2e%2e/", server.getURL().replace("http:", "file:"))) {
+            try {
+                service.updateFromBuild(session, notification(url));
+                fail("IllegalArgumentException expected for " + url);
+            } catch (IllegalArgumentException e) {
+                // ok
+            }
+        }
+        assertEquals(0, server.getRequestCount());
+        assertEquals(1, getJobs(report).get(0).getBuildNumber());
+        assertEquals(JenkinsBuild.NO_NUMBER, getJobs(report).get(0).getUpdatedBuildNumber());
+
+        // Jenkins url of a refresh configuration
+        JenkinsReportRefreshDescriptor desc = new JenkinsReportRefreshDescriptor() {
+            {
+                name = "test-notification";
+                enabled = false;
+                jenkinsURL = server.getURL().replace("//localhost:", "//127.0.0.1:") + "view/All/";
+            }
+        };
+        JenkinsReportComponent component = (JenkinsReportComponent) service;
+        component.registerContribution(desc, JenkinsReportComponent.REFRESH_XP, null);
+        try {
+            assertEquals(1, service.updateFromBuild(session, notification(otherUrl)));
+        } finally {
+            component.unregisterContribution(desc, JenkinsReportComponent.REFRESH_XP, null);
+        }
+        assertEquals(1, server.getCount("build"));
+    }
+
+    @Test
+    public void testEndpoint() throws Exception {
+        NotificationRoot root = new NotificationRoot();
+        DocumentModel report = createReport("report", job(JOB, getJobUrl(JOB), 1, JenkinsBuildResult.UNSTABLE));
+
+        Response response = root.post(session, "not json");
+        assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), response.getStatus());
+
+        response = root.post(session, notification("http://example.com/job/" + JOB + "/1/").toString());
+        assertEquals(Response.Status.FORBIDDEN.getStatusCode(), response.getStatus());
+
+        // unknown build number
+        response = root.post(session, notification(getJobUrl(JOB) + "99999/").toString());
+        assertEquals(Response.Status.BAD_GATEWAY.getStatusCode(), response.getStatus());
+        assertNull(getJobs(report).get(0).getUpdatedResult());
+
+        response = root.post(session, notification(server.getBuildURL(JOB)).toString());
+        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+        assertEquals("1 report(s) updated", response.getEntity());
+        assertTrue(getJobs(report).get(0).getUpdatedBuildNumber() > 1);
+    }
+
+}
@@ -0,0 +1,338 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.json;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertNotNull;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+import org.nuxeo.runtime.kv.KeyValueStore;
+import org.nuxeo.runtime.kv.MemKeyValueStore;
+
+import com.nuxeo.intranet.jenkins.http.JenkinsClusterCoordinator;
+import com.nuxeo.intranet.jenkins.http.JenkinsSnapshot;
+import com.nuxeo.intranet.jenkins.http.JenkinsSnapshotCache;
+import com.nuxeo.intranet.jenkins.service.JenkinsReportClusterDescriptor;
+import com.nuxeo.intranet.jenkins.service.JenkinsReportComponent;
+import com.nuxeo.intranet.jenkins.web.JenkinsBuild;
+import com.nuxeo.intranet.jenkins.web.JenkinsBuildResult;
+import com.nuxeo.intranet.jenkins.web.JenkinsJob;
+
+import net.sf.json.JSONObject;
+
+/**
+ * Simulates two cluster nodes sharing an in-memory key/value store.
+ * <p>
+ * Leases expire when the test advances the clock of the store, see {@link LeaseStore}, and are renewed when the test
+ * asks for it: their time to live is long enough for the background renewal not to run during tests.
+ *
+ * @since 3.10.5
+ */
+public class TestJenkinsClusterCoordinator {
+
+    protected static final String URL = "http://jenkins/view/all/api/json";
+
+    protected static final long LEASE_TTL = 60;
+
+    protected final LeaseStore store = new LeaseStore();
+
+    protected final List<Node> nodes = new ArrayList<>();
+
+    /**
+     * In-memory store whose leases, set with a time to live, only expire when the test advances its clock.
+     */
+    protected static class LeaseStore extends MemKeyValueStore {
+
+        protected final Map<String, Long> expirations = new HashMap<>();
+
+        protected final AtomicInteger refused = new AtomicInteger();
+
+        protected long now;
+
+        @Override
+        public synchronized boolean compareAndSet(String key, String expected, String value, long ttl) {
+            if (!super.compareAndSet(key, expected, value, 0)) {
+                refused.incrementAndGet();
+                return false;
+            }
+            if (value != null && ttl > 0) {
+                expirations.put(key, Long.valueOf(now + TimeUnit.SECONDS.toMillis(ttl)));
+            } else {
+                expirations.remove(key);
+            }
+            return true;
+        }
+
+        /**
+         * Advances the clock by given number of seconds, removing expired keys.
+         */
+        public synchronized void advance(long seconds) {
+            now += TimeUnit.SECONDS.toMillis(seconds);
+            for (Iterator<Map.Entry<String, Long>> it = expirations.entrySet().iterator(); it.hasNext();) {
+                Map.Entry<String, Long> expiration = it.next();
+                if (expiration.getValue().longValue() <= now) {
+                    put(expiration.getKey(), (String) null);
+                    it.remove();
+                }
+            }
+        }
+
+    }
+
+    /**
+     * Node renewing its leases when asked.
+     */
+    protected static class Node extends JenkinsClusterCoordinator {
+
+        public Node(KeyValueStore store, String nodeId, long waitTimeout) {
+            super(store, nodeId, LEASE_TTL, 60, waitTimeout, 50);
+        }
+
+        public void renew() {
+            renewLeases();
+        }
+
+    }
+
+    protected Node newNode(String nodeId, long waitTimeout) {
+        Node node = new Node(store, nodeId, waitTimeout);
+        nodes.add(node);
+        return node;
+    }
+
+    @After
+    public void closeNodes() {
+        for (JenkinsClusterCoordinator node : nodes) {
+            node.close();
+        }
+    }
+
+    protected JenkinsSnapshot newSnapshot() throws Exception {
+        JenkinsSnapshot snapshot = new JenkinsSnapshot(FakeJenkinsJobsFetcher.load("jobs.json"));
+        snapshot.putJobs("http://jenkins/job/a/", Arrays.asList(new JenkinsJob("a", "http://jenkins/job/a/",
+                new JenkinsBuild(12, JenkinsBuildResult.FAILURE, "bob", "looking", Arrays.asList("alice")))));
+        snapshot.setErrors(Arrays.asList("Error while retrieving http://jenkins/job/b/"));
+        return snapshot;
+    }
+
+    protected void assertSnapshot(JenkinsSnapshot expected, JenkinsSnapshot snapshot) {
+        assertEquals(expected.getCreated(), snapshot.getCreated());
+        assertEquals(expected.getListing(), snapshot.getListing());
+        assertEquals(expected.getErrors(), snapshot.getErrors());
+        assertEquals(expected.getJobs("http://jenkins/job/a/"), snapshot.getJobs("http://jenkins/job/a/"));
+    }
+
+    @Test
+    public void testSnapshotBytes() throws Exception {
+        JenkinsSnapshot snapshot = newSnapshot();
+        assertSnapshot(snapshot, JenkinsSnapshot.fromBytes(snapshot.toBytes()));
+        JenkinsSnapshot empty = JenkinsSnapshot.fromBytes(new JenkinsSnapshot(null).toBytes());
+        assertNull(empty.getListing());
+        assertTrue(empty.getErrors().isEmpty());
+    }
+
+    @Test
+    public void testLease() {
+        JenkinsClusterCoordinator node1 = newNode("node1", 1000);
+        JenkinsClusterCoordinator node2 = newNode("node2", 1000);
+        JenkinsClusterCoordinator.Lease lease = node1.acquire("report:test:1");
+        assertNotNull(lease);
+        assertNull(node2.acquire("report:test:1"));
+        // held by this node already
+        assertNull(node1.acquire("report:test:1"));
+        assertEquals("node1", node2.getOwner("report:test:1"));
+        assertNotNull(node2.acquire("report:test:2"));
+
+        lease.release();
+        assertNull(node2.getOwner("report:test:1"));
+        assertNotNull(node2.acquire("report:test:1"));
+        assertEquals("node2", node1.getOwner("report:test:1"));
+        // releasing again does not release the lease of the other node
+        lease.release();
+        assertEquals("node2", node1.getOwner("report:test:1"));
+    }
+
+    @Test
+    public void testLeaseWaited() throws Exception {
+        JenkinsClusterCoordinator node1 = newNode("node1", 1000);
+        JenkinsClusterCoordinator node2 = newNode("node2", 10000);
+        JenkinsClusterCoordinator.Lease lease = node1.acquire("report:test:1");
+        assertNotNull(lease);
+        // still held after the wait timeout
+        assertNull(node1.acquireWaiting("report:test:1"));
+
+        int refused = store.refused.get();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<JenkinsClusterCoordinator.Lease> future = executor.submit(
+                    () -> node2.acquireWaiting("report:test:1"));
+            while (store.refused.get() < refused + 3) {
+                Thread.sleep(10);
+            }
+            assertFalse(future.isDone());
+            lease.release();
+            assertNotNull(future.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals("node2", node1.getOwner("report:test:1"));
+    }
+
+    @Test
+    public void testCoordinationWithoutKeyValueService() {
+        JenkinsReportComponent component = new JenkinsReportComponent();
+        component.registerContribution(new JenkinsReportClusterDescriptor() {
+            {
+                enabled = Boolean.TRUE;
+            }
+        }, JenkinsReportComponent.CLUSTER_XP, null);
+        // no key/value service: refreshes are only coordinated on this node, builds are not cached
+        component.start(null);
+        try {
+            assertNull(component.getClusterCoordinator());
+            assertNotNull(component.getRefreshCoordinator());
+            assertNull(component.getBuildCache());
+        } finally {
+            component.stop(null);
+        }
+    }
+
+    @Test
+    public void testLeaseRenewed() throws Exception {
+        Node node1 = newNode("node1", 1000);
+        Node node2 = newNode("node2", 1000);
+        assertNotNull(node1.acquire("report:test:1"));
+        store.advance(LEASE_TTL - 1);
+        node1.renew();
+        // held for more than its time to live
+        store.advance(LEASE_TTL - 1);
+        assertNull(node2.acquire("report:test:1"));
+        assertEquals("node1", node2.getOwner("report:test:1"));
+
+        // node stopped, lease expires
+        node1.close();
+        node1.renew();
+        store.advance(LEASE_TTL);
+        assertNull(node2.getOwner("report:test:1"));
+        assertNotNull(node2.acquire("report:test:1"));
+    }
+
+    @Test
+    public void testSingleCrawl() throws Exception {
+        List<JenkinsClusterCoordinator> cluster = Arrays.asList(newNode("node1", 10000), newNode("node2", 10000),
+                newNode("node3", 10000));
+        JenkinsSnapshot expected = newSnapshot();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(cluster.size());
+        try {
+            List<Future<JenkinsSnapshot>> futures = new ArrayList<>();
+            for (JenkinsClusterCoordinator node : cluster) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return node.getSnapshot(URL, () -> {
+                        loads.incrementAndGet();
+                        try {
+                            Thread.sleep(300);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return expected;
+                    });
+                }));
+            }
+            start.countDown();
+            for (Future<JenkinsSnapshot> future : futures) {
+                assertSnapshot(expected, future.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+
+        // shared until expired
+        assertSnapshot(expected, newNode("node4", 10000).getSnapshot(URL, () -> {
+            throw new AssertionError("Should not crawl");
+        }));
+    }
+
+    @Test
+    public void testCrawlTakenOver() throws Exception {
+        JenkinsClusterCoordinator node1 = newNode("node1", 60000);
+        JenkinsClusterCoordinator node2 = newNode("node2", 60000);
+        // node crawling, then stopped
+        assertNotNull(node1.acquire("crawl:" + URL));
+        node1.close();
+
+        JenkinsSnapshot expected = newSnapshot();
+        AtomicInteger loads = new AtomicInteger();
+        JenkinsSnapshotCache.Loader loader = () -> {
+            loads.incrementAndGet();
+            return expected;
+        };
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<JenkinsSnapshot> future = executor.submit(() -> node2.getSnapshot(URL, loader));
+            // waiting for the lease held by the stopped node
+            while (store.refused.get() < 3) {
+                Thread.sleep(10);
+            }
+            assertEquals(0, loads.get());
+            store.advance(LEASE_TTL);
+            assertSnapshot(expected, future.get());
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void testCrawlWaitTimeout() throws Exception {
+        JenkinsClusterCoordinator node1 = newNode("node1", 10000);
+        JenkinsClusterCoordinator node2 = newNode("node2", 300);
+        assertNotNull(node1.acquire("crawl:" + URL));
+
+        // crawling too after waiting
+        AtomicInteger loads = new AtomicInteger();
+        JenkinsSnapshot snapshot = node2.getSnapshot(URL, () -> {
+            loads.incrementAndGet();
+            return new JenkinsSnapshot(new JSONObject());
+        });
+        assertNotNull(snapshot.getListing());
+        assertEquals(1, loads.get());
+    }
+
+}
@@ -0,0 +1,134 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.json;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.Test;
+
+import com.nuxeo.intranet.jenkins.http.JenkinsFetchPool;
+
+import net.sf.json.JSONObject;
+
+/**
+ * @since 3.10.5
+ */
+public class TestJenkinsFetchPool {
+
+    protected static JSONObject result(String url) {
+        JSONObject res = new JSONObject();
+        res.put("url", url);
+        return res;
+    }
+
+    @Test
+    public void testSlowHostDoesNotHoldThreads() throws Exception {
+        JenkinsFetchPool pool = new JenkinsFetchPool(2, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger slowRunning = new AtomicInteger();
+        AtomicInteger maxSlowRunning = new AtomicInteger();
+        Function<String, JSONObject> retriever = url -> {
+            if (url.startsWith("http://slow/")) {
+                maxSlowRunning.accumulateAndGet(slowRunning.incrementAndGet(), Math::max);
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    slowRunning.decrementAndGet();
+                }
+            }
+            return result(url);
+        };
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            List<String> slowUrls = Arrays.asList("http://slow/job/a/api/json", "http://slow/job/b/api/json",
+                    "http://slow/job/c/api/json");
+            Future<List<JSONObject>> slow = executor.submit(() -> pool.fetchAll(slowUrls, retriever));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            // requests exceeding the limit of the slow host wait without taking the other thread
+            List<String> fastUrls = Arrays.asList("http://fast/job/a/api/json", null, "http://fast/job/b/api/json");
+            List<JSONObject> fast = pool.fetchAll(fastUrls, retriever, 5000, null);
+            assertEquals(3, fast.size());
+            assertEquals(fastUrls.get(0), fast.get(0).getString("url"));
+            assertNull(fast.get(1));
+            assertEquals(fastUrls.get(2), fast.get(2).getString("url"));
+            assertEquals(1, maxSlowRunning.get());
+
+            release.countDown();
+            List<JSONObject> res = slow.get(5, TimeUnit.SECONDS);
+            for (int i = 0; i < slowUrls.size(); i++) {
+                assertEquals(slowUrls.get(i), res.get(i).getString("url"));
+            }
+            assertEquals(1, maxSlowRunning.get());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testTimeoutReleasesHost() throws Exception {
+        JenkinsFetchPool pool = new JenkinsFetchPool(2, 1);
+        try {
+            Function<String, JSONObject> retriever = url -> {
+                if (url.endsWith("/slow")) {
+                    try {
+                        Thread.sleep(10000);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return null;
+                    }
+                }
+                return result(url);
+            };
+            List<String> timedOut = new ArrayList<>();
+            List<JSONObject> res = pool.fetchAll(Arrays.asList("http://host/slow", "http://host/queued"), retriever,
+                    100, timedOut::add);
+            assertEquals(Arrays.asList("http://host/slow", "http://host/queued"), timedOut);
+            assertNull(res.get(0));
+
+            // cancelled requests give their turn back to next requests to the same host
+            long start = System.currentTimeMillis();
+            res = pool.fetchAll(Arrays.asList("http://host/next"), retriever, 5000, null);
+            assertEquals("http://host/next", res.get(0).getString("url"));
+            assertTrue(System.currentTimeMillis() - start < 5000);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,62 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.json;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNotNull;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertSame;
+
+import org.junit.Test;
+
+import com.nuxeo.intranet.jenkins.http.JenkinsHttpCache;
+
+import net.sf.json.JSONObject;
+
+/**
+ * @since 3.10.5
+ */
+public class TestJenkinsHttpCache {
+
+    @Test
+    public void testCache() throws Exception {
+        JenkinsHttpCache cache = new JenkinsHttpCache(2);
+        JSONObject build = FakeJenkinsJobsFetcher.load("build.json");
+
+        // responses without validators are not cached
+        cache.put("job1", null, null, build);
+        assertNull(cache.get("job1"));
+
+        cache.put("job1", "\"etag1\"", null, build);
+        cache.put("job2", null, "Wed, 21 Oct 2015 07:28:00 GMT", build);
+        JenkinsHttpCache.Entry entry = cache.get("job1");
+        assertNotNull(entry);
+        assertEquals("\"etag1\"", entry.getEtag());
+        assertNull(entry.getLastModified());
+        assertSame(build, entry.getJSONObject());
+
+        // least recently used entry is evicted
+        cache.put("job3", "\"etag3\"", null, build);
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get("job1"));
+        assertNull(cache.get("job2"));
+        assertNotNull(cache.get("job3"));
+    }
+
+}
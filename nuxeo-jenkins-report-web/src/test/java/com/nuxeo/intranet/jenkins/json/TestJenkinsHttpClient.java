@@ -0,0 +1,228 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.json;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNotNull;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertTrue;
+import static junit.framework.Assert.fail;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpTimeoutException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.nuxeo.common.utils.FileUtils;
+
+import com.nuxeo.intranet.jenkins.http.JenkinsHttpClientComponent;
+import com.nuxeo.intranet.jenkins.http.JenkinsHttpClientService;
+import com.nuxeo.intranet.jenkins.http.JenkinsHttpResponse;
+import com.nuxeo.intranet.jenkins.web.JenkinsJobsFetcher;
+import com.nuxeo.intranet.jenkins.web.JenkinsJsonFilter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import net.sf.json.JSONObject;
+
+/**
+ * Checks the HTTP client against a local server.
+ *
+ * @since 3.10.5
+ */
+public class TestJenkinsHttpClient {
+
+    protected static final String BUILD_PATH = "/job/nuxeo-master/lastCompletedBuild/api/json";
+
+    protected static final String STALLED_PATH = "/job/stalled/lastCompletedBuild/api/json";
+
+    protected static final String ETAG = "\"702\"";
+
+    protected HttpServer server;
+
+    protected String baseURL;
+
+    protected JenkinsHttpClientComponent component;
+
+    protected final CountDownLatch stalled = new CountDownLatch(1);
+
+    protected static class ServiceFetcher extends JenkinsJobsFetcher {
+
+        private static final long serialVersionUID = 1L;
+
+        protected final JenkinsHttpClientService service;
+
+        public ServiceFetcher(JenkinsHttpClientService service) {
+            this.service = service;
+        }
+
+        @Override
+        protected JenkinsHttpClientService getHttpClientService() {
+            return service;
+        }
+
+        public JSONObject retrieve(String url) {
+            return retrieveJSONObject(url);
+        }
+
+        public int getCacheHits() {
+            return cacheHits.get();
+        }
+
+        public int getCacheMisses() {
+            return cacheMisses.get();
+        }
+
+        public List<String> getFetchErrors() {
+            return fetchErrors;
+        }
+
+    }
+
+    @Before
+    public void startServer() throws Exception {
+        byte[] build;
+        try (InputStream stream = new FileInputStream(FileUtils.getResourcePathFromContext("build.json"))) {
+            build = IOUtils.toByteArray(stream);
+        }
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext(BUILD_PATH, exchange -> sendBuild(exchange, build));
+        server.createContext("/moved", exchange -> {
+            exchange.getResponseHeaders().set("Location", BUILD_PATH);
+            exchange.sendResponseHeaders(302, -1);
+            exchange.close();
+        });
+        server.createContext(STALLED_PATH, exchange -> {
+            // send headers and the start of the body, then wait until the end of the test
+            exchange.sendResponseHeaders(200, build.length);
+            OutputStream out = exchange.getResponseBody();
+            out.write(build, 0, 10);
+            out.flush();
+            try {
+                stalled.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.close();
+        });
+        server.start();
+        baseURL = "http://localhost:" + server.getAddress().getPort();
+        component = new JenkinsHttpClientComponent();
+        component.start(null);
+    }
+
+    protected void sendBuild(HttpExchange exchange, byte[] build) throws IOException {
+        if (ETAG.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+        exchange.getResponseHeaders().set("ETag", ETAG);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        String encoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (encoding != null && encoding.contains("gzip")) {
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = new GZIPOutputStream(exchange.getResponseBody())) {
+                out.write(build);
+            }
+        } else {
+            exchange.sendResponseHeaders(200, build.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(build);
+            }
+        }
+        exchange.close();
+    }
+
+    @After
+    public void stopServer() {
+        stalled.countDown();
+        component.stop(null);
+        server.stop(0);
+    }
+
+    @Test
+    public void testCompressedResponse() throws Exception {
+        try (JenkinsHttpResponse response = component.get(baseURL + BUILD_PATH, null, 0)) {
+            assertEquals(200, response.getStatus());
+            assertEquals("gzip", response.getHeader("Content-Encoding"));
+            assertEquals(ETAG, response.getHeader("ETag"));
+            JSONObject build = JenkinsJsonFilter.parse(response.getStream());
+            assertEquals(702, build.getInt("number"));
+        }
+    }
+
+    @Test
+    public void testRedirect() throws Exception {
+        try (JenkinsHttpResponse response = component.get(baseURL + "/moved", null, 0)) {
+            assertEquals(200, response.getStatus());
+            assertEquals(baseURL + BUILD_PATH, response.getUrl());
+        }
+    }
+
+    @Test
+    public void testConditionalRequest() throws Exception {
+        try (JenkinsHttpResponse response = component.get(baseURL + BUILD_PATH,
+                Collections.singletonMap("If-None-Match", ETAG), 0)) {
+            assertEquals(304, response.getStatus());
+        }
+    }
+
+    @Test
+    public void testFetcher() throws Exception {
+        ServiceFetcher fetcher = new ServiceFetcher(component);
+        String url = baseURL + BUILD_PATH;
+        JSONObject build = fetcher.retrieve(url);
+        assertNotNull(build);
+        assertEquals(702, build.getInt("number"));
+        assertEquals(1, fetcher.getCacheMisses());
+
+        // second retrieval is served from cache
+        assertTrue(build == fetcher.retrieve(url));
+        assertEquals(1, fetcher.getCacheHits());
+
+        // missing job
+        assertNull(fetcher.retrieve(baseURL + "/job/unknown/lastCompletedBuild/api/json"));
+        assertTrue(fetcher.getFetchErrors().isEmpty());
+    }
+
+    @Test
+    public void testStalledBody() throws Exception {
+        try (JenkinsHttpResponse response = component.get(baseURL + STALLED_PATH, null, 500)) {
+            assertEquals(200, response.getStatus());
+            InputStream stream = response.getStream();
+            IOUtils.toByteArray(stream);
+            fail("Reading a stalled body should time out");
+        } catch (HttpTimeoutException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains(STALLED_PATH));
+        }
+    }
+
+}
@@ -0,0 +1,189 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.json;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertSame;
+import static junit.framework.Assert.assertTrue;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.nuxeo.intranet.jenkins.web.JenkinsBuild;
+import com.nuxeo.intranet.jenkins.web.JenkinsBuildResult;
+import com.nuxeo.intranet.jenkins.web.JenkinsCommentRenderer;
+import com.nuxeo.intranet.jenkins.web.JenkinsJob;
+
+/**
+ * @since 3.10.5
+ */
+public class TestJenkinsJob {
+
+    @Test
+    public void testMapRoundTrip() {
+        Map<String, Serializable> item = new HashMap<String, Serializable>();
+        item.put("job_id", "addons_FT_nuxeo-correspondence-master");
+        item.put("job_url", "https://qa.nuxeo.org/jenkins/job/addons_FT_nuxeo-correspondence-master/");
+        item.put("build_number", "702");
+        item.put("type", "UNSTABLE");
+        item.put("claimer", "mcedica");
+        item.put("comment", "Claim reason: checking");
+        item.put("culprits", new ArrayList<String>(Arrays.asList("Laurent Doguin <ldoguin@nuxeo.com>")));
+        item.put("updated_build_number", "703");
+        item.put("updated_type", "");
+        item.put("newly_failing", "true");
+        // field unknown to the model
+        item.put("priority", "high");
+
+        JenkinsJob job = JenkinsJob.fromMap(item);
+        assertEquals(702, job.getBuildNumber());
+        assertEquals(JenkinsBuildResult.UNSTABLE, job.getResult());
+        assertEquals(703, job.getUpdatedBuildNumber());
+        assertEquals(JenkinsBuildResult.UNKNOWN, job.getUpdatedResult());
+        assertNull(job.getUpdatedComment());
+        assertTrue(job.isNewlyFailing());
+        assertEquals(1, job.getCulprits().size());
+
+        Map<String, Serializable> expected = new HashMap<String, Serializable>(item);
+        expected.put("updated_comment", null);
+        Map<String, Serializable> res = job.toMap();
+        res.put("updated_comment", null);
+        assertEquals(expected, res);
+        assertEquals(job, JenkinsJob.fromMap(job.toMap()));
+    }
+
+    @Test
+    public void testNonJenkinsTypeRoundTrip() {
+        Map<String, Serializable> item = new HashMap<String, Serializable>();
+        item.put("job_id", "nuxeo-master");
+        item.put("job_url", "https://qa.nuxeo.org/jenkins/job/nuxeo-master/");
+        item.put("build_number", "702");
+        // values set by hand on the report
+        item.put("type", "INFRA");
+        item.put("updated_build_number", "703");
+        item.put("updated_type", "flaky");
+
+        JenkinsJob job = JenkinsJob.fromMap(item);
+        assertEquals(JenkinsBuildResult.UNKNOWN, job.getResult());
+        assertEquals(JenkinsBuildResult.UNKNOWN, job.getUpdatedResult());
+        assertEquals("INFRA", job.toMap().get("type"));
+        assertEquals("flaky", job.toMap().get("updated_type"));
+        assertEquals(job, JenkinsJob.fromMap(job.toMap()));
+        // kept by copies that do not change the results
+        job = job.withClaim("jdoe", "checking");
+        assertEquals("INFRA", job.toMap().get("type"));
+        assertEquals("flaky", job.toMap().get("updated_type"));
+        job = job.withUpdate(new JenkinsBuild(704, JenkinsBuildResult.UNKNOWN, null, null, null));
+        assertEquals("flaky", job.toMap().get("updated_type"));
+
+        // replaced once the updated build is retrieved
+        job = job.withUpdate(new JenkinsBuild(705, JenkinsBuildResult.FAILURE, null, null, null));
+        assertEquals("INFRA", job.toMap().get("type"));
+        assertEquals("FAILURE", job.toMap().get("updated_type"));
+
+        // Jenkins results are normalized
+        item.put("type", " FAILURE ");
+        item.put("updated_type", "");
+        assertEquals("FAILURE", JenkinsJob.fromMap(item).toMap().get("type"));
+        assertEquals("", JenkinsJob.fromMap(item).toMap().get("updated_type"));
+    }
+
+    @Test
+    public void testMissingValues() {
+        Map<String, Serializable> item = new HashMap<String, Serializable>();
+        item.put("job_id", "removed-job");
+        item.put("build_number", "not a number");
+        JenkinsJob job = JenkinsJob.fromMap(item);
+        assertEquals(JenkinsBuild.NO_NUMBER, job.getBuildNumber());
+        assertNull(job.getResult());
+        assertTrue(job.getCulprits().isEmpty());
+        assertFalse(job.isNewlyFailing());
+        assertNull(job.toMap().get("build_number"));
+        assertNull(JenkinsJob.fromMaps(null));
+    }
+
+    @Test
+    public void testImmutable() {
+        List<String> culprits = new ArrayList<String>(Arrays.asList("jdoe"));
+        JenkinsBuild build = new JenkinsBuild(702, JenkinsBuildResult.FAILURE, null, null, culprits);
+        culprits.add("bdoe");
+        assertEquals(1, build.getCulprits().size());
+        JenkinsJob job = new JenkinsJob("job", "url", build);
+        JenkinsJob claimed = job.withClaim("jdoe", "checking");
+        assertNull(job.getClaimer());
+        assertEquals("jdoe", claimed.getClaimer());
+        JenkinsJob updated = claimed.withUpdate(new JenkinsBuild(703, JenkinsBuildResult.SUCCESS, "bdoe", "fixed",
+                null));
+        assertEquals(702, updated.getBuildNumber());
+        assertEquals("bdoe", updated.getClaimer());
+        assertEquals("checking", updated.getComment());
+        assertEquals(703, updated.getUpdatedBuildNumber());
+        assertEquals(JenkinsBuildResult.SUCCESS, updated.getUpdatedResult());
+        assertEquals("fixed", updated.getUpdatedComment());
+        assertEquals(JenkinsBuild.NO_NUMBER, claimed.getUpdatedBuildNumber());
+    }
+
+    @Test
+    public void testRenderedComments() {
+        JenkinsCommentRenderer renderer = JenkinsCommentRenderer.getInstance("https://jira.example.com/browse/",
+                new String[] { "NXP" });
+        JenkinsBuild build = new JenkinsBuild(702, JenkinsBuildResult.FAILURE, "jdoe", "see nxp-1 & NXP-2", null);
+        JenkinsJob job = new JenkinsJob("job", "url", build).withUpdate(
+                new JenkinsBuild(703, JenkinsBuildResult.FAILURE, "jdoe", "still NXP-2, NXP-3", null));
+        assertNull(job.getCommentHtml());
+        assertNull(job.getJiraIssues());
+        assertNull(job.toMap().get("comment_html"));
+
+        JenkinsJob rendered = job.withRenderedComments(renderer);
+        assertEquals(renderer.render("see nxp-1 & NXP-2"), rendered.getCommentHtml());
+        assertEquals(renderer.render("still NXP-2, NXP-3"), rendered.getUpdatedCommentHtml());
+        assertEquals(Arrays.asList("NXP-1", "NXP-2", "NXP-3"), rendered.getJiraIssues());
+        assertSame(rendered, rendered.withRenderedComments(renderer));
+
+        Map<String, Serializable> item = rendered.toMap();
+        assertEquals(rendered.getCommentHtml(), item.get("comment_html"));
+        assertEquals(Arrays.asList("NXP-1", "NXP-2", "NXP-3"), item.get("jira_issues"));
+        JenkinsJob stored = JenkinsJob.fromMap(item);
+        assertEquals(rendered, stored);
+        assertSame(stored, stored.withRenderedComments(renderer));
+
+        // changing comments drops renderings
+        JenkinsJob claimed = rendered.withClaim("bdoe", "NXP-4");
+        assertNull(claimed.getCommentHtml());
+        assertNull(claimed.toMap().get("jira_issues"));
+        assertEquals(Arrays.asList("NXP-4", "NXP-2", "NXP-3"),
+                claimed.withRenderedComments(renderer).getJiraIssues());
+        assertSame(rendered, rendered.withClaim("jdoe", "see nxp-1 & NXP-2"));
+
+        // comments edited on the stored item are rendered again
+        item.put("comment", "none");
+        JenkinsJob edited = JenkinsJob.fromMap(item).withRenderedComments(renderer);
+        assertEquals("none", edited.getCommentHtml());
+        assertEquals(Arrays.asList("NXP-2", "NXP-3"), edited.getJiraIssues());
+    }
+
+}
@@ -0,0 +1,126 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.json;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.nuxeo.intranet.jenkins.web.JenkinsBuild;
+import com.nuxeo.intranet.jenkins.web.JenkinsBuildResult;
+import com.nuxeo.intranet.jenkins.web.JenkinsJob;
+import com.nuxeo.intranet.jenkins.web.JenkinsJobChanges;
+import com.nuxeo.intranet.jenkins.web.JenkinsJsonConverter;
+
+/**
+ * @since 3.10.5
+ */
+public class TestJenkinsJobChanges {
+
+    protected static JenkinsJob job(String id, int buildNumber) {
+        return new JenkinsJob(id, null, new JenkinsBuild(buildNumber, JenkinsBuildResult.FAILURE, null, null, null));
+    }
+
+    protected static List<JenkinsJob> jobs(JenkinsJob... jobs) {
+        return Arrays.asList(jobs);
+    }
+
+    /**
+     * Applies changes from given old jobs to new ones on stored rows, and checks they end up like new jobs.
+     */
+    protected JenkinsJobChanges checkApply(List<JenkinsJob> oldJobs, List<JenkinsJob> newJobs) {
+        JenkinsJobChanges changes = new JenkinsJobChanges(oldJobs, newJobs);
+        List<Map<String, Serializable>> rows = new ArrayList<Map<String, Serializable>>(JenkinsJob.toMaps(oldJobs));
+        assertEquals(changes.getTouchedCount(), changes.applyTo(rows));
+        assertEquals(JenkinsJob.toMaps(newJobs), rows);
+        return changes;
+    }
+
+    @Test
+    public void testNoChange() {
+        List<JenkinsJob> data = jobs(job("a", 1), job("b", 2));
+        JenkinsJobChanges changes = checkApply(data, jobs(job("a", 1), job("b", 2)));
+        assertFalse(changes.isRewrite());
+        assertEquals(0, changes.getTouchedCount());
+    }
+
+    @Test
+    public void testChanges() {
+        JenkinsJob a = job("a", 1);
+        JenkinsJob b = job("b", 2).withClaim("bob", "looking");
+        JenkinsJob c = job("c", 3);
+        JenkinsJob d = job("d", 4);
+        List<JenkinsJob> oldJobs = jobs(a, b, c, d);
+
+        // claim change, cleared claim, build update, removal and addition
+        List<JenkinsJob> newJobs = jobs(a.withClaim("alice", "on it"), b.withClaim(null, null),
+                d.withUpdate(new JenkinsBuild(5, JenkinsBuildResult.SUCCESS, null, null, null)), job("e", 6),
+                job("f", 7));
+        JenkinsJobChanges changes = checkApply(oldJobs, newJobs);
+        assertFalse(changes.isRewrite());
+        assertEquals(2, changes.getAddedCount());
+        assertEquals(1, changes.getRemovedCount());
+        assertEquals(3, changes.getModifiedCount());
+        assertEquals(6, changes.getTouchedCount());
+    }
+
+    @Test
+    public void testRewrite() {
+        JenkinsJob a = job("a", 1);
+        JenkinsJob b = job("b", 2);
+
+        // moved jobs
+        JenkinsJobChanges changes = checkApply(jobs(a, b), jobs(b, a));
+        assertTrue(changes.isRewrite());
+        assertEquals(2, changes.getTouchedCount());
+
+        // old job after an added one
+        assertTrue(checkApply(jobs(a, b), jobs(a, job("c", 3), b)).isRewrite());
+
+        // duplicate or missing ids in stored jobs
+        assertTrue(checkApply(jobs(a, job("a", 3)), jobs(a)).isRewrite());
+        assertTrue(checkApply(jobs(a, job(null, 3)), jobs(a)).isRewrite());
+    }
+
+    @Test
+    public void testMerge() {
+        List<JenkinsJob> oldJobs = jobs(job("a", 1), job("b", 2), job("c", 3));
+        JenkinsJsonConverter cv = new JenkinsJsonConverter();
+        List<JenkinsJob> merged = cv.merge(oldJobs, jobs(job("b", 2).withClaim("bob", "looking"), job("c", 4),
+                job("d", 5)));
+
+        // applying changes on stored rows ends up like rewriting merged jobs
+        JenkinsJobChanges changes = cv.getChanges();
+        List<Map<String, Serializable>> rows = new ArrayList<Map<String, Serializable>>(JenkinsJob.toMaps(oldJobs));
+        assertEquals(3, changes.applyTo(rows));
+        assertEquals(JenkinsJob.toMaps(merged), rows);
+        assertEquals(1, changes.getAddedCount());
+        assertEquals(0, changes.getRemovedCount());
+        assertEquals(2, changes.getModifiedCount());
+    }
+
+}
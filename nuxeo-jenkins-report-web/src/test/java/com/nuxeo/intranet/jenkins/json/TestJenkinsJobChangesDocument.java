@@ -0,0 +1,138 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.json;
+
+import static com.nuxeo.intranet.jenkins.json.TestJenkinsJobChanges.job;
+import static com.nuxeo.intranet.jenkins.json.TestJenkinsJobChanges.jobs;
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.inject.Inject;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.nuxeo.ecm.core.api.CoreSession;
+import org.nuxeo.ecm.core.api.DocumentModel;
+import org.nuxeo.ecm.core.api.model.Property;
+import org.nuxeo.ecm.core.test.CoreFeature;
+import org.nuxeo.runtime.test.runner.Deploy;
+import org.nuxeo.runtime.test.runner.Features;
+import org.nuxeo.runtime.test.runner.FeaturesRunner;
+
+import com.nuxeo.intranet.jenkins.web.JenkinsJob;
+import com.nuxeo.intranet.jenkins.web.JenkinsJobChanges;
+import com.nuxeo.intranet.jenkins.web.JenkinsReportFields;
+
+/**
+ * Applies changes to the jobs list property of reports stored in a repository, see {@link TestJenkinsJobChanges} for
+ * changes applied to plain rows.
+ *
+ * @since 3.10.5
+ */
+@RunWith(FeaturesRunner.class)
+@Features(CoreFeature.class)
+@Deploy("com.nuxeo.jenkins.report.web.tests:OSGI-INF/test-jenkins-report-types-contrib.xml")
+public class TestJenkinsJobChangesDocument {
+
+    @Inject
+    protected CoreSession session;
+
+    protected DocumentModel createReport(List<JenkinsJob> jobs) {
+        DocumentModel report = session.createDocumentModel("/", "report", "JenkinsReport");
+        report.setPropertyValue(JenkinsReportFields.JOBS_PROPERTY, new ArrayList<>(JenkinsJob.toMaps(jobs)));
+        return session.createDocument(report);
+    }
+
+    /**
+     * Returns the fields checked on stored jobs: the schema fills missing fields, so that stored rows are not equal
+     * to the ones of given jobs.
+     */
+    protected List<String> describe(List<JenkinsJob> jobs) {
+        List<String> res = new ArrayList<>();
+        for (JenkinsJob job : jobs) {
+            res.add(String.format("%s #%s %s: %s, updated #%s", job.getId(), Integer.valueOf(job.getBuildNumber()),
+                    job.getClaimer(), job.getComment(), Integer.valueOf(job.getUpdatedBuildNumber())));
+        }
+        return res;
+    }
+
+    /**
+     * Applies changes from given old jobs to new ones on a saved report, and checks it ends up holding new jobs.
+     */
+    protected JenkinsJobChanges checkApply(List<JenkinsJob> oldJobs, List<JenkinsJob> newJobs) {
+        DocumentModel report = createReport(oldJobs);
+        JenkinsJobChanges changes = new JenkinsJobChanges(oldJobs, newJobs);
+        assertEquals(changes.getTouchedCount(), changes.applyTo(report));
+        assertEquals(describe(newJobs), describe(JenkinsJob.fromMaps(getRows(report))));
+        session.saveDocument(report);
+        session.save();
+        report = session.getDocument(report.getRef());
+        assertEquals(describe(newJobs), describe(JenkinsJob.fromMaps(getRows(report))));
+        session.removeDocument(report.getRef());
+        return changes;
+    }
+
+    @SuppressWarnings("unchecked")
+    protected List<Map<String, Serializable>> getRows(DocumentModel report) {
+        return (List<Map<String, Serializable>>) report.getPropertyValue(JenkinsReportFields.JOBS_PROPERTY);
+    }
+
+    @Test
+    public void testRemovals() {
+        JenkinsJob a = job("a", 1);
+        JenkinsJob b = job("b", 2).withClaim("bob", "looking");
+        JenkinsJob c = job("c", 3);
+        JenkinsJob d = job("d", 4);
+        List<JenkinsJob> oldJobs = jobs(a, b, c, d);
+
+        // removals at both ends and in the middle
+        JenkinsJobChanges changes = checkApply(oldJobs, jobs(b, d));
+        assertFalse(changes.isRewrite());
+        assertEquals(2, changes.getRemovedCount());
+        changes = checkApply(oldJobs, jobs(b, c));
+        assertEquals(2, changes.getRemovedCount());
+        changes = checkApply(oldJobs, jobs());
+        assertEquals(4, changes.getRemovedCount());
+
+        // removal with a moved job, falling back to a rewrite
+        assertTrue(checkApply(oldJobs, jobs(a, job("e", 5), b, d)).isRewrite());
+    }
+
+    @Test
+    public void testUnchangedRowsNotDirty() {
+        JenkinsJob a = job("a", 1);
+        JenkinsJob b = job("b", 2);
+        JenkinsJob c = job("c", 3);
+        DocumentModel report = createReport(jobs(a, b, c));
+        JenkinsJobChanges changes = new JenkinsJobChanges(jobs(a, b, c), jobs(a, c.withClaim("alice", "on it")));
+        assertEquals(2, changes.applyTo(report));
+
+        Property rows = report.getProperty(JenkinsReportFields.JOBS_PROPERTY);
+        assertEquals(2, rows.size());
+        assertFalse(rows.get(0).isDirty());
+        assertTrue(rows.get(1).isDirty());
+    }
+
+}
@@ -0,0 +1,132 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.json;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.nuxeo.intranet.jenkins.web.JenkinsBuild;
+import com.nuxeo.intranet.jenkins.web.JenkinsBuildResult;
+import com.nuxeo.intranet.jenkins.web.JenkinsCommentRenderer;
+import com.nuxeo.intranet.jenkins.web.JenkinsJob;
+import com.nuxeo.intranet.jenkins.web.JenkinsJobStorage;
+
+/**
+ * @since 3.10.5
+ */
+public class TestJenkinsJobStorage {
+
+    protected JenkinsJob job(String id, int buildNumber, JenkinsBuildResult result) {
+        return new JenkinsJob(id, "https://qa.example.com/job/" + id,
+                new JenkinsBuild(buildNumber, result, null, null, Arrays.asList("Bob <bob@example.com>")));
+    }
+
+    protected List<JenkinsJob> createJobs() {
+        JenkinsCommentRenderer renderer = JenkinsCommentRenderer.getInstance("https://jira.example.com/browse/",
+                new String[] { "NXP" });
+        Map<String, Serializable> extra = new HashMap<String, Serializable>();
+        extra.put("job_id", "custom");
+        extra.put("priority", "high");
+        extra.put("labels", new ArrayList<String>(Arrays.asList("a", "b")));
+        List<JenkinsJob> jobs = new ArrayList<JenkinsJob>();
+        jobs.add(job("a", 1, JenkinsBuildResult.FAILURE).withClaim("alice", "NXP-1234 \"quoted\"\nsecond line"));
+        jobs.add(job("multi#x", 2, JenkinsBuildResult.UNSTABLE).withNewlyFailing(true));
+        jobs.add(job("b", 3, JenkinsBuildResult.UNSTABLE).withClaim("bob", "caf\u00e9 \u2713")
+                .withRenderedComments(renderer));
+        jobs.add(job("c", 4, JenkinsBuildResult.FAILURE).withUpdate(
+                new JenkinsBuild(5, JenkinsBuildResult.SUCCESS, null, "fixed", null)));
+        jobs.add(JenkinsJob.fromMap(extra));
+        return jobs;
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        List<JenkinsJob> jobs = createJobs();
+        byte[] bytes = JenkinsJobStorage.encode(jobs);
+        List<Map<String, Serializable>> items = JenkinsJobStorage.decode(new ByteArrayInputStream(bytes));
+        assertEquals(jobs.size(), items.size());
+        assertEquals(JenkinsJob.toMaps(jobs), items);
+        assertEquals(jobs, JenkinsJob.fromMaps(items));
+        // items are parsed once
+        assertTrue(items.get(2) == items.get(2));
+        assertEquals("high", items.get(4).get("priority"));
+
+        assertEquals(0, JenkinsJobStorage.decode(
+                new ByteArrayInputStream(JenkinsJobStorage.encode(new ArrayList<JenkinsJob>()))).size());
+    }
+
+    @Test
+    public void testLazyItems() throws Exception {
+        List<JenkinsJob> jobs = new ArrayList<JenkinsJob>();
+        for (int i = 0; i < 1000; i++) {
+            jobs.add(job("job" + i, i, JenkinsBuildResult.FAILURE));
+        }
+        List<Map<String, Serializable>> items = JenkinsJobStorage.decode(
+                new ByteArrayInputStream(JenkinsJobStorage.encode(jobs)));
+        assertEquals(1000, items.size());
+        // any item can be accessed first
+        assertEquals("job999", items.get(999).get("job_id"));
+        assertEquals("500", items.get(500).get("build_number"));
+        assertEquals(jobs.get(0).toMap(), items.get(0));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testSerializedItems() throws Exception {
+        List<JenkinsJob> jobs = createJobs();
+        List<Map<String, Serializable>> items = JenkinsJobStorage.decode(
+                new ByteArrayInputStream(JenkinsJobStorage.encode(jobs)));
+        // held by page providers, that may be serialized with the UI state
+        assertEquals("high", items.get(4).get("priority"));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(items);
+        }
+        List<Map<String, Serializable>> read;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            read = (List<Map<String, Serializable>>) in.readObject();
+        }
+        assertEquals(items.getClass(), read.getClass());
+        assertEquals(items, read);
+        assertEquals(jobs, JenkinsJob.fromMaps(read));
+    }
+
+    @Test
+    public void testSummary() {
+        Map<String, Serializable> summary = JenkinsJobStorage.getSummary(createJobs());
+        assertEquals(Long.valueOf(5), summary.get(JenkinsJobStorage.COUNT));
+        assertEquals(Long.valueOf(1), summary.get(JenkinsJobStorage.FAILURE));
+        assertEquals(Long.valueOf(2), summary.get(JenkinsJobStorage.UNSTABLE));
+        assertEquals(Long.valueOf(2), summary.get(JenkinsJobStorage.CLAIMED));
+    }
+
+}
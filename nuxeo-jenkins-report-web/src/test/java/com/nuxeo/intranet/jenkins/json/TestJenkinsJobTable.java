@@ -0,0 +1,81 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.json;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertSame;
+import static junit.framework.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.nuxeo.intranet.jenkins.web.JenkinsBuild;
+import com.nuxeo.intranet.jenkins.web.JenkinsBuildResult;
+import com.nuxeo.intranet.jenkins.web.JenkinsJob;
+import com.nuxeo.intranet.jenkins.web.JenkinsJobTable;
+
+/**
+ * @since 3.10.5
+ */
+public class TestJenkinsJobTable {
+
+    protected JenkinsJob job(String id, int buildNumber) {
+        return new JenkinsJob(id, null, new JenkinsBuild(buildNumber, JenkinsBuildResult.FAILURE, null, null, null));
+    }
+
+    @Test
+    public void testFamily() {
+        assertEquals("FT-multiosdb", JenkinsJobTable.getFamily("FT-multiosdb#label=MySQL"));
+        assertEquals("addons_FT", JenkinsJobTable.getFamily("addons_FT"));
+        assertNull(JenkinsJobTable.getFamily(null));
+    }
+
+    @Test
+    public void testIndex() {
+        List<JenkinsJob> data = new ArrayList<JenkinsJob>();
+        data.add(job("a", 1));
+        data.add(job("multi#x", 2));
+        data.add(job("multi#y", 2));
+        data.add(job("b", 3));
+        JenkinsJobTable table = new JenkinsJobTable(data);
+        assertEquals(4, table.size());
+        assertTrue(table.contains("multi#x"));
+        assertFalse(table.contains("multi"));
+        assertTrue(table.containsFamily("multi"));
+        assertEquals(2, table.getFamilyJobs("multi").size());
+        assertTrue(table.getFamilyJobs("c").isEmpty());
+
+        // replacing a job keeps its position
+        JenkinsJob replaced = job("multi#x", 4);
+        table.put(replaced);
+        assertEquals(4, table.size());
+        assertSame(replaced, table.get("multi#x"));
+        assertSame(replaced, table.toList().get(1));
+        assertEquals(2, table.getFamilyJobs("multi").size());
+        assertSame(replaced, table.getFamilyJobs("multi").get(0));
+
+        table.put(job("c", 5));
+        assertEquals("c", table.toList().get(4).getId());
+    }
+
+}
@@ -19,22 +19,37 @@
 package com.nuxeo.intranet.jenkins.json;
 
 import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
 import static junit.framework.Assert.assertNotNull;
 import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.fail;
 
 import java.io.FileInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.apache.commons.io.IOUtils;
 import org.junit.Test;
 import org.nuxeo.common.utils.FileUtils;
+import org.nuxeo.runtime.kv.MemKeyValueStore;
 
+import com.nuxeo.intranet.jenkins.http.JenkinsBuildCache;
+import com.nuxeo.intranet.jenkins.http.JenkinsFetchPool;
+import com.nuxeo.intranet.jenkins.http.JenkinsSnapshot;
+import com.nuxeo.intranet.jenkins.web.JenkinsBuild;
+import com.nuxeo.intranet.jenkins.web.JenkinsCommentRenderer;
+import com.nuxeo.intranet.jenkins.web.JenkinsFetchMode;
+import com.nuxeo.intranet.jenkins.web.JenkinsJob;
 import com.nuxeo.intranet.jenkins.web.JenkinsJsonConverter;
 
+import net.sf.json.JSONArray;
 import net.sf.json.JSONObject;
 
 /**
@@ -62,6 +77,28 @@ public class TestJenkinsJsonConverter {
         assertEquals("addons_FT-nuxeo-platform-faceted-search-master-tomcat", failing.get("job_id"));
     }
 
+    @Test
+    public void testJobsConverterParallel() throws Exception {
+        JSONObject json = getJsonBuild("jobs.json");
+        FakeJenkinsJobsFetcher fetcher = new FakeJenkinsJobsFetcher().serveByDefault("build.json");
+        List<Map<String, Serializable>> expected = new JenkinsJsonConverter().convertJobs(json, null, fetcher);
+        assertEquals(59, expected.size());
+        assertEquals(59, fetcher.getRequestedUrls().size());
+
+        JenkinsFetchPool pool = new JenkinsFetchPool(8, 4);
+        try {
+            JenkinsJsonConverter cv = new JenkinsJsonConverter();
+            cv.setFetchPool(pool);
+            fetcher = new FakeJenkinsJobsFetcher().serveByDefault("build.json").withDelay(10);
+            List<Map<String, Serializable>> res = cv.convertJobs(json, null, fetcher);
+            assertEquals(59, fetcher.getRequestedUrls().size());
+            // results are kept in the same order
+            assertEquals(expected, res);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
     @Test
     @SuppressWarnings("rawtypes")
     public void testBuildConverter() throws Exception {
@@ -119,6 +156,53 @@ public class TestJenkinsJsonConverter {
         assertEquals("Laurent Doguin <ldoguin@nuxeo.com>", ((List) mergedBuild.get("culprits")).get(0));
     }
 
+    @Test
+    public void testMergeRenderedComments() throws Exception {
+        JenkinsJsonConverter cv = new JenkinsJsonConverter();
+        Map<String, Serializable> build = cv.convertBuild(getJsonBuild("build.json"));
+        Map<String, Serializable> newBuild = cv.convertBuild(getJsonBuild("modified_build.json"));
+        newBuild.put("comment", "Claim reason: nxp-1234\n<fixed>");
+
+        // comments are not rendered by default
+        cv = mergeData(build, newBuild);
+        Map<String, Serializable> mergedBuild = cv.getMergedData().get(0);
+        assertFalse(mergedBuild.containsKey("comment_html"));
+        assertFalse(mergedBuild.containsKey("jira_issues"));
+
+        JenkinsCommentRenderer renderer = JenkinsCommentRenderer.getInstance("https://jira.example.com/browse/",
+                new String[] { "NXP" });
+        cv = new JenkinsJsonConverter();
+        cv.setCommentRenderer(renderer);
+        List<Map<String, Serializable>> oldData = new ArrayList<Map<String, Serializable>>();
+        oldData.add(build);
+        List<Map<String, Serializable>> newData = new ArrayList<Map<String, Serializable>>();
+        newData.add(newBuild);
+        mergedBuild = cv.mergeData(oldData, newData).get(0);
+        assertEquals("Claim reason: <a href=\"https://jira.example.com/browse/NXP-1234\" target=\"_blank\">"
+                + "NXP-1234</a><br />\n&lt;fixed&gt;", mergedBuild.get("comment_html"));
+        assertEquals(renderer.render((String) mergedBuild.get("updated_comment")),
+                mergedBuild.get("updated_comment_html"));
+        assertEquals(Arrays.asList("NXP-1234"), mergedBuild.get("jira_issues"));
+
+        // renderings are replaced when the JIRA settings change
+        JenkinsCommentRenderer otherRenderer = JenkinsCommentRenderer.getInstance("https://jira.example.com/browse/",
+                new String[] { "NXBT" });
+        cv = new JenkinsJsonConverter();
+        cv.setCommentRenderer(otherRenderer);
+        oldData = new ArrayList<Map<String, Serializable>>();
+        oldData.add(mergedBuild);
+        Map<String, Serializable> rerendered = cv.mergeData(oldData, newData).get(0);
+        assertEquals(otherRenderer.render((String) mergedBuild.get("comment")), rerendered.get("comment_html"));
+        assertEquals(Collections.emptyList(), rerendered.get("jira_issues"));
+
+        // and dropped when comments are not rendered anymore
+        cv = new JenkinsJsonConverter();
+        Map<String, Serializable> unrendered = cv.mergeData(oldData, newData).get(0);
+        assertFalse(unrendered.containsKey("comment_html"));
+        assertFalse(unrendered.containsKey("updated_comment_html"));
+        assertFalse(unrendered.containsKey("jira_issues"));
+    }
+
     @Test
     @SuppressWarnings("rawtypes")
     public void testMergeBuildConverterBuildChange() throws Exception {
@@ -199,4 +283,382 @@ public class TestJenkinsJsonConverter {
                 builds.get(0).get("job_id"));
     }
 
+    @Test
+    public void testMultiOSDBBuildConverterParallel() throws Exception {
+        JSONObject json = getJsonBuild("multiosdb_build.json");
+        JenkinsFetchPool pool = new JenkinsFetchPool(4, 4);
+        try {
+            JenkinsJsonConverter cv = new JenkinsJsonConverter();
+            cv.setFetchPool(pool);
+            FakeJenkinsJobsFetcher fetcher = new FakeJenkinsJobsFetcher().serveByDefault("build.json").withDelay(10);
+            List<Map<String, Serializable>> builds = cv.convertMultiOSDBJobs("FT-nuxeo-5.6.0-selenium-dm-tomcat",
+                    json, fetcher);
+            assertEquals(9, fetcher.getRequestedUrls().size());
+            assertNotNull(builds);
+            assertEquals(9, builds.size());
+            // runs are kept in the order listed by Jenkins, whatever the order they were retrieved in
+            assertEquals("FT-nuxeo-5.6.0-selenium-dm-tomcat#Slave=MULTIDB_LINUX,dbprofile=mssql",
+                    builds.get(0).get("job_id"));
+            assertEquals("FT-nuxeo-5.6.0-selenium-dm-tomcat#Slave=MULTIDB_WINDOWS,dbprofile=pgsql",
+                    builds.get(8).get("job_id"));
+            assertEquals("702", builds.get(0).get("build_number"));
+            assertEquals("UNSTABLE", builds.get(0).get("type"));
+
+            // runs that are not retrieved in time are kept with an unknown status
+            cv.setRunsTimeout(1);
+            fetcher = new FakeJenkinsJobsFetcher().serveByDefault("build.json").withDelay(500);
+            builds = cv.convertMultiOSDBJobs("FT-nuxeo-5.6.0-selenium-dm-tomcat", json, fetcher);
+            assertEquals(9, builds.size());
+            assertFalse(fetcher.getFetchErrors().isEmpty());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    protected FakeJenkinsJobsFetcher getJobsFetcher() {
+        return new FakeJenkinsJobsFetcher().serve("/template_addon/lastCompletedBuild/api/json", null)
+                                           .serve("/FT-nuxeo-5.6.0-selenium-dm-tomcat-multiosdb/lastCompletedBuild/api/json",
+                                                   "multiosdb_build.json")
+                                           .serveByDefault("build.json");
+    }
+
+    /**
+     * Checks that the default fetch mode, issuing one request per failing job and per run, and the tree fetch mode,
+     * issuing a single request, give the same jobs on the same recorded data. Their durations are compared by
+     * JenkinsFetchModeBenchmark.
+     */
+    @Test
+    public void testTreeFetchMode() throws Exception {
+        FakeJenkinsJobsFetcher fetcher = getJobsFetcher();
+        JSONObject json = FakeJenkinsJobsFetcher.load("jobs.json");
+        JenkinsJsonConverter cv = new JenkinsJsonConverter();
+        List<Map<String, Serializable>> expected = cv.convertJobs(json, null, fetcher);
+        // 59 failing jobs, 9 runs
+        assertEquals(68, fetcher.getRequestedUrls().size());
+        assertEquals(67, expected.size());
+
+        fetcher = getJobsFetcher();
+        json = FakeJenkinsJobsFetcher.load("tree_jobs.json");
+        cv = new JenkinsJsonConverter();
+        cv.setFetchMode(JenkinsFetchMode.TREE);
+        List<Map<String, Serializable>> res = cv.convertJobs(json, null, fetcher);
+        assertEquals(0, fetcher.getRequestedUrls().size());
+
+        assertEquals(expected, res);
+    }
+
+    @Test
+    public void testTreeFetchModeOldData() throws Exception {
+        JSONObject json = FakeJenkinsJobsFetcher.load("tree_jobs.json");
+        List<Map<String, Serializable>> oldData = new ArrayList<Map<String, Serializable>>();
+        // job fixed since then, part of the list
+        Map<String, Serializable> fixed = new HashMap<String, Serializable>();
+        fixed.put("job_id", "addons-5.4.1");
+        fixed.put("job_url", "https://qa.nuxeo.org/jenkins/job/addons-5.4.1/");
+        oldData.add(fixed);
+        // job not part of the list anymore
+        Map<String, Serializable> removed = new HashMap<String, Serializable>();
+        removed.put("job_id", "removed-job");
+        removed.put("job_url", "https://qa.nuxeo.org/jenkins/job/removed-job/");
+        oldData.add(removed);
+
+        FakeJenkinsJobsFetcher fetcher = getJobsFetcher();
+        JenkinsJsonConverter cv = new JenkinsJsonConverter();
+        cv.setFetchMode(JenkinsFetchMode.TREE);
+        List<Map<String, Serializable>> res = cv.convertJobs(json, oldData, fetcher);
+        // 58 failing jobs, 9 runs, and 2 old jobs
+        assertEquals(69, res.size());
+        // only the job missing from the list is retrieved
+        assertEquals(1, fetcher.getRequestedUrls().size());
+        assertEquals("https://qa.nuxeo.org/jenkins/job/removed-job/lastCompletedBuild/api/json"
+                + JenkinsFetchMode.TREE.getBuildQuery(), fetcher.getRequestedUrls().get(0));
+        assertEquals("SUCCESS", res.get(67).get("type"));
+        assertEquals("702", res.get(68).get("build_number"));
+    }
+
+    protected Map<String, Serializable> oldJob(String id) {
+        Map<String, Serializable> job = new HashMap<String, Serializable>();
+        job.put("job_id", id);
+        job.put("job_url", "https://qa.nuxeo.org/jenkins/job/" + id + "/");
+        return job;
+    }
+
+    /**
+     * Checks that converting the jobs list once with the jobs of several reports gives each report the same jobs as
+     * converting it for each report.
+     */
+    @Test
+    public void testReportJobs() throws Exception {
+        List<Map<String, Serializable>> report1 = new ArrayList<Map<String, Serializable>>();
+        // job fixed since then, part of the list
+        report1.add(oldJob("addons-5.4.1"));
+        report1.add(oldJob("removed-job"));
+        List<Map<String, Serializable>> report2 = new ArrayList<Map<String, Serializable>>();
+        report2.add(oldJob("addons-5.4.1"));
+        report2.add(oldJob("other-removed-job"));
+        List<Map<String, Serializable>> report3 = new ArrayList<Map<String, Serializable>>();
+
+        JSONObject json = FakeJenkinsJobsFetcher.load("tree_jobs.json");
+        List<List<JenkinsJob>> expected = new ArrayList<List<JenkinsJob>>();
+        for (List<Map<String, Serializable>> report : Arrays.asList(report1, report2, report3)) {
+            JenkinsJsonConverter cv = new JenkinsJsonConverter();
+            cv.setFetchMode(JenkinsFetchMode.TREE);
+            expected.add(cv.convert(json, JenkinsJob.fromMaps(report), getJobsFetcher()));
+        }
+
+        List<Map<String, Serializable>> all = new ArrayList<Map<String, Serializable>>(report1);
+        all.add(oldJob("other-removed-job"));
+        FakeJenkinsJobsFetcher fetcher = getJobsFetcher();
+        JenkinsJsonConverter cv = new JenkinsJsonConverter();
+        cv.setFetchMode(JenkinsFetchMode.TREE);
+        List<JenkinsJob> res = cv.convert(json, JenkinsJob.fromMaps(all), fetcher);
+        // 58 failing jobs, 9 runs, and 3 old jobs
+        assertEquals(70, res.size());
+        // jobs missing from the list are retrieved once
+        assertEquals(2, fetcher.getRequestedUrls().size());
+
+        assertEquals(69, expected.get(0).size());
+        assertEquals(expected.get(0), cv.getReportJobs(res, JenkinsJob.fromMaps(report1)));
+        assertEquals(69, expected.get(1).size());
+        assertEquals(expected.get(1), cv.getReportJobs(res, JenkinsJob.fromMaps(report2)));
+        assertEquals(67, expected.get(2).size());
+        assertEquals(expected.get(2), cv.getReportJobs(res, JenkinsJob.fromMaps(report3)));
+    }
+
+    protected List<Map<String, Serializable>> copy(List<Map<String, Serializable>> data) {
+        List<Map<String, Serializable>> res = new ArrayList<Map<String, Serializable>>();
+        for (Map<String, Serializable> item : data) {
+            res.add(new HashMap<String, Serializable>(item));
+        }
+        return res;
+    }
+
+    @Test
+    public void testUnchangedBuildsNotRetrieved() throws Exception {
+        FakeJenkinsJobsFetcher fetcher = getJobsFetcher();
+        JenkinsJsonConverter cv = new JenkinsJsonConverter();
+        List<Map<String, Serializable>> oldData = cv.convertJobs(FakeJenkinsJobsFetcher.load("jobs.json"), null,
+                fetcher);
+        assertEquals(67, oldData.size());
+        assertEquals(0, cv.getSkippedCount());
+
+        // refresh without build summaries in the jobs list
+        fetcher = getJobsFetcher();
+        cv = new JenkinsJsonConverter();
+        List<Map<String, Serializable>> expectedOldData = copy(oldData);
+        List<Map<String, Serializable>> expected = cv.mergeData(expectedOldData,
+                cv.convertJobs(FakeJenkinsJobsFetcher.load("jobs.json"), expectedOldData, fetcher));
+        assertEquals(0, cv.getSkippedCount());
+        // 59 failing jobs, 9 runs for the multiosdb job, 9 runs retrieved again as previously failing
+        assertEquals(77, fetcher.getRequestedUrls().size());
+
+        // refresh with build summaries: unchanged builds are not retrieved again
+        fetcher = getJobsFetcher();
+        cv = new JenkinsJsonConverter();
+        List<Map<String, Serializable>> summaryOldData = copy(oldData);
+        List<Map<String, Serializable>> res = cv.mergeData(summaryOldData,
+                cv.convertJobs(FakeJenkinsJobsFetcher.load("tree_jobs.json"), summaryOldData, fetcher));
+        // all jobs except the multiosdb one and the job without any completed build
+        assertEquals(57, cv.getSkippedCount());
+        assertEquals(20, fetcher.getRequestedUrls().size());
+        assertEquals(0, cv.getNewFailingCount());
+        assertEquals(0, cv.getFixedCount());
+        assertEquals(67, cv.getUnchangedCount());
+        assertEquals(expected, res);
+    }
+
+    /**
+     * Checks that jobs of a report that did not change are skipped when converting the jobs list from a snapshot,
+     * whether the snapshot was loaded by the refresh of this report or of another one.
+     */
+    @Test
+    public void testUnchangedBuildsNotRetrievedWithSnapshot() throws Exception {
+        List<JenkinsJob> oldData = new JenkinsJsonConverter().convert(FakeJenkinsJobsFetcher.load("jobs.json"), null,
+                getJobsFetcher());
+        JSONObject listing = FakeJenkinsJobsFetcher.load("tree_jobs.json");
+        JenkinsJsonConverter cv = new JenkinsJsonConverter();
+        List<JenkinsJob> expected = cv.convert(listing, oldData, getJobsFetcher());
+        assertEquals(57, cv.getSkippedCount());
+
+        // snapshot loaded by another refresh
+        JenkinsSnapshot snapshot = new JenkinsSnapshot(listing);
+        cv = new JenkinsJsonConverter();
+        cv.setSnapshot(snapshot);
+        cv.convert(listing, null, getJobsFetcher());
+        FakeJenkinsJobsFetcher fetcher = getJobsFetcher();
+        cv = new JenkinsJsonConverter();
+        cv.setSnapshot(snapshot);
+        assertEquals(expected, cv.convert(listing, oldData, fetcher));
+        assertEquals(57, cv.getSkippedCount());
+        // the job without status, and the 9 runs held by the report, specific to it
+        assertEquals(10, fetcher.getRequestedUrls().size());
+
+        // snapshot loaded by the refresh of this report: unchanged builds are not retrieved either
+        snapshot = new JenkinsSnapshot(listing);
+        fetcher = getJobsFetcher();
+        cv = new JenkinsJsonConverter();
+        cv.setSnapshot(snapshot);
+        assertEquals(expected, cv.convert(listing, oldData, fetcher));
+        assertEquals(57, cv.getSkippedCount());
+        assertEquals(20, fetcher.getRequestedUrls().size());
+        // and shared with other refreshes
+        fetcher = getJobsFetcher();
+        cv = new JenkinsJsonConverter();
+        cv.setSnapshot(snapshot);
+        assertEquals(expected, cv.convert(listing, oldData, fetcher));
+        assertEquals(57, cv.getSkippedCount());
+        // only the job without status is retrieved again
+        assertEquals(1, fetcher.getRequestedUrls().size());
+    }
+
+    @Test
+    public void testCachedBuildsNotRetrieved() throws Exception {
+        JenkinsBuildCache cache = new JenkinsBuildCache(new MemKeyValueStore(), 3600);
+        FakeJenkinsJobsFetcher fetcher = getJobsFetcher();
+        JenkinsJsonConverter cv = new JenkinsJsonConverter();
+        cv.setBuildCache(cache);
+        List<JenkinsJob> expected = cv.convert(FakeJenkinsJobsFetcher.load("tree_jobs.json"), null, fetcher);
+        assertEquals(67, expected.size());
+        assertEquals(0, cv.getCachedCount());
+        assertEquals(68, fetcher.getRequestedUrls().size());
+
+        // another node, or a restart: completed builds are taken from the cache
+        fetcher = getJobsFetcher();
+        cv = new JenkinsJsonConverter();
+        cv.setBuildCache(cache);
+        List<JenkinsJob> res = cv.convert(FakeJenkinsJobsFetcher.load("tree_jobs.json"), null, fetcher);
+        // all jobs except the multiosdb one and the job without any completed build
+        assertEquals(57, cv.getCachedCount());
+        assertEquals(0, cv.getSkippedCount());
+        assertEquals(11, fetcher.getRequestedUrls().size());
+        assertEquals(expected, res);
+
+        // claims are taken from the jobs list
+        JSONObject json = FakeJenkinsJobsFetcher.load("tree_jobs.json");
+        JSONObject jsonJob = null;
+        for (Object job : json.getJSONArray("jobs")) {
+            if (expected.get(0).getUrl().equals(((JSONObject) job).getString("url"))) {
+                jsonJob = (JSONObject) job;
+            }
+        }
+        assertNotNull(jsonJob);
+        JSONObject claim = new JSONObject();
+        claim.put("claimed", true);
+        claim.put("claimedBy", "jdoe");
+        JSONArray actions = new JSONArray();
+        actions.add(claim);
+        jsonJob.getJSONObject("lastCompletedBuild").put("actions", actions);
+        cv = new JenkinsJsonConverter();
+        cv.setBuildCache(cache);
+        res = cv.convert(json, null, getJobsFetcher());
+        assertEquals(57, cv.getCachedCount());
+        assertEquals("jdoe", res.get(0).getClaimer());
+        assertEquals(expected.get(0).getCulprits(), res.get(0).getCulprits());
+
+        // new builds are retrieved
+        cv = new JenkinsJsonConverter();
+        cv.setBuildCache(new JenkinsBuildCache(new MemKeyValueStore(), 3600));
+        cv.convert(FakeJenkinsJobsFetcher.load("tree_jobs.json"), null, getJobsFetcher());
+        assertEquals(0, cv.getCachedCount());
+    }
+
+    @Test
+    public void testBuildNotification() throws Exception {
+        FakeJenkinsJobsFetcher fetcher = new FakeJenkinsJobsFetcher().serve("/702/api/json", "build.json")
+                                                                     .serve("/703/api/json", "new_build.json");
+        JenkinsJsonConverter cv = new JenkinsJsonConverter();
+        // only the url of notified json api data is read
+        JSONObject payload = getJsonBuild("build.json");
+        payload.put("result", "SUCCESS");
+        List<Map<String, Serializable>> oldJobs = cv.convertBuildNotification(payload, fetcher);
+        assertEquals(1, oldJobs.size());
+        assertEquals("UNSTABLE", oldJobs.get(0).get("type"));
+        List<Map<String, Serializable>> jobs = cv.convertBuildNotification(getJsonBuild("notification_build.json"),
+                fetcher);
+        assertEquals(1, jobs.size());
+        Map<String, Serializable> job = jobs.get(0);
+        assertEquals("addons_FT_nuxeo-correspondence-master", job.get("job_id"));
+        assertEquals("https://qa.nuxeo.org/jenkins/job/addons_FT_nuxeo-correspondence-master/", job.get("job_url"));
+        assertEquals("703", job.get("build_number"));
+        assertEquals("UNSTABLE", job.get("type"));
+
+        // merged as on a full refresh
+        cv.mergeData(oldJobs, jobs);
+        List<Map<String, Serializable>> res = cv.getMergedData();
+        assertEquals(1, res.size());
+        assertEquals("702", res.get(0).get("build_number"));
+        assertEquals("703", res.get(0).get("updated_build_number"));
+        assertEquals("UNSTABLE", res.get(0).get("updated_type"));
+        assertEquals("Claim reason: checking new stuff\n\n" + "Description: test new comment",
+                res.get(0).get("updated_comment"));
+    }
+
+    @Test
+    public void testBuildNotificationPayload() throws Exception {
+        JSONObject payload = getJsonBuild("notification_build.json");
+        FakeJenkinsJobsFetcher fetcher = new FakeJenkinsJobsFetcher().serve("/703/api/json", "new_build.json");
+        JenkinsJsonConverter cv = new JenkinsJsonConverter();
+        assertEquals("https://qa.nuxeo.org/jenkins/job/addons_FT_nuxeo-correspondence-master/703/",
+                cv.getNotifiedBuildUrl(payload));
+        List<Map<String, Serializable>> jobs = cv.convertBuildNotification(payload, fetcher);
+        assertEquals(1, fetcher.getRequestedUrls().size());
+        assertEquals("https://qa.nuxeo.org/jenkins/job/addons_FT_nuxeo-correspondence-master/703/api/json",
+                fetcher.getRequestedUrls().get(0));
+        assertEquals(1, jobs.size());
+        assertEquals("703", jobs.get(0).get("build_number"));
+
+        // build cannot be retrieved: the status of the notification is not trusted
+        try {
+            cv.convertBuildNotification(payload, new FakeJenkinsJobsFetcher());
+            fail("IOException expected");
+        } catch (IOException e) {
+            assertEquals("Build https://qa.nuxeo.org/jenkins/job/addons_FT_nuxeo-correspondence-master/703/ "
+                    + "could not be retrieved", e.getMessage());
+        }
+
+        // started builds are ignored
+        payload.getJSONObject("build").put("phase", "STARTED");
+        assertNull(cv.getNotifiedBuildUrl(payload));
+        fetcher = new FakeJenkinsJobsFetcher().serveByDefault("new_build.json");
+        assertEquals(0, cv.convertBuildNotification(payload, fetcher).size());
+        assertEquals(0, fetcher.getRequestedUrls().size());
+    }
+
+    @Test
+    public void testMultiOSDBBuildNotification() throws Exception {
+        String parentId = "FT-nuxeo-5.6.0-selenium-dm-tomcat-multiosdb";
+        String buildUrl = "https://qa.nuxeo.org/jenkins/job/" + parentId + "/439/";
+        FakeJenkinsJobsFetcher fetcher = new FakeJenkinsJobsFetcher().serve("/job/" + parentId + "/439/api/json",
+                "multiosdb_build.json").serveByDefault("build.json");
+        JenkinsJsonConverter cv = new JenkinsJsonConverter();
+        // a run the build does not hold anymore, the parent job and a job of another family
+        String oldRunUrl = "https://qa.nuxeo.org/jenkins/job/" + parentId + "/Slave=MULTIDB_LINUX,dbprofile=db2/";
+        List<JenkinsJob> trackedJobs = Arrays.asList(
+                new JenkinsJob(parentId + "#Slave=MULTIDB_LINUX,dbprofile=db2", oldRunUrl, JenkinsBuild.NONE),
+                new JenkinsJob(parentId, null, JenkinsBuild.NONE), new JenkinsJob("other", null, JenkinsBuild.NONE));
+        List<JenkinsJob> jobs = cv.convertNotifiedBuild(buildUrl, trackedJobs, fetcher);
+
+        // failing runs, then tracked runs retrieved again, never the parent job
+        assertEquals(10, jobs.size());
+        assertEquals(parentId + "#Slave=MULTIDB_LINUX,dbprofile=mssql", jobs.get(0).getId());
+        assertEquals(parentId + "#Slave=MULTIDB_LINUX,dbprofile=db2", jobs.get(9).getId());
+        assertEquals(702, jobs.get(9).getBuildNumber());
+        for (JenkinsJob job : jobs) {
+            assertFalse(parentId.equals(job.getId()));
+        }
+        // the build, its 9 runs, and the tracked run
+        assertEquals(11, fetcher.getRequestedUrls().size());
+        assertEquals(oldRunUrl + "lastCompletedBuild/api/json", fetcher.getRequestedUrls().get(10));
+    }
+
+    @Test
+    public void testJobId() throws Exception {
+        JenkinsJsonConverter cv = new JenkinsJsonConverter();
+        assertEquals("nuxeo-master", cv.getJobId("https://qa.nuxeo.org/jenkins/job/nuxeo-master/"));
+        assertEquals("nuxeo master", cv.getJobId("https://qa.nuxeo.org/jenkins/job/nuxeo%20master/"));
+        assertEquals("FT-nuxeo-5.6.0-selenium-dm-tomcat-multiosdb#Slave=MULTIDB_LINUX,dbprofile=mssql",
+                cv.getJobId("https://qa.nuxeo.org/jenkins/job/FT-nuxeo-5.6.0-selenium-dm-tomcat-multiosdb/"
+                        + "Slave=MULTIDB_LINUX,dbprofile=mssql/"));
+    }
+
 }
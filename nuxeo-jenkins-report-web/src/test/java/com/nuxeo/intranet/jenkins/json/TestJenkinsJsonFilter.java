@@ -0,0 +1,95 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.json;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+import org.nuxeo.common.utils.FileUtils;
+
+import com.nuxeo.intranet.jenkins.web.JenkinsJsonConverter;
+import com.nuxeo.intranet.jenkins.web.JenkinsJsonFilter;
+
+import net.sf.json.JSONObject;
+
+/**
+ * @since 3.10.5
+ */
+public class TestJenkinsJsonFilter {
+
+    protected String read(String jsonPath) throws Exception {
+        try (InputStream stream = new FileInputStream(FileUtils.getResourcePathFromContext(jsonPath))) {
+            return IOUtils.toString(stream, "UTF-8");
+        }
+    }
+
+    protected JSONObject filter(String jsonPath) throws Exception {
+        try (InputStream stream = new FileInputStream(FileUtils.getResourcePathFromContext(jsonPath))) {
+            return JenkinsJsonFilter.parse(stream);
+        }
+    }
+
+    @Test
+    public void testBuildFilter() throws Exception {
+        String json = read("build.json");
+        String filtered;
+        try (InputStream stream = new FileInputStream(FileUtils.getResourcePathFromContext("build.json"))) {
+            filtered = JenkinsJsonFilter.filter(stream);
+        }
+        assertTrue(filtered.length() < json.length() / 4);
+        assertFalse(filtered.contains("changeSet"));
+        assertFalse(filtered.contains("artifacts"));
+
+        JenkinsJsonConverter cv = new JenkinsJsonConverter();
+        Map<String, Serializable> expected = cv.convertBuild(JSONObject.fromObject(json));
+        assertEquals(expected, cv.convertBuild(JSONObject.fromObject(filtered)));
+    }
+
+    @Test
+    public void testMultiOSDBBuildFilter() throws Exception {
+        JenkinsJsonConverter cv = new JenkinsJsonConverter();
+        JSONObject json = JSONObject.fromObject(read("multiosdb_build.json"));
+        List<Map<String, Serializable>> expected = cv.convertMultiOSDBJobs("FT-nuxeo-5.6.0-selenium-dm-tomcat", json,
+                null);
+        List<Map<String, Serializable>> res = cv.convertMultiOSDBJobs("FT-nuxeo-5.6.0-selenium-dm-tomcat",
+                filter("multiosdb_build.json"), null);
+        assertEquals(9, res.size());
+        assertEquals(expected, res);
+    }
+
+    @Test
+    public void testJobsFilter() throws Exception {
+        JenkinsJsonConverter cv = new JenkinsJsonConverter();
+        JSONObject json = JSONObject.fromObject(read("jobs.json"));
+        List<Map<String, Serializable>> expected = cv.convertJobs(json, null, null);
+        List<Map<String, Serializable>> res = cv.convertJobs(filter("jobs.json"), null, null);
+        assertEquals(59, res.size());
+        assertEquals(expected, res);
+    }
+
+}
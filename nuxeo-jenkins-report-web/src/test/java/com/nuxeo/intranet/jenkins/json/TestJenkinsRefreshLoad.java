@@ -0,0 +1,209 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.json;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertNotNull;
+import static junit.framework.Assert.assertTrue;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.nuxeo.intranet.jenkins.http.JenkinsHttpClientComponent;
+import com.nuxeo.intranet.jenkins.http.JenkinsHttpClientService;
+import com.nuxeo.intranet.jenkins.web.JenkinsFetchMode;
+import com.nuxeo.intranet.jenkins.web.JenkinsJobsFetcher;
+import com.nuxeo.intranet.jenkins.web.JenkinsJobsRetriever;
+import com.nuxeo.intranet.jenkins.web.JenkinsJsonConverter;
+
+import net.sf.json.JSONObject;
+
+/**
+ * Refreshes a report against a {@link FakeJenkinsServer}, going through the HTTP client, and reports the refresh
+ * times and the number of requests sent.
+ * <p>
+ * Only a small functional check runs by default: load tests are enabled by system property "jenkins.load", set by the
+ * "bench" profile, and the load can be increased using system properties "jenkins.load.jobs" and
+ * "jenkins.load.refreshes".
+ *
+ * @since 3.10.5
+ */
+public class TestJenkinsRefreshLoad {
+
+    private static final Log log = LogFactory.getLog(TestJenkinsRefreshLoad.class);
+
+    protected static final boolean LOAD = Boolean.getBoolean("jenkins.load");
+
+    // without load tests, each job of the test listing once
+    protected static final int JOBS = Integer.getInteger("jenkins.load.jobs", LOAD ? 800 : 389).intValue();
+
+    protected static final int REFRESHES = Integer.getInteger("jenkins.load.refreshes", 5).intValue();
+
+    protected JenkinsHttpClientComponent component;
+
+    protected static class LoadFetcher extends JenkinsJobsFetcher {
+
+        private static final long serialVersionUID = 1L;
+
+        protected final JenkinsHttpClientService service;
+
+        public LoadFetcher(JenkinsHttpClientService service) {
+            this.service = service;
+        }
+
+        @Override
+        protected JenkinsHttpClientService getHttpClientService() {
+            return service;
+        }
+
+        public JSONObject retrieve(String url) {
+            return retrieveJSONObject(url);
+        }
+
+    }
+
+    @Before
+    public void startComponent() {
+        component = new JenkinsHttpClientComponent();
+        component.start(null);
+    }
+
+    @After
+    public void stopComponent() {
+        component.stop(null);
+    }
+
+    /**
+     * Refreshes a report the given number of times, each refresh starting from the data of the previous one, and
+     * returns the time taken by each refresh, in nanoseconds.
+     * <p>
+     * The report data after each refresh is added to given results, if any: the first refresh starts from the last
+     * results.
+     */
+    protected List<Long> refresh(FakeJenkinsServer server, JenkinsFetchMode mode, int refreshes,
+            List<List<Map<String, Serializable>>> results) throws Exception {
+        List<Long> times = new ArrayList<>();
+        List<Map<String, Serializable>> data = results == null || results.isEmpty() ? null
+                : results.get(results.size() - 1);
+        String jobsURL = JenkinsJobsRetriever.getJobsURL(server.getURL(), mode);
+        for (int i = 0; i < refreshes; i++) {
+            long start = System.nanoTime();
+            LoadFetcher fetcher = new LoadFetcher(component);
+            JenkinsJsonConverter cv = fetcher.newConverter(mode);
+            JSONObject listing = fetcher.retrieve(jobsURL);
+            assertNotNull(listing);
+            List<Map<String, Serializable>> converted = cv.convertJobs(listing, data, fetcher);
+            data = cv.mergeData(data, converted);
+            times.add(Long.valueOf(System.nanoTime() - start));
+            if (results != null) {
+                results.add(data);
+            }
+        }
+        return times;
+    }
+
+    /**
+     * Returns the value at given percentile of given times, using the nearest rank, in milliseconds.
+     */
+    protected static long getPercentile(List<Long> times, double percentile) {
+        List<Long> sorted = new ArrayList<>(times);
+        Collections.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100 * sorted.size());
+        return TimeUnit.NANOSECONDS.toMillis(sorted.get(Math.max(0, rank - 1)).longValue());
+    }
+
+    protected void report(String name, FakeJenkinsServer server, List<Long> times) {
+        log.info(String.format("%s: %s refreshes of %s jobs, p50 %s ms, p99 %s ms, %s requests %s", name,
+                times.size(), JOBS, getPercentile(times, 50), getPercentile(times, 99), server.getRequestCount(),
+                server.getCounts()));
+    }
+
+    @Test
+    public void testConvertedJobs() throws Exception {
+        for (JenkinsFetchMode mode : JenkinsFetchMode.values()) {
+            try (FakeJenkinsServer server = new FakeJenkinsServer().withJobs(JOBS).start()) {
+                List<List<Map<String, Serializable>>> results = new ArrayList<>();
+                refresh(server, mode, 1, results);
+                assertEquals(mode.name(), server.getFailingCount(), results.get(0).size());
+                assertEquals(1, server.getCount("listing"));
+                int builds = server.getCount("build") + server.getCount("run");
+                if (JenkinsFetchMode.TREE == mode) {
+                    // builds and runs are embedded in the jobs list
+                    assertEquals(0, builds);
+                } else {
+                    assertTrue(server.getCount("build") > 0);
+                    assertTrue(server.getCount("run") > 0);
+                }
+
+                server.resetCounts();
+                refresh(server, mode, 1, results);
+                assertEquals(mode.name(), server.getFailingCount(), results.get(1).size());
+                assertEquals(1, server.getCount("listing"));
+                // builds that did not change are not retrieved again
+                assertTrue(server.getCount("build") + server.getCount("run") <= builds);
+            }
+        }
+    }
+
+    @Test
+    public void testJobsModeLoad() throws Exception {
+        Assume.assumeTrue(LOAD);
+        try (FakeJenkinsServer server = newFaultyServer()) {
+            List<Long> times = refresh(server, JenkinsFetchMode.JOBS, REFRESHES, null);
+            report("JOBS mode", server, times);
+            assertEquals(REFRESHES, server.getCount("listing"));
+            assertTrue(server.getCount("build") > 0);
+            assertTrue(server.getCount("redirect") > 0);
+            assertFalse(server.getCount("error") + server.getCount("notFound") == 0);
+        }
+    }
+
+    @Test
+    public void testTreeModeLoad() throws Exception {
+        Assume.assumeTrue(LOAD);
+        try (FakeJenkinsServer server = newFaultyServer()) {
+            List<Long> times = refresh(server, JenkinsFetchMode.TREE, REFRESHES, null);
+            report("TREE mode", server, times);
+            assertEquals(REFRESHES, server.getCount("listing"));
+        }
+    }
+
+    protected FakeJenkinsServer newFaultyServer() throws Exception {
+        return new FakeJenkinsServer().withJobs(JOBS)
+                                      .withLatency(1, 10)
+                                      .withErrorRate(0.02)
+                                      .withNotFoundRate(0.02)
+                                      .withRedirectRate(0.05)
+                                      .withETags(true)
+                                      .start();
+    }
+
+}
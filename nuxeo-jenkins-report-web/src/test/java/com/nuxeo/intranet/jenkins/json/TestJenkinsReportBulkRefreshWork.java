@@ -0,0 +1,194 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.json;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertNotNull;
+import static junit.framework.Assert.assertTrue;
+
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.nuxeo.ecm.core.api.Blob;
+import org.nuxeo.ecm.core.api.Blobs;
+import org.nuxeo.ecm.core.api.CoreSession;
+import org.nuxeo.ecm.core.api.DocumentModel;
+import org.nuxeo.ecm.core.test.CoreFeature;
+import org.nuxeo.runtime.test.runner.Deploy;
+import org.nuxeo.runtime.test.runner.Features;
+import org.nuxeo.runtime.test.runner.FeaturesRunner;
+import org.nuxeo.runtime.transaction.TransactionHelper;
+
+import com.nuxeo.intranet.jenkins.http.JenkinsClusterCoordinator;
+import com.nuxeo.intranet.jenkins.service.JenkinsReportBulkRefreshWork;
+import com.nuxeo.intranet.jenkins.service.JenkinsReportRefreshWork;
+import com.nuxeo.intranet.jenkins.service.JenkinsReportService;
+import com.nuxeo.intranet.jenkins.web.JenkinsFetchMode;
+import com.nuxeo.intranet.jenkins.web.JenkinsJobStorage;
+import com.nuxeo.intranet.jenkins.web.JenkinsReportFields;
+
+/**
+ * Runs the bulk refresh of reports stored in a repository against a {@link FakeJenkinsServer}.
+ *
+ * @since 3.10.5
+ */
+@RunWith(FeaturesRunner.class)
+@Features(CoreFeature.class)
+@Deploy("org.nuxeo.runtime.kv")
+@Deploy("com.nuxeo.jenkins.report.web:OSGI-INF/jenkins-http-client-framework.xml")
+@Deploy("com.nuxeo.jenkins.report.web:OSGI-INF/jenkins-report-service-framework.xml")
+@Deploy("com.nuxeo.jenkins.report.web:OSGI-INF/jenkins-report-storage-contrib.xml")
+@Deploy("com.nuxeo.jenkins.report.web.tests:OSGI-INF/test-jenkins-report-types-contrib.xml")
+public class TestJenkinsReportBulkRefreshWork {
+
+    @Inject
+    protected CoreSession session;
+
+    @Inject
+    protected JenkinsReportService service;
+
+    protected FakeJenkinsServer server;
+
+    @Before
+    public void startServer() throws Exception {
+        server = new FakeJenkinsServer().start();
+    }
+
+    @After
+    public void stopServer() {
+        server.close();
+    }
+
+    protected DocumentModel createReport(String name) {
+        return session.createDocument(session.createDocumentModel("/", name, "JenkinsReport"));
+    }
+
+    /**
+     * Runs the work outside of the test transaction, as it manages its own transactions.
+     */
+    protected void refresh(Map<String, String> jenkinsURLs, int batchSize) {
+        session.save();
+        TransactionHelper.commitOrRollbackTransaction();
+        try {
+            new JenkinsReportBulkRefreshWork(session.getRepositoryName(), "test", jenkinsURLs, JenkinsFetchMode.JOBS,
+                    batchSize).work();
+        } finally {
+            TransactionHelper.startTransaction();
+        }
+    }
+
+    protected String getFeedback(DocumentModel report) {
+        return (String) session.getDocument(report.getRef()).getPropertyValue(
+                JenkinsReportFields.LAST_UPDATE_FEEDBACK_PROPERTY);
+    }
+
+    protected int getJobCount(DocumentModel report) {
+        return JenkinsJobStorage.getJobs(session.getDocument(report.getRef())).size();
+    }
+
+    @Test
+    public void testRefresh() throws Exception {
+        DocumentModel report1 = createReport("report1");
+        DocumentModel report2 = createReport("report2");
+        DocumentModel single = createReport("single");
+        try (FakeJenkinsServer other = new FakeJenkinsServer().start()) {
+            Map<String, String> jenkinsURLs = new LinkedHashMap<>();
+            jenkinsURLs.put(report1.getId(), server.getURL());
+            jenkinsURLs.put(report2.getId(), server.getURL());
+            jenkinsURLs.put(single.getId(), other.getURL());
+            refresh(jenkinsURLs, 2);
+
+            // the jobs list of each url is retrieved once
+            assertEquals(1, server.getCount("listing"));
+            assertEquals(1, other.getCount("listing"));
+        }
+        assertEquals(server.getFailingCount(), getJobCount(report1));
+        assertEquals(server.getFailingCount(), getJobCount(report2));
+        assertEquals(server.getFailingCount(), getJobCount(single));
+        // retrieval counts of a shared crawl are not presented as the ones of each report
+        String feedback = getFeedback(report1);
+        assertTrue(feedback, feedback.contains("Jenkins url crawled once for 2 reports:"));
+        assertTrue(feedback, feedback.indexOf("Jobs retrieved from Jenkins") < feedback.indexOf("crawled once"));
+        assertTrue(feedback, feedback.indexOf("crawled once") < feedback.indexOf("HTTP cache"));
+        feedback = getFeedback(single);
+        assertFalse(feedback, feedback.contains("crawled once"));
+        assertTrue(feedback, feedback.contains("HTTP cache"));
+    }
+
+    @Test
+    public void testReportBeingRefreshedWaited() throws Exception {
+        DocumentModel busy = createReport("busy");
+        DocumentModel report = createReport("report");
+        Map<String, String> jenkinsURLs = new LinkedHashMap<>();
+        jenkinsURLs.put(busy.getId(), server.getURL());
+        jenkinsURLs.put(report.getId(), server.getURL());
+        // held by a single refresh of the report, even without cluster coordination
+        JenkinsClusterCoordinator.Lease lease = service.getRefreshCoordinator().acquire(
+                JenkinsReportRefreshWork.getLeaseKey(session.getRepositoryName(), busy.getId()));
+        assertNotNull(lease);
+        assertTrue(service.isRefreshInProgress(session.getRepositoryName(), busy.getId()));
+        assertFalse(service.isRefreshInProgress(session.getRepositoryName(), report.getId()));
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+        try {
+            executor.schedule(lease::release, 500, TimeUnit.MILLISECONDS);
+            refresh(jenkinsURLs, 2);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // refreshed once released
+        assertEquals(server.getFailingCount(), getJobCount(busy));
+        assertEquals(server.getFailingCount(), getJobCount(report));
+        assertFalse(service.isRefreshInProgress(session.getRepositoryName(), busy.getId()));
+    }
+
+    @Test
+    public void testReportErrorIsolated() throws Exception {
+        DocumentModel broken = session.createDocumentModel("/", "broken", "JenkinsReport");
+        broken.addFacet(JenkinsJobStorage.BLOB_STORAGE_FACET);
+        broken.setPropertyValue(JenkinsJobStorage.JOBS_BLOB_PROPERTY, (Serializable) Blobs.createBlob("not gzipped"));
+        broken = session.createDocument(broken);
+        DocumentModel report = createReport("report");
+        Map<String, String> jenkinsURLs = new LinkedHashMap<>();
+        jenkinsURLs.put(broken.getId(), server.getURL());
+        jenkinsURLs.put(report.getId(), server.getURL());
+        refresh(jenkinsURLs, 2);
+
+        // other reports are refreshed
+        assertEquals(server.getFailingCount(), getJobCount(report));
+        assertTrue(getFeedback(report), getFeedback(report).contains("Jobs retrieved from Jenkins"));
+        // the error is stored on the report, left unchanged
+        String feedback = getFeedback(broken);
+        assertTrue(feedback, feedback.contains("Error while refreshing report: Cannot read jobs of report "));
+        Blob blob = (Blob) session.getDocument(broken.getRef()).getPropertyValue(JenkinsJobStorage.JOBS_BLOB_PROPERTY);
+        assertEquals("not gzipped", blob.getString());
+    }
+
+}
@@ -0,0 +1,140 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.json;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.nuxeo.ecm.core.api.CoreSession;
+import org.nuxeo.ecm.core.api.DocumentModel;
+import org.nuxeo.ecm.core.test.CoreFeature;
+import org.nuxeo.ecm.core.work.api.WorkManager;
+import org.nuxeo.runtime.test.runner.Deploy;
+import org.nuxeo.runtime.test.runner.Features;
+import org.nuxeo.runtime.test.runner.FeaturesRunner;
+import org.nuxeo.runtime.transaction.TransactionHelper;
+
+import com.nuxeo.intranet.jenkins.service.JenkinsReportRefreshWork;
+import com.nuxeo.intranet.jenkins.service.JenkinsReportService;
+import com.nuxeo.intranet.jenkins.web.JenkinsFetchMode;
+import com.nuxeo.intranet.jenkins.web.JenkinsJobStorage;
+import com.nuxeo.intranet.jenkins.web.JenkinsReportFields;
+
+/**
+ * Runs the background refresh of a report stored in a repository against a {@link FakeJenkinsServer}.
+ *
+ * @since 3.10.5
+ */
+@RunWith(FeaturesRunner.class)
+@Features(CoreFeature.class)
+@Deploy("org.nuxeo.runtime.kv")
+@Deploy("com.nuxeo.jenkins.report.web:OSGI-INF/jenkins-http-client-framework.xml")
+@Deploy("com.nuxeo.jenkins.report.web:OSGI-INF/jenkins-report-service-framework.xml")
+@Deploy("com.nuxeo.jenkins.report.web:OSGI-INF/jenkins-report-storage-contrib.xml")
+@Deploy("com.nuxeo.jenkins.report.web.tests:OSGI-INF/test-jenkins-report-types-contrib.xml")
+@Deploy("com.nuxeo.jenkins.report.web.tests:OSGI-INF/test-jenkins-report-refreshed-listener-contrib.xml")
+public class TestJenkinsReportRefreshWork {
+
+    @Inject
+    protected CoreSession session;
+
+    @Inject
+    protected JenkinsReportService service;
+
+    @Inject
+    protected WorkManager workManager;
+
+    protected FakeJenkinsServer server;
+
+    @Before
+    public void startServer() throws Exception {
+        CapturingRefreshedListener.clear();
+        server = new FakeJenkinsServer().start();
+    }
+
+    @After
+    public void stopServer() {
+        server.close();
+    }
+
+    /**
+     * Commits the test transaction, so that scheduled works start, and waits for their completion.
+     */
+    protected void awaitRefreshes() throws InterruptedException {
+        TransactionHelper.commitOrRollbackTransaction();
+        try {
+            assertTrue(workManager.awaitCompletion(20, TimeUnit.SECONDS));
+        } finally {
+            TransactionHelper.startTransaction();
+        }
+    }
+
+    protected DocumentModel createReport(String name) {
+        DocumentModel report = session.createDocument(session.createDocumentModel("/", name, "JenkinsReport"));
+        session.save();
+        return report;
+    }
+
+    @Test
+    public void testRefresh() throws Exception {
+        DocumentModel report = createReport("report");
+        String workId = service.scheduleRefresh(session.getRepositoryName(), report.getId(), server.getURL(),
+                JenkinsFetchMode.JOBS);
+        assertEquals(JenkinsReportRefreshWork.getWorkId(session.getRepositoryName(), report.getId()), workId);
+        awaitRefreshes();
+
+        assertFalse(service.isRefreshInProgress(session.getRepositoryName(), report.getId()));
+        report = session.getDocument(report.getRef());
+        assertEquals(server.getFailingCount(), JenkinsJobStorage.getJobs(report).size());
+        String feedback = (String) report.getPropertyValue(JenkinsReportFields.LAST_UPDATE_FEEDBACK_PROPERTY);
+        assertTrue(feedback, feedback.contains("Jobs retrieved from Jenkins"));
+        assertEquals(Collections.singletonList(report.getId()), CapturingRefreshedListener.getRefreshed());
+    }
+
+    @Test
+    public void testRefreshNotDuplicated() throws Exception {
+        DocumentModel report = createReport("report");
+        DocumentModel other = createReport("other");
+        server.withLatency(200, 200);
+        String repositoryName = session.getRepositoryName();
+        // scheduled after commit: the second refresh is dropped while the first one is scheduled or running
+        service.scheduleRefresh(repositoryName, report.getId(), server.getURL(), JenkinsFetchMode.JOBS);
+        service.scheduleRefresh(repositoryName, report.getId(), server.getURL(), JenkinsFetchMode.JOBS);
+        service.scheduleRefresh(repositoryName, other.getId(), server.getURL(), JenkinsFetchMode.JOBS);
+        awaitRefreshes();
+
+        // each report is refreshed once
+        assertEquals(2, CapturingRefreshedListener.getRefreshed().size());
+        assertTrue(CapturingRefreshedListener.getRefreshed().containsAll(Arrays.asList(report.getId(),
+                other.getId())));
+        assertEquals(server.getFailingCount(), JenkinsJobStorage.getJobs(session.getDocument(report.getRef())).size());
+    }
+
+}
@@ -0,0 +1,154 @@
+/*
+ * (C) Copyright 2026 Nuxeo SA (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     agent
+ */
+package com.nuxeo.intranet.jenkins.json;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertSame;
+import static junit.framework.Assert.assertTrue;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.nuxeo.intranet.jenkins.http.JenkinsSnapshot;
+import com.nuxeo.intranet.jenkins.http.JenkinsSnapshotCache;
+import com.nuxeo.intranet.jenkins.web.JenkinsJsonConverter;
+
+import net.sf.json.JSONObject;
+
+/**
+ * @since 3.10.5
+ */
+public class TestJenkinsSnapshotCache {
+
+    protected static final String KEY = "http://jenkins/view/all/api/json";
+
+    @Test
+    public void testConcurrentLoadsCoalesced() throws Exception {
+        JenkinsSnapshotCache cache = new JenkinsSnapshotCache(60000, 10);
+        JSONObject listing = FakeJenkinsJobsFetcher.load("jobs.json");
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<JenkinsSnapshot>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return cache.get(KEY, () -> {
+                        loads.incrementAndGet();
+                        try {
+                            Thread.sleep(200);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return new JenkinsSnapshot(listing);
+                    });
+                }));
+            }
+            start.countDown();
+            JenkinsSnapshot first = futures.get(0).get();
+            for (Future<JenkinsSnapshot> future : futures) {
+                assertSame(first, future.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testExpiration() throws Exception {
+        JenkinsSnapshotCache cache = new JenkinsSnapshotCache(100, 10);
+        JSONObject listing = FakeJenkinsJobsFetcher.load("jobs.json");
+        AtomicInteger loads = new AtomicInteger();
+        JenkinsSnapshotCache.Loader loader = () -> {
+            loads.incrementAndGet();
+            return new JenkinsSnapshot(listing);
+        };
+        JenkinsSnapshot snapshot = cache.get(KEY, loader);
+        assertSame(snapshot, cache.get(KEY, loader));
+        assertEquals(1, loads.get());
+        Thread.sleep(150);
+        assertTrue(snapshot != cache.get(KEY, loader));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testMissingListingNotCached() throws Exception {
+        JenkinsSnapshotCache cache = new JenkinsSnapshotCache(60000, 10);
+        JenkinsSnapshot snapshot = cache.get(KEY, () -> new JenkinsSnapshot(null));
+        assertNull(snapshot.getListing());
+        assertEquals(0, cache.size());
+        assertNull(cache.getFresh(KEY));
+    }
+
+    /**
+     * Checks that a second converter sharing the snapshot of a first one only retrieves jobs that could not be
+     * converted, and gives the same result.
+     */
+    @Test
+    public void testSharedJobs() throws Exception {
+        JSONObject listing = FakeJenkinsJobsFetcher.load("jobs.json");
+        JenkinsSnapshot snapshot = new JenkinsSnapshot(listing);
+
+        FakeJenkinsJobsFetcher fetcher = getJobsFetcher();
+        JenkinsJsonConverter cv = new JenkinsJsonConverter();
+        cv.setSnapshot(snapshot);
+        List<Map<String, Serializable>> expected = cv.convertJobs(listing, null, fetcher);
+        // 59 failing jobs, 9 runs
+        assertEquals(68, fetcher.getRequestedUrls().size());
+
+        fetcher = getJobsFetcher();
+        cv = new JenkinsJsonConverter();
+        cv.setSnapshot(snapshot);
+        List<Map<String, Serializable>> res = cv.convertJobs(listing, null, fetcher);
+        // only the job without status is retrieved again
+        assertEquals(1, fetcher.getRequestedUrls().size());
+        assertTrue(fetcher.getRequestedUrls().get(0).endsWith("/template_addon/lastCompletedBuild/api/json"));
+        assertEquals(expected, res);
+
+        // merging does not alter the snapshot
+        cv.mergeData(new ArrayList<Map<String, Serializable>>(), res);
+        for (Map<String, Serializable> job : res) {
+            job.put("comment", "changed");
+        }
+        cv = new JenkinsJsonConverter();
+        cv.setSnapshot(snapshot);
+        assertEquals(expected, cv.convertJobs(listing, null, getJobsFetcher()));
+    }
+
+    protected FakeJenkinsJobsFetcher getJobsFetcher() {
+        return new FakeJenkinsJobsFetcher().serve("/template_addon/lastCompletedBuild/api/json", null)
+                                           .serve("/FT-nuxeo-5.6.0-selenium-dm-tomcat-multiosdb/lastCompletedBuild/api/json",
+                                                   "multiosdb_build.json")
+                                           .serveByDefault("build.json");
+    }
+
+}